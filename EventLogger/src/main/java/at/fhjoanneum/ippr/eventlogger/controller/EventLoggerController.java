@@ -3,8 +3,7 @@ package at.fhjoanneum.ippr.eventlogger.controller;
 import at.fhjoanneum.ippr.commons.dto.eventlogger.EventLoggerDTO;
 import at.fhjoanneum.ippr.eventlogger.EventLoggerApplication;
 import at.fhjoanneum.ippr.eventlogger.helper.GenerateOWLPostBodyHelper;
-import at.fhjoanneum.ippr.eventlogger.persistence.EventLogEntry;
-import at.fhjoanneum.ippr.eventlogger.persistence.EventLogRepository;
+import at.fhjoanneum.ippr.eventlogger.services.EventLogIngestService;
 import at.fhjoanneum.ippr.eventlogger.services.EventLogService;
 import at.fhjoanneum.ippr.eventlogger.services.GenerateOWLService;
 import at.fhjoanneum.ippr.eventlogger.services.ManipulatePNMLService;
@@ -19,24 +18,30 @@ import org.supercsv.prefs.CsvPreference;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.xml.transform.stream.StreamResult;
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 public class EventLoggerController {
 
   private final static Logger LOG = LoggerFactory.getLogger(EventLoggerApplication.class);
 
-  @Autowired
-  private EventLogRepository eventLogRepository;
+  private final static String LAST_COMPLETION_HEADER = "X-Last-Completion";
 
   @Autowired
   private EventLogService eventLogService;
 
+  @Autowired
+  private EventLogIngestService eventLogIngestService;
+
   @Autowired
   private ManipulatePNMLService manipulatePNMLService;
 
@@ -45,20 +50,15 @@ public class EventLoggerController {
 
   @RequestMapping(value = "newevent", method = RequestMethod.POST)
   public String newEvent(@RequestBody final EventLoggerDTO eventLoggerDTO) {
-    final Long caseId = eventLoggerDTO.getCaseId();
-    final Long processModelId = eventLoggerDTO.getProcessModelId();
-    final String timestamp = eventLoggerDTO.getTimestamp();
-    final String activity = eventLoggerDTO.getActivity();
-    final String resource = eventLoggerDTO.getResource();
-    final String state = eventLoggerDTO.getState();
-    final String messageType = eventLoggerDTO.getMessageType();
-    final String recipient = eventLoggerDTO.getRecipient();
-    final String sender = eventLoggerDTO.getSender();
-
-    final EventLogEntry eventLogEntry = new EventLogEntry(caseId, processModelId, timestamp,
-        activity, resource, state, messageType, recipient, sender);
-    eventLogRepository.save(eventLogEntry);
-    return eventLogEntry.toString();
+    return eventLogIngestService.store(eventLoggerDTO).toString();
+  }
+
+  /**
+   * Accepts a JSON array or a newline delimited JSON stream of events
+   */
+  @RequestMapping(value = "newevents", method = RequestMethod.POST)
+  public int newEvents(final HttpServletRequest request) throws IOException {
+    return eventLogIngestService.ingest(request.getInputStream());
   }
 
   @RequestMapping(value = "eventlog/{processModelId}/{subject}", method = RequestMethod.GET)
@@ -69,20 +69,46 @@ public class EventLoggerController {
         .get();
   }
 
+  /**
+   * Events with epoch millis in [from, to)
+   */
+  @RequestMapping(value = "events/model/{processModelId}", method = RequestMethod.GET)
+  public List<EventLoggerDTO> getEventLogForProcessModelBetween(
+      @PathVariable("processModelId") final int processModelId,
+      @RequestParam(value = "from", defaultValue = "0") final long from,
+      @RequestParam(value = "to", defaultValue = "" + Long.MAX_VALUE) final long to) {
+    return eventLogService.getEventLogForProcessModelBetween(processModelId, from, to);
+  }
+
+  @RequestMapping(value = "events/model/{processModelId}/{subject}", method = RequestMethod.GET)
+  public List<EventLoggerDTO> getEventLogForProcessModelAndSubjectBetween(
+      @PathVariable("processModelId") final int processModelId,
+      @PathVariable("subject") final String subject,
+      @RequestParam(value = "from", defaultValue = "0") final long from,
+      @RequestParam(value = "to", defaultValue = "" + Long.MAX_VALUE) final long to) {
+    return eventLogService.getEventLogForProcessModelAndSubjectBetween(processModelId, subject,
+        from, to);
+  }
+
+  @RequestMapping(value = "events/case/{caseId}", method = RequestMethod.GET)
+  public List<EventLoggerDTO> getEventLogForCaseBetween(@PathVariable("caseId") final long caseId,
+      @RequestParam(value = "from", defaultValue = "0") final long from,
+      @RequestParam(value = "to", defaultValue = "" + Long.MAX_VALUE) final long to) {
+    return eventLogService.getEventLogForCaseBetween(caseId, from, to);
+  }
+
   @RequestMapping(value = "eventlogCSV/{processModelId}/{subject}", method = RequestMethod.GET)
   public @ResponseBody void getEventLogCSV(final HttpServletRequest request,
       @PathVariable("processModelId") final int processModelId,
-      @PathVariable("subject") final String subject, final HttpServletResponse response)
-      throws IOException {
-    List<EventLoggerDTO> events;
-
+      @PathVariable("subject") final String subject,
+      @RequestParam(value = "afterCompletion", defaultValue = "0") final long afterCompletion,
+      @RequestParam(value = "gzip", defaultValue = "false") final boolean gzip,
+      final HttpServletResponse response) throws IOException {
     try {
-      events = eventLogService.getEventLogForProcessModelAndSubject(processModelId, subject).get();
-      this.downloadCSV(response, events, processModelId, subject);
+      this.downloadCSV(response, processModelId, subject, afterCompletion, gzip);
     } catch (final Exception e) {
       e.printStackTrace();
     }
-
   }
 
   @RequestMapping(value = "manipulatePNML", method = RequestMethod.POST)
@@ -91,10 +117,26 @@ public class EventLoggerController {
     final String pnmlContent = fileContents.get("pnmlContent");
     final String csvLog = fileContents.get("csvLog");
     try {
-      final StreamResult result = manipulatePNMLService.manipulatePNML(pnmlContent, csvLog);
-      downloadXML(response, result);
+      manipulatePNMLService.manipulatePNML(pnmlContent, csvLog, downloadXML(response));
+      response.flushBuffer();
     } catch (final Exception e) {
-      response.sendError(400, e.getMessage());
+      sendXMLError(response, e);
+    }
+  }
+
+  @RequestMapping(value = "manipulatePNML/{processModelId}/{subject}",
+      method = RequestMethod.POST)
+  public @ResponseBody void manipulatePNML(@RequestBody final Map<String, String> fileContents,
+      @PathVariable("processModelId") final int processModelId,
+      @PathVariable("subject") final String subject, final HttpServletRequest request,
+      final HttpServletResponse response) throws IOException {
+    final String pnmlContent = fileContents.get("pnmlContent");
+    try {
+      manipulatePNMLService.manipulatePNML(pnmlContent, processModelId, subject,
+          downloadXML(response));
+      response.flushBuffer();
+    } catch (final Exception e) {
+      sendXMLError(response, e);
     }
   }
 
@@ -102,53 +144,81 @@ public class EventLoggerController {
   public @ResponseBody void generateOWL(@RequestBody final GenerateOWLPostBodyHelper requestBody,
                                         final HttpServletRequest request, final HttpServletResponse response) throws IOException {
     try {
-      final StreamResult result = generateOWLService.generateOWL(requestBody.getProcessModelName(), requestBody.getPnmlFiles());
-      downloadXML(response, result);
+      generateOWLService.generateOWL(requestBody.getProcessModelName(), requestBody.getPnmlFiles(), downloadXML(response));
+      response.flushBuffer();
     } catch (final Exception e) {
-      response.sendError(400, e.getMessage());
+      sendXMLError(response, e);
     }
   }
 
-  private void downloadXML(final HttpServletResponse response, final StreamResult result)
-          throws IOException {
+  /**
+   * @return the output stream the XML is written to without buffering the whole document
+   */
+  private OutputStream downloadXML(final HttpServletResponse response) throws IOException {
     response.setContentType("application/xml");
-
-    final byte[] res = result.getWriter().toString().getBytes(Charset.forName("UTF-8"));
-
     response.setCharacterEncoding("UTF-8");
-    response.getOutputStream().write(res);
-    response.flushBuffer();
+    return response.getOutputStream();
   }
 
-  private void downloadCSV(final HttpServletResponse response, final List<EventLoggerDTO> events,
-      final int processModelId, final String subject) throws IOException {
+  private void sendXMLError(final HttpServletResponse response, final Exception e)
+      throws IOException {
+    if (response.isCommitted()) {
+      // parts of the XML are already sent, the status cannot be changed anymore
+      LOG.error("Exception while sending XML: {}", e.getMessage());
+      return;
+    }
+    response.reset();
+    response.sendError(400, e.getMessage());
+  }
+
+  private void downloadCSV(final HttpServletResponse response, final int processModelId,
+      final String subject, final long afterCompletion, final boolean gzip) throws IOException {
     final String date = DateTime.now().toString("ddMMyyyy-HHmm");
     final String csvFileName = "Eventlog_" + processModelId + "_" + subject + "_" + date + ".csv";
 
     response.setContentType("text/csv");
+    response.setCharacterEncoding("UTF-8");
 
     final String headerKey = "Content-Disposition";
     final String headerValue = String.format("attachment; filename=\"%s\"", csvFileName);
     response.setHeader(headerKey, headerValue);
 
+    // cases are exported once they are complete, the header is the afterCompletion of the next
+    // incremental export
+    final long untilCompletion = eventLogService.getLastCaseCompletion();
+    response.setHeader(LAST_COMPLETION_HEADER, String.valueOf(untilCompletion));
+
+    // no content length is set, therefore the rows are sent with chunked transfer encoding
+    final Writer writer;
+    if (gzip) {
+      response.setHeader("Content-Encoding", "gzip");
+      writer = new OutputStreamWriter(new GZIPOutputStream(response.getOutputStream()),
+          StandardCharsets.UTF_8);
+    } else {
+      writer = response.getWriter();
+    }
+
     // uses the Super CSV API to generate CSV data from the model data
     final ICsvBeanWriter csvWriter =
-        new CsvBeanWriter(response.getWriter(), CsvPreference.EXCEL_NORTH_EUROPE_PREFERENCE);
+        new CsvBeanWriter(writer, CsvPreference.EXCEL_NORTH_EUROPE_PREFERENCE);
 
     final String[] header =
         {"EventId", "CaseId", "Timestamp", "Activity", "Resource", "State", "MessageType", "Recipient", "Sender"};
 
-    csvWriter.writeHeader(header);
-    events.forEach(event -> {
-      try {
-        if (!event.getResource().isEmpty()) {
-          csvWriter.write(event, header);
-        }
-      } catch (IOException e) {
-        e.printStackTrace();
-      }
-    });
-
-    csvWriter.close();
+    try {
+      csvWriter.writeHeader(header);
+      eventLogService.streamEventLogForProcessModelAndSubject(processModelId, subject,
+          afterCompletion, untilCompletion, event -> {
+            try {
+              if (!event.getResource().isEmpty()) {
+                csvWriter.write(event, header);
+              }
+            } catch (final IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } finally {
+      csvWriter.close();
+    }
   }
 }
@@ -0,0 +1,41 @@
+package at.fhjoanneum.ippr.eventlogger.helper;
+
+import at.fhjoanneum.ippr.commons.dto.eventlogger.EventLoggerDTO;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+public final class EventTimestamp {
+
+  // format of the timestamp string which is kept for backward compatibility
+  public static final String PATTERN = "dd.MM.yyyy HH:mm";
+
+  private static final DateTimeFormatter FORMATTER = DateTimeFormat.forPattern(PATTERN);
+
+  private EventTimestamp() {}
+
+  /**
+   * @return the epoch millis of the event, parsed from its timestamp string if they are not set,
+   *         or null if the timestamp cannot be parsed
+   */
+  public static Long toEpochMillis(final EventLoggerDTO event) {
+    if (event.getEpochMillis() != null) {
+      return event.getEpochMillis();
+    }
+    return toEpochMillis(event.getTimestamp());
+  }
+
+  /**
+   * @return the epoch millis of the timestamp string in the default time zone of the JVM, or null
+   *         if it cannot be parsed
+   */
+  public static Long toEpochMillis(final String timestamp) {
+    if (timestamp == null || timestamp.isEmpty()) {
+      return null;
+    }
+    try {
+      return FORMATTER.parseMillis(timestamp);
+    } catch (final IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
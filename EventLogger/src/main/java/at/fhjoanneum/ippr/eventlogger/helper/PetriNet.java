@@ -0,0 +1,141 @@
+package at.fhjoanneum.ippr.eventlogger.helper;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Transitions, places and arcs of one PNML net, collected from the StAX events between the start
+ * and the end element of the net
+ */
+public class PetriNet {
+
+  private static final QName ID = new QName("id");
+
+  private final HashMap<String, String> transitions = new HashMap<>();
+  private final HashSet<String> placeIds = new HashSet<>();
+  private final HashMap<String, List<Message>> placeIdToMessagesMap = new HashMap<>();
+  private final HashMap<String, Arc> arcIdMap = new HashMap<>();
+
+  private int depth;
+
+  private String transitionId;
+  private boolean transitionNameSeen;
+  private int transitionNameDepth;
+  private StringBuilder transitionName;
+  private boolean transitionTextSeen;
+  private int transitionTextDepth;
+
+  private String placeId;
+  private boolean toolspecificSeen;
+
+  /**
+   * @param event the start element of the net and all following events
+   * @return false if the event is the end element of the net
+   */
+  public boolean accept(final XMLEvent event) {
+    if (event.isStartElement()) {
+      depth++;
+      startElement(event.asStartElement());
+    } else if (event.isEndElement()) {
+      endElement(event.asEndElement().getName().getLocalPart());
+      depth--;
+    } else if (event.isCharacters() && transitionName != null) {
+      transitionName.append(event.asCharacters().getData());
+    }
+    return depth > 0;
+  }
+
+  private void startElement(final StartElement element) {
+    final String name = element.getName().getLocalPart();
+    if (transitionId != null) {
+      // the text of the first name element is the name of the transition
+      if (!transitionNameSeen && name.equals("name")) {
+        transitionNameSeen = true;
+        transitionNameDepth = depth;
+      } else if (transitionNameDepth > 0 && !transitionTextSeen && name.equals("text")) {
+        transitionTextSeen = true;
+        transitionTextDepth = depth;
+        transitionName = new StringBuilder();
+      }
+    } else if (placeId != null) {
+      if (!toolspecificSeen && name.equals("toolspecific")) {
+        toolspecificSeen = true;
+        addMessage(element);
+      }
+    } else if (name.equals("transition")) {
+      transitionId = getAttribute(element, ID);
+    } else if (name.equals("place")) {
+      placeId = getAttribute(element, ID);
+      placeIds.add(placeId);
+    } else if (name.equals("arc")) {
+      final String id = getAttribute(element, ID);
+      arcIdMap.put(id, new Arc(id, getAttribute(element, new QName("source")),
+          getAttribute(element, new QName("target"))));
+    }
+  }
+
+  private void endElement(final String name) {
+    if (transitionName != null && depth == transitionTextDepth) {
+      transitions.put(transitionName.toString(), transitionId);
+      transitionName = null;
+      transitionTextDepth = 0;
+    } else if (transitionNameDepth > 0 && depth == transitionNameDepth) {
+      transitionNameDepth = 0;
+    } else if (transitionId != null && name.equals("transition")) {
+      transitionId = null;
+      transitionNameSeen = false;
+      transitionTextSeen = false;
+    } else if (placeId != null && name.equals("place")) {
+      placeId = null;
+      toolspecificSeen = false;
+    }
+  }
+
+  private void addMessage(final StartElement toolspecific) {
+    if (!"SBPM".equals(getAttribute(toolspecific, new QName("tool")))) {
+      return;
+    }
+    final String type = getAttribute(toolspecific, new QName("type"));
+    final Message message = new Message(getAttribute(toolspecific, new QName("message")),
+        getAttribute(toolspecific, new QName("recipient")),
+        getAttribute(toolspecific, new QName("sender")), placeId);
+
+    // messages which are received are assigned to the transition receiving them
+    final String id =
+        "receive".equals(type) ? getAttribute(toolspecific, new QName("actualTargetId")) : placeId;
+    placeIdToMessagesMap.computeIfAbsent(id, key -> new ArrayList<>()).add(message);
+  }
+
+  private static String getAttribute(final StartElement element, final QName name) {
+    final Attribute attribute = element.getAttributeByName(name);
+    return attribute != null ? attribute.getValue() : null;
+  }
+
+  /**
+   * @return transition name -> transition id
+   */
+  public HashMap<String, String> getTransitions() {
+    return transitions;
+  }
+
+  public HashSet<String> getPlaceIds() {
+    return placeIds;
+  }
+
+  /**
+   * @return message place id, or transition id for received messages -> messages
+   */
+  public HashMap<String, List<Message>> getPlaceIdToMessagesMap() {
+    return placeIdToMessagesMap;
+  }
+
+  public HashMap<String, Arc> getArcIdMap() {
+    return arcIdMap;
+  }
+}
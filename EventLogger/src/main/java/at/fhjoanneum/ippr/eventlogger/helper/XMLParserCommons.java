@@ -1,33 +1,73 @@
 package at.fhjoanneum.ippr.eventlogger.helper;
 
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
-import java.util.HashMap;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.stream.events.XMLEvent;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Created by Matthias on 11.08.2017.
+ * <p>
+ * The StAX factories are looked up once, they are thread-safe after they have been configured.
  */
 public class XMLParserCommons {
 
-    public static HashMap<String, String> getTransitionNameIdMap(final Element net) {
-        final HashMap<String, String> transitions = new HashMap<>();
-        final NodeList transitionNodes = net.getElementsByTagName("transition");
-        for (int i = 0; i < transitionNodes.getLength(); i++) {
-            final Element transitionNode = (Element) transitionNodes.item(i);
-            final String id = transitionNode.getAttributes().getNamedItem("id").getNodeValue();
-            final NodeList nameNodes = transitionNode.getElementsByTagName("name");
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+    private static final XMLEventFactory EVENT_FACTORY = XMLEventFactory.newInstance();
+
+    private static XMLInputFactory createInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
 
-            if (nameNodes.getLength() > 0) {
-                final Node nameNode = nameNodes.item(0);
-                final String name = ((Element)nameNode).getElementsByTagName("text").item(0).getTextContent();
+    public static XMLEventReader createEventReader(final String content) throws XMLStreamException {
+        return INPUT_FACTORY.createXMLEventReader(new StringReader(content));
+    }
 
-                transitions.put(name, id);
+    public static XMLEventWriter createEventWriter(final OutputStream outputStream) throws XMLStreamException {
+        return OUTPUT_FACTORY.createXMLEventWriter(outputStream, StandardCharsets.UTF_8.name());
+    }
+
+    public static XMLStreamWriter createStreamWriter(final OutputStream outputStream) throws XMLStreamException {
+        return OUTPUT_FACTORY.createXMLStreamWriter(outputStream, StandardCharsets.UTF_8.name());
+    }
+
+    public static XMLEventFactory getEventFactory() {
+        return EVENT_FACTORY;
+    }
+
+    public static boolean isNetStart(final XMLEvent event) {
+        return event.isStartElement() && event.asStartElement().getName().getLocalPart().equals("net");
+    }
+
+    /**
+     * Reads the next net of the PNML, so only one net is held in memory at a time
+     *
+     * @return the net or null if there are no more nets
+     */
+    public static PetriNet nextNet(final XMLEventReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            final XMLEvent event = reader.nextEvent();
+            if (isNetStart(event)) {
+                final PetriNet net = new PetriNet();
+                XMLEvent netEvent = event;
+                while (net.accept(netEvent)) {
+                    netEvent = reader.nextEvent();
+                }
+                return net;
             }
         }
-
-        return transitions;
+        return null;
     }
 
 }
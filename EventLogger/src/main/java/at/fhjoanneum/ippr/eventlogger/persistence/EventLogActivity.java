@@ -0,0 +1,92 @@
+package at.fhjoanneum.ippr.eventlogger.persistence;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Distinct (activity, state, message type, recipient, sender) quintuplet of a subject, in the
+ * order of its first occurrence
+ */
+@Entity(name = "EVENT_LOG_ACTIVITY")
+@Table(
+    uniqueConstraints = @UniqueConstraint(name = "uk_event_log_activity",
+        columnNames = {"processModelId", "keyHash"}),
+    indexes = @Index(name = "idx_event_log_activity_subject",
+        columnList = "processModelId,resource"))
+public class EventLogActivity implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.AUTO)
+  private Long activityId;
+
+  @Column
+  private Long processModelId;
+
+  @Column
+  private String resource;
+
+  @Column
+  private String activity;
+
+  @Column
+  private String state;
+
+  @Column
+  private String messageType;
+
+  @Column
+  private String recipient;
+
+  @Column
+  private String sender;
+
+  @Column(length = 40)
+  private String keyHash;
+
+  @Column
+  private long frequency;
+
+  public EventLogActivity() {}
+
+  public Long getActivityId() {
+    return activityId;
+  }
+
+  public Long getProcessModelId() {
+    return processModelId;
+  }
+
+  public String getResource() {
+    return resource;
+  }
+
+  public String getActivity() {
+    return activity;
+  }
+
+  public String getState() {
+    return state;
+  }
+
+  public String getMessageType() {
+    return messageType;
+  }
+
+  public String getRecipient() {
+    return recipient;
+  }
+
+  public String getSender() {
+    return sender;
+  }
+
+  public String getKeyHash() {
+    return keyHash;
+  }
+
+  public long getFrequency() {
+    return frequency;
+  }
+}
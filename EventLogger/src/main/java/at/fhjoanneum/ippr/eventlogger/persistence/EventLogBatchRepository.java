@@ -0,0 +1,62 @@
+package at.fhjoanneum.ippr.eventlogger.persistence;
+
+import at.fhjoanneum.ippr.commons.dto.eventlogger.EventLoggerDTO;
+
+import java.util.List;
+
+public interface EventLogBatchRepository {
+
+  /**
+   * Inserts the events with one JDBC batch
+   *
+   * @return the amount of inserted events
+   */
+  int insert(List<EventLoggerDTO> events);
+
+  /**
+   * Updates the case summaries of the contained "Process Start" and "Process End" events and
+   * records the completion of cases which are complete afterwards
+   */
+  void updateCases(List<EventLoggerDTO> events);
+
+  /**
+   * Creates the case summaries from the stored events if there are none yet
+   *
+   * @return the amount of created case summaries
+   */
+  int initializeCases();
+
+  /**
+   * Records the completion of complete cases if no completions are recorded yet
+   *
+   * @return the amount of recorded completions
+   */
+  int initializeCaseCompletions();
+
+  /**
+   * @return the ID of the last recorded case completion, or 0 if there is none
+   */
+  long getLastCaseCompletion();
+
+  /**
+   * Sets the epoch millis of events which were stored with the timestamp string only, parsed like
+   * the timestamps of ingested events
+   *
+   * @return the amount of updated events
+   */
+  int initializeEpochMillis(int pageSize);
+
+  Long getMinEpochMillis();
+
+  /**
+   * Creates the archive table with the structure of event_log, if it does not exist yet
+   */
+  void createArchive(String table);
+
+  /**
+   * Moves the events with epoch millis in [from, to) into the archive table
+   *
+   * @return the amount of archived events
+   */
+  int archive(String table, long from, long to);
+}
@@ -0,0 +1,210 @@
+package at.fhjoanneum.ippr.eventlogger.persistence;
+
+import at.fhjoanneum.ippr.commons.dto.eventlogger.EventLoggerDTO;
+import at.fhjoanneum.ippr.eventlogger.helper.EventTimestamp;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Repository
+public class EventLogBatchRepositoryImpl implements EventLogBatchRepository {
+
+  // event_id is an auto increment column, MySQL allocates the ids of a batch at once when
+  // the batch is rewritten to a multi row insert (rewriteBatchedStatements)
+  private static final String INSERT_EVENT =
+      "INSERT INTO event_log (case_id, process_model_id, timestamp, epoch_millis, activity, "
+          + "resource, state, message_type, recipient, sender) "
+          + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String PROCESS_START = "Process Start";
+  private static final String PROCESS_END = "Process End";
+
+  // events may arrive out of order, therefore a case is complete as soon as both are set
+  private static final String UPDATE_CASE_STARTED =
+      "INSERT INTO event_log_case (case_id, process_model_id, started_at, complete) "
+          + "VALUES (?, ?, ?, false) ON DUPLICATE KEY UPDATE started_at = VALUES(started_at), "
+          + "complete = ended_at IS NOT NULL";
+
+  private static final String UPDATE_CASE_ENDED =
+      "INSERT INTO event_log_case (case_id, process_model_id, ended_at, complete) "
+          + "VALUES (?, ?, ?, false) ON DUPLICATE KEY UPDATE ended_at = VALUES(ended_at), "
+          + "complete = started_at IS NOT NULL";
+
+  // the unique case_id ignores cases which are already complete
+  private static final String COMPLETE_CASE =
+      "INSERT IGNORE INTO event_log_case_completion (case_id) "
+          + "SELECT case_id FROM event_log_case WHERE case_id = ? AND complete = true";
+
+  private static final String COUNT_CASES = "SELECT COUNT(*) FROM event_log_case";
+
+  private static final String COUNT_CASE_COMPLETIONS =
+      "SELECT COUNT(*) FROM event_log_case_completion";
+
+  private static final String INITIALIZE_CASE_COMPLETIONS =
+      "INSERT IGNORE INTO event_log_case_completion (case_id) "
+          + "SELECT case_id FROM event_log_case WHERE complete = true ORDER BY case_id";
+
+  private static final String LAST_CASE_COMPLETION =
+      "SELECT COALESCE(MAX(completion_id), 0) FROM event_log_case_completion";
+
+  // the timestamp of the latest marker by epoch millis, the timestamp string does not sort
+  private static final String LATEST_MARKER_TIMESTAMP =
+      "(SELECT m.timestamp FROM event_log m WHERE m.case_id = c.case_id AND m.activity = ? "
+          + "AND m.message_type = '' AND m.resource = '' AND m.state = '' "
+          + "ORDER BY m.epoch_millis DESC, m.event_id DESC LIMIT 1)";
+
+  private static final String INITIALIZE_CASES =
+      "INSERT INTO event_log_case (case_id, process_model_id, started_at, ended_at, complete) "
+          + "SELECT c.case_id, c.process_model_id, " + LATEST_MARKER_TIMESTAMP + ", "
+          + LATEST_MARKER_TIMESTAMP + ", c.started > 0 AND c.ended > 0 "
+          + "FROM (SELECT case_id, MAX(process_model_id) process_model_id, "
+          + "SUM(CASE WHEN activity = 'Process Start' THEN 1 ELSE 0 END) started, "
+          + "SUM(CASE WHEN activity = 'Process End' THEN 1 ELSE 0 END) ended "
+          + "FROM event_log WHERE activity IN ('Process Start', 'Process End') "
+          + "AND message_type = '' AND resource = '' AND state = '' GROUP BY case_id) c";
+
+  private static final String SELECT_EVENTS_WITHOUT_EPOCH_MILLIS =
+      "SELECT event_id, timestamp FROM event_log "
+          + "WHERE event_id > ? AND epoch_millis IS NULL AND timestamp IS NOT NULL "
+          + "ORDER BY event_id LIMIT ?";
+
+  private static final String UPDATE_EPOCH_MILLIS =
+      "UPDATE event_log SET epoch_millis = ? WHERE event_id = ?";
+
+  private static final String MIN_EPOCH_MILLIS = "SELECT MIN(epoch_millis) FROM event_log";
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Override
+  public int insert(final List<EventLoggerDTO> events) {
+    if (events.isEmpty()) {
+      return 0;
+    }
+    jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (ps, event) -> {
+      ps.setObject(1, event.getCaseId());
+      ps.setObject(2, event.getProcessModelId());
+      ps.setString(3, event.getTimestamp());
+      ps.setObject(4, EventTimestamp.toEpochMillis(event));
+      ps.setString(5, event.getActivity());
+      ps.setString(6, event.getResource());
+      ps.setString(7, event.getState());
+      ps.setString(8, event.getMessageType());
+      ps.setString(9, event.getRecipient());
+      ps.setString(10, event.getSender());
+    });
+    return events.size();
+  }
+
+  @Override
+  public void updateCases(final List<EventLoggerDTO> events) {
+    updateCases(events, PROCESS_START, UPDATE_CASE_STARTED);
+    updateCases(events, PROCESS_END, UPDATE_CASE_ENDED);
+
+    final List<Long> caseIds = events.stream().filter(EventLogBatchRepositoryImpl::isCaseMarker)
+        .map(EventLoggerDTO::getCaseId).distinct().collect(Collectors.toList());
+    if (!caseIds.isEmpty()) {
+      jdbcTemplate.batchUpdate(COMPLETE_CASE, caseIds, caseIds.size(),
+          (ps, caseId) -> ps.setObject(1, caseId));
+    }
+  }
+
+  private void updateCases(final List<EventLoggerDTO> events, final String activity,
+      final String sql) {
+    final List<EventLoggerDTO> markers = events.stream()
+        .filter(event -> activity.equals(event.getActivity()) && isCaseMarker(event))
+        .collect(Collectors.toList());
+    if (markers.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(sql, markers, markers.size(), (ps, event) -> {
+      ps.setObject(1, event.getCaseId());
+      ps.setObject(2, event.getProcessModelId());
+      ps.setString(3, event.getTimestamp());
+    });
+  }
+
+  @Override
+  public int initializeCases() {
+    if (jdbcTemplate.queryForObject(COUNT_CASES, Long.class) > 0) {
+      return 0;
+    }
+    return jdbcTemplate.update(INITIALIZE_CASES, PROCESS_START, PROCESS_END);
+  }
+
+  @Override
+  public int initializeCaseCompletions() {
+    if (jdbcTemplate.queryForObject(COUNT_CASE_COMPLETIONS, Long.class) > 0) {
+      return 0;
+    }
+    return jdbcTemplate.update(INITIALIZE_CASE_COMPLETIONS);
+  }
+
+  @Override
+  public long getLastCaseCompletion() {
+    return jdbcTemplate.queryForObject(LAST_CASE_COMPLETION, Long.class);
+  }
+
+  @Override
+  public int initializeEpochMillis(final int pageSize) {
+    int amount = 0;
+    long afterEventId = 0;
+    List<Map.Entry<Long, String>> page;
+    do {
+      page = jdbcTemplate.query(SELECT_EVENTS_WITHOUT_EPOCH_MILLIS,
+          (rs, rowNum) -> new SimpleImmutableEntry<>(rs.getLong("event_id"),
+              rs.getString("timestamp")),
+          afterEventId, pageSize);
+
+      // unparsable timestamps stay without epoch millis, the page continues after them
+      final List<Object[]> updates = page.stream()
+          .map(event -> new Object[] {EventTimestamp.toEpochMillis(event.getValue()),
+              event.getKey()})
+          .filter(update -> update[0] != null).collect(Collectors.toList());
+      if (!updates.isEmpty()) {
+        jdbcTemplate.batchUpdate(UPDATE_EPOCH_MILLIS, updates);
+      }
+      amount += updates.size();
+      if (!page.isEmpty()) {
+        afterEventId = page.get(page.size() - 1).getKey();
+      }
+    } while (page.size() == pageSize);
+    return amount;
+  }
+
+  @Override
+  public Long getMinEpochMillis() {
+    return jdbcTemplate.queryForObject(MIN_EPOCH_MILLIS, Long.class);
+  }
+
+  @Transactional
+  @Override
+  public int archive(final String table, final long from, final long to) {
+    final int archived = jdbcTemplate.update("INSERT IGNORE INTO " + table
+        + " SELECT * FROM event_log WHERE epoch_millis >= ? AND epoch_millis < ?", from, to);
+    jdbcTemplate.update("DELETE FROM event_log WHERE epoch_millis >= ? AND epoch_millis < ?",
+        from, to);
+    return archived;
+  }
+
+  @Override
+  public void createArchive(final String table) {
+    jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + " LIKE event_log");
+  }
+
+  private static boolean isCaseMarker(final EventLoggerDTO event) {
+    return (PROCESS_START.equals(event.getActivity()) || PROCESS_END.equals(event.getActivity()))
+        && isEmpty(event.getResource()) && isEmpty(event.getState())
+        && isEmpty(event.getMessageType());
+  }
+
+  private static boolean isEmpty(final String value) {
+    return value == null || value.isEmpty();
+  }
+}
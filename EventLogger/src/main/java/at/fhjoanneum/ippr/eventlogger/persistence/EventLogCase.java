@@ -0,0 +1,52 @@
+package at.fhjoanneum.ippr.eventlogger.persistence;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.io.Serializable;
+
+/**
+ * Summary of a case, maintained on ingest of its "Process Start" and "Process End" events
+ */
+@Entity(name = "EVENT_LOG_CASE")
+public class EventLogCase implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @Id
+  private Long caseId;
+
+  @Column
+  private Long processModelId;
+
+  @Column
+  private String startedAt;
+
+  @Column
+  private String endedAt;
+
+  @Column
+  private boolean complete;
+
+  public EventLogCase() {}
+
+  public Long getCaseId() {
+    return caseId;
+  }
+
+  public Long getProcessModelId() {
+    return processModelId;
+  }
+
+  public String getStartedAt() {
+    return startedAt;
+  }
+
+  public String getEndedAt() {
+    return endedAt;
+  }
+
+  public boolean isComplete() {
+    return complete;
+  }
+}
@@ -0,0 +1,33 @@
+package at.fhjoanneum.ippr.eventlogger.persistence;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Order in which cases became complete, the cursor of incremental exports. Cases are completed by
+ * their last "Process Start" or "Process End" event, which may arrive after their other events.
+ */
+@Entity(name = "EVENT_LOG_CASE_COMPLETION")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_event_log_case_completion",
+    columnNames = {"caseId"}))
+public class EventLogCaseCompletion implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long completionId;
+
+  @Column
+  private Long caseId;
+
+  public EventLogCaseCompletion() {}
+
+  public Long getCompletionId() {
+    return completionId;
+  }
+
+  public Long getCaseId() {
+    return caseId;
+  }
+}
@@ -0,0 +1,70 @@
+package at.fhjoanneum.ippr.eventlogger.persistence;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Directly-follows relation between two activities of a subject within the same case
+ */
+@Entity(name = "EVENT_LOG_DFG_EDGE")
+@Table(
+    uniqueConstraints = @UniqueConstraint(name = "uk_event_log_dfg_edge",
+        columnNames = {"processModelId", "sourceHash", "targetHash"}),
+    indexes = @Index(name = "idx_event_log_dfg_edge_subject",
+        columnList = "processModelId,resource"))
+public class EventLogDfgEdge implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.AUTO)
+  private Long edgeId;
+
+  @Column
+  private Long processModelId;
+
+  @Column
+  private String resource;
+
+  @Column(length = 40)
+  private String sourceHash;
+
+  @Column(length = 40)
+  private String targetHash;
+
+  @Column
+  private long frequency;
+
+  @Column
+  private Long lastSeenAt;
+
+  public EventLogDfgEdge() {}
+
+  public Long getEdgeId() {
+    return edgeId;
+  }
+
+  public Long getProcessModelId() {
+    return processModelId;
+  }
+
+  public String getResource() {
+    return resource;
+  }
+
+  public String getSourceHash() {
+    return sourceHash;
+  }
+
+  public String getTargetHash() {
+    return targetHash;
+  }
+
+  public long getFrequency() {
+    return frequency;
+  }
+
+  public Long getLastSeenAt() {
+    return lastSeenAt;
+  }
+}
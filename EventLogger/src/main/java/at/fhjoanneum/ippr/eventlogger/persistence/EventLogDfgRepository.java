@@ -0,0 +1,33 @@
+package at.fhjoanneum.ippr.eventlogger.persistence;
+
+import at.fhjoanneum.ippr.commons.dto.eventlogger.EventLoggerDTO;
+import at.fhjoanneum.ippr.eventlogger.helper.LogEntry;
+import at.fhjoanneum.ippr.eventlogger.helper.LogKey;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Directly-follows graph of the activities per process model and subject, maintained on ingest
+ */
+public interface EventLogDfgRepository {
+
+  /**
+   * Adds the events to the graph in the order of their occurrence, events which occurred before
+   * the last known activity of their subject rebuild the edges of that subject in the case
+   */
+  void update(List<EventLoggerDTO> events);
+
+  /**
+   * @return the activities of the subject in the order of their first occurrence, each linked
+   *         to the activity which followed it most recently
+   */
+  LinkedHashMap<LogKey, LogEntry> getQuintuplets(int processModelId, String subject);
+
+  /**
+   * Builds the graph from the stored events if it is empty
+   *
+   * @return the amount of processed events
+   */
+  int initialize(int pageSize);
+}
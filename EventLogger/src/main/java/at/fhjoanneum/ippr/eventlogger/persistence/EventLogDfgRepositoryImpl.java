@@ -0,0 +1,330 @@
+package at.fhjoanneum.ippr.eventlogger.persistence;
+
+import at.fhjoanneum.ippr.commons.dto.eventlogger.EventLoggerDTO;
+import at.fhjoanneum.ippr.eventlogger.helper.EventTimestamp;
+import at.fhjoanneum.ippr.eventlogger.helper.LogEntry;
+import at.fhjoanneum.ippr.eventlogger.helper.LogKey;
+import com.google.common.base.Joiner;
+import com.google.common.base.Strings;
+import com.google.common.hash.Hashing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Repository
+public class EventLogDfgRepositoryImpl implements EventLogDfgRepository {
+
+  private static final String UPSERT_ACTIVITY =
+      "INSERT INTO event_log_activity (process_model_id, resource, activity, state, "
+          + "message_type, recipient, sender, key_hash, frequency) "
+          + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+          + "ON DUPLICATE KEY UPDATE frequency = frequency + VALUES(frequency)";
+
+  private static final String UPSERT_EDGE =
+      "INSERT INTO event_log_dfg_edge (process_model_id, resource, source_hash, target_hash, "
+          + "frequency, last_seen_at) VALUES (?, ?, ?, ?, ?, ?) "
+          + "ON DUPLICATE KEY UPDATE frequency = frequency + VALUES(frequency), "
+          + "last_seen_at = GREATEST(last_seen_at, VALUES(last_seen_at))";
+
+  private static final String DELETE_EMPTY_EDGES =
+      "DELETE FROM event_log_dfg_edge WHERE process_model_id = ? AND resource = ? "
+          + "AND frequency <= 0";
+
+  private static final String UPSERT_TAIL =
+      "INSERT INTO event_log_dfg_tail (case_id, resource, key_hash, epoch_millis) "
+          + "VALUES (?, ?, ?, ?) "
+          + "ON DUPLICATE KEY UPDATE key_hash = VALUES(key_hash), "
+          + "epoch_millis = VALUES(epoch_millis)";
+
+  private static final String SELECT_TAILS =
+      "SELECT case_id, resource, key_hash, epoch_millis FROM event_log_dfg_tail "
+          + "WHERE case_id IN (%s) ORDER BY case_id, resource FOR UPDATE";
+
+  private static final String SELECT_ACTIVITIES =
+      "SELECT activity, state, message_type, recipient, sender, key_hash "
+          + "FROM event_log_activity WHERE process_model_id = ? AND resource = ? "
+          + "ORDER BY activity_id";
+
+  private static final String SELECT_EDGES =
+      "SELECT source_hash, target_hash, last_seen_at FROM event_log_dfg_edge "
+          + "WHERE process_model_id = ? AND resource = ?";
+
+  private static final String EXISTS_ACTIVITIES =
+      "SELECT EXISTS(SELECT 1 FROM event_log_activity)";
+
+  private static final String SELECT_EVENTS =
+      "SELECT event_id, case_id, process_model_id, timestamp, epoch_millis, activity, resource, "
+          + "state, message_type, recipient, sender FROM event_log ";
+
+  private static final String SELECT_SUBJECT_EVENTS = SELECT_EVENTS
+      + "WHERE case_id = ? AND resource = ? ORDER BY epoch_millis, event_id";
+
+  private static final String SELECT_UNTIMED_EVENTS_PAGE = SELECT_EVENTS
+      + "WHERE epoch_millis IS NULL AND event_id > ? ORDER BY event_id LIMIT ?";
+
+  private static final String SELECT_EVENTS_PAGE = SELECT_EVENTS
+      + "WHERE epoch_millis > ? OR (epoch_millis = ? AND event_id > ?) "
+      + "ORDER BY epoch_millis, event_id LIMIT ?";
+
+  private static final RowMapper<EventLoggerDTO> EVENT_MAPPER = (rs, rowNum) -> {
+    final EventLoggerDTO event = new EventLoggerDTO(rs.getLong("event_id"),
+        rs.getLong("case_id"), rs.getLong("process_model_id"), rs.getString("timestamp"),
+        rs.getString("activity"), rs.getString("resource"), rs.getString("state"),
+        rs.getString("message_type"), rs.getString("recipient"), rs.getString("sender"));
+    event.setEpochMillis((Long) rs.getObject("epoch_millis"));
+    return event;
+  };
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void update(final List<EventLoggerDTO> events) {
+    // the sort is stable, so events of the same time keep the order in which they arrived
+    final Map<List<Object>, List<EventLoggerDTO>> eventsByTail = events.stream()
+        .filter(event -> !Strings.isNullOrEmpty(event.getResource()))
+        .sorted(Comparator.comparingLong(EventLogDfgRepositoryImpl::occurredAt))
+        .collect(Collectors.groupingBy(
+            event -> Arrays.asList(event.getCaseId(), event.getResource()), LinkedHashMap::new,
+            Collectors.toList()));
+    if (eventsByTail.isEmpty()) {
+      return;
+    }
+
+    final Map<List<Object>, Activity> activities = new LinkedHashMap<>();
+    final Map<List<Object>, Edge> edges = new LinkedHashMap<>();
+    final Map<List<Object>, Tail> tails = new LinkedHashMap<>();
+    final Set<List<Object>> rebuiltSubjects = new LinkedHashSet<>();
+    final Map<List<Object>, Tail> storedTails = findTails(eventsByTail.keySet());
+
+    eventsByTail.forEach((tailKey, tailEvents) -> {
+      tailEvents.forEach(event -> {
+        final String hash = hash(event);
+        activities.computeIfAbsent(Arrays.asList(event.getProcessModelId(), hash),
+            key -> new Activity(event, hash)).frequency++;
+      });
+
+      final Tail storedTail = storedTails.get(tailKey);
+      final List<EventLoggerDTO> path;
+      if (storedTail != null && storedTail.epochMillis != null
+          && occurredAt(tailEvents.get(0)) < storedTail.epochMillis) {
+        // late events belong in between the stored ones, so the edges of the subject in this
+        // case are replaced by the ones of the merged path, the new events are not stored yet
+        final List<EventLoggerDTO> storedEvents =
+            jdbcTemplate.query(SELECT_SUBJECT_EVENTS, EVENT_MAPPER, tailKey.toArray());
+        path = Stream.concat(storedEvents.stream(), tailEvents.stream())
+            .sorted(Comparator.comparingLong(EventLogDfgRepositoryImpl::occurredAt))
+            .collect(Collectors.toList());
+        addEdges(edges, null, storedEvents, -1);
+        addEdges(edges, null, path, 1);
+        rebuiltSubjects.add(Arrays.asList(tailEvents.get(0).getProcessModelId(), tailKey.get(1)));
+      } else {
+        path = tailEvents;
+        addEdges(edges, storedTail != null ? storedTail.hash : null, path, 1);
+      }
+
+      final EventLoggerDTO last = path.get(path.size() - 1);
+      tails.put(tailKey, new Tail(hash(last), occurredAt(last)));
+    });
+
+    jdbcTemplate.batchUpdate(UPSERT_ACTIVITY, activities.values().stream()
+        .map(activity -> new Object[] {activity.event.getProcessModelId(),
+            activity.event.getResource(), activity.event.getActivity(),
+            activity.event.getState(), activity.event.getMessageType(),
+            activity.event.getRecipient(), activity.event.getSender(), activity.hash,
+            activity.frequency})
+        .collect(Collectors.toList()));
+    final List<Object[]> changedEdges = edges.values().stream()
+        .filter(edge -> edge.frequency != 0)
+        .map(edge -> new Object[] {edge.event.getProcessModelId(), edge.event.getResource(),
+            edge.source, edge.target, edge.frequency, edge.lastSeenAt})
+        .collect(Collectors.toList());
+    if (!changedEdges.isEmpty()) {
+      jdbcTemplate.batchUpdate(UPSERT_EDGE, changedEdges);
+    }
+    if (!rebuiltSubjects.isEmpty()) {
+      jdbcTemplate.batchUpdate(DELETE_EMPTY_EDGES, rebuiltSubjects.stream()
+          .map(List::toArray).collect(Collectors.toList()));
+    }
+    jdbcTemplate.batchUpdate(UPSERT_TAIL, tails.entrySet().stream()
+        .map(tail -> new Object[] {tail.getKey().get(0), tail.getKey().get(1),
+            tail.getValue().hash, tail.getValue().epochMillis})
+        .collect(Collectors.toList()));
+  }
+
+  @Override
+  public LinkedHashMap<LogKey, LogEntry> getQuintuplets(final int processModelId,
+      final String subject) {
+    final LinkedHashMap<LogKey, LogEntry> result = new LinkedHashMap<>();
+    final Map<String, LogKey> keys = new HashMap<>();
+
+    jdbcTemplate.query(SELECT_ACTIVITIES, (RowCallbackHandler) rs -> {
+      final LogKey key = new LogKey(rs.getString("activity"), rs.getString("state"),
+          rs.getString("message_type"), rs.getString("recipient"), rs.getString("sender"));
+      final LogEntry entry = new LogEntry(null, (long) processModelId, null, key.getActivity(),
+          subject, key.getState(), key.getMessageType(), key.getTo(), key.getFrom());
+      keys.put(rs.getString("key_hash"), key);
+      result.put(key, entry);
+    }, processModelId, subject);
+
+    // the next activity is the one which followed most recently, like in the exported log
+    final Map<String, Long> lastSeenAt = new HashMap<>();
+    jdbcTemplate.query(SELECT_EDGES, (RowCallbackHandler) rs -> {
+      final String source = rs.getString("source_hash");
+      final long seenAt = rs.getLong("last_seen_at");
+      if (keys.containsKey(source) && seenAt >= lastSeenAt.getOrDefault(source, Long.MIN_VALUE)) {
+        lastSeenAt.put(source, seenAt);
+        result.get(keys.get(source)).setNextLogEntryKey(keys.get(rs.getString("target_hash")));
+      }
+    }, processModelId, subject);
+
+    return result;
+  }
+
+  @Override
+  public int initialize(final int pageSize) {
+    if (jdbcTemplate.queryForObject(EXISTS_ACTIVITIES, Boolean.class)) {
+      return 0;
+    }
+
+    // the events are already stored, so they have to arrive in the order of their occurrence
+    // to never take the path of late events, the ones without a time count as the oldest
+    int amount = 0;
+    long afterEventId = 0;
+    List<EventLoggerDTO> page;
+    do {
+      page = jdbcTemplate.query(SELECT_UNTIMED_EVENTS_PAGE, EVENT_MAPPER, afterEventId, pageSize);
+      update(page);
+      amount += page.size();
+      if (!page.isEmpty()) {
+        afterEventId = page.get(page.size() - 1).getEventId();
+      }
+    } while (page.size() == pageSize);
+
+    long afterEpochMillis = Long.MIN_VALUE;
+    afterEventId = 0;
+    do {
+      page = jdbcTemplate.query(SELECT_EVENTS_PAGE, EVENT_MAPPER, afterEpochMillis,
+          afterEpochMillis, afterEventId, pageSize);
+      update(page);
+      amount += page.size();
+      if (!page.isEmpty()) {
+        afterEpochMillis = page.get(page.size() - 1).getEpochMillis();
+        afterEventId = page.get(page.size() - 1).getEventId();
+      }
+    } while (page.size() == pageSize);
+    return amount;
+  }
+
+  /**
+   * Loads the tails of all cases of the batch at once and locks them until the end of the batch
+   * transaction, so concurrent ingests of the same case cannot build edges from the same tail
+   */
+  private Map<List<Object>, Tail> findTails(final Set<List<Object>> tailKeys) {
+    final Map<List<Object>, Tail> tails = new HashMap<>();
+    final Set<Object> caseIds = tailKeys.stream().map(tailKey -> tailKey.get(0))
+        .collect(Collectors.toCollection(TreeSet::new));
+
+    final String placeholders = Joiner.on(", ").join(Collections.nCopies(caseIds.size(), "?"));
+    jdbcTemplate.query(String.format(SELECT_TAILS, placeholders), (RowCallbackHandler) rs -> {
+      tails.put(Arrays.asList(rs.getLong("case_id"), rs.getString("resource")),
+          new Tail(rs.getString("key_hash"), (Long) rs.getObject("epoch_millis")));
+    }, caseIds.toArray());
+    return tails;
+  }
+
+  private static void addEdges(final Map<List<Object>, Edge> edges, final String first,
+      final List<EventLoggerDTO> path, final int frequency) {
+    String previous = first;
+    for (final EventLoggerDTO event : path) {
+      final String source = previous;
+      final String target = hash(event);
+      if (source != null) {
+        edges.computeIfAbsent(Arrays.asList(event.getProcessModelId(), source, target),
+            key -> new Edge(event, source, target)).add(frequency, seenAt(event));
+      }
+      previous = target;
+    }
+  }
+
+  /**
+   * Events without a time count as the oldest ones
+   */
+  private static long occurredAt(final EventLoggerDTO event) {
+    final Long epochMillis = EventTimestamp.toEpochMillis(event);
+    return epochMillis != null ? epochMillis : 0L;
+  }
+
+  private static long seenAt(final EventLoggerDTO event) {
+    final Long epochMillis = EventTimestamp.toEpochMillis(event);
+    return epochMillis != null ? epochMillis : System.currentTimeMillis();
+  }
+
+  private static String hash(final EventLoggerDTO event) {
+    final String key = Joiner.on('\u0000').useForNull("").join(event.getResource(),
+        event.getActivity(), event.getState(), event.getMessageType(), event.getRecipient(),
+        event.getSender());
+    return Hashing.sha1().hashString(key, StandardCharsets.UTF_8).toString();
+  }
+
+  private static class Activity {
+
+    private final EventLoggerDTO event;
+    private final String hash;
+    private long frequency;
+
+    private Activity(final EventLoggerDTO event, final String hash) {
+      this.event = event;
+      this.hash = hash;
+    }
+  }
+
+  private static class Edge {
+
+    private final EventLoggerDTO event;
+    private final String source;
+    private final String target;
+    private long frequency;
+    private long lastSeenAt = Long.MIN_VALUE;
+
+    private Edge(final EventLoggerDTO event, final String source, final String target) {
+      this.event = event;
+      this.source = source;
+      this.target = target;
+    }
+
+    private void add(final int frequency, final long seenAt) {
+      this.frequency += frequency;
+      if (frequency > 0) {
+        lastSeenAt = Math.max(lastSeenAt, seenAt);
+      }
+    }
+  }
+
+  private static class Tail {
+
+    private final String hash;
+    private final Long epochMillis;
+
+    private Tail(final String hash, final Long epochMillis) {
+      this.hash = hash;
+      this.epochMillis = epochMillis;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package at.fhjoanneum.ippr.eventlogger.persistence;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Last activity of a subject in a case, which is the source of the next directly-follows edge
+ */
+@Entity(name = "EVENT_LOG_DFG_TAIL")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_event_log_dfg_tail",
+    columnNames = {"caseId", "resource"}))
+public class EventLogDfgTail implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.AUTO)
+  private Long tailId;
+
+  @Column
+  private Long caseId;
+
+  @Column
+  private String resource;
+
+  @Column(length = 40)
+  private String keyHash;
+
+  @Column
+  private Long epochMillis;
+
+  public EventLogDfgTail() {}
+
+  public Long getTailId() {
+    return tailId;
+  }
+
+  public Long getCaseId() {
+    return caseId;
+  }
+
+  public String getResource() {
+    return resource;
+  }
+
+  public String getKeyHash() {
+    return keyHash;
+  }
+
+  public Long getEpochMillis() {
+    return epochMillis;
+  }
+}
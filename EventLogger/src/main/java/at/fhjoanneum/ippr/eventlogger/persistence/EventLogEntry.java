@@ -4,6 +4,12 @@ import javax.persistence.*;
 import java.io.Serializable;
 
 @Entity(name = "EVENT_LOG")
+@Table(indexes = {
+    @Index(name = "idx_event_log_model_resource",
+        columnList = "processModelId,resource,caseId,eventId"),
+    @Index(name = "idx_event_log_case", columnList = "caseId,epochMillis"),
+    @Index(name = "idx_event_log_model_epoch", columnList = "processModelId,epochMillis"),
+    @Index(name = "idx_event_log_epoch", columnList = "epochMillis")})
 public class EventLogEntry implements Serializable {
 
   private static final long serialVersionUID = 1L;
@@ -21,6 +27,9 @@ public class EventLogEntry implements Serializable {
   @Column
   private String timestamp;
 
+  @Column
+  private Long epochMillis;
+
   @Column
   private String activity;
 
@@ -86,6 +95,14 @@ public class EventLogEntry implements Serializable {
     return timestamp;
     }
 
+    public Long getEpochMillis() {
+        return epochMillis;
+    }
+
+    public void setEpochMillis(Long epochMillis) {
+        this.epochMillis = epochMillis;
+    }
+
     public String getActivity() {
     return activity;
     }
@@ -192,6 +209,7 @@ public class EventLogEntry implements Serializable {
                 ", caseId=" + caseId +
                 ", processModelId=" + processModelId +
                 ", timestamp='" + timestamp + '\'' +
+                ", epochMillis=" + epochMillis +
                 ", activity='" + activity + '\'' +
                 ", resource='" + resource + '\'' +
                 ", state='" + state + '\'' +
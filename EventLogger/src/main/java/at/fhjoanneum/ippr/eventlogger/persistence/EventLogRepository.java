@@ -1,17 +1,41 @@
 package at.fhjoanneum.ippr.eventlogger.persistence;
 
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface EventLogRepository extends CrudRepository<EventLogEntry, Long> {
-    @Query(value = "SELECT * FROM event_log AS log WHERE log.process_model_id = :processModelId AND log.resource = :subject AND EXISTS((SELECT 1 from event_log AS x " +
-            "WHERE x.case_id = log.case_id AND x.activity = 'Process Start' AND x.message_type = '' AND x.resource = '' AND x.state = '')) " +
-            "AND EXISTS((SELECT 1 from event_log AS y WHERE y.case_id = log.case_id AND y.activity = 'Process End' AND y.message_type = '' AND y.resource = '' AND y.state = ''))" +
+    @Query(value = "SELECT log.* FROM event_log AS log " +
+            "INNER JOIN event_log_case AS c ON c.case_id = log.case_id AND c.complete = true " +
+            "WHERE log.process_model_id = :processModelId AND log.resource = :subject " +
             "ORDER BY log.case_id, log.event_id", nativeQuery = true)
     public List<EventLogEntry> getEventLogForProcessModelAndSubject(@Param("processModelId") int processModelId, @Param("subject") String subject);
+
+    // Integer.MIN_VALUE as fetch size makes MySQL stream the rows instead of loading them at once
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    @Query(value = "SELECT log.* FROM event_log_case_completion AS cc " +
+            "INNER JOIN event_log AS log ON log.case_id = cc.case_id " +
+            "WHERE cc.completion_id > :afterCompletion AND cc.completion_id <= :untilCompletion " +
+            "AND log.process_model_id = :processModelId AND log.resource = :subject " +
+            "ORDER BY cc.completion_id, log.event_id", nativeQuery = true)
+    public Stream<EventLogEntry> streamEventLogForProcessModelAndSubject(@Param("processModelId") int processModelId, @Param("subject") String subject, @Param("afterCompletion") long afterCompletion, @Param("untilCompletion") long untilCompletion);
+
+    @Query(value = "SELECT * FROM event_log WHERE process_model_id = :processModelId " +
+            "AND epoch_millis >= :from AND epoch_millis < :to ORDER BY epoch_millis, event_id", nativeQuery = true)
+    public List<EventLogEntry> getEventLogForProcessModelBetween(@Param("processModelId") int processModelId, @Param("from") long from, @Param("to") long to);
+
+    @Query(value = "SELECT * FROM event_log WHERE process_model_id = :processModelId AND resource = :subject " +
+            "AND epoch_millis >= :from AND epoch_millis < :to ORDER BY epoch_millis, event_id", nativeQuery = true)
+    public List<EventLogEntry> getEventLogForProcessModelAndSubjectBetween(@Param("processModelId") int processModelId, @Param("subject") String subject, @Param("from") long from, @Param("to") long to);
+
+    @Query(value = "SELECT * FROM event_log WHERE case_id = :caseId " +
+            "AND epoch_millis >= :from AND epoch_millis < :to ORDER BY epoch_millis, event_id", nativeQuery = true)
+    public List<EventLogEntry> getEventLogForCaseBetween(@Param("caseId") long caseId, @Param("from") long from, @Param("to") long to);
 }
@@ -0,0 +1,19 @@
+package at.fhjoanneum.ippr.eventlogger.services;
+
+import at.fhjoanneum.ippr.commons.dto.eventlogger.EventLoggerDTO;
+import at.fhjoanneum.ippr.eventlogger.persistence.EventLogEntry;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface EventLogIngestService {
+
+  /**
+   * Stores the events of a JSON array or a newline delimited JSON stream
+   *
+   * @return the amount of stored events
+   */
+  int ingest(final InputStream events) throws IOException;
+
+  EventLogEntry store(final EventLoggerDTO event);
+}
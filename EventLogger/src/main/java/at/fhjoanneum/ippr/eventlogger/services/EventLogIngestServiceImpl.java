@@ -0,0 +1,103 @@
+package at.fhjoanneum.ippr.eventlogger.services;
+
+import at.fhjoanneum.ippr.commons.dto.eventlogger.EventLoggerDTO;
+import at.fhjoanneum.ippr.eventlogger.helper.EventTimestamp;
+import at.fhjoanneum.ippr.eventlogger.persistence.EventLogBatchRepository;
+import at.fhjoanneum.ippr.eventlogger.persistence.EventLogDfgRepository;
+import at.fhjoanneum.ippr.eventlogger.persistence.EventLogEntry;
+import at.fhjoanneum.ippr.eventlogger.persistence.EventLogRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+
+@Service
+public class EventLogIngestServiceImpl implements EventLogIngestService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(EventLogIngestServiceImpl.class);
+
+  @Value("${eventlog.ingest.batch-size:1000}")
+  private int batchSize;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private EventLogBatchRepository eventLogBatchRepository;
+
+  @Autowired
+  private EventLogRepository eventLogRepository;
+
+  @Autowired
+  private EventLogDfgRepository eventLogDfgRepository;
+
+  private TransactionTemplate transactionTemplate;
+
+  /**
+   * Every batch commits on its own, so a large stream does not hold its locks until the end
+   */
+  @Autowired
+  public void setTransactionManager(final PlatformTransactionManager transactionManager) {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  @Override
+  public int ingest(final InputStream events) throws IOException {
+    final List<EventLoggerDTO> batch = Lists.newArrayListWithCapacity(batchSize);
+    int amount = 0;
+
+    // iterates over the elements of a root level array as well as over a root level sequence
+    try (MappingIterator<EventLoggerDTO> iterator =
+        objectMapper.readerFor(EventLoggerDTO.class).readValues(events)) {
+      while (iterator.hasNextValue()) {
+        batch.add(iterator.nextValue());
+        if (batch.size() >= batchSize) {
+          amount += store(batch);
+          batch.clear();
+        }
+      }
+    }
+    amount += store(batch);
+
+    LOG.debug("Stored [{}] events", amount);
+    return amount;
+  }
+
+  @Override
+  public EventLogEntry store(final EventLoggerDTO event) {
+    final EventLogEntry eventLogEntry = new EventLogEntry(event.getCaseId(),
+        event.getProcessModelId(), event.getTimestamp(), event.getActivity(), event.getResource(),
+        event.getState(), event.getMessageType(), event.getRecipient(), event.getSender());
+    eventLogEntry.setEpochMillis(EventTimestamp.toEpochMillis(event));
+    return transactionTemplate.execute(status -> {
+      // the graph is updated first, it reads the stored events of a case for late events
+      eventLogDfgRepository.update(Collections.singletonList(event));
+      eventLogRepository.save(eventLogEntry);
+      eventLogBatchRepository.updateCases(Collections.singletonList(event));
+      return eventLogEntry;
+    });
+  }
+
+  private int store(final List<EventLoggerDTO> batch) {
+    return transactionTemplate.execute(status -> {
+      // the graph is updated first, it reads the stored events of a case for late events
+      eventLogDfgRepository.update(batch);
+      final int amount = eventLogBatchRepository.insert(batch);
+      eventLogBatchRepository.updateCases(batch);
+      return amount;
+    });
+  }
+}
@@ -0,0 +1,20 @@
+package at.fhjoanneum.ippr.eventlogger.services;
+
+import java.time.YearMonth;
+
+public interface EventLogRolloverService {
+
+  /**
+   * Moves the events older than <code>eventlog.rollover.keep-months</code> into monthly archive
+   * tables
+   */
+  void rollover();
+
+  /**
+   * Moves the events of the month into the archive table event_log_yyyyMM, which can be dropped
+   * or dumped independently of event_log
+   *
+   * @return the amount of archived events
+   */
+  int archive(final YearMonth month);
+}
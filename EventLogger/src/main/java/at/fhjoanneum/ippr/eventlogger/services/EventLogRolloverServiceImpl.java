@@ -0,0 +1,68 @@
+package at.fhjoanneum.ippr.eventlogger.services;
+
+import at.fhjoanneum.ippr.eventlogger.persistence.EventLogBatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+@Service
+public class EventLogRolloverServiceImpl implements EventLogRolloverService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(EventLogRolloverServiceImpl.class);
+
+  private static final DateTimeFormatter TABLE_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+  // amount of months kept in event_log including the current one, 0 disables the rollover
+  @Value("${eventlog.rollover.keep-months:0}")
+  private int keepMonths;
+
+  @Autowired
+  private EventLogBatchRepository eventLogBatchRepository;
+
+  @Scheduled(cron = "${eventlog.rollover.cron:0 0 3 * * *}")
+  @Override
+  public void rollover() {
+    if (keepMonths <= 0) {
+      return;
+    }
+    final Long minEpochMillis = eventLogBatchRepository.getMinEpochMillis();
+    if (minEpochMillis == null) {
+      return;
+    }
+
+    final YearMonth firstKept = YearMonth.now().minusMonths(keepMonths - 1);
+    for (YearMonth month = toYearMonth(minEpochMillis); month.isBefore(firstKept); month =
+        month.plusMonths(1)) {
+      archive(month);
+    }
+  }
+
+  @Override
+  public int archive(final YearMonth month) {
+    final String table = "event_log_" + month.format(TABLE_SUFFIX);
+    final long from = toEpochMillis(month);
+    final long to = toEpochMillis(month.plusMonths(1));
+
+    // DDL commits implicitly, therefore the table is created before the events are moved
+    eventLogBatchRepository.createArchive(table);
+    final int archived = eventLogBatchRepository.archive(table, from, to);
+    LOG.info("Archived [{}] events of [{}] into [{}]", archived, month, table);
+    return archived;
+  }
+
+  private static YearMonth toYearMonth(final long epochMillis) {
+    return YearMonth.from(Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()));
+  }
+
+  private static long toEpochMillis(final YearMonth month) {
+    return month.atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+}
@@ -1,13 +1,39 @@
 package at.fhjoanneum.ippr.eventlogger.services;
 
 import at.fhjoanneum.ippr.commons.dto.eventlogger.EventLoggerDTO;
+import at.fhjoanneum.ippr.eventlogger.persistence.EventLogEntry;
 
 import java.util.List;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 public interface EventLogService {
 
   Future<List<EventLoggerDTO>> getEventLogForProcessModelAndSubject(final int processModelId,
       final String subject);
 
+  /**
+   * Events of the process model with epoch millis in [from, to)
+   */
+  List<EventLoggerDTO> getEventLogForProcessModelBetween(final int processModelId,
+      final long from, final long to);
+
+  List<EventLoggerDTO> getEventLogForProcessModelAndSubjectBetween(final int processModelId,
+      final String subject, final long from, final long to);
+
+  List<EventLoggerDTO> getEventLogForCaseBetween(final long caseId, final long from,
+      final long to);
+
+  /**
+   * Passes the events of the cases which were completed after afterCompletion and until
+   * untilCompletion one by one to the consumer, without keeping them in memory
+   */
+  void streamEventLogForProcessModelAndSubject(final int processModelId, final String subject,
+      final long afterCompletion, final long untilCompletion,
+      final Consumer<EventLogEntry> consumer);
+
+  /**
+   * @return the cursor of the last completed case, 0 if no case is completed
+   */
+  long getLastCaseCompletion();
 }
\ No newline at end of file
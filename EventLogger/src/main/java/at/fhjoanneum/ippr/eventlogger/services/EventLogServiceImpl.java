@@ -2,6 +2,7 @@ package at.fhjoanneum.ippr.eventlogger.services;
 
 
 import at.fhjoanneum.ippr.commons.dto.eventlogger.EventLoggerDTO;
+import at.fhjoanneum.ippr.eventlogger.persistence.EventLogBatchRepository;
 import at.fhjoanneum.ippr.eventlogger.persistence.EventLogEntry;
 import at.fhjoanneum.ippr.eventlogger.persistence.EventLogRepository;
 import com.google.common.collect.Lists;
@@ -14,8 +15,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.util.List;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 @Transactional(isolation = Isolation.READ_COMMITTED)
@@ -27,6 +32,12 @@ public class EventLogServiceImpl implements EventLogService {
   @Autowired
   private EventLogRepository eventLogRepository;
 
+  @Autowired
+  private EventLogBatchRepository eventLogBatchRepository;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
   @Async
   @Override
   public Future<List<EventLoggerDTO>> getEventLogForProcessModelAndSubject(final int processModelId,
@@ -37,6 +48,47 @@ public class EventLogServiceImpl implements EventLogService {
     return new AsyncResult<List<EventLoggerDTO>>(eventLog);
   }
 
+  @Override
+  public List<EventLoggerDTO> getEventLogForProcessModelBetween(final int processModelId,
+      final long from, final long to) {
+    return createEventLoggerDTO(
+        eventLogRepository.getEventLogForProcessModelBetween(processModelId, from, to));
+  }
+
+  @Override
+  public List<EventLoggerDTO> getEventLogForProcessModelAndSubjectBetween(
+      final int processModelId, final String subject, final long from, final long to) {
+    return createEventLoggerDTO(eventLogRepository
+        .getEventLogForProcessModelAndSubjectBetween(processModelId, subject, from, to));
+  }
+
+  @Override
+  public List<EventLoggerDTO> getEventLogForCaseBetween(final long caseId, final long from,
+      final long to) {
+    return createEventLoggerDTO(eventLogRepository.getEventLogForCaseBetween(caseId, from, to));
+  }
+
+  @Transactional(isolation = Isolation.READ_COMMITTED, readOnly = true)
+  @Override
+  public void streamEventLogForProcessModelAndSubject(final int processModelId,
+      final String subject, final long afterCompletion, final long untilCompletion,
+      final Consumer<EventLogEntry> consumer) {
+    try (Stream<EventLogEntry> events = eventLogRepository.streamEventLogForProcessModelAndSubject(
+        processModelId, subject, afterCompletion, untilCompletion)) {
+      events.forEach(event -> {
+        consumer.accept(event);
+        // keeps the persistence context from growing with the log
+        entityManager.detach(event);
+      });
+    }
+  }
+
+  @Transactional(isolation = Isolation.READ_COMMITTED, readOnly = true)
+  @Override
+  public long getLastCaseCompletion() {
+    return eventLogBatchRepository.getLastCaseCompletion();
+  }
+
   private static List<EventLoggerDTO> createEventLoggerDTO(final List<EventLogEntry> results) {
     final List<EventLoggerDTO> eventLog = Lists.newArrayList();
 
@@ -44,6 +96,7 @@ public class EventLogServiceImpl implements EventLogService {
       final EventLoggerDTO dto = new EventLoggerDTO(event.getEventId(), event.getCaseId(),
           event.getProcessModelId(), event.getTimestamp(), event.getActivity(), event.getResource(),
           event.getState(), event.getMessageType(), event.getRecipient(), event.getSender());
+      dto.setEpochMillis(event.getEpochMillis());
       eventLog.add(dto);
     });
 
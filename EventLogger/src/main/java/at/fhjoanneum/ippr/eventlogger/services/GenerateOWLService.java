@@ -1,9 +1,9 @@
 package at.fhjoanneum.ippr.eventlogger.services;
 
-import javax.xml.transform.stream.StreamResult;
+import java.io.OutputStream;
 import java.util.Map;
 
 public interface GenerateOWLService {
 
-  StreamResult generateOWL(final String processModelName, final Map<String, String> petriNets) throws Exception;
+  void generateOWL(final String processModelName, final Map<String, String> petriNets, final OutputStream outputStream) throws Exception;
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package at.fhjoanneum.ippr.eventlogger.services;
 
 import at.fhjoanneum.ippr.eventlogger.helper.Arc;
 import at.fhjoanneum.ippr.eventlogger.helper.Message;
+import at.fhjoanneum.ippr.eventlogger.helper.PetriNet;
 import at.fhjoanneum.ippr.eventlogger.helper.XMLParserCommons;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
@@ -10,75 +11,90 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
-import org.w3c.dom.*;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import java.io.*;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 
+/**
+ * Generates the OWL from the PNML nets of the subjects.
+ * <p>
+ * The nets of each subject are read with StAX and analyzed in parallel on the common fork-join
+ * pool. The individuals are then created sequentially in the order of the subjects, so that their
+ * IDs do not depend on the scheduling. They are kept as lists of their properties, since nets
+ * processed later add properties to individuals of earlier nets, and are written with StAX to the
+ * output stream at the end.
+ */
 @Transactional(isolation = Isolation.READ_COMMITTED)
 @Service
 public class GenerateOWLServiceImpl implements GenerateOWLService {
 
   private static final Logger LOG = LoggerFactory.getLogger(GenerateOWLServiceImpl.class);
-  private static final String standardPassOntUri = "&standard-pass-ont;";
-  private String ontologyUri;
+
+  private static final String RDF = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+  private static final String OWL = "http://www.w3.org/2002/07/owl#";
+  private static final String XSD = "http://www.w3.org/2001/XMLSchema#";
+  private static final String RDFS = "http://www.w3.org/2000/01/rdf-schema#";
+  private static final String ABSTRACT_PASS_ONT = "http://www.imi.kit.edu/abstract-pass-ont#";
+  private static final String STANDARD_PASS_ONT = "http://www.i2pm.net/standard-pass-ont#";
+
+  private static final String DOC_TYPE = "<!DOCTYPE rdf:RDF [ " +
+          "    <!ENTITY owl \"" + OWL + "\" >" +
+          "    <!ENTITY xsd \"" + XSD + "\" >" +
+          "    <!ENTITY rdfs \"" + RDFS + "\" >" +
+          "    <!ENTITY abstract-pass-ont \"" + ABSTRACT_PASS_ONT + "\" >" +
+          "    <!ENTITY standard-pass-ont \"" + STANDARD_PASS_ONT + "\" >" +
+          "    <!ENTITY rdf \"" + RDF + "\" >" +
+          "]>";
 
   @Override
-  public StreamResult generateOWL(String processModelName, Map<String, String> petriNets)
+  public void generateOWL(String processModelName, Map<String, String> petriNets, OutputStream outputStream)
           throws Exception {
-    final DocumentBuilderFactory resultDocumentBuilderFactory = DocumentBuilderFactory.newInstance();
-    final DocumentBuilder resultDocumentBuilder = resultDocumentBuilderFactory.newDocumentBuilder();
-    final Document resultDocument = resultDocumentBuilder.newDocument();
     final String date = DateTime.now().toString("ddMMyyyy-HHmm");
-    ontologyUri = "http://fh-joanneum.at/aim/s-bpm/processmodels/"+date+"/";
-    HashMap<String, Node> subjectNameToSubjectNodeMap = new HashMap<>();
-    HashMap<String, Node> subjectNameToMessageExchangeListNodeMap = new HashMap<>();
-    HashMap<String, Node> subjectNameToBehaviorNodeMap = new HashMap<>();
-    HashMap<String, Node> messageNameToMessageNodeMap = new HashMap<>();
-    HashMap<String, Node> messageNameToMessageExchangeNodeMap = new HashMap<>();
+    final OWLDocument owl = new OWLDocument("http://fh-joanneum.at/aim/s-bpm/processmodels/"+date+"/");
+    HashMap<String, Individual> subjectNameToSubjectNodeMap = new HashMap<>();
+    HashMap<String, Individual> subjectNameToMessageExchangeListNodeMap = new HashMap<>();
+    HashMap<String, Individual> subjectNameToBehaviorNodeMap = new HashMap<>();
+    HashMap<String, Individual> messageNameToMessageNodeMap = new HashMap<>();
+    HashMap<String, Individual> messageNameToMessageExchangeNodeMap = new HashMap<>();
 
-    Node rdfNode = getOWLSkeleton(resultDocument, resultDocumentBuilder);
-    Node processModelNode = createNamedIndividual(resultDocument, processModelName, "PASSProcessModel", ontologyUri, processModelName);
-    rdfNode.appendChild(processModelNode);
+    Individual processModelNode = owl.createNamedIndividual(processModelName, "PASSProcessModel", owl.ontologyUri, processModelName);
+    owl.append(processModelNode);
 
-    Node sidNode = createNamedIndividual(resultDocument, "SID_1", "ModelLayer", "SID_1", "SID_1");
-    rdfNode.appendChild(sidNode);
-    addPriorityNumberElement(resultDocument, sidNode);
+    Individual sidNode = owl.createNamedIndividual("SID_1", "ModelLayer", "SID_1", "SID_1");
+    owl.append(sidNode);
+    addPriorityNumberElement(sidNode);
 
-    addContainsElement(resultDocument, processModelNode, sidNode);
+    addContainsElement(processModelNode, sidNode);
 
     //First create nodes based on name that will be referenced when looping over the PNML content
     petriNets.keySet().forEach(name -> {
       String subjectIdentifier = "SID_1_FullySpecifiedSingleSubject_"+name;
-      Node subjectNode = createNamedIndividual(resultDocument, subjectIdentifier, "FullySpecifiedSingleSubject", subjectIdentifier, name);
-      rdfNode.appendChild(subjectNode);
-      addContainsElement(resultDocument, Arrays.asList(processModelNode, sidNode), subjectNode);
-      addMaximumSubjectInstanceRestrictionElement(resultDocument, subjectNode);
+      Individual subjectNode = owl.createNamedIndividual(subjectIdentifier, "FullySpecifiedSingleSubject", subjectIdentifier, name);
+      owl.append(subjectNode);
+      addContainsElement(Arrays.asList(processModelNode, sidNode), subjectNode);
+      addMaximumSubjectInstanceRestrictionElement(subjectNode);
 
       subjectNameToSubjectNodeMap.put(name, subjectNode);
 
-      Node behaviorNode = createNamedIndividual(resultDocument, "SBD_"+subjectIdentifier, "SubjectBehavior", "SBD_"+subjectIdentifier, "SBD: "+name);
-      rdfNode.appendChild(behaviorNode);
-      addContainsElement(resultDocument, Arrays.asList(processModelNode, sidNode), behaviorNode);
-      addResourceElement(resultDocument, subjectNode, behaviorNode, "containsBehavior");
-      addResourceElement(resultDocument, subjectNode, behaviorNode, "containsBaseBehavior");
+      Individual behaviorNode = owl.createNamedIndividual("SBD_"+subjectIdentifier, "SubjectBehavior", "SBD_"+subjectIdentifier, "SBD: "+name);
+      owl.append(behaviorNode);
+      addContainsElement(Arrays.asList(processModelNode, sidNode), behaviorNode);
+      addResourceElement(subjectNode, behaviorNode, "containsBehavior");
+      addResourceElement(subjectNode, behaviorNode, "containsBaseBehavior");
       subjectNameToBehaviorNodeMap.put(name, behaviorNode);
 
       String messageExchangeListIdentifier = "MessageExchangeList_on_SID_1_StandardMessageConnector_"+name;
-      Node messageExchangeListNode = createNamedIndividual(resultDocument, messageExchangeListIdentifier, "MessageExchangeList", messageExchangeListIdentifier, "SID_1_StandardMessageConnector_"+name);
-      rdfNode.appendChild(messageExchangeListNode);
-      addContainsElement(resultDocument, processModelNode, messageExchangeListNode);
+      Individual messageExchangeListNode = owl.createNamedIndividual(messageExchangeListIdentifier, "MessageExchangeList", messageExchangeListIdentifier, "SID_1_StandardMessageConnector_"+name);
+      owl.append(messageExchangeListNode);
+      addContainsElement(processModelNode, messageExchangeListNode);
 
       subjectNameToMessageExchangeListNodeMap.put(name, messageExchangeListNode);
     });
@@ -89,283 +105,251 @@ public class GenerateOWLServiceImpl implements GenerateOWLService {
     int transitionId = 1;
     int messageConnectorId = 1;
 
-    for (Map.Entry<String, String> entry : petriNets.entrySet()) {
-      String name = entry.getKey();
-      String pnmlContent = entry.getValue();
+    //The nets of the subjects are analyzed in parallel, the IDs are assigned afterwards in the order of the subjects
+    final List<Map.Entry<String, String>> subjects = new ArrayList<>(petriNets.entrySet());
+    final List<SubjectAnalysis> analyses = subjects.parallelStream()
+            .map(entry -> analyze(entry.getValue()))
+            .collect(Collectors.toList());
+
+    for (int i = 0; i < subjects.size(); i++) {
+      String name = subjects.get(i).getKey();
+      SubjectAnalysis analysis = analyses.get(i);
 
       try {
-        final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-        final InputSource input = new InputSource(new StringReader(pnmlContent));
-        final Document document = documentBuilderFactory.newDocumentBuilder().parse(input);
-        final Element root = document.getDocumentElement();
-        final NodeList nets = root.getElementsByTagName("net");
-
-        for (int temp = 0; temp < nets.getLength(); temp++) {
-          final Node netNode = nets.item(temp);
-          if (netNode.getNodeType() == Node.ELEMENT_NODE) {
-            final Element net = (Element) netNode;
-
-            HashSet<String> allPlaces = getAllPlaceIds(net);
-            HashMap<String, List<Message>> placeIdToMessagesMap = getPlaceIdToMessagesMap(net);
-
-            for (Map.Entry<String, List<Message>> placeToMessageEntry : placeIdToMessagesMap.entrySet()) {
-              List<Message> messages = placeToMessageEntry.getValue();
-              for(Message message : messages) {
-                String messageName = "Message: "+message.getName() + " From: "+message.getSender() + " To: "+message.getRecipient();
-                if(!messageNameToMessageNodeMap.containsKey(messageName)){
-                  Node messageNode = createNamedIndividual(resultDocument, "message_"+messageId, "MessageSpecification", "message_"+messageId, message.getName());
-                  rdfNode.appendChild(messageNode);
-                  addContainsElement(resultDocument, Arrays.asList(processModelNode, sidNode), messageNode);
-
-                  Node payloadDescriptionNode = createNamedIndividual(resultDocument, "payload_description_of_message_"+messageId, "PayloadDescription", "payload_description_of_message_"+messageId, "payload_description_of_message_"+messageId);
-                  rdfNode.appendChild(payloadDescriptionNode);
-                  addResourceElement(resultDocument, messageNode, payloadDescriptionNode, "containsPayloadDescription");
-
-                  Node messageExchangeNode = createNamedIndividual(resultDocument, "SID_1_StandardMessageConnector_"+messageConnectorId+"_message_"+messageId, "MessageExchange", "SID_1_StandardMessageConnector_"+messageConnectorId+"_message_"+messageId, messageName);
-                  rdfNode.appendChild(messageExchangeNode);
-                  addResourceElement(resultDocument, messageExchangeNode, subjectNameToSubjectNodeMap.get(message.getSender()), "hasSender");
-                  addResourceElement(resultDocument, messageExchangeNode, subjectNameToSubjectNodeMap.get(message.getRecipient()), "hasReceiver");
-                  addResourceElement(resultDocument, messageExchangeNode, messageNode, "hasMessageType");
-                  addContainsElement(resultDocument, Arrays.asList(processModelNode, sidNode), messageExchangeNode);
-
-                  messageNameToMessageExchangeNodeMap.put(messageName, messageExchangeNode);
-                  messageNameToMessageNodeMap.put(messageName, messageNode);
-                  messageId++;
-                  messageConnectorId++;
-                }
+        for (NetAnalysis net : analysis.nets) {
+          HashMap<String, List<Message>> placeIdToMessagesMap = net.placeIdToMessagesMap;
+
+          for (Map.Entry<String, List<Message>> placeToMessageEntry : placeIdToMessagesMap.entrySet()) {
+            List<Message> messages = placeToMessageEntry.getValue();
+            for(Message message : messages) {
+              String messageName = "Message: "+message.getName() + " From: "+message.getSender() + " To: "+message.getRecipient();
+              if(!messageNameToMessageNodeMap.containsKey(messageName)){
+                Individual messageNode = owl.createNamedIndividual("message_"+messageId, "MessageSpecification", "message_"+messageId, message.getName());
+                owl.append(messageNode);
+                addContainsElement(Arrays.asList(processModelNode, sidNode), messageNode);
+
+                Individual payloadDescriptionNode = owl.createNamedIndividual("payload_description_of_message_"+messageId, "PayloadDescription", "payload_description_of_message_"+messageId, "payload_description_of_message_"+messageId);
+                owl.append(payloadDescriptionNode);
+                addResourceElement(messageNode, payloadDescriptionNode, "containsPayloadDescription");
+
+                Individual messageExchangeNode = owl.createNamedIndividual("SID_1_StandardMessageConnector_"+messageConnectorId+"_message_"+messageId, "MessageExchange", "SID_1_StandardMessageConnector_"+messageConnectorId+"_message_"+messageId, messageName);
+                owl.append(messageExchangeNode);
+                addResourceElement(messageExchangeNode, subjectNameToSubjectNodeMap.get(message.getSender()), "hasSender");
+                addResourceElement(messageExchangeNode, subjectNameToSubjectNodeMap.get(message.getRecipient()), "hasReceiver");
+                addResourceElement(messageExchangeNode, messageNode, "hasMessageType");
+                addContainsElement(Arrays.asList(processModelNode, sidNode), messageExchangeNode);
+
+                messageNameToMessageExchangeNodeMap.put(messageName, messageExchangeNode);
+                messageNameToMessageNodeMap.put(messageName, messageNode);
+                messageId++;
+                messageConnectorId++;
+              }
 
-                if(message.getSender().equals(name)){
-                  addContainsElement(resultDocument, subjectNameToMessageExchangeListNodeMap.get(name), messageNameToMessageExchangeNodeMap.get(messageName));
-                }
+              if(message.getSender().equals(name)){
+                addContainsElement(subjectNameToMessageExchangeListNodeMap.get(name), messageNameToMessageExchangeNodeMap.get(messageName));
               }
             }
+          }
 
-            final HashMap<String, Node> transitionIdToStateNodeMap = new HashMap<>();
-            final HashMap<String, Node> transitionIdToActionNodeMap = new HashMap<>();
-            final HashMap<String, String> doStatesIdToNameMap = new HashMap<>();
-            final HashMap<String, String> sendStatesIdToNameMap = new HashMap<>();
-            final HashMap<String, Arc> pnmlArcIdMap = getArcIdMap(net);
-            final List<Arc> pnmlArcs = new ArrayList<>(pnmlArcIdMap.values());
-
-            HashMap<String, Message> messagePlaceIdToMessageMap = new HashMap<>();
-            for (Map.Entry<String, List<Message>> placeEntry : placeIdToMessagesMap.entrySet()) {
-              placeEntry.getValue().forEach(pe -> messagePlaceIdToMessageMap.put(pe.getMessagePlaceId(), pe));
+          final HashMap<String, Individual> transitionIdToStateNodeMap = new HashMap<>();
+          final HashMap<String, Individual> transitionIdToActionNodeMap = new HashMap<>();
+          final HashMap<String, String> doStatesIdToNameMap = new HashMap<>();
+          final HashMap<String, String> sendStatesIdToNameMap = new HashMap<>();
+          HashMap<String, Message> messagePlaceIdToMessageMap = net.messagePlaceIdToMessageMap;
+
+          //First create all OWL states based on the PNML transitions, since the states will be referenced afterwards
+          final HashMap<String, Individual> stateNamesToStateNodeMap = new HashMap<>();
+          final HashMap<String, Individual> stateNamesToActionNodeMap = new HashMap<>();
+          final HashMap<String, String> transitions = net.transitions;
+          for (Map.Entry<String, String> transitionEntry : transitions.entrySet()) {
+            String transitionName = transitionEntry.getKey();
+            String transitionIdentifier = transitionEntry.getValue();
+
+            String stateType = net.stateTypes.get(transitionIdentifier);
+            if(stateType.equals("DoState")){
+              doStatesIdToNameMap.put(transitionIdentifier, transitionName);
+            } else if (stateType.equals("SendState")){
+              sendStatesIdToNameMap.put(transitionIdentifier, transitionName);
             }
-            HashSet<Arc> directLinksBetweenTransitions = getDirectLinksBetweenTransitions(allPlaces, messagePlaceIdToMessageMap.keySet(), pnmlArcs);
-
-            //First create all OWL states based on the PNML transitions, since the states will be referenced afterwards
-            final HashMap<String, Node> stateNamesToStateNodeMap = new HashMap<>();
-            final HashMap<String, Node> stateNamesToActionNodeMap = new HashMap<>();
-            final HashMap<String, String> transitions = XMLParserCommons.getTransitionNameIdMap(net);
-            for (Map.Entry<String, String> transitionEntry : transitions.entrySet()) {
-              String transitionName = transitionEntry.getKey();
-              String transitionIdentifier = transitionEntry.getValue();
-
-              String stateType = getStateType(pnmlArcs, transitionIdentifier, placeIdToMessagesMap);
-              if(stateType.equals("DoState")){
-                doStatesIdToNameMap.put(transitionIdentifier, transitionName);
-              } else if (stateType.equals("SendState")){
-                sendStatesIdToNameMap.put(transitionIdentifier, transitionName);
-              }
 
-              Node stateNode;
-              Node actionNode;
+            Individual stateNode;
+            Individual actionNode;
 
-              if(stateNamesToStateNodeMap.containsKey(transitionName)){
-                stateNode = stateNamesToStateNodeMap.get(transitionName);
-                actionNode = stateNamesToActionNodeMap.get(transitionName);
-              } else {
-                stateNode = createNamedIndividual(resultDocument, "SBD_"+name+"_"+stateType+"_"+stateId, stateType, "SBD_"+name+"_"+stateType+"_"+stateId, transitionName);
-                rdfNode.appendChild(stateNode);
-                addHasFunctionSpecificationElement(resultDocument, stateNode, stateType);
-                addContainsElement(resultDocument, subjectNameToBehaviorNodeMap.get(name), stateNode);
+            if(stateNamesToStateNodeMap.containsKey(transitionName)){
+              stateNode = stateNamesToStateNodeMap.get(transitionName);
+              actionNode = stateNamesToActionNodeMap.get(transitionName);
+            } else {
+              stateNode = owl.createNamedIndividual("SBD_"+name+"_"+stateType+"_"+stateId, stateType, "SBD_"+name+"_"+stateType+"_"+stateId, transitionName);
+              owl.append(stateNode);
+              addHasFunctionSpecificationElement(stateNode, stateType);
+              addContainsElement(subjectNameToBehaviorNodeMap.get(name), stateNode);
 
-                String actionIdentifier = "action_of_SBD_"+name+"_"+stateType+"_"+stateId;
-                actionNode = createNamedIndividual(resultDocument, actionIdentifier, "Action", actionIdentifier, actionIdentifier);
-                rdfNode.appendChild(actionNode);
-                addContainsElement(resultDocument, actionNode, stateNode);
-                addContainsElement(resultDocument, subjectNameToBehaviorNodeMap.get(name), actionNode);
+              String actionIdentifier = "action_of_SBD_"+name+"_"+stateType+"_"+stateId;
+              actionNode = owl.createNamedIndividual(actionIdentifier, "Action", actionIdentifier, actionIdentifier);
+              owl.append(actionNode);
+              addContainsElement(actionNode, stateNode);
+              addContainsElement(subjectNameToBehaviorNodeMap.get(name), actionNode);
 
 
-                stateNamesToStateNodeMap.put(transitionName, stateNode);
-                stateNamesToActionNodeMap.put(transitionName, actionNode);
-                stateId++;
-              }
-
-              if(isInitialState(directLinksBetweenTransitions, transitionIdentifier)){
-                addInitialStateElement(resultDocument, stateNode);
-                addResourceElement(resultDocument, subjectNameToBehaviorNodeMap.get(name), stateNode, "hasInitialState");
-              } else if(isEndState(directLinksBetweenTransitions, transitionIdentifier)){
-                addEndStateElement(resultDocument, stateNode);
-                addResourceElement(resultDocument, subjectNameToBehaviorNodeMap.get(name), stateNode, "hasEndState");
-              }
+              stateNamesToStateNodeMap.put(transitionName, stateNode);
+              stateNamesToActionNodeMap.put(transitionName, actionNode);
+              stateId++;
+            }
 
-              transitionIdToStateNodeMap.put(transitionIdentifier, stateNode);
-              transitionIdToActionNodeMap.put(transitionIdentifier, actionNode);
+            if(net.initialStates.contains(transitionIdentifier)){
+              addInitialStateElement(stateNode);
+              addResourceElement(subjectNameToBehaviorNodeMap.get(name), stateNode, "hasInitialState");
+            } else if(net.endStates.contains(transitionIdentifier)){
+              addEndStateElement(stateNode);
+              addResourceElement(subjectNameToBehaviorNodeMap.get(name), stateNode, "hasEndState");
             }
 
-            //Then create OWL transitions, that reference the states created before
-            for(Arc arc : directLinksBetweenTransitions){
-              HashMap<String, List<Node>> transitionNodes = new HashMap<>();
-              if(doStatesIdToNameMap.containsKey(arc.getSource())){
-                String transitionName = doStatesIdToNameMap.get(arc.getSource());
-                Node transitionNode = createNamedIndividual(resultDocument, "SBD_"+name+"_StandardTransition_"+transitionId, "StandardTransition", "SBD_"+name+"_StandardTransition_"+transitionId, transitionName+" done");
-                transitionNodes.put(arc.getSource(), Arrays.asList(transitionNode));
-                transitionId++;
-              } else if(sendStatesIdToNameMap.containsKey(arc.getSource())){
-                List<Message> messages = new ArrayList<>();
-                arc.getRefersToMessagePlaceIds().forEach(mpId -> messages.add(messagePlaceIdToMessageMap.get(mpId)));
-                Node transitionNode;
-
-                for(Message message : messages){
-                  if (!message.getRecipient().equals(name)){
-                    transitionNode = createNamedIndividual(resultDocument, "SBD_"+name+"_SendTransition_"+transitionId, "SendTransition", "SBD_"+name+"_SendTransition_"+transitionId, "To: "+message.getRecipient()+" Msg: "+message.getName());
-                    String transitionConditionLabel = "sendTransitionCondition_"+"SBD_"+name+"_SendTransition_"+transitionId;
-                    Node transitionConditionNode = createNamedIndividual(resultDocument, transitionConditionLabel, "SendTransitionCondition", transitionConditionLabel, transitionConditionLabel);
-                    rdfNode.appendChild(transitionConditionNode);
-                    addResourceElement(resultDocument, transitionNode, transitionConditionNode, "hasTransitionCondition");
-
-                    String messageIdentifier = "Message: "+message.getName() + " From: "+message.getSender() + " To: "+message.getRecipient();
-                    addResourceElement(resultDocument, transitionNode, messageNameToMessageExchangeNodeMap.get(messageIdentifier), "refersTo");
-
-                    addToMapList(transitionNodes, arc.getSource(), transitionNode);
-                    transitionId++;
-                  }
+            transitionIdToStateNodeMap.put(transitionIdentifier, stateNode);
+            transitionIdToActionNodeMap.put(transitionIdentifier, actionNode);
+          }
+
+          //Then create OWL transitions, that reference the states created before
+          for(Arc arc : net.directLinksBetweenTransitions){
+            HashMap<String, List<Individual>> transitionNodes = new HashMap<>();
+            if(doStatesIdToNameMap.containsKey(arc.getSource())){
+              String transitionName = doStatesIdToNameMap.get(arc.getSource());
+              Individual transitionNode = owl.createNamedIndividual("SBD_"+name+"_StandardTransition_"+transitionId, "StandardTransition", "SBD_"+name+"_StandardTransition_"+transitionId, transitionName+" done");
+              transitionNodes.put(arc.getSource(), Arrays.asList(transitionNode));
+              transitionId++;
+            } else if(sendStatesIdToNameMap.containsKey(arc.getSource())){
+              List<Message> messages = new ArrayList<>();
+              arc.getRefersToMessagePlaceIds().forEach(mpId -> messages.add(messagePlaceIdToMessageMap.get(mpId)));
+              Individual transitionNode;
+
+              for(Message message : messages){
+                if (!message.getRecipient().equals(name)){
+                  transitionNode = owl.createNamedIndividual("SBD_"+name+"_SendTransition_"+transitionId, "SendTransition", "SBD_"+name+"_SendTransition_"+transitionId, "To: "+message.getRecipient()+" Msg: "+message.getName());
+                  String transitionConditionLabel = "sendTransitionCondition_"+"SBD_"+name+"_SendTransition_"+transitionId;
+                  Individual transitionConditionNode = owl.createNamedIndividual(transitionConditionLabel, "SendTransitionCondition", transitionConditionLabel, transitionConditionLabel);
+                  owl.append(transitionConditionNode);
+                  addResourceElement(transitionNode, transitionConditionNode, "hasTransitionCondition");
+
+                  String messageIdentifier = "Message: "+message.getName() + " From: "+message.getSender() + " To: "+message.getRecipient();
+                  addResourceElement(transitionNode, messageNameToMessageExchangeNodeMap.get(messageIdentifier), "refersTo");
+
+                  addToMapList(transitionNodes, arc.getSource(), transitionNode);
+                  transitionId++;
                 }
+              }
 
-              } else {
-                List<Message> messages = new ArrayList<>();
-                arc.getRefersToMessagePlaceIds().forEach(mpId -> messages.add(messagePlaceIdToMessageMap.get(mpId)));
-                Node transitionNode;
+            } else {
+              List<Message> messages = new ArrayList<>();
+              arc.getRefersToMessagePlaceIds().forEach(mpId -> messages.add(messagePlaceIdToMessageMap.get(mpId)));
+              Individual transitionNode;
 
-                for(Message message : messages){
-                  if (!message.getSender().equals(name)){
-                    transitionNode = createNamedIndividual(resultDocument, "SBD_"+name+"_ReceiveTransition_"+transitionId, "ReceiveTransition", "SBD_"+name+"_ReceiveTransition_"+transitionId, "From: "+message.getSender()+" Msg: "+message.getName());
+              for(Message message : messages){
+                if (!message.getSender().equals(name)){
+                  transitionNode = owl.createNamedIndividual("SBD_"+name+"_ReceiveTransition_"+transitionId, "ReceiveTransition", "SBD_"+name+"_ReceiveTransition_"+transitionId, "From: "+message.getSender()+" Msg: "+message.getName());
 
-                    String messageIdentifier = "Message: "+message.getName() + " From: "+message.getSender() + " To: "+message.getRecipient();
-                    addResourceElement(resultDocument, transitionNode, messageNameToMessageExchangeNodeMap.get(messageIdentifier), "refersTo");
+                  String messageIdentifier = "Message: "+message.getName() + " From: "+message.getSender() + " To: "+message.getRecipient();
+                  addResourceElement(transitionNode, messageNameToMessageExchangeNodeMap.get(messageIdentifier), "refersTo");
 
-                    addToMapList(transitionNodes, arc.getSource(), transitionNode);
-                    transitionId++;
-                  }
+                  addToMapList(transitionNodes, arc.getSource(), transitionNode);
+                  transitionId++;
                 }
               }
+            }
 
-              transitionNodes.forEach((id, nodes) -> {
-                nodes.forEach(transitionNode -> {
-                  rdfNode.appendChild(transitionNode);
-                  addPriorityNumberElement(resultDocument, transitionNode);
-                  Node source = transitionIdToStateNodeMap.get(arc.getSource());
-                  Node target = transitionIdToStateNodeMap.get(arc.getTarget());
-
-                  addResourceElement(resultDocument, transitionNode, source, "hasSourceState");
-                  addResourceElement(resultDocument, transitionNode, target, "hasTargetState");
-                  addContainsElement(resultDocument, Arrays.asList(subjectNameToBehaviorNodeMap.get(name), transitionIdToActionNodeMap.get(id)), transitionNode);
-                });
+            transitionNodes.forEach((id, nodes) -> {
+              nodes.forEach(transitionNode -> {
+                owl.append(transitionNode);
+                addPriorityNumberElement(transitionNode);
+                Individual source = transitionIdToStateNodeMap.get(arc.getSource());
+                Individual target = transitionIdToStateNodeMap.get(arc.getTarget());
+
+                addResourceElement(transitionNode, source, "hasSourceState");
+                addResourceElement(transitionNode, target, "hasTargetState");
+                addContainsElement(Arrays.asList(subjectNameToBehaviorNodeMap.get(name), transitionIdToActionNodeMap.get(id)), transitionNode);
               });
-            }
+            });
           }
         }
+        if (analysis.error != null) {
+          throw analysis.error;
+        }
       } catch (final Exception e) {
         LOG.error(e.getMessage());
         LOG.error("Exception while generating OWL");
       }
     }
 
-    StreamResult documentResult;
-    final DOMSource source = new DOMSource(resultDocument);
-
-    Writer writer = new StringWriter();
-    documentResult = new StreamResult(writer);
-    final TransformerFactory transformerFactory = TransformerFactory.newInstance();
-    final Transformer transformer = transformerFactory.newTransformer();
-    transformer.transform(source, documentResult);
-
-
-    //This is necessary since inline doctype is erased by the transformer Source: https://stackoverflow.com/questions/3509860/how-can-i-retain-doctype-info-in-xml-documnet-during-read-write-process
-    String docType =  "<!DOCTYPE rdf:RDF [ " +
-            "    <!ENTITY owl \"http://www.w3.org/2002/07/owl#\" >" +
-            "    <!ENTITY xsd \"http://www.w3.org/2001/XMLSchema#\" >" +
-            "    <!ENTITY rdfs \"http://www.w3.org/2000/01/rdf-schema#\" >" +
-            "    <!ENTITY abstract-pass-ont \"http://www.imi.kit.edu/abstract-pass-ont#\" >" +
-            "    <!ENTITY standard-pass-ont \"http://www.i2pm.net/standard-pass-ont#\" >" +
-            "    <!ENTITY rdf \"http://www.w3.org/1999/02/22-rdf-syntax-ns#\" >" +
-            "]>";
-
-    String documentString = writer.toString();
-    documentString = documentString.replaceFirst("<rdf:RDF", docType+"<rdf:RDF");
-    documentString = documentString.replaceAll("&amp;", "&");
-
-    Writer resultWriter = new StringWriter();
-    resultWriter.write(documentString);
-    StreamResult result = new StreamResult(resultWriter);
-    return result;
-
+    owl.write(outputStream);
   }
 
-  private Node getOWLSkeleton(Document doc, DocumentBuilder builder) throws IOException, SAXException {
-    String skeleton = "<?xml version=\"1.0\"?>" +
-            "" +
-            "<rdf:RDF xmlns:abstract-pass-ont=\"http://www.imi.kit.edu/abstract-pass-ont#\" xmlns:standard-pass-ont=\"http://www.i2pm.net/standard-pass-ont#\" xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\" xmlns:owl=\"http://www.w3.org/2002/07/owl#\" xmlns:xsd=\"http://www.w3.org/2001/XMLSchema#\" xmlns:rdfs=\"http://www.w3.org/2000/01/rdf-schema#\" xmlns=\"" + ontologyUri + "\">" +
-            "	<owl:Ontology rdf:about=\""+ontologyUri+"\">" +
-            "       <owl:versionIRI rdf:resource=\""+ontologyUri+"\"></owl:versionIRI>" +
-            "		<owl:imports rdf:resource=\"http://www.imi.kit.edu/abstract-pass-ont\"></owl:imports>" +
-            "		<owl:imports rdf:resource=\"http://www.i2pm.net/standard-pass-ont\"></owl:imports>" +
-            "	</owl:Ontology>" +
-            "</rdf:RDF>";
-
-    Document doc2 = builder.parse(new ByteArrayInputStream(skeleton.getBytes()));
-    Node node = doc.importNode(doc2.getDocumentElement(), true);
-    doc.appendChild(node);
-    return node;
+  /**
+   * Reads the nets of the PNML of a subject and derives everything which does not depend on the other subjects
+   */
+  private SubjectAnalysis analyze(String pnmlContent) {
+    SubjectAnalysis analysis = new SubjectAnalysis();
+    XMLEventReader reader = null;
+    try {
+      reader = XMLParserCommons.createEventReader(pnmlContent);
+      PetriNet net;
+      while ((net = XMLParserCommons.nextNet(reader)) != null) {
+        analysis.nets.add(analyze(net));
+      }
+    } catch (final Exception e) {
+      analysis.error = e;
+    } finally {
+      close(reader);
+    }
+    return analysis;
   }
 
-  private Node createNamedIndividual(Document doc, String aboutName, String type, String id, String label) {
-    final Element namedIndividual = doc.createElement("owl:NamedIndividual");
-    namedIndividual.setAttribute("rdf:about", ontologyUri+"#"+aboutName);
-
-    final Element rdfType = doc.createElement("rdf:type");
-    rdfType.setAttribute("rdf:resource", standardPassOntUri+type);
-    namedIndividual.appendChild(rdfType);
+  private NetAnalysis analyze(PetriNet net) {
+    NetAnalysis analysis = new NetAnalysis();
+    analysis.placeIdToMessagesMap = net.getPlaceIdToMessagesMap();
+    analysis.transitions = net.getTransitions();
 
-    final Element componentId = doc.createElement("standard-pass-ont:hasModelComponentID");
-    componentId.setAttribute("rdf:datatype", "&xsd;string");
-    componentId.appendChild(doc.createTextNode(id));
-    namedIndividual.appendChild(componentId);
-
-    final Element componentLabel = doc.createElement("standard-pass-ont:hasModelComponentLabel");
-    componentLabel.setAttribute("xml:lang", "en");
-    componentLabel.appendChild(doc.createTextNode(label));
-    namedIndividual.appendChild(componentLabel);
-
-    return namedIndividual;
+    final List<Arc> pnmlArcs = new ArrayList<>(net.getArcIdMap().values());
+    for (Map.Entry<String, List<Message>> placeEntry : analysis.placeIdToMessagesMap.entrySet()) {
+      placeEntry.getValue().forEach(pe -> analysis.messagePlaceIdToMessageMap.put(pe.getMessagePlaceId(), pe));
+    }
+    analysis.directLinksBetweenTransitions = getDirectLinksBetweenTransitions(net.getPlaceIds(), analysis.messagePlaceIdToMessageMap.keySet(), pnmlArcs);
+
+    for (String transitionIdentifier : analysis.transitions.values()) {
+      analysis.stateTypes.put(transitionIdentifier, getStateType(pnmlArcs, transitionIdentifier, analysis.placeIdToMessagesMap));
+      if (isInitialState(analysis.directLinksBetweenTransitions, transitionIdentifier)) {
+        analysis.initialStates.add(transitionIdentifier);
+      } else if (isEndState(analysis.directLinksBetweenTransitions, transitionIdentifier)) {
+        analysis.endStates.add(transitionIdentifier);
+      }
+    }
+    return analysis;
   }
 
-  private void addContainsElement(Document doc, Node addToNode, Node resourceNode){
-    addResourceElement(doc, addToNode, resourceNode, "contains");
+  private void close(XMLEventReader reader) {
+    if (reader != null) {
+      try {
+        reader.close();
+      } catch (final XMLStreamException e) {
+        LOG.warn(e.getMessage());
+      }
+    }
   }
 
-  private void addContainsElement(Document doc, List<Node> addToNodes, Node resourceNode){
-    addToNodes.forEach(node -> addContainsElement(doc, node, resourceNode));
+  private void addContainsElement(Individual addToNode, Individual resourceNode){
+    addResourceElement(addToNode, resourceNode, "contains");
   }
 
-  private void addPriorityNumberElement(Document doc, Node addToNode) {
-    final Element priorityNumber = doc.createElement("standard-pass-ont:hasPriorityNumber");
-    priorityNumber.setAttribute("rdf:datatype", "http://www.w3.org/2001/XMLSchema#positiveInteger");
-    priorityNumber.appendChild(doc.createTextNode("1"));
-    addToNode.appendChild(priorityNumber);
+  private void addContainsElement(List<Individual> addToNodes, Individual resourceNode){
+    addToNodes.forEach(node -> addContainsElement(node, resourceNode));
   }
 
-  private void addMaximumSubjectInstanceRestrictionElement(Document doc, Node addToNode) {
-    final Element restriction = doc.createElement("standard-pass-ont:hasMaximumSubjectInstanceRestriction");
-    restriction.setAttribute("rdf:datatype", "http://www.w3.org/2001/XMLSchema#integer");
-    restriction.appendChild(doc.createTextNode("1"));
-    addToNode.appendChild(restriction);
+  private void addPriorityNumberElement(Individual addToNode) {
+    addToNode.add(writer -> writeLiteral(writer, "hasPriorityNumber", "rdf", RDF, "datatype", XSD+"positiveInteger", "1"));
   }
 
-  private void addHasFunctionSpecificationElement(Document doc, Node addToNode, String stateType) {
-    final Element specification = doc.createElement("standard-pass-ont:hasFunctionSpecification");
+  private void addMaximumSubjectInstanceRestrictionElement(Individual addToNode) {
+    addToNode.add(writer -> writeLiteral(writer, "hasMaximumSubjectInstanceRestriction", "rdf", RDF, "datatype", XSD+"integer", "1"));
+  }
 
+  private void addHasFunctionSpecificationElement(Individual addToNode, String stateType) {
     String type = "Do1_EnvoironmentChoice";
     if (stateType.equals("SendState")) {
       type = "Send";
@@ -373,74 +357,35 @@ public class GenerateOWLServiceImpl implements GenerateOWLService {
       type = "Receive";
     }
 
-    specification.setAttribute("rdf:resource", "http://www.i2pm.net/standard-pass-ont#DefaultFunction"+type);
-    addToNode.appendChild(specification);
+    final String resource = STANDARD_PASS_ONT+"DefaultFunction"+type;
+    addToNode.add(writer -> writeResource(writer, "standard-pass-ont", STANDARD_PASS_ONT, "hasFunctionSpecification", resource));
   }
 
-  private void addResourceElement(Document doc, Node addToNode, Node resourceNode, String tag){
-    final Element resourceElement = doc.createElement("standard-pass-ont:"+tag);
-    resourceElement.setAttribute("rdf:resource", resourceNode.getAttributes().getNamedItem("rdf:about").getNodeValue());
-    addToNode.appendChild(resourceElement);
+  private void addResourceElement(Individual addToNode, Individual resourceNode, String tag){
+    final String resource = resourceNode.about;
+    addToNode.add(writer -> writeResource(writer, "standard-pass-ont", STANDARD_PASS_ONT, tag, resource));
   }
 
-  private void addInitialStateElement(Document doc, Node addToNode){
-    final Element element = doc.createElement("rdf:type");
-    element.setAttribute("rdf:resource", standardPassOntUri+"InitialState");
-    addToNode.appendChild(element);
+  private void addInitialStateElement(Individual addToNode){
+    addToNode.add(writer -> writeResource(writer, "rdf", RDF, "type", STANDARD_PASS_ONT+"InitialState"));
   }
 
-  private void addEndStateElement(Document doc, Node addToNode){
-    final Element element = doc.createElement("rdf:type");
-    element.setAttribute("rdf:resource", standardPassOntUri+"EndState");
-    addToNode.appendChild(element);
+  private void addEndStateElement(Individual addToNode){
+    addToNode.add(writer -> writeResource(writer, "rdf", RDF, "type", STANDARD_PASS_ONT+"EndState"));
   }
 
-  private HashMap<String, List<Message>> getPlaceIdToMessagesMap(final Element net) {
-    HashMap<String, List<Message>> placeIdToMessagesMap = new HashMap<>();
-    final NodeList placeNodes = net.getElementsByTagName("place");
-    for (int i = 0; i < placeNodes.getLength(); i++) {
-      final Element placeNode = (Element) placeNodes.item(i);
-      final NodeList toolspecificNodes = placeNode.getElementsByTagName("toolspecific");
-      String id = placeNode.getAttributes().getNamedItem("id").getNodeValue();
-
-      if(toolspecificNodes.getLength() > 0){
-        NamedNodeMap attributes = toolspecificNodes.item(0).getAttributes();
-        String tool = attributes.getNamedItem("tool").getNodeValue();
-
-        if(tool.equals("SBPM")){
-          String type = attributes.getNamedItem("type").getNodeValue();
-          String message = attributes.getNamedItem("message").getNodeValue();
-          String recipient = attributes.getNamedItem("recipient").getNodeValue();
-          String sender = attributes.getNamedItem("sender").getNodeValue();
-
-          Message messageObj = new Message(message, recipient, sender, id);
-
-          if(type.equals("receive")){
-            id = attributes.getNamedItem("actualTargetId").getNodeValue();
-          }
-
-          if(placeIdToMessagesMap.containsKey(id)){
-            placeIdToMessagesMap.get(id).add(messageObj);
-          } else {
-            List<Message> newList = new ArrayList<>();
-            newList.add(messageObj);
-            placeIdToMessagesMap.put(id, newList);
-          }
-        }
-      }
-    }
-    return placeIdToMessagesMap;
+  private static void writeResource(XMLStreamWriter writer, String prefix, String namespaceUri, String tag, String resource)
+          throws XMLStreamException {
+    writer.writeEmptyElement(prefix, tag, namespaceUri);
+    writer.writeAttribute("rdf", RDF, "resource", resource);
   }
 
-  private HashSet<String> getAllPlaceIds(final Element net) {
-    HashSet<String> allPlaceIds = new HashSet<>();
-    final NodeList placeNodes = net.getElementsByTagName("place");
-    for (int i = 0; i < placeNodes.getLength(); i++) {
-      final Element placeNode = (Element) placeNodes.item(i);
-      String id = placeNode.getAttributes().getNamedItem("id").getNodeValue();
-      allPlaceIds.add(id);
-    }
-    return allPlaceIds;
+  private static void writeLiteral(XMLStreamWriter writer, String tag, String attributePrefix,
+          String attributeNamespaceUri, String attribute, String attributeValue, String text) throws XMLStreamException {
+    writer.writeStartElement("standard-pass-ont", tag, STANDARD_PASS_ONT);
+    writer.writeAttribute(attributePrefix, attributeNamespaceUri, attribute, attributeValue);
+    writer.writeCharacters(text != null ? text : "");
+    writer.writeEndElement();
   }
 
   private HashSet<Arc> getDirectLinksBetweenTransitions(HashSet<String> allPlaceIds, Set<String> allMessagePlaceIds, List<Arc> pnmlArcs){
@@ -550,19 +495,113 @@ public class GenerateOWLServiceImpl implements GenerateOWLService {
     return arcs.stream().filter(sourcePredicate).count() < 1;
   }
 
-  private HashMap<String, Arc> getArcIdMap(final Element net) {
-    final HashMap<String, Arc> pnmlArcIdMap = new HashMap<>();
-    final NodeList arcNodes = net.getElementsByTagName("arc");
+  /**
+   * Result of the analysis of the PNML of one subject, error is set if not all nets could be read
+   */
+  private static class SubjectAnalysis {
+
+    private final List<NetAnalysis> nets = new ArrayList<>();
+    private Exception error;
+  }
+
+  private static class NetAnalysis {
+
+    private HashMap<String, String> transitions;
+    private HashMap<String, List<Message>> placeIdToMessagesMap;
+    private final HashMap<String, Message> messagePlaceIdToMessageMap = new HashMap<>();
+    private HashSet<Arc> directLinksBetweenTransitions;
+    private final HashMap<String, String> stateTypes = new HashMap<>();
+    private final HashSet<String> initialStates = new HashSet<>();
+    private final HashSet<String> endStates = new HashSet<>();
+  }
+
+  @FunctionalInterface
+  private interface Property {
+    void write(XMLStreamWriter writer) throws XMLStreamException;
+  }
+
+  /**
+   * owl:NamedIndividual with the properties added so far
+   */
+  private static class Individual {
 
-    for (int i = 0; i < arcNodes.getLength(); i++) {
-      final Element arcNode = (Element) arcNodes.item(i);
-      String id = arcNode.getAttributes().getNamedItem("id").getNodeValue();
-      String source = arcNode.getAttributes().getNamedItem("source").getNodeValue();
-      String target = arcNode.getAttributes().getNamedItem("target").getNodeValue();
+    private final String about;
+    private final List<Property> properties = new ArrayList<>();
 
-      pnmlArcIdMap.put(id, new Arc(id, source, target));
+    private Individual(String about) {
+      this.about = about;
     }
 
-    return pnmlArcIdMap;
+    private void add(Property property) {
+      properties.add(property);
+    }
+
+    private void write(XMLStreamWriter writer) throws XMLStreamException {
+      writer.writeStartElement("owl", "NamedIndividual", OWL);
+      writer.writeAttribute("rdf", RDF, "about", about);
+      for (Property property : properties) {
+        property.write(writer);
+      }
+      writer.writeEndElement();
+    }
+  }
+
+  /**
+   * Individuals of one generated OWL in document order
+   */
+  private static class OWLDocument {
+
+    private final String ontologyUri;
+    private final List<Individual> individuals = new ArrayList<>();
+
+    private OWLDocument(String ontologyUri) {
+      this.ontologyUri = ontologyUri;
+    }
+
+    private Individual createNamedIndividual(String aboutName, String type, String id, String label) {
+      final Individual individual = new Individual(ontologyUri+"#"+aboutName);
+      individual.add(writer -> writeResource(writer, "rdf", RDF, "type", STANDARD_PASS_ONT+type));
+      individual.add(writer -> writeLiteral(writer, "hasModelComponentID", "rdf", RDF, "datatype", XSD+"string", id));
+      individual.add(writer -> writeLiteral(writer, "hasModelComponentLabel", XMLConstants.XML_NS_PREFIX, XMLConstants.XML_NS_URI, "lang", "en", label));
+      return individual;
+    }
+
+    private void append(Individual individual) {
+      individuals.add(individual);
+    }
+
+    private void write(OutputStream outputStream) throws XMLStreamException {
+      final XMLStreamWriter writer = XMLParserCommons.createStreamWriter(outputStream);
+      try {
+        writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+        writer.writeDTD(DOC_TYPE);
+
+        writer.writeStartElement("rdf", "RDF", RDF);
+        writer.writeNamespace("abstract-pass-ont", ABSTRACT_PASS_ONT);
+        writer.writeNamespace("standard-pass-ont", STANDARD_PASS_ONT);
+        writer.writeNamespace("rdf", RDF);
+        writer.writeNamespace("owl", OWL);
+        writer.writeNamespace("xsd", XSD);
+        writer.writeNamespace("rdfs", RDFS);
+        writer.writeDefaultNamespace(ontologyUri);
+
+        writer.writeStartElement("owl", "Ontology", OWL);
+        writer.writeAttribute("rdf", RDF, "about", ontologyUri);
+        writeResource(writer, "owl", OWL, "versionIRI", ontologyUri);
+        writeResource(writer, "owl", OWL, "imports", "http://www.imi.kit.edu/abstract-pass-ont");
+        writeResource(writer, "owl", OWL, "imports", "http://www.i2pm.net/standard-pass-ont");
+        writer.writeEndElement();
+
+        for (Individual individual : individuals) {
+          individual.write(writer);
+        }
+
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.flush();
+      } finally {
+        writer.close();
+      }
+    }
   }
 }
\ No newline at end of file
@@ -1,9 +1,17 @@
 package at.fhjoanneum.ippr.eventlogger.services;
 
-import javax.xml.transform.stream.StreamResult;
+import java.io.OutputStream;
 
 public interface ManipulatePNMLService {
 
-  StreamResult manipulatePNML(final String pnmlContent, final String csvLog) throws Exception;
+  void manipulatePNML(final String pnmlContent, final String csvLog,
+      final OutputStream outputStream) throws Exception;
+
+  /**
+   * Enriches the PNML with the directly-follows graph of the subject maintained on ingest, instead
+   * of a posted event log
+   */
+  void manipulatePNML(final String pnmlContent, final int processModelId, final String subject,
+      final OutputStream outputStream) throws Exception;
 
 }
\ No newline at end of file
@@ -3,11 +3,14 @@ package at.fhjoanneum.ippr.eventlogger.services;
 
 import at.fhjoanneum.ippr.eventlogger.helper.LogEntry;
 import at.fhjoanneum.ippr.eventlogger.helper.LogKey;
+import at.fhjoanneum.ippr.eventlogger.helper.PetriNet;
 import at.fhjoanneum.ippr.eventlogger.helper.XMLParserCommons;
+import at.fhjoanneum.ippr.eventlogger.persistence.EventLogDfgRepository;
 import at.fhjoanneum.ippr.persistence.objects.model.enums.StateFunctionType;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,19 +21,16 @@ import org.supercsv.cellprocessor.ift.CellProcessor;
 import org.supercsv.io.CsvBeanReader;
 import org.supercsv.io.ICsvBeanReader;
 import org.supercsv.prefs.CsvPreference;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.StartDocument;
+import javax.xml.stream.events.XMLEvent;
+import java.io.OutputStream;
 import java.io.StringReader;
-import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 
@@ -40,72 +40,109 @@ public class ManipulatePNMLServiceImpl implements ManipulatePNMLService {
 
   private static final Logger LOG = LoggerFactory.getLogger(ManipulatePNMLServiceImpl.class);
 
+  private static final XMLEventFactory EVENT_FACTORY = XMLParserCommons.getEventFactory();
+
+  @Autowired
+  private EventLogDfgRepository eventLogDfgRepository;
+
   @Override
-  public StreamResult manipulatePNML(final String pnmlContent, final String csvLog)
-      throws Exception {
-    StreamResult result = new StreamResult();
+  public void manipulatePNML(final String pnmlContent, final String csvLog,
+      final OutputStream outputStream) throws Exception {
+    final LinkedHashSet<LogEntry> logEntries = parseCSV(csvLog);
+    manipulatePNML(pnmlContent, getQuintuplets(logEntries), outputStream);
+  }
 
+  @Override
+  public void manipulatePNML(final String pnmlContent, final int processModelId,
+      final String subject, final OutputStream outputStream) throws Exception {
+    manipulatePNML(pnmlContent, eventLogDfgRepository.getQuintuplets(processModelId, subject),
+        outputStream);
+  }
+
+  /**
+   * Copies the PNML event by event to the output stream and appends the message places and arcs
+   * to each net before its end element
+   */
+  private void manipulatePNML(final String pnmlContent,
+      final LinkedHashMap<LogKey, LogEntry> logQuintuplets, final OutputStream outputStream)
+      throws Exception {
+    XMLEventReader reader = null;
+    XMLEventWriter writer = null;
     try {
-      final LinkedHashSet<LogEntry> logEntries = parseCSV(csvLog);
-      final LinkedHashMap<LogKey, LogEntry> logQuintuplets = getQuintuplets(logEntries);
-      final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-      final InputSource input = new InputSource(new StringReader(pnmlContent));
-      final Document document = documentBuilderFactory.newDocumentBuilder().parse(input);
-      final Element root = document.getDocumentElement();
-      final NodeList nets = root.getElementsByTagName("net");
-
-      for (int temp = 0; temp < nets.getLength(); temp++) {
-        final Node netNode = nets.item(temp);
-        if (netNode.getNodeType() == Node.ELEMENT_NODE) {
-          final Element net = (Element) netNode;
-          final HashMap<String, String> transitions = XMLParserCommons.getTransitionNameIdMap(net);
-
-          int numOfCustomPlaces = 1;
-          int numOfCustomArcs = 1;
-          for(Map.Entry<LogKey, LogEntry> entry : logQuintuplets.entrySet()){
-            final LogEntry eventLogEntry = entry.getValue();
-
-            final String state = eventLogEntry.getState();
-            final String activity = eventLogEntry.getActivity();
-            final String messageType = eventLogEntry.getMessageType();
-            final String recipient = eventLogEntry.getRecipient();
-            final String sender = eventLogEntry.getSender();
-
-            if (state.equals(StateFunctionType.SEND.name()) && transitions.containsKey(activity)) {
-              final String placeId = addPlace(document, net, numOfCustomPlaces++, messageType, recipient, sender, "send", "");
-              addArc(document, net, numOfCustomArcs++, transitions.get(activity), placeId,
-                      messageType);
-            } else if (state.equals(StateFunctionType.RECEIVE.name())) {
-              if (eventLogEntry.getNextLogEntryKey() == null) {
-                throw (new Exception("Last Log-Entry may not be of type Receive!"));
-              }
-              final LogEntry nextEventLogEntry = logQuintuplets.get(eventLogEntry.getNextLogEntryKey());
-
-              final String nextActivity = nextEventLogEntry.getActivity();
-
-              if(transitions.containsKey(nextActivity)) {
-                final String placeId = addPlace(document, net, numOfCustomPlaces++, messageType, recipient, sender, "receive", transitions.get(activity));
-                addArc(document, net, numOfCustomArcs++, placeId, transitions.get(nextActivity),
-                        messageType);
-              }
-            }
-          }
+      // checked before anything is written, so that the error can still be sent as response
+      for (final LogEntry eventLogEntry : logQuintuplets.values()) {
+        if (eventLogEntry.getState().equals(StateFunctionType.RECEIVE.name())
+            && eventLogEntry.getNextLogEntryKey() == null) {
+          throw (new Exception("Last Log-Entry may not be of type Receive!"));
         }
+      }
 
-        final DOMSource source = new DOMSource(document);
+      reader = XMLParserCommons.createEventReader(pnmlContent);
+      writer = XMLParserCommons.createEventWriter(outputStream);
 
-        result = new StreamResult(new StringWriter());
-        final TransformerFactory transformerFactory = TransformerFactory.newInstance();
-        final Transformer transformer = transformerFactory.newTransformer();
-        transformer.transform(source, result);
+      PetriNet net = null;
+      while (reader.hasNext()) {
+        final XMLEvent event = reader.nextEvent();
+        if (net == null && XMLParserCommons.isNetStart(event)) {
+          net = new PetriNet();
+        }
+        if (net != null && !net.accept(event)) {
+          addMessages(writer, net.getTransitions(), logQuintuplets);
+          net = null;
+        }
+
+        if (event.isStartDocument()) {
+          writer.add(EVENT_FACTORY.createStartDocument(StandardCharsets.UTF_8.name(),
+              ((StartDocument) event).getVersion()));
+        } else {
+          writer.add(event);
+        }
       }
+      writer.flush();
     } catch (final Exception e) {
       LOG.error(e.getMessage());
       LOG.error("Exception while manipulating PNML");
       throw (e);
+    } finally {
+      if (writer != null) {
+        writer.close();
+      }
+      if (reader != null) {
+        reader.close();
+      }
     }
+  }
 
-    return result;
+  private void addMessages(final XMLEventWriter writer, final HashMap<String, String> transitions,
+      final LinkedHashMap<LogKey, LogEntry> logQuintuplets) throws XMLStreamException {
+    int numOfCustomPlaces = 1;
+    int numOfCustomArcs = 1;
+    for (final Map.Entry<LogKey, LogEntry> entry : logQuintuplets.entrySet()) {
+      final LogEntry eventLogEntry = entry.getValue();
+
+      final String state = eventLogEntry.getState();
+      final String activity = eventLogEntry.getActivity();
+      final String messageType = eventLogEntry.getMessageType();
+      final String recipient = eventLogEntry.getRecipient();
+      final String sender = eventLogEntry.getSender();
+
+      if (state.equals(StateFunctionType.SEND.name()) && transitions.containsKey(activity)) {
+        final String placeId = addPlace(writer, numOfCustomPlaces++, messageType, recipient,
+            sender, "send", "");
+        addArc(writer, numOfCustomArcs++, transitions.get(activity), placeId, messageType);
+      } else if (state.equals(StateFunctionType.RECEIVE.name())) {
+        final LogEntry nextEventLogEntry =
+            logQuintuplets.get(eventLogEntry.getNextLogEntryKey());
+
+        final String nextActivity = nextEventLogEntry.getActivity();
+
+        if (transitions.containsKey(nextActivity)) {
+          final String placeId = addPlace(writer, numOfCustomPlaces++, messageType, recipient,
+              sender, "receive", transitions.get(activity));
+          addArc(writer, numOfCustomArcs++, placeId, transitions.get(nextActivity), messageType);
+        }
+      }
+    }
   }
 
   private LinkedHashSet<LogEntry> parseCSV(final String csvLog) throws Exception {
@@ -178,97 +215,80 @@ public class ManipulatePNMLServiceImpl implements ManipulatePNMLService {
     return processors;
   }
 
-  private String addArc(final Document document, final Element net, final int id,
-      final String sourceId, final String targetId, final String name) {
+  private String addArc(final XMLEventWriter writer, final int id, final String sourceId,
+      final String targetId, final String name) throws XMLStreamException {
     // Custom Arc
-    final Element newArc = document.createElement("arc");
-    net.appendChild(newArc);
-
-    // Id
     final String arcId = "ca" + id;
-    newArc.setAttribute("id", arcId);
-
-    // Source Id
-    newArc.setAttribute("source", sourceId);
-
-    // Target Id
-    newArc.setAttribute("target", targetId);
+    startElement(writer, "arc", "id", arcId, "source", sourceId, "target", targetId);
 
     // Name
-    final Element nameElement = document.createElement("name");
-    newArc.appendChild(nameElement);
-
-    // Name Text
-    final Element nameText = document.createElement("text");
-    nameText.appendChild(document.createTextNode(name));
-    nameElement.appendChild(nameText);
+    startElement(writer, "name");
+    textElement(writer, "text", name);
+    endElement(writer, "name");
 
     // Arctype
-    final Element arcTypeElement = document.createElement("arcType");
-    newArc.appendChild(arcTypeElement);
-
-    // Arctype Text
-    final Element arcTypeText = document.createElement("text");
-    arcTypeText.appendChild(document.createTextNode("normal"));
-    arcTypeElement.appendChild(arcTypeText);
+    startElement(writer, "arcType");
+    textElement(writer, "text", "normal");
+    endElement(writer, "arcType");
 
+    endElement(writer, "arc");
     return arcId;
   }
 
-  private String addPlace(final Document document, final Element net, final int id,
-      final String name, final String recipient, final String sender, final String type, final String actualTargetId) {
+  private String addPlace(final XMLEventWriter writer, final int id, final String name,
+      final String recipient, final String sender, final String type,
+      final String actualTargetId) throws XMLStreamException {
     // Custom Place
-    final Element newPlace = document.createElement("place");
-    net.appendChild(newPlace);
-
-    // Id
     final String placeId = "cp" + id;
-    newPlace.setAttribute("id", placeId);
+    startElement(writer, "place", "id", placeId);
 
     // Name
-    final Element nameElement = document.createElement("name");
-    newPlace.appendChild(nameElement);
-
-    // Name Text
     String nameText = name;
-    if(name != null){
-      nameText = name +  " To: " + recipient + " From: " + sender;
-    }
-    final Element text = document.createElement("text");
-    text.appendChild(document.createTextNode(nameText));
-    nameElement.appendChild(text);
-
-    //Toolspecific infos used for generating OWL files afterwards
-    final Element toolspecificElement = document.createElement("toolspecific");
-    toolspecificElement.setAttribute("tool", "SBPM");
-    toolspecificElement.setAttribute("version", "1.0");
-    toolspecificElement.setAttribute("message", name);
-    toolspecificElement.setAttribute("type", type);
-    toolspecificElement.setAttribute("recipient", recipient);
-    toolspecificElement.setAttribute("sender", sender);
-
-    if(!actualTargetId.isEmpty()){
-      toolspecificElement.setAttribute("actualTargetId", actualTargetId);
+    if (name != null) {
+      nameText = name + " To: " + recipient + " From: " + sender;
     }
+    startElement(writer, "name");
+    textElement(writer, "text", nameText);
+    endElement(writer, "name");
 
-    newPlace.appendChild(toolspecificElement);
+    // Toolspecific infos used for generating OWL files afterwards
+    startElement(writer, "toolspecific", "tool", "SBPM", "version", "1.0", "message", name,
+        "type", type, "recipient", recipient, "sender", sender, "actualTargetId",
+        actualTargetId.isEmpty() ? null : actualTargetId);
+    endElement(writer, "toolspecific");
 
     // Graphics
-    final Element graphics = document.createElement("graphics");
-    newPlace.appendChild(graphics);
+    startElement(writer, "graphics");
+    startElement(writer, "position", "x", "0", "y", "0");
+    endElement(writer, "position");
+    endElement(writer, "graphics");
 
-    // Graphics Position
-    final Element position = document.createElement("position");
-    position.setAttribute("x", "0");
-    position.setAttribute("y", "0");
-    graphics.appendChild(position);
+    endElement(writer, "place");
+    return placeId;
+  }
 
-    // Graphics Dimension
-    final Element dimension = document.createElement("dimension");
-    dimension.setAttribute("x", "12.5");
-    dimension.setAttribute("y", "12.5");
-    graphics.appendChild(position);
+  /**
+   * @param attributes pairs of attribute name and value, attributes without value are omitted
+   */
+  private static void startElement(final XMLEventWriter writer, final String name,
+      final String... attributes) throws XMLStreamException {
+    writer.add(EVENT_FACTORY.createStartElement("", "", name));
+    for (int i = 0; i < attributes.length; i += 2) {
+      if (attributes[i + 1] != null) {
+        writer.add(EVENT_FACTORY.createAttribute(attributes[i], attributes[i + 1]));
+      }
+    }
+  }
 
-    return placeId;
+  private static void textElement(final XMLEventWriter writer, final String name,
+      final String text) throws XMLStreamException {
+    startElement(writer, name);
+    writer.add(EVENT_FACTORY.createCharacters(text != null ? text : ""));
+    endElement(writer, name);
+  }
+
+  private static void endElement(final XMLEventWriter writer, final String name)
+      throws XMLStreamException {
+    writer.add(EVENT_FACTORY.createEndElement("", "", name));
   }
 }
@@ -0,0 +1,50 @@
+package at.fhjoanneum.ippr.eventlogger.startup;
+
+import at.fhjoanneum.ippr.eventlogger.persistence.EventLogBatchRepository;
+import at.fhjoanneum.ippr.eventlogger.persistence.EventLogDfgRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Creates the case summaries, epoch millis and directly-follows graph for events which were
+ * stored before they existed
+ */
+@Transactional
+@Component
+public class EventLogInitializer implements CommandLineRunner {
+
+  private static final Logger LOG = LoggerFactory.getLogger(EventLogInitializer.class);
+
+  private static final int PAGE_SIZE = 1000;
+
+  @Autowired
+  private EventLogBatchRepository eventLogBatchRepository;
+
+  @Autowired
+  private EventLogDfgRepository eventLogDfgRepository;
+
+  @Override
+  public void run(final String... args) throws Exception {
+    // the case summaries take the latest marker by epoch millis
+    final int events = eventLogBatchRepository.initializeEpochMillis(PAGE_SIZE);
+    if (events > 0) {
+      LOG.info("Initialized epoch millis of [{}] events", events);
+    }
+    final int cases = eventLogBatchRepository.initializeCases();
+    if (cases > 0) {
+      LOG.info("Initialized [{}] case summaries from the event log", cases);
+    }
+    final int completions = eventLogBatchRepository.initializeCaseCompletions();
+    if (completions > 0) {
+      LOG.info("Initialized [{}] case completions from the case summaries", completions);
+    }
+    final int dfgEvents = eventLogDfgRepository.initialize(PAGE_SIZE);
+    if (dfgEvents > 0) {
+      LOG.info("Initialized directly-follows graph from [{}] events", dfgEvents);
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package at.fhjoanneum.ippr.eventlogger.persistence;
+
+import at.fhjoanneum.ippr.commons.dto.eventlogger.EventLoggerDTO;
+import at.fhjoanneum.ippr.eventlogger.helper.EventTimestamp;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Runs the statements against the event log tables in H2, whose MySQL mode supports the upserts
+ */
+public class EventLogBatchRepositoryImplTest {
+
+  private static final String URL = "jdbc:h2:mem:event_log;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+  private static final String[] SCHEMA = {
+      "CREATE TABLE event_log (event_id BIGINT AUTO_INCREMENT PRIMARY KEY, case_id BIGINT, "
+          + "process_model_id BIGINT, timestamp VARCHAR(255), epoch_millis BIGINT, "
+          + "activity VARCHAR(255), resource VARCHAR(255), state VARCHAR(255), "
+          + "message_type VARCHAR(255), recipient VARCHAR(255), sender VARCHAR(255))",
+      "CREATE TABLE event_log_case (case_id BIGINT PRIMARY KEY, process_model_id BIGINT, "
+          + "started_at VARCHAR(255), ended_at VARCHAR(255), complete BOOLEAN NOT NULL)",
+      "CREATE TABLE event_log_case_completion (completion_id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+          + "case_id BIGINT, CONSTRAINT uk_event_log_case_completion UNIQUE (case_id))"};
+
+  private JdbcTemplate jdbcTemplate;
+
+  private EventLogBatchRepositoryImpl repository;
+
+  @Before
+  public void setUp() {
+    jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(URL));
+    for (final String table : SCHEMA) {
+      jdbcTemplate.execute(table);
+    }
+    repository = new EventLogBatchRepositoryImpl();
+    ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+  }
+
+  @After
+  public void tearDown() {
+    jdbcTemplate.execute("DROP ALL OBJECTS");
+  }
+
+  @Test
+  public void caseIsCompleteOnceStartAndEndMarkersAreStored() {
+    repository.updateCases(Collections.singletonList(marker(1L, "Process Start", "10:00")));
+
+    assertThat(getCase(1L)).contains(entry("PROCESS_MODEL_ID", 7L),
+        entry("STARTED_AT", "01.02.2017 10:00"), entry("ENDED_AT", null),
+        entry("COMPLETE", false));
+    assertThat(getCompletedCases()).isEmpty();
+
+    repository.updateCases(Collections.singletonList(marker(1L, "Process End", "11:00")));
+
+    assertThat(getCase(1L)).contains(entry("STARTED_AT", "01.02.2017 10:00"),
+        entry("ENDED_AT", "01.02.2017 11:00"), entry("COMPLETE", true));
+    assertThat(getCompletedCases()).containsExactly(1L);
+  }
+
+  @Test
+  public void endMarkerWhichArrivesFirstCompletesTheCaseWithTheStartMarker() {
+    repository.updateCases(Collections.singletonList(marker(1L, "Process End", "11:00")));
+    assertThat(getCase(1L)).contains(entry("STARTED_AT", null), entry("COMPLETE", false));
+
+    repository.updateCases(Collections.singletonList(marker(1L, "Process Start", "10:00")));
+
+    assertThat(getCase(1L)).contains(entry("STARTED_AT", "01.02.2017 10:00"),
+        entry("ENDED_AT", "01.02.2017 11:00"), entry("COMPLETE", true));
+    assertThat(getCompletedCases()).containsExactly(1L);
+  }
+
+  @Test
+  public void completedCaseIsRecordedOnceAcrossBatches() {
+    repository.updateCases(Arrays.asList(marker(1L, "Process Start", "10:00"),
+        marker(1L, "Process End", "11:00"), marker(2L, "Process Start", "10:00")));
+    repository.updateCases(Collections.singletonList(marker(1L, "Process End", "12:00")));
+
+    assertThat(getCase(1L)).contains(entry("ENDED_AT", "01.02.2017 12:00"));
+    assertThat(getCompletedCases()).containsExactly(1L);
+  }
+
+  @Test
+  public void eventsOfSubjectsAreNoCaseMarkers() {
+    repository.updateCases(Arrays.asList(event(1L, "Process Start", "Subject"),
+        event(1L, "Task", "Subject"), event(1L, "Process End", "Subject")));
+
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_log_case", Long.class))
+        .isZero();
+    assertThat(getCompletedCases()).isEmpty();
+  }
+
+  @Test
+  public void initializedCaseTakesTheLatestMarkerByTimeNotByTimestampString() {
+    repository.insert(Arrays.asList(marker(1L, "Process Start", "09:00"),
+        new EventLoggerDTO(1L, 7L, "31.01.2017 10:00", "Process End", "", "", "", "", ""),
+        marker(1L, "Process End", "10:00"), marker(2L, "Process Start", "09:00")));
+
+    assertThat(repository.initializeCases()).isEqualTo(2);
+
+    assertThat(getCase(1L)).contains(entry("STARTED_AT", "01.02.2017 09:00"),
+        entry("ENDED_AT", "01.02.2017 10:00"), entry("COMPLETE", true));
+    assertThat(getCase(2L)).contains(entry("ENDED_AT", null), entry("COMPLETE", false));
+  }
+
+  @Test
+  public void initializedEpochMillisAreParsedLikeIngestedEvents() {
+    final String insert = "INSERT INTO event_log (case_id, timestamp) VALUES (1, ?)";
+    jdbcTemplate.update(insert, "01.02.2017 10:00");
+    jdbcTemplate.update(insert, "unknown");
+    jdbcTemplate.update(insert, "01.02.2017 11:00");
+
+    assertThat(repository.initializeEpochMillis(1)).isEqualTo(2);
+
+    assertThat(jdbcTemplate.queryForList("SELECT epoch_millis FROM event_log ORDER BY event_id",
+        Long.class)).containsExactly(EventTimestamp.toEpochMillis("01.02.2017 10:00"), null,
+            EventTimestamp.toEpochMillis("01.02.2017 11:00"));
+  }
+
+  private Map<String, Object> getCase(final long caseId) {
+    return jdbcTemplate.queryForMap("SELECT * FROM event_log_case WHERE case_id = ?", caseId);
+  }
+
+  private List<Long> getCompletedCases() {
+    return jdbcTemplate.queryForList(
+        "SELECT case_id FROM event_log_case_completion ORDER BY completion_id", Long.class);
+  }
+
+  private static EventLoggerDTO marker(final long caseId, final String activity,
+      final String time) {
+    return new EventLoggerDTO(caseId, 7L, "01.02.2017 " + time, activity, "", "", "", "", "");
+  }
+
+  private static EventLoggerDTO event(final long caseId, final String activity,
+      final String resource) {
+    return new EventLoggerDTO(caseId, 7L, "01.02.2017 10:00", activity, resource, "State", "",
+        "", "");
+  }
+}
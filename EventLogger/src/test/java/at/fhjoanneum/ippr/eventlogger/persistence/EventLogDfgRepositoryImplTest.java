@@ -0,0 +1,134 @@
+package at.fhjoanneum.ippr.eventlogger.persistence;
+
+import at.fhjoanneum.ippr.commons.dto.eventlogger.EventLoggerDTO;
+import at.fhjoanneum.ippr.eventlogger.helper.EventTimestamp;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Builds the directly-follows graph in H2 from events which arrive out of the order of their time
+ */
+public class EventLogDfgRepositoryImplTest {
+
+  private static final String URL = "jdbc:h2:mem:event_log_dfg;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+  private static final String[] SCHEMA = {
+      "CREATE TABLE event_log (event_id BIGINT AUTO_INCREMENT PRIMARY KEY, case_id BIGINT, "
+          + "process_model_id BIGINT, timestamp VARCHAR(255), epoch_millis BIGINT, "
+          + "activity VARCHAR(255), resource VARCHAR(255), state VARCHAR(255), "
+          + "message_type VARCHAR(255), recipient VARCHAR(255), sender VARCHAR(255))",
+      "CREATE TABLE event_log_activity (activity_id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+          + "process_model_id BIGINT, resource VARCHAR(255), activity VARCHAR(255), "
+          + "state VARCHAR(255), message_type VARCHAR(255), recipient VARCHAR(255), "
+          + "sender VARCHAR(255), key_hash VARCHAR(40), frequency BIGINT NOT NULL, "
+          + "CONSTRAINT uk_event_log_activity UNIQUE (process_model_id, key_hash))",
+      "CREATE TABLE event_log_dfg_edge (edge_id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+          + "process_model_id BIGINT, resource VARCHAR(255), source_hash VARCHAR(40), "
+          + "target_hash VARCHAR(40), frequency BIGINT NOT NULL, last_seen_at BIGINT, "
+          + "CONSTRAINT uk_event_log_dfg_edge "
+          + "UNIQUE (process_model_id, source_hash, target_hash))",
+      "CREATE TABLE event_log_dfg_tail (tail_id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+          + "case_id BIGINT, resource VARCHAR(255), key_hash VARCHAR(40), epoch_millis BIGINT, "
+          + "CONSTRAINT uk_event_log_dfg_tail UNIQUE (case_id, resource))"};
+
+  private static final String SELECT_EDGES =
+      "SELECT CONCAT(s.activity, '>', t.activity, ':', e.frequency) FROM event_log_dfg_edge e "
+          + "JOIN event_log_activity s ON s.key_hash = e.source_hash "
+          + "JOIN event_log_activity t ON t.key_hash = e.target_hash ORDER BY s.activity, t.activity";
+
+  private JdbcTemplate jdbcTemplate;
+
+  private EventLogBatchRepositoryImpl batchRepository;
+
+  private EventLogDfgRepositoryImpl repository;
+
+  @Before
+  public void setUp() {
+    jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(URL));
+    for (final String table : SCHEMA) {
+      jdbcTemplate.execute(table);
+    }
+    batchRepository = new EventLogBatchRepositoryImpl();
+    ReflectionTestUtils.setField(batchRepository, "jdbcTemplate", jdbcTemplate);
+    repository = new EventLogDfgRepositoryImpl();
+    ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+  }
+
+  @After
+  public void tearDown() {
+    jdbcTemplate.execute("DROP ALL OBJECTS");
+  }
+
+  @Test
+  public void eventsOfABatchFollowEachOtherByTime() {
+    store(event(1L, "C", "10:02"), event(1L, "A", "10:00"), event(1L, "B", "10:01"));
+
+    assertThat(getEdges()).containsExactly("A>B:1", "B>C:1");
+    assertThat(getTail(1L)).isEqualTo(EventTimestamp.toEpochMillis("01.02.2017 10:02"));
+  }
+
+  @Test
+  public void lateEventReplacesTheEdgeItFallsInto() {
+    store(event(1L, "A", "10:00"), event(1L, "C", "10:02"));
+    store(event(2L, "A", "10:00"), event(2L, "C", "10:02"));
+
+    store(event(1L, "B", "10:01"));
+
+    assertThat(getEdges()).containsExactly("A>B:1", "A>C:1", "B>C:1");
+    assertThat(getTail(1L)).isEqualTo(EventTimestamp.toEpochMillis("01.02.2017 10:02"));
+  }
+
+  @Test
+  public void lateEventBeforeAllStoredOnesBecomesTheFirst() {
+    store(event(1L, "B", "10:01"), event(1L, "C", "10:02"));
+
+    store(event(1L, "A", "10:00"));
+
+    assertThat(getEdges()).containsExactly("A>B:1", "B>C:1");
+  }
+
+  @Test
+  public void initializedGraphFollowsTheTimeOfTheStoredEvents() {
+    batchRepository.insert(Arrays.asList(event(1L, "C", "10:02"), event(1L, "A", "10:00"),
+        event(2L, "A", "10:00"), event(1L, "B", "10:01")));
+
+    assertThat(repository.initialize(1)).isEqualTo(4);
+
+    assertThat(getEdges()).containsExactly("A>B:1", "B>C:1");
+    assertThat(getTail(2L)).isEqualTo(EventTimestamp.toEpochMillis("01.02.2017 10:00"));
+  }
+
+  /**
+   * Stores a batch like the ingest does, the graph is updated before the events are inserted
+   */
+  private void store(final EventLoggerDTO... events) {
+    final List<EventLoggerDTO> batch = Arrays.asList(events);
+    repository.update(batch);
+    batchRepository.insert(batch);
+  }
+
+  private List<String> getEdges() {
+    return jdbcTemplate.queryForList(SELECT_EDGES, String.class);
+  }
+
+  private Long getTail(final long caseId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT epoch_millis FROM event_log_dfg_tail WHERE case_id = ?", Long.class, caseId);
+  }
+
+  private static EventLoggerDTO event(final long caseId, final String activity,
+      final String time) {
+    return new EventLoggerDTO(caseId, 7L, "01.02.2017 " + time, activity, "Subject", "State",
+        "", "", "");
+  }
+}
@@ -1,33 +1,45 @@
 package at.fhjoanneum.ippr.communicator.akka.actors.compose;
 
-import java.util.UUID;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import akka.actor.ActorRef;
+import akka.actor.Status;
 import akka.actor.UntypedActor;
-import at.fhjoanneum.ippr.communicator.akka.config.SpringExtension;
-import at.fhjoanneum.ippr.communicator.akka.messages.commands.ConfigRetrievalCommand;
-import at.fhjoanneum.ippr.communicator.akka.messages.commands.UpdateMessageStateCommand;
-import at.fhjoanneum.ippr.communicator.akka.messages.compose.commands.ComposeMessageCommand;
+import akka.pattern.PatternsCS;
 import at.fhjoanneum.ippr.communicator.akka.messages.compose.commands.ComposeMessageCreateCommand;
-import at.fhjoanneum.ippr.communicator.akka.messages.compose.commands.SendConfigRetrieveCommand;
-import at.fhjoanneum.ippr.communicator.akka.messages.compose.commands.SendMessageCommand;
-import at.fhjoanneum.ippr.communicator.akka.messages.compose.commands.StoreExternalDataCommand;
-import at.fhjoanneum.ippr.communicator.akka.messages.compose.events.ConfigRetrievedEvent;
-import at.fhjoanneum.ippr.communicator.akka.messages.compose.events.SendConfigRetrievedEvent;
-import at.fhjoanneum.ippr.communicator.composer.Composer;
-import at.fhjoanneum.ippr.communicator.feign.ProcessEngineClient;
+import at.fhjoanneum.ippr.communicator.akka.messages.compose.events.MessageSentEvent;
+import at.fhjoanneum.ippr.communicator.akka.messages.events.WorkflowFinishedEvent;
+import at.fhjoanneum.ippr.communicator.persistence.entities.messageflow.MessageBuilder;
+import at.fhjoanneum.ippr.communicator.persistence.entities.messageflow.MessageImpl;
+import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.Message;
 import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.MessageState;
-import at.fhjoanneum.ippr.communicator.plugins.send.SendPlugin;
-
-@Transactional(isolation = Isolation.READ_COMMITTED)
+import at.fhjoanneum.ippr.communicator.plugins.OutboundPlan;
+import at.fhjoanneum.ippr.communicator.plugins.PluginRegistry;
+import at.fhjoanneum.ippr.communicator.repositories.BasicOutboundConfigurationRepository;
+import at.fhjoanneum.ippr.communicator.repositories.MessageRepository;
+import at.fhjoanneum.ippr.communicator.services.FieldNameDictionaryService;
+import at.fhjoanneum.ippr.communicator.services.OutboxService;
+import at.fhjoanneum.ippr.communicator.utils.InternalDataUtils;
+
+/**
+ * Composes and sends one outbound message.
+ * <p>
+ * The plan of the configuration and the composed body are kept in memory, the message is only
+ * written to the database at its checkpoints: it is inserted once, as COMPOSED or as TO_COMPOSE if
+ * the composer failed, and updated to SENT after it was sent. The database is not accessed while
+ * the message is composed or sent.
+ * <p>
+ * Sending does not block the actor, the send plugin signals the completion with a
+ * {@link MessageSentEvent}, or with a {@link Status.Failure} if the send plugin failed. If the
+ * message could not be sent, it is left to the {@link OutboxService} to retry it.
+ */
 @Component("ComposeMessageActor")
 @Scope("prototype")
 public class ComposeMessageActor extends UntypedActor {
@@ -35,77 +47,109 @@ public class ComposeMessageActor extends UntypedActor {
   private final static Logger LOG = LoggerFactory.getLogger(ComposeMessageActor.class);
 
   @Autowired
-  private SpringExtension springExtension;
+  private OutboxService outboxService;
+
+  @Autowired
+  private PluginRegistry pluginRegistry;
+
+  @Autowired
+  private MessageRepository messageRepository;
+
+  @Autowired
+  private BasicOutboundConfigurationRepository basicConfigurationRepository;
+
+  @Autowired
+  private FieldNameDictionaryService fieldNameDictionaryService;
+
+  @Value("${message.external-data.compression-threshold:4096}")
+  private int compressionThreshold;
+
+  private TransactionTemplate transactionTemplate;
+
+  private Message message;
 
   @Autowired
-  private ProcessEngineClient processEngineClient;
+  public void setTransactionManager(final PlatformTransactionManager transactionManager) {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+  }
 
   @Override
   public void onReceive(final Object msg) throws Throwable {
     if (msg instanceof ComposeMessageCreateCommand) {
-      handleComposeMessageCreateCommand(msg);
-    } else if (msg instanceof ComposeMessageCommand) {
-      handleComposeMessageCommand(msg);
-    } else if (msg instanceof ConfigRetrievedEvent) {
-      handleConfigRetrievedEvent(msg);
-    } else if (msg instanceof SendMessageCommand) {
-      handleSendMessageCommand(msg);
-    } else if (msg instanceof SendConfigRetrievedEvent) {
-      handleSendConfigRetrievedEvent(msg);
+      handleComposeMessageCreateCommand((ComposeMessageCreateCommand) msg);
+    } else if (msg instanceof MessageSentEvent) {
+      handleMessageSentEvent((MessageSentEvent) msg);
+    } else if (msg instanceof Status.Failure) {
+      handleSendFailure((Status.Failure) msg);
     } else {
       LOG.warn("Unhandled message [{}]", msg);
       unhandled(msg);
     }
   }
 
-  private void handleComposeMessageCreateCommand(final Object msg) {
-    getDBPersistenceActor().tell(msg, getContext().parent());
-  }
+  private void handleComposeMessageCreateCommand(final ComposeMessageCreateCommand cmd) {
+    final OutboundPlan plan =
+        pluginRegistry.getOutboundPlan(cmd.getConfigId(), basicConfigurationRepository::findOne);
 
-  private void handleComposeMessageCommand(final Object msg) {
-    final ComposeMessageCommand cmd = (ComposeMessageCommand) msg;
-    getDBPersistenceActor().tell(new ConfigRetrievalCommand(cmd.getId()), getSelf());
+    final String composedValue = compose(cmd, plan);
+    message = save(cmd, plan, composedValue);
+    if (composedValue != null) {
+      PatternsCS.pipe(plan.send(composedValue).thenApply(MessageSentEvent::new),
+          getContext().dispatcher()).to(getSelf());
+    } else {
+      finish();
+    }
   }
 
-  private void handleConfigRetrievedEvent(final Object msg)
-      throws InstantiationException, IllegalAccessException, ClassNotFoundException {
-    final ConfigRetrievedEvent evt = (ConfigRetrievedEvent) msg;
-
-    final Composer composer =
-        getClass().getClassLoader().loadClass(evt.getBasicConfiguration().getComposerClass())
-            .asSubclass(Composer.class).newInstance();
-
-    final String composedValue = composer.compose(evt.getTransferId(), evt.getData(),
-        evt.getBasicConfiguration().getMessageProtocol(),
-        evt.getBasicConfiguration().getDataTypeComposer(),
-        evt.getBasicConfiguration().getConfiguration());
-
-    getDBPersistenceActor().tell(new StoreExternalDataCommand(evt.getId(), composedValue),
-        getContext().parent());
+  private void handleMessageSentEvent(final MessageSentEvent evt) {
+    try {
+      outboxService.handleSendResult(message, evt.isSent());
+    } finally {
+      finish();
+    }
   }
 
-  private void handleSendMessageCommand(final Object msg) {
-    final SendMessageCommand cmd = (SendMessageCommand) msg;
-    getDBPersistenceActor().tell(new SendConfigRetrieveCommand(cmd.getId()), getSelf());
+  private void handleSendFailure(final Status.Failure failure) {
+    LOG.error("Could not send [{}]: {}", message, failure.cause().getMessage());
+    try {
+      outboxService.handleSendResult(message, false);
+    } finally {
+      finish();
+    }
   }
 
-  private void handleSendConfigRetrievedEvent(final Object msg)
-      throws InstantiationException, IllegalAccessException, ClassNotFoundException {
-    final SendConfigRetrievedEvent evt = (SendConfigRetrievedEvent) msg;
-
-    final SendPlugin plugin = getClass().getClassLoader().loadClass(evt.getSendPlugin())
-        .asSubclass(SendPlugin.class).newInstance();
+  private void finish() {
+    getContext().parent().tell(new WorkflowFinishedEvent(getSelf().path().name()), getSelf());
+  }
 
-    final boolean sent = plugin.send(evt.getBody(), evt.getConfiguration());
-    if (sent) {
-      processEngineClient.markAsSent(evt.getTransferId());
-      getDBPersistenceActor().tell(new UpdateMessageStateCommand(evt.getId(), MessageState.SENT),
-          getContext().parent());
+  private String compose(final ComposeMessageCreateCommand cmd, final OutboundPlan plan) {
+    try {
+      return plan.compose(cmd.getTransferId(), cmd.getData());
+    } catch (final RuntimeException e) {
+      LOG.error("Could not compose message [{}]: {}", cmd.getTransferId(), e.getMessage());
+      return null;
     }
   }
 
-  private ActorRef getDBPersistenceActor() {
-    return getContext().actorOf(springExtension.props("ComposePersistenceActor"),
-        UUID.randomUUID().toString());
+  private Message save(final ComposeMessageCreateCommand cmd, final OutboundPlan plan,
+      final String composedValue) {
+    final Message message = new MessageBuilder().transferId(cmd.getTransferId())
+        .messageState(composedValue != null ? MessageState.COMPOSED : MessageState.TO_COMPOSE)
+        .build();
+    InternalDataUtils.writeInternalData(message, cmd.getData(),
+        fieldNameDictionaryService.register(plan.getDictionary()));
+    if (composedValue != null) {
+      InternalDataUtils.writeExternalData(message, composedValue, compressionThreshold);
+      // the outbox only picks the message up if this actor does not finish in time
+      message.setNextAttemptAt(outboxService.getInitialAttemptAt());
+    }
+
+    transactionTemplate.execute(status -> {
+      message.setOutboundConfiguration(basicConfigurationRepository.getOne(cmd.getConfigId()));
+      return messageRepository.save((MessageImpl) message);
+    });
+    LOG.info("Saved new [{}]", message);
+    return message;
   }
 }
@@ -15,11 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 import akka.actor.ActorRef;
 import akka.actor.UntypedActor;
 import at.fhjoanneum.ippr.communicator.akka.config.SpringExtension;
-import at.fhjoanneum.ippr.communicator.akka.messages.compose.commands.ComposeMessageCommand;
 import at.fhjoanneum.ippr.communicator.akka.messages.compose.commands.ComposeMessageCreateCommand;
-import at.fhjoanneum.ippr.communicator.akka.messages.compose.commands.SendMessageCommand;
-import at.fhjoanneum.ippr.communicator.akka.messages.compose.events.ComposeMessageCreatedEvent;
-import at.fhjoanneum.ippr.communicator.akka.messages.compose.events.ComposedMessageEvent;
 import at.fhjoanneum.ippr.communicator.akka.messages.events.WorkflowFinishedEvent;
 
 @Transactional(isolation = Isolation.READ_COMMITTED)
@@ -38,10 +34,6 @@ public class ComposeSupervisorActor extends UntypedActor {
   public void onReceive(final Object msg) throws Throwable {
     if (msg instanceof ComposeMessageCreateCommand) {
       handleComposeMessageCreateCommand(msg);
-    } else if (msg instanceof ComposeMessageCreatedEvent) {
-      handleComposeMessageCreatedEvent(msg);
-    } else if (msg instanceof ComposedMessageEvent) {
-      handleComposedMessagenEvent(msg);
     } else if (msg instanceof WorkflowFinishedEvent) {
       handleWorkflowFinishedEvent(msg);
     } else {
@@ -57,18 +49,6 @@ public class ComposeSupervisorActor extends UntypedActor {
     actors.put(id, actor);
   }
 
-  private void handleComposeMessageCreatedEvent(final Object msg) {
-    final ComposeMessageCreatedEvent evt = (ComposeMessageCreatedEvent) msg;
-    final ActorRef actor = actors.get(evt.getActorId());
-    actor.tell(new ComposeMessageCommand(evt.getId()), getSelf());
-  }
-
-  private void handleComposedMessagenEvent(final Object msg) {
-    final ComposedMessageEvent evt = (ComposedMessageEvent) msg;
-    final ActorRef actor = actors.get(evt.getActorId());
-    actor.tell(new SendMessageCommand(evt.getId()), getSelf());
-  }
-
   private void handleWorkflowFinishedEvent(final Object msg) {
     final WorkflowFinishedEvent evt = (WorkflowFinishedEvent) msg;
     final ActorRef actor = actors.get(evt.getActorId());
@@ -30,8 +30,8 @@ import at.fhjoanneum.ippr.communicator.akka.messages.parse.events.ConfigRetrieve
 import at.fhjoanneum.ippr.communicator.akka.messages.parse.events.NotifyConfigRetrievedEvent;
 import at.fhjoanneum.ippr.communicator.feign.ProcessEngineClient;
 import at.fhjoanneum.ippr.communicator.parser.ParseResult;
-import at.fhjoanneum.ippr.communicator.parser.Parser;
 import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.MessageState;
+import at.fhjoanneum.ippr.communicator.plugins.PluginRegistry;
 
 @Transactional(isolation = Isolation.READ_COMMITTED)
 @Component("ParseMessageActor")
@@ -46,6 +46,9 @@ public class ParseMessageActor extends AbstractActor {
   @Autowired
   private SpringExtension springExtension;
 
+  @Autowired
+  private PluginRegistry pluginRegistry;
+
   public ParseMessageActor() {
     receive(ReceiveBuilder
         .match(ParseMessageCreateCommand.class,
@@ -62,14 +65,8 @@ public class ParseMessageActor extends AbstractActor {
   }
 
   private void handleConfigRetrievedEvent(final ConfigRetrievedEvent evt) throws Exception {
-    final Parser parser =
-        getClass().getClassLoader().loadClass(evt.getBasicConfiguration().getParserClass())
-            .asSubclass(Parser.class).newInstance();
-
     final ParseResult result =
-        parser.parse(evt.getData(), evt.getBasicConfiguration().getMessageProtocol(),
-            evt.getBasicConfiguration().getDataTypeParser(),
-            evt.getBasicConfiguration().getConfiguration());
+        pluginRegistry.getInboundPlan(evt.getBasicConfiguration()).parse(evt.getData());
 
     getDBPersistenceActor().tell(
         new StoreInternalDataCommand(evt.getId(), evt.getBasicConfiguration().getId(), result),
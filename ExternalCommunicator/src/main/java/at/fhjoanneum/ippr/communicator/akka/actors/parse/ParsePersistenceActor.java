@@ -6,15 +6,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.fasterxml.jackson.core.JsonParseException;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonMappingException;
-
 import akka.actor.AbstractActor;
 import akka.actor.ActorRef;
 import akka.japi.pf.ReceiveBuilder;
@@ -34,10 +31,12 @@ import at.fhjoanneum.ippr.communicator.persistence.entities.submission.ReceiveSu
 import at.fhjoanneum.ippr.communicator.persistence.objects.basic.inbound.BasicInboundConfiguration;
 import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.Message;
 import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.MessageState;
+import at.fhjoanneum.ippr.communicator.plugins.PluginRegistry;
 import at.fhjoanneum.ippr.communicator.repositories.BasicInboundConfigurationRepository;
 import at.fhjoanneum.ippr.communicator.repositories.ConfigurationAssignementRepository;
 import at.fhjoanneum.ippr.communicator.repositories.MessageRepository;
 import at.fhjoanneum.ippr.communicator.repositories.ReceiveSubmissionRepository;
+import at.fhjoanneum.ippr.communicator.services.FieldNameDictionaryService;
 import at.fhjoanneum.ippr.communicator.utils.InternalDataUtils;
 
 @Transactional(isolation = Isolation.READ_COMMITTED)
@@ -55,7 +54,13 @@ public class ParsePersistenceActor extends AbstractActor {
   private ReceiveSubmissionRepository receiveSubmissionRepository;
   @Autowired
   private ConfigurationAssignementRepository configurationAssignementRepository;
+  @Autowired
+  private PluginRegistry pluginRegistry;
+  @Autowired
+  private FieldNameDictionaryService fieldNameDictionaryService;
 
+  @Value("${message.external-data.compression-threshold:4096}")
+  private int compressionThreshold;
 
   public ParsePersistenceActor() {
     receive(
@@ -69,7 +74,7 @@ public class ParsePersistenceActor extends AbstractActor {
 
   private void handleParseMessageCreateCommand(final ParseMessageCreateCommand cmd) {
     final Message msg = new MessageBuilder().messageState(MessageState.TO_PARSE).build();
-    msg.setExternalData(cmd.getData());
+    InternalDataUtils.writeExternalData(msg, cmd.getData(), compressionThreshold);
 
     final BasicInboundConfiguration config =
         basicInboundConfigurationRepository.findOne(cmd.getConfigId());
@@ -87,12 +92,12 @@ public class ParsePersistenceActor extends AbstractActor {
   private void handleConfigRetrievalCommand(final ConfigRetrievalCommand cmd) {
     final Message msg = messageRepository.findOne(cmd.getId());
     sender().tell(
-        new ConfigRetrievedEvent(cmd.getId(), msg.getInboundConfiguration(), msg.getExternalData()),
+        new ConfigRetrievedEvent(cmd.getId(), msg.getInboundConfiguration(),
+            InternalDataUtils.readExternalData(msg)),
         self());
   }
 
-  private void handleStoreInternalDataCommand(final StoreInternalDataCommand cmd)
-      throws JsonProcessingException {
+  private void handleStoreInternalDataCommand(final StoreInternalDataCommand cmd) {
     final Message msg = messageRepository.findOne(cmd.getId());
 
     final String transferId = getTransferId(cmd);
@@ -104,8 +109,9 @@ public class ParsePersistenceActor extends AbstractActor {
 
     msg.setTransferId(transferId + "-" + configurationAssignementRepository
         .findByInboundConfiguration(msg.getInboundConfiguration().getId()).getMessageFlowId());
-    msg.setInternalData(
-        InternalDataUtils.convertInternalDataToJson(cmd.getParseResult().getData()));
+    InternalDataUtils.writeInternalData(msg, cmd.getParseResult().getData(),
+        fieldNameDictionaryService.register(
+            pluginRegistry.getInboundPlan(msg.getInboundConfiguration()).getDictionary()));
     msg.setMessageState(MessageState.PARSED);
     LOG.debug("Updated message [{}]", msg);
 
@@ -140,10 +146,10 @@ public class ParsePersistenceActor extends AbstractActor {
   }
 
   private void handleNotifyProcessEngineCommand(final NotifyProcessEngineCommand cmd)
-      throws JsonParseException, JsonMappingException, IOException {
+      throws IOException {
     final Message msg = messageRepository.findOne(cmd.getId());
     sender().tell(new NotifyConfigRetrievedEvent(cmd.getId(), msg.getTransferId(),
-        InternalDataUtils.convertJsonToInternalData(msg.getInternalData())), self());
+        InternalDataUtils.readInternalData(msg, fieldNameDictionaryService::get)), self());
   }
 
   private void handleUpdateMessageStateCommand(final UpdateMessageStateCommand cmd) {
@@ -1,6 +1,10 @@
 package at.fhjoanneum.ippr.communicator.akka.config;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,6 +14,7 @@ import com.typesafe.config.ConfigFactory;
 
 import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
+import at.fhjoanneum.ippr.commons.akka.dispatch.DispatcherMetrics;
 
 @Configuration
 public class AkkaApplicationConfiguration {
@@ -20,6 +25,12 @@ public class AkkaApplicationConfiguration {
   @Autowired
   private SpringExtension springExtension;
 
+  @Value("${dispatcher.routing.parallelism-max:16}")
+  private int routingParallelismMax;
+
+  @Value("${dispatcher.blocking.pool-size:10}")
+  private int blockingPoolSize;
+
   @Bean
   public ActorSystem actorSystem() {
     final ActorSystem actorSystem = ActorSystem.create("ExternalCommunicator", akkaConfiguration());
@@ -39,8 +50,18 @@ public class AkkaApplicationConfiguration {
         "ParseSupervisorActor");
   }
 
+  @Bean
+  public DispatcherMetrics dispatcherMetrics() {
+    return new DispatcherMetrics();
+  }
+
   @Bean
   public Config akkaConfiguration() {
-    return ConfigFactory.load();
+    final Map<String, Object> dispatchers = new HashMap<>();
+    dispatchers.put(SpringExtension.ROUTING_DISPATCHER + ".fork-join-executor.parallelism-max",
+        routingParallelismMax);
+    dispatchers.put(SpringExtension.BLOCKING_DISPATCHER + ".thread-pool-executor.fixed-pool-size",
+        blockingPoolSize);
+    return ConfigFactory.parseMap(dispatchers).withFallback(ConfigFactory.load());
   }
 }
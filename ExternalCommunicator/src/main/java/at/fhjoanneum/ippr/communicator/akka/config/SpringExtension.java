@@ -1,14 +1,24 @@
 package at.fhjoanneum.ippr.communicator.akka.config;
 
+import java.util.Set;
+
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.ImmutableSet;
+
 import akka.actor.Extension;
 import akka.actor.Props;
 
 @Component
 public class SpringExtension implements Extension {
 
+  public final static String ROUTING_DISPATCHER = "ippr.routing-dispatcher";
+  public final static String BLOCKING_DISPATCHER = "ippr.blocking-dispatcher";
+
+  // supervisors only route messages to the workflow actors
+  private final static Set<String> ROUTING_ACTORS = ImmutableSet.of("ComposeSupervisorActor", "ParseSupervisorActor");
+
   private ApplicationContext applicationContext;
 
   public void initialize(final ApplicationContext applicationContext) {
@@ -16,10 +26,20 @@ public class SpringExtension implements Extension {
   }
 
   public Props props(final String actorBeanName) {
-    return Props.create(SpringActorProducer.class, applicationContext, actorBeanName);
+    return Props.create(SpringActorProducer.class, applicationContext, actorBeanName)
+        .withDispatcher(getDispatcher(actorBeanName));
   }
 
   public Props props(final String actorBeanName, final Object... args) {
-    return Props.create(SpringActorProducer.class, applicationContext, actorBeanName, args);
+    return Props.create(SpringActorProducer.class, applicationContext, actorBeanName, args)
+        .withDispatcher(getDispatcher(actorBeanName));
+  }
+
+  /**
+   * Actors which access the database or remote services run on the blocking dispatcher, so that
+   * they cannot starve the routing of messages
+   */
+  private static String getDispatcher(final String actorBeanName) {
+    return ROUTING_ACTORS.contains(actorBeanName) ? ROUTING_DISPATCHER : BLOCKING_DISPATCHER;
   }
 }
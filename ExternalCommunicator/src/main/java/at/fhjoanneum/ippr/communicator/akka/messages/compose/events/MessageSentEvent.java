@@ -0,0 +1,14 @@
+package at.fhjoanneum.ippr.communicator.akka.messages.compose.events;
+
+public class MessageSentEvent {
+
+  private final boolean sent;
+
+  public MessageSentEvent(final boolean sent) {
+    this.sent = sent;
+  }
+
+  public boolean isSent() {
+    return sent;
+  }
+}
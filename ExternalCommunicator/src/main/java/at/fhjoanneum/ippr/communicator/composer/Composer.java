@@ -7,6 +7,10 @@ import at.fhjoanneum.ippr.communicator.persistence.objects.datatypecomposer.Data
 import at.fhjoanneum.ippr.communicator.persistence.objects.internal.InternalData;
 import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocol;
 
+/**
+ * Composers are cached per configuration and shared between actors, they must not keep state
+ * between calls.
+ */
 public interface Composer {
 
   String compose(String transferId, InternalData data, MessageProtocol messageProtocol,
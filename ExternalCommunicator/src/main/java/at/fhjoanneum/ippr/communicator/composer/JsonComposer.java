@@ -21,9 +21,6 @@ import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProto
 @Transactional(isolation = Isolation.READ_COMMITTED)
 public class JsonComposer implements Composer {
 
-  private String typeKey = "TYPE";
-  private String transferIdKey = "TRANSFER_ID";
-
   private static final Logger LOG = LoggerFactory.getLogger(JsonComposer.class);
 
   @Override
@@ -31,8 +28,8 @@ public class JsonComposer implements Composer {
       final MessageProtocol messageProtocol, final Map<DataType, DataTypeComposer> composer,
       final Map<String, String> configuration) {
     try {
-      typeKey = configuration.get(GlobalKey.TYPE);
-      transferIdKey = configuration.get(GlobalKey.TRANSFER_ID);
+      final String typeKey = configuration.get(GlobalKey.TYPE);
+      final String transferIdKey = configuration.get(GlobalKey.TRANSFER_ID);
 
       final JSONObject json = new JSONObject();
       json.put(transferIdKey, transferId);
@@ -22,14 +22,11 @@ public class XmlComposer implements Composer {
 
   private static final Logger LOG = LoggerFactory.getLogger(XmlComposer.class);
 
-  private String transferIdKey = "TRANSFER_ID";
-
-
   @Override
   public String compose(final String transferId, final InternalData data,
       final MessageProtocol messageProtocol, final Map<DataType, DataTypeComposer> composer,
       final Map<String, String> configuration) {
-    transferIdKey = configuration.get(GlobalKey.TRANSFER_ID);
+    final String transferIdKey = configuration.get(GlobalKey.TRANSFER_ID);
 
     final Directives root = new Directives().add(messageProtocol.getExternalName());
     root.attr(transferIdKey, transferId);
@@ -4,12 +4,15 @@ import at.fhjoanneum.ippr.communicator.persistence.objects.DataType;
 
 public class ComposerUtils {
 
+  private static final DataTypeComposer STRING_COMPOSER = new StringComposer();
+  private static final DataTypeComposer INT_COMPOSER = new IntComposer();
+
   public static String compose(final String input, final DataType datatype) {
     switch (datatype) {
       case STRING:
-        return new StringComposer().compose(input);
+        return STRING_COMPOSER.compose(input);
       case INT:
-        return new IntComposer().compose(input);
+        return INT_COMPOSER.compose(input);
       default:
         throw new IllegalArgumentException("Could not find composer for [" + input + "]");
     }
@@ -10,4 +10,10 @@ public final class GlobalKey {
 
   public final static String TYPE = "TYPE";
 
+  public final static String CONNECT_TIMEOUT = "CONNECT-TIMEOUT";
+
+  public final static String READ_TIMEOUT = "READ-TIMEOUT";
+
+  public final static String MAX_CONCURRENT_REQUESTS = "MAX-CONCURRENT-REQUESTS";
+
 }
@@ -1,17 +1,17 @@
 package at.fhjoanneum.ippr.communicator.parser;
 
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
-import org.codehaus.jettison.json.JSONException;
-import org.codehaus.jettison.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.collect.MapMaker;
 
 import at.fhjoanneum.ippr.communicator.global.GlobalKey;
 import at.fhjoanneum.ippr.communicator.parser.datatype.ParserUtils;
@@ -22,61 +22,99 @@ import at.fhjoanneum.ippr.communicator.persistence.objects.internal.InternalFiel
 import at.fhjoanneum.ippr.communicator.persistence.objects.internal.InternalObject;
 import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocol;
 
+/**
+ * Parses the values of a JSON message in a single pass over the token stream.
+ * <p>
+ * The values of an object are assigned to the protocol with the name of the object as external
+ * name, the values of the root object to the protocol named by the {@link GlobalKey#TYPE} value.
+ * Only values which are fields of the protocol are kept.
+ */
 public class JsonParser implements Parser {
 
   private final static Logger LOG = LoggerFactory.getLogger(JsonParser.class);
 
-  private String typeKey = "TYPE";
-  private String transferIdKey = "TRANSFER-ID";
-  private String transferId;
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
-  private final Table<String, String, String> cache = HashBasedTable.create();
-  private final Map<String, InternalObject> objects = new HashMap<>();
+  // the protocols of the cached plans, entries are removed with the invalidated plans. Weak keys
+  // are compared by identity, the protocol equals by id would return the compiled form of an
+  // edited protocol.
+  private final Map<MessageProtocol, CompiledProtocol> compiledProtocols =
+      new MapMaker().weakKeys().makeMap();
 
   @Override
   public ParseResult parse(final String input, final MessageProtocol messageProtocol,
       final Map<DataType, DataTypeParser> parser, final Map<String, String> configuration)
       throws Exception {
-    final JSONObject object = new JSONObject(input);
-
-    typeKey = configuration.get(GlobalKey.TYPE);
-    transferIdKey = configuration.get(GlobalKey.TRANSFER_ID);
+    final CompiledProtocol protocol =
+        compiledProtocols.computeIfAbsent(messageProtocol, CompiledProtocol::new);
+    final ParseContext context = new ParseContext(protocol, configuration.get(GlobalKey.TYPE),
+        configuration.get(GlobalKey.TRANSFER_ID));
+
+    try (final com.fasterxml.jackson.core.JsonParser json = JSON_FACTORY.createParser(input)) {
+      if (json.nextToken() != JsonToken.START_OBJECT) {
+        throw new IllegalArgumentException("Message is not a JSON object");
+      }
+      readObject(context, json, null);
+    }
 
-    getValues(object, null);
-    convertToInternalObject(messageProtocol);
+    if (context.type == null) {
+      throw new IllegalArgumentException("Missing [" + context.typeKey + "]");
+    }
+    if (context.transferId == null) {
+      throw new IllegalArgumentException("Missing [" + context.transferIdKey + "]");
+    }
+    // the values of the root object belong to the type, which may follow them
+    context.getValues(context.type).putAll(context.rootValues);
 
-    return new ParseResult(transferId, new InternalData(objects));
+    final Map<String, InternalObject> objects = new HashMap<>();
+    convertToInternalObject(context, messageProtocol, objects);
+    return new ParseResult(context.transferId, new InternalData(objects));
   }
 
-  private void getValues(final JSONObject object, String type) throws JSONException {
-    if (type == null) {
-      type = object.getString(typeKey);
-      transferId = object.getString(transferIdKey);
-    }
-
-    final Iterator<String> keys = object.keys();
-    while (keys.hasNext()) {
-      final String key = keys.next();
-      try {
-        final JSONObject child = object.getJSONObject(key);
-        getValues(child, key);
-      } catch (final JSONException e) {
-        if (!key.equals(typeKey) && !key.equals(transferIdKey)) {
-          final String value = object.getString(key);
-          cache.put(type, key, value);
+  /**
+   * @param name the name of the object or null for the root object
+   */
+  private void readObject(final ParseContext context,
+      final com.fasterxml.jackson.core.JsonParser json, final String name) throws Exception {
+    while (json.nextToken() == JsonToken.FIELD_NAME) {
+      final String key = json.getCurrentName();
+      final JsonToken token = json.nextToken();
+
+      if (token == JsonToken.START_OBJECT) {
+        readObject(context, json, key);
+      } else if (token == JsonToken.START_ARRAY) {
+        json.skipChildren();
+      } else if (key.equals(context.typeKey) || key.equals(context.transferIdKey)) {
+        if (name == null) {
+          if (key.equals(context.typeKey)) {
+            context.type = json.getText();
+          } else {
+            context.transferId = json.getText();
+          }
+        }
+      } else if (name == null) {
+        if (context.protocol.fieldNames.contains(key)) {
+          context.rootValues.put(key, getValue(json, token));
         }
+      } else if (context.protocol.isField(name, key)) {
+        context.getValues(name).put(key, getValue(json, token));
       }
     }
   }
 
-  private void convertToInternalObject(final MessageProtocol protocol) {
-    final Map<String, String> row = cache.row(protocol.getExternalName());
+  private static String getValue(final com.fasterxml.jackson.core.JsonParser json,
+      final JsonToken token) throws Exception {
+    return token == JsonToken.VALUE_NULL ? null : json.getText();
+  }
+
+  private void convertToInternalObject(final ParseContext context, final MessageProtocol protocol,
+      final Map<String, InternalObject> objects) {
+    final Map<String, String> row = context.getValues(protocol.getExternalName());
     final Map<String, InternalField> fields = new HashMap<>();
 
     protocol.getFields().stream().forEachOrdered(field -> {
 
-      if (field.isMandatory()
-          && (row == null || StringUtils.isBlank(row.get(field.getExternalName())))) {
+      if (field.isMandatory() && StringUtils.isBlank(row.get(field.getExternalName()))) {
         throw new IllegalArgumentException("Missing field [" + field + "]");
       }
 
@@ -88,9 +126,10 @@ public class JsonParser implements Parser {
           new InternalField(field.getInternalName(), field.getDataType(), value));
     });
 
-    objects.put(protocol.getInternalName(), new InternalObject(protocol.getInternalName(), fields));
+    objects.put(protocol.getInternalName(),
+        new InternalObject(protocol.getInternalName(), fields));
 
-    protocol.getChildren().forEach(this::convertToInternalObject);
+    protocol.getChildren().forEach(child -> convertToInternalObject(context, child, objects));
   }
 
 
@@ -98,4 +137,58 @@ public class JsonParser implements Parser {
   public String getDescription() {
     return "JSON Parser";
   }
+
+  /**
+   * External object name -> external field names of a protocol and its children
+   */
+  private static class CompiledProtocol {
+
+    private final Map<String, Set<String>> fields = new HashMap<>();
+    private final Set<String> fieldNames = new HashSet<>();
+
+    private CompiledProtocol(final MessageProtocol protocol) {
+      add(protocol);
+      LOG.debug("Compiled protocol [{}] to {}", protocol.getExternalName(), fields);
+    }
+
+    private void add(final MessageProtocol protocol) {
+      protocol.getFields().forEach(field -> {
+        fields.computeIfAbsent(protocol.getExternalName(), key -> new HashSet<>())
+            .add(field.getExternalName());
+        fieldNames.add(field.getExternalName());
+      });
+      protocol.getChildren().forEach(this::add);
+    }
+
+    private boolean isField(final String objectName, final String fieldName) {
+      final Set<String> names = fields.get(objectName);
+      return names != null && names.contains(fieldName);
+    }
+  }
+
+  /**
+   * State of a single parse call, since the parser instance is shared
+   */
+  private static class ParseContext {
+
+    private final CompiledProtocol protocol;
+    private final String typeKey;
+    private final String transferIdKey;
+    private String type;
+    private String transferId;
+
+    private final Map<String, String> rootValues = new HashMap<>();
+    private final Map<String, Map<String, String>> values = new HashMap<>();
+
+    private ParseContext(final CompiledProtocol protocol, final String typeKey,
+        final String transferIdKey) {
+      this.protocol = protocol;
+      this.typeKey = typeKey;
+      this.transferIdKey = transferIdKey;
+    }
+
+    private Map<String, String> getValues(final String objectName) {
+      return values.computeIfAbsent(objectName, key -> new HashMap<>());
+    }
+  }
 }
@@ -6,6 +6,10 @@ import at.fhjoanneum.ippr.communicator.persistence.objects.DataType;
 import at.fhjoanneum.ippr.communicator.persistence.objects.datatypeparser.DataTypeParser;
 import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocol;
 
+/**
+ * Parsers are cached per configuration and shared between actors, they must not keep state between
+ * calls.
+ */
 public interface Parser {
 
   ParseResult parse(String input, MessageProtocol messageProtocol,
@@ -4,12 +4,14 @@ import at.fhjoanneum.ippr.communicator.persistence.objects.DataType;
 
 public final class ParserUtils {
 
+  private static final DataTypeParser STRING_PARSER = new StringParser();
+
   private ParserUtils() {}
 
   public static String parse(final String input, final DataType dataType) {
     switch (dataType) {
       case STRING:
-        return new StringParser().parse(input);
+        return STRING_PARSER.parse(input);
       default:
         throw new IllegalArgumentException("Could not find parser for [" + dataType + "]");
     }
@@ -9,6 +9,7 @@ import javax.persistence.CollectionTable;
 import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -30,8 +31,10 @@ import at.fhjoanneum.ippr.communicator.persistence.objects.DataType;
 import at.fhjoanneum.ippr.communicator.persistence.objects.basic.inbound.BasicInboundConfiguration;
 import at.fhjoanneum.ippr.communicator.persistence.objects.datatypeparser.DataTypeParser;
 import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocol;
+import at.fhjoanneum.ippr.communicator.plugins.PluginRegistryInvalidator;
 
 @Entity(name = "BASIC_INBOUND_CONFIGURATION")
+@EntityListeners(PluginRegistryInvalidator.class)
 @Inheritance(strategy = InheritanceType.JOINED)
 public class BasicInboundConfigurationImpl implements BasicInboundConfiguration, Serializable {
 
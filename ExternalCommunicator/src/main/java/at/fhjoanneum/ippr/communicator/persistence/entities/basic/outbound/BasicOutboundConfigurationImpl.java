@@ -9,6 +9,7 @@ import javax.persistence.CollectionTable;
 import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -31,8 +32,10 @@ import at.fhjoanneum.ippr.communicator.persistence.objects.DataType;
 import at.fhjoanneum.ippr.communicator.persistence.objects.basic.outbound.BasicOutboundConfiguration;
 import at.fhjoanneum.ippr.communicator.persistence.objects.datatypecomposer.DataTypeComposer;
 import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocol;
+import at.fhjoanneum.ippr.communicator.plugins.PluginRegistryInvalidator;
 
 @Entity(name = "BASIC_OUTBOUND_CONFIGURATION")
+@EntityListeners(PluginRegistryInvalidator.class)
 @Inheritance(strategy = InheritanceType.JOINED)
 public class BasicOutboundConfigurationImpl implements BasicOutboundConfiguration, Serializable {
 
@@ -4,6 +4,7 @@ import java.io.Serializable;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
@@ -12,8 +13,10 @@ import javax.persistence.Id;
 
 import at.fhjoanneum.ippr.communicator.persistence.objects.DataType;
 import at.fhjoanneum.ippr.communicator.persistence.objects.datatypeparser.DataTypeParser;
+import at.fhjoanneum.ippr.communicator.plugins.PluginRegistryInvalidator;
 
 @Entity(name = "DATA_TYPE_PARSER")
+@EntityListeners(PluginRegistryInvalidator.class)
 public class DataTypeParserImpl implements DataTypeParser, Serializable {
 
   private static final long serialVersionUID = 1L;
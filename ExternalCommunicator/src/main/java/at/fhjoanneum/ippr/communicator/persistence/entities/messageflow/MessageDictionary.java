@@ -0,0 +1,35 @@
+package at.fhjoanneum.ippr.communicator.persistence.entities.messageflow;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+
+/**
+ * Names of a field name dictionary as JSON array, stored by the fingerprint which the encoded
+ * internal data refers to
+ */
+@Entity(name = "MESSAGE_DICTIONARY")
+public class MessageDictionary implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @Id
+  private Integer fingerprint;
+
+  @Column
+  @Lob
+  private String names;
+
+  MessageDictionary() {}
+
+  public Integer getFingerprint() {
+    return fingerprint;
+  }
+
+  public String getNames() {
+    return names;
+  }
+}
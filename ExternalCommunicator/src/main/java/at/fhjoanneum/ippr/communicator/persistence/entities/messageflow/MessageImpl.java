@@ -9,8 +9,10 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -24,6 +26,7 @@ import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.Message;
 import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.MessageState;
 
 @Entity(name = "MESSAGE")
+@Table(indexes = @Index(name = "idx_message_outbox", columnList = "messageState,nextAttemptAt"))
 public class MessageImpl implements Serializable, Message {
 
   private static final long serialVersionUID = 6655111821383189265L;
@@ -35,18 +38,40 @@ public class MessageImpl implements Serializable, Message {
   @Column
   private String transferId;
 
+  // JSON of the internal data of messages stored before the binary encoding
   @Column
   @Lob
   private String internalData;
 
+  @Column
+  @Lob
+  private byte[] encodedInternalData;
+
   @Column
   @Lob
   private String externalData;
 
+  // gzip of external data longer than the compression threshold, see InternalDataUtils
+  @Column
+  @Lob
+  private byte[] compressedExternalData;
+
   @Column
   @Enumerated(EnumType.STRING)
   private MessageState messageState;
 
+  // failed send attempts
+  @Column
+  private int attempts;
+
+  // epoch millis at which the outbox sends the message again, null if it is not in the outbox
+  @Column
+  private Long nextAttemptAt;
+
+  // claim of the outbox poller which currently sends the message
+  @Column
+  private String claimedBy;
+
   @ManyToOne
   private BasicOutboundConfigurationImpl outboundConfiguration;
 
@@ -72,10 +97,25 @@ public class MessageImpl implements Serializable, Message {
     this.internalData = data;
   }
 
+  @Override
+  public void setEncodedInternalData(final byte[] data) {
+    Preconditions.checkNotNull(data);
+    this.encodedInternalData = data;
+    this.internalData = null;
+  }
+
   @Override
   public void setExternalData(final String data) {
     Preconditions.checkNotNull(data);
     this.externalData = data;
+    this.compressedExternalData = null;
+  }
+
+  @Override
+  public void setCompressedExternalData(final byte[] data) {
+    Preconditions.checkNotNull(data);
+    this.compressedExternalData = data;
+    this.externalData = null;
   }
 
   @Override
@@ -107,11 +147,21 @@ public class MessageImpl implements Serializable, Message {
     return internalData;
   }
 
+  @Override
+  public byte[] getEncodedInternalData() {
+    return encodedInternalData;
+  }
+
   @Override
   public String getExternalData() {
     return externalData;
   }
 
+  @Override
+  public byte[] getCompressedExternalData() {
+    return compressedExternalData;
+  }
+
   @Override
   public void setMessageState(final MessageState messageState) {
     this.messageState = messageState;
@@ -122,6 +172,21 @@ public class MessageImpl implements Serializable, Message {
     return messageState;
   }
 
+  @Override
+  public int getAttempts() {
+    return attempts;
+  }
+
+  @Override
+  public Long getNextAttemptAt() {
+    return nextAttemptAt;
+  }
+
+  @Override
+  public void setNextAttemptAt(final Long nextAttemptAt) {
+    this.nextAttemptAt = nextAttemptAt;
+  }
+
   @Override
   public BasicOutboundConfiguration getOutboundConfiguration() {
     return outboundConfiguration;
@@ -134,8 +199,10 @@ public class MessageImpl implements Serializable, Message {
 
   @Override
   public String toString() {
-    return "MessageImpl [id=" + id + ", transferId=" + transferId + ", internalData=" + internalData
-        + ", externalData=" + externalData + "]";
+    return "MessageImpl [id=" + id + ", transferId=" + transferId + ", messageState="
+        + messageState + ", externalData=" + (compressedExternalData != null
+            ? "[" + compressedExternalData.length + " bytes compressed]" : externalData)
+        + "]";
   }
 
   @Override
@@ -5,6 +5,7 @@ import java.util.List;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -22,8 +23,10 @@ import com.google.common.collect.Lists;
 import at.fhjoanneum.ippr.communicator.persistence.entities.protocol.field.MessageProtocolFieldImpl;
 import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocol;
 import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocolField;
+import at.fhjoanneum.ippr.communicator.plugins.PluginRegistryInvalidator;
 
 @Entity(name = "MESSAGE_PROTOCOL")
+@EntityListeners(PluginRegistryInvalidator.class)
 public class MessageProtocolImpl implements MessageProtocol, Serializable {
 
   private static final long serialVersionUID = -488915254635624609L;
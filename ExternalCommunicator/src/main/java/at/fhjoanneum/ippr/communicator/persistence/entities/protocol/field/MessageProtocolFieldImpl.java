@@ -4,6 +4,7 @@ import java.io.Serializable;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
@@ -16,8 +17,10 @@ import at.fhjoanneum.ippr.communicator.persistence.entities.protocol.MessageProt
 import at.fhjoanneum.ippr.communicator.persistence.objects.DataType;
 import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocol;
 import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocolField;
+import at.fhjoanneum.ippr.communicator.plugins.PluginRegistryInvalidator;
 
 @Entity(name = "MESSAGE_PROTOCOL_FIELD")
+@EntityListeners(PluginRegistryInvalidator.class)
 public class MessageProtocolFieldImpl implements MessageProtocolField, Serializable {
 
   private static final long serialVersionUID = -488915254635654609L;
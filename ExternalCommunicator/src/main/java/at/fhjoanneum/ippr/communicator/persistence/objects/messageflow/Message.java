@@ -15,14 +15,28 @@ public interface Message {
 
   String getInternalData();
 
+  void setEncodedInternalData(byte[] data);
+
+  byte[] getEncodedInternalData();
+
   void setExternalData(String data);
 
   String getExternalData();
 
+  void setCompressedExternalData(byte[] data);
+
+  byte[] getCompressedExternalData();
+
   MessageState getMessageState();
 
   void setMessageState(MessageState messageState);
 
+  int getAttempts();
+
+  Long getNextAttemptAt();
+
+  void setNextAttemptAt(Long nextAttemptAt);
+
   void setOutboundConfiguration(BasicOutboundConfiguration outboundConfiguration);
 
   BasicOutboundConfiguration getOutboundConfiguration();
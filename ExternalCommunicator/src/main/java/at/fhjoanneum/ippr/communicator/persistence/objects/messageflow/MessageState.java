@@ -1,5 +1,5 @@
 package at.fhjoanneum.ippr.communicator.persistence.objects.messageflow;
 
 public enum MessageState {
-  TO_COMPOSE, COMPOSED, SENT, TO_PARSE, PARSED, RECEIVED, NO_RECEIVE_SUBMISSION;
+  TO_COMPOSE, COMPOSED, SENT, DEAD_LETTER, TO_PARSE, PARSED, RECEIVED, NO_RECEIVE_SUBMISSION;
 }
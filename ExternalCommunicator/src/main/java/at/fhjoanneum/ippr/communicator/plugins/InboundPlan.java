@@ -0,0 +1,57 @@
+package at.fhjoanneum.ippr.communicator.plugins;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
+import at.fhjoanneum.ippr.communicator.parser.ParseResult;
+import at.fhjoanneum.ippr.communicator.parser.Parser;
+import at.fhjoanneum.ippr.communicator.persistence.objects.DataType;
+import at.fhjoanneum.ippr.communicator.persistence.objects.basic.inbound.BasicInboundConfiguration;
+import at.fhjoanneum.ippr.communicator.persistence.objects.datatypeparser.DataTypeParser;
+import at.fhjoanneum.ippr.communicator.utils.FieldNameDictionary;
+
+/**
+ * Resolved parser and immutable copy of a {@link BasicInboundConfiguration}
+ */
+public final class InboundPlan {
+
+  private final Long configId;
+  private final Parser parser;
+  private final MessageProtocolPlan messageProtocol;
+  private final FieldNameDictionary dictionary;
+  private final Map<DataType, DataTypeParser> dataTypeParser;
+  private final Map<String, String> configuration;
+
+  InboundPlan(final BasicInboundConfiguration config, final Parser parser) {
+    this.configId = config.getId();
+    this.parser = parser;
+    this.messageProtocol = MessageProtocolPlan.of(config.getMessageProtocol());
+    this.dictionary = FieldNameDictionary.of(messageProtocol);
+    this.dataTypeParser = ImmutableMap.copyOf(config.getDataTypeParser());
+    this.configuration =
+        Collections.unmodifiableMap(new HashMap<>(config.getConfiguration()));
+  }
+
+  public Long getConfigId() {
+    return configId;
+  }
+
+  public ParseResult parse(final String input) throws Exception {
+    return parser.parse(input, messageProtocol, dataTypeParser, configuration);
+  }
+
+  public MessageProtocolPlan getMessageProtocol() {
+    return messageProtocol;
+  }
+
+  public FieldNameDictionary getDictionary() {
+    return dictionary;
+  }
+
+  public Map<String, String> getConfiguration() {
+    return configuration;
+  }
+}
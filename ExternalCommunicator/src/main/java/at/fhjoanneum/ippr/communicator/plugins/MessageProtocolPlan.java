@@ -0,0 +1,141 @@
+package at.fhjoanneum.ippr.communicator.plugins;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import at.fhjoanneum.ippr.communicator.persistence.objects.DataType;
+import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocol;
+import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocolField;
+
+/**
+ * Immutable copy of a message protocol with its fields and children, which is detached from the
+ * persistence context and can be shared between actors
+ */
+public final class MessageProtocolPlan implements MessageProtocol {
+
+  private final Long id;
+  private final String externalName;
+  private final String internalName;
+  private final MessageProtocolPlan parent;
+  private final List<MessageProtocolField> fields;
+  private final List<MessageProtocol> children;
+
+  public static MessageProtocolPlan of(final MessageProtocol protocol) {
+    return protocol != null ? new MessageProtocolPlan(protocol, null) : null;
+  }
+
+  private MessageProtocolPlan(final MessageProtocol protocol, final MessageProtocolPlan parent) {
+    this.id = protocol.getId();
+    this.externalName = protocol.getExternalName();
+    this.internalName = protocol.getInternalName();
+    this.parent = parent;
+
+    final ImmutableList.Builder<MessageProtocolField> fieldsBuilder = ImmutableList.builder();
+    protocol.getFields().forEach(field -> fieldsBuilder.add(new FieldPlan(this, field)));
+    this.fields = fieldsBuilder.build();
+
+    final ImmutableList.Builder<MessageProtocol> childrenBuilder = ImmutableList.builder();
+    protocol.getChildren().forEach(child -> childrenBuilder.add(new MessageProtocolPlan(child, this)));
+    this.children = childrenBuilder.build();
+  }
+
+  @Override
+  public Long getId() {
+    return id;
+  }
+
+  @Override
+  public String getExternalName() {
+    return externalName;
+  }
+
+  @Override
+  public String getInternalName() {
+    return internalName;
+  }
+
+  @Override
+  public List<MessageProtocolField> getFields() {
+    return fields;
+  }
+
+  @Override
+  public List<MessageProtocol> getChildren() {
+    return children;
+  }
+
+  @Override
+  public MessageProtocol getParent() {
+    return parent;
+  }
+
+  @Override
+  public String toString() {
+    return "MessageProtocolPlan [id=" + id + ", externalName=" + externalName + ", internalName="
+        + internalName + ", fields=" + fields + "]";
+  }
+
+  private static final class FieldPlan implements MessageProtocolField {
+
+    private final MessageProtocolPlan messageProtocol;
+    private final Long id;
+    private final String externalName;
+    private final String internalName;
+    private final DataType dataType;
+    private final boolean mandatory;
+    private final String defaultValue;
+
+    private FieldPlan(final MessageProtocolPlan messageProtocol, final MessageProtocolField field) {
+      this.messageProtocol = messageProtocol;
+      this.id = field.getId();
+      this.externalName = field.getExternalName();
+      this.internalName = field.getInternalName();
+      this.dataType = field.getDataType();
+      this.mandatory = field.isMandatory();
+      this.defaultValue = field.getDefaultValue();
+    }
+
+    @Override
+    public Long getId() {
+      return id;
+    }
+
+    @Override
+    public MessageProtocol getMessageProtocol() {
+      return messageProtocol;
+    }
+
+    @Override
+    public String getExternalName() {
+      return externalName;
+    }
+
+    @Override
+    public String getInternalName() {
+      return internalName;
+    }
+
+    @Override
+    public DataType getDataType() {
+      return dataType;
+    }
+
+    @Override
+    public boolean isMandatory() {
+      return mandatory;
+    }
+
+    @Override
+    public String getDefaultValue() {
+      return defaultValue;
+    }
+
+    @Override
+    public String toString() {
+      return "MessageProtocolField [id=" + id + ", externalName=" + externalName
+          + ", internalName=" + internalName + ", dataType=" + dataType + ", mandatory="
+          + mandatory + "]";
+    }
+  }
+}
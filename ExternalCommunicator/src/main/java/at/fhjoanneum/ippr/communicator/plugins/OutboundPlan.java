@@ -0,0 +1,69 @@
+package at.fhjoanneum.ippr.communicator.plugins;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+import com.google.common.collect.ImmutableMap;
+
+import at.fhjoanneum.ippr.communicator.composer.Composer;
+import at.fhjoanneum.ippr.communicator.persistence.objects.DataType;
+import at.fhjoanneum.ippr.communicator.persistence.objects.basic.outbound.BasicOutboundConfiguration;
+import at.fhjoanneum.ippr.communicator.persistence.objects.datatypecomposer.DataTypeComposer;
+import at.fhjoanneum.ippr.communicator.persistence.objects.internal.InternalData;
+import at.fhjoanneum.ippr.communicator.plugins.send.HttpSendClient;
+import at.fhjoanneum.ippr.communicator.plugins.send.SendPlugin;
+import at.fhjoanneum.ippr.communicator.utils.FieldNameDictionary;
+
+/**
+ * Resolved plugins and immutable copy of a {@link BasicOutboundConfiguration}
+ */
+public final class OutboundPlan {
+
+  private final Long configId;
+  private final Composer composer;
+  private final SendPlugin sendPlugin;
+  private final HttpSendClient httpClient;
+  private final MessageProtocolPlan messageProtocol;
+  private final FieldNameDictionary dictionary;
+  private final Map<DataType, DataTypeComposer> dataTypeComposer;
+  private final Map<String, String> configuration;
+
+  OutboundPlan(final BasicOutboundConfiguration config, final Composer composer,
+      final SendPlugin sendPlugin, final HttpSendClient httpClient) {
+    this.configId = config.getId();
+    this.composer = composer;
+    this.sendPlugin = sendPlugin;
+    this.httpClient = httpClient;
+    this.messageProtocol = MessageProtocolPlan.of(config.getMessageProtocol());
+    this.dictionary = FieldNameDictionary.of(messageProtocol);
+    this.dataTypeComposer = ImmutableMap.copyOf(config.getDataTypeComposer());
+    this.configuration =
+        Collections.unmodifiableMap(new HashMap<>(config.getConfiguration()));
+  }
+
+  public Long getConfigId() {
+    return configId;
+  }
+
+  public String compose(final String transferId, final InternalData data) {
+    return composer.compose(transferId, data, messageProtocol, dataTypeComposer, configuration);
+  }
+
+  public CompletionStage<Boolean> send(final String body) {
+    return sendPlugin.send(body, configuration, httpClient);
+  }
+
+  public MessageProtocolPlan getMessageProtocol() {
+    return messageProtocol;
+  }
+
+  public FieldNameDictionary getDictionary() {
+    return dictionary;
+  }
+
+  public Map<String, String> getConfiguration() {
+    return configuration;
+  }
+}
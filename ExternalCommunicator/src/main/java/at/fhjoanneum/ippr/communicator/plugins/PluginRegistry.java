@@ -0,0 +1,111 @@
+package at.fhjoanneum.ippr.communicator.plugins;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import at.fhjoanneum.ippr.communicator.composer.Composer;
+import at.fhjoanneum.ippr.communicator.parser.Parser;
+import at.fhjoanneum.ippr.communicator.persistence.objects.basic.inbound.BasicInboundConfiguration;
+import at.fhjoanneum.ippr.communicator.persistence.objects.basic.outbound.BasicOutboundConfiguration;
+import at.fhjoanneum.ippr.communicator.plugins.send.HttpSendClient;
+import at.fhjoanneum.ippr.communicator.plugins.send.SendPlugin;
+
+/**
+ * Caches the plans of the inbound and outbound configurations per configuration ID and the plugin
+ * instances per class name, so that the classes are only loaded and the lazily loaded protocols
+ * only walked once per configuration.
+ * <p>
+ * Composer, parser and send plugin instances are shared between actors, therefore they must not
+ * keep state between calls. The plans are invalidated by {@link PluginRegistryInvalidator} once
+ * a change of a configuration or protocol is committed.
+ */
+@Component
+public class PluginRegistry {
+
+  private final static Logger LOG = LoggerFactory.getLogger(PluginRegistry.class);
+
+  private final ConcurrentMap<Long, OutboundPlan> outboundPlans = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, InboundPlan> inboundPlans = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Object> plugins = new ConcurrentHashMap<>();
+
+  private final HttpSendClient httpClient;
+
+  @Autowired
+  public PluginRegistry(final HttpSendClient httpClient) {
+    this.httpClient = httpClient;
+  }
+
+  public OutboundPlan getOutboundPlan(final BasicOutboundConfiguration config) {
+    return outboundPlans.computeIfAbsent(config.getId(), id -> {
+      LOG.debug("Create plan for [{}]", config);
+      return new OutboundPlan(config, getPlugin(config.getComposerClass(), Composer.class),
+          getPlugin(config.getSendPlugin(), SendPlugin.class), httpClient);
+    });
+  }
+
+  /**
+   * Like {@link #getOutboundPlan(BasicOutboundConfiguration)}, but the configuration is only
+   * loaded if the plan is not cached yet
+   */
+  public OutboundPlan getOutboundPlan(final Long configId,
+      final Function<Long, ? extends BasicOutboundConfiguration> loader) {
+    final OutboundPlan plan = outboundPlans.get(configId);
+    if (plan != null) {
+      return plan;
+    }
+
+    final BasicOutboundConfiguration config = loader.apply(configId);
+    if (config == null) {
+      throw new IllegalArgumentException("Could not find outbound configuration [" + configId + "]");
+    }
+    return getOutboundPlan(config);
+  }
+
+  public InboundPlan getInboundPlan(final BasicInboundConfiguration config) {
+    return inboundPlans.computeIfAbsent(config.getId(), id -> {
+      LOG.debug("Create plan for [{}]", config);
+      return new InboundPlan(config, getPlugin(config.getParserClass(), Parser.class));
+    });
+  }
+
+  public void invalidateOutbound(final Long configId) {
+    if (outboundPlans.remove(configId) != null) {
+      LOG.info("Invalidated plan of outbound configuration [{}]", configId);
+    }
+  }
+
+  public void invalidateInbound(final Long configId) {
+    if (inboundPlans.remove(configId) != null) {
+      LOG.info("Invalidated plan of inbound configuration [{}]", configId);
+    }
+  }
+
+  /**
+   * Invalidates all plans, e.g. if a protocol is changed which may be used by several
+   * configurations
+   */
+  public void invalidateAll() {
+    outboundPlans.clear();
+    inboundPlans.clear();
+    LOG.info("Invalidated all plans");
+  }
+
+  private <T> T getPlugin(final String className, final Class<T> type) {
+    if (className == null) {
+      return null;
+    }
+    return type.cast(plugins.computeIfAbsent(className, name -> {
+      try {
+        return getClass().getClassLoader().loadClass(name).asSubclass(type).newInstance();
+      } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+        throw new IllegalArgumentException("Could not load plugin [" + name + "]", e);
+      }
+    }));
+  }
+}
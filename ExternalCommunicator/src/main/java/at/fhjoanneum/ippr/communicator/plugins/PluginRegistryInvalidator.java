@@ -0,0 +1,64 @@
+package at.fhjoanneum.ippr.communicator.plugins;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import at.fhjoanneum.ippr.communicator.persistence.objects.basic.inbound.BasicInboundConfiguration;
+import at.fhjoanneum.ippr.communicator.persistence.objects.basic.outbound.BasicOutboundConfiguration;
+
+/**
+ * Entity listener of the configurations and everything they reference, which invalidates the
+ * cached plans of the {@link PluginRegistry} once the change is committed, so a send running
+ * concurrently to the transaction cannot cache a plan of the old state again
+ * <p>
+ * Hibernate creates its own instances of entity listeners, they use the registry which Spring
+ * injects into the managed instance
+ */
+@Component
+public class PluginRegistryInvalidator {
+
+  private static volatile PluginRegistry pluginRegistry;
+
+  @Autowired
+  public void setPluginRegistry(final PluginRegistry pluginRegistry) {
+    PluginRegistryInvalidator.pluginRegistry = pluginRegistry;
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void invalidate(final Object entity) {
+    final PluginRegistry registry = pluginRegistry;
+    if (registry == null) {
+      return;
+    }
+
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      invalidate(registry, entity);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronizationAdapter() {
+          @Override
+          public void afterCommit() {
+            invalidate(registry, entity);
+          }
+        });
+  }
+
+  private static void invalidate(final PluginRegistry registry, final Object entity) {
+    if (entity instanceof BasicOutboundConfiguration) {
+      registry.invalidateOutbound(((BasicOutboundConfiguration) entity).getId());
+    } else if (entity instanceof BasicInboundConfiguration) {
+      registry.invalidateInbound(((BasicInboundConfiguration) entity).getId());
+    } else {
+      registry.invalidateAll();
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package at.fhjoanneum.ippr.communicator.plugins.send;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * Limits the concurrent requests to one endpoint, requests exceeding the limit are queued until
+ * a running request is finished. The queue is bounded, further requests are rejected so that they
+ * fail fast instead of piling up behind a slow endpoint.
+ */
+class Bulkhead {
+
+  private final Queue<Runnable> queue = new ArrayDeque<>();
+  private final Executor executor;
+  private final int maxQueued;
+  private int active;
+  private int limit;
+
+  Bulkhead(final Executor executor, final int maxQueued) {
+    this.executor = executor;
+    this.maxQueued = maxQueued;
+  }
+
+  /**
+   * @return false if the limit is reached and the queue is full, the request is not executed then
+   */
+  boolean execute(final Runnable request, final int limit) {
+    synchronized (this) {
+      // the limit of the latest configuration of the endpoint applies
+      this.limit = limit;
+      if (active >= limit) {
+        if (queue.size() >= maxQueued) {
+          return false;
+        }
+        queue.add(request);
+        return true;
+      }
+      active++;
+    }
+    run(request);
+    return true;
+  }
+
+  private void run(final Runnable request) {
+    executor.execute(() -> {
+      try {
+        request.run();
+      } finally {
+        next();
+      }
+    });
+  }
+
+  private void next() {
+    final Runnable request;
+    synchronized (this) {
+      request = active <= limit ? queue.poll() : null;
+      if (request == null) {
+        active--;
+        return;
+      }
+    }
+    run(request);
+  }
+}
@@ -0,0 +1,152 @@
+package at.fhjoanneum.ippr.communicator.plugins.send;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import at.fhjoanneum.ippr.communicator.global.GlobalKey;
+
+/**
+ * HTTP client shared by the send plugins.
+ * <p>
+ * Connections are pooled and kept alive. Requests are executed on a separate pool, so the actors
+ * are not blocked until the external system answers. Each endpoint has a bulkhead which limits the
+ * concurrent requests to it, further requests are queued up to a bound and fail fast beyond it, so
+ * the outbox retries them later. A slow endpoint can therefore only occupy as many threads and
+ * connections as its limit and does not stall the other endpoints. The pool has at most as many
+ * threads as connections.
+ * <p>
+ * The timeouts and the limit can be set per outbound configuration with
+ * {@link GlobalKey#CONNECT_TIMEOUT}, {@link GlobalKey#READ_TIMEOUT} and
+ * {@link GlobalKey#MAX_CONCURRENT_REQUESTS}.
+ */
+@Component
+public class HttpSendClient {
+
+  private static final Logger LOG = LoggerFactory.getLogger(HttpSendClient.class);
+
+  private final ConcurrentMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+  private final PoolingHttpClientConnectionManager connectionManager;
+  private final CloseableHttpClient httpClient;
+  private final ThreadPoolExecutor executor;
+
+  private final int defaultConnectTimeout;
+  private final int defaultReadTimeout;
+  private final int defaultMaxConcurrentRequests;
+  private final int maxQueuedRequests;
+
+  public HttpSendClient(@Value("${send.http.max-connections:200}") final int maxConnections,
+      @Value("${send.http.connect-timeout:5000}") final int defaultConnectTimeout,
+      @Value("${send.http.read-timeout:30000}") final int defaultReadTimeout,
+      @Value("${send.http.max-concurrent-requests:4}") final int defaultMaxConcurrentRequests,
+      @Value("${send.http.max-queued-requests:16}") final int maxQueuedRequests) {
+    this.defaultConnectTimeout = defaultConnectTimeout;
+    this.defaultReadTimeout = defaultReadTimeout;
+    this.defaultMaxConcurrentRequests = defaultMaxConcurrentRequests;
+    this.maxQueuedRequests = maxQueuedRequests;
+
+    // the bulkheads limit the connections per endpoint
+    connectionManager = new PoolingHttpClientConnectionManager(60, TimeUnit.SECONDS);
+    connectionManager.setMaxTotal(maxConnections);
+    connectionManager.setDefaultMaxPerRoute(maxConnections);
+    connectionManager.setValidateAfterInactivity(2000);
+    httpClient = HttpClients.custom().setConnectionManager(connectionManager).build();
+
+    final AtomicInteger threads = new AtomicInteger();
+    // the work queue only holds requests which already passed their bulkhead
+    executor = new ThreadPoolExecutor(maxConnections, maxConnections, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), runnable -> {
+          final Thread thread = new Thread(runnable, "http-send-" + threads.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Posts the body to the {@link GlobalKey#ENDPOINT} of the configuration
+   *
+   * @return completed with true if the endpoint answered with 200, false if it answered with
+   *         another status, the request failed or the queue of the endpoint is full
+   */
+  public CompletionStage<Boolean> post(final String body, final ContentType contentType,
+      final Map<String, String> configuration) {
+    final CompletableFuture<Boolean> result = new CompletableFuture<>();
+    final String endpoint = configuration.get(GlobalKey.ENDPOINT);
+    if (StringUtils.isBlank(endpoint)) {
+      LOG.error("No endpoint configured in [{}]", configuration);
+      result.complete(false);
+      return result;
+    }
+
+    final HttpPost request = new HttpPost(endpoint);
+    request.setConfig(RequestConfig.custom()
+        .setConnectTimeout(getInt(configuration, GlobalKey.CONNECT_TIMEOUT, defaultConnectTimeout))
+        .setConnectionRequestTimeout(
+            getInt(configuration, GlobalKey.CONNECT_TIMEOUT, defaultConnectTimeout))
+        .setSocketTimeout(getInt(configuration, GlobalKey.READ_TIMEOUT, defaultReadTimeout))
+        .build());
+    request.setEntity(new StringEntity(body, contentType));
+
+    final int limit = Math.max(1, getInt(configuration, GlobalKey.MAX_CONCURRENT_REQUESTS,
+        defaultMaxConcurrentRequests));
+    final boolean accepted = bulkheads
+        .computeIfAbsent(endpoint, key -> new Bulkhead(executor, maxQueuedRequests)).execute(() -> {
+          LOG.debug("Send [{}] to [{}]", body, endpoint);
+          result.complete(execute(request));
+        }, limit);
+    if (!accepted) {
+      LOG.warn("Too many pending requests to [{}], the message is sent later", endpoint);
+      result.complete(false);
+    }
+    return result;
+  }
+
+  private boolean execute(final HttpPost request) {
+    try (final CloseableHttpResponse response = httpClient.execute(request)) {
+      // the entity must be consumed so that the connection can be reused
+      EntityUtils.consume(response.getEntity());
+      return response.getStatusLine().getStatusCode() == HttpStatus.OK.value();
+    } catch (final Exception e) {
+      LOG.error("Could not send to [{}]: {}", request.getURI(), e.getMessage());
+      return false;
+    }
+  }
+
+  private static int getInt(final Map<String, String> configuration, final String key,
+      final int defaultValue) {
+    return NumberUtils.toInt(configuration.get(key), defaultValue);
+  }
+
+  @PreDestroy
+  public void close() throws Exception {
+    executor.shutdownNow();
+    httpClient.close();
+  }
+}
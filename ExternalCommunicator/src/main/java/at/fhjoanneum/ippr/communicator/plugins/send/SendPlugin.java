@@ -1,8 +1,19 @@
 package at.fhjoanneum.ippr.communicator.plugins.send;
 
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 
+/**
+ * Send plugins are cached per configuration and shared between actors, they must not keep state
+ * between calls.
+ */
 public interface SendPlugin {
 
-  boolean send(String body, Map<String, String> configuration);
+  /**
+   * Sends the body without blocking the caller
+   *
+   * @return completed with true if the external system accepted the message
+   */
+  CompletionStage<Boolean> send(String body, Map<String, String> configuration,
+      HttpSendClient client);
 }
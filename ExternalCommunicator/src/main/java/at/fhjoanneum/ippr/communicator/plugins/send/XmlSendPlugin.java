@@ -1,46 +1,20 @@
 package at.fhjoanneum.ippr.communicator.plugins.send;
 
-import java.io.DataOutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpStatus;
-
-import at.fhjoanneum.ippr.communicator.global.GlobalKey;
+import org.apache.http.entity.ContentType;
 
 public class XmlSendPlugin implements SendPlugin {
 
-  private static final Logger LOG = LoggerFactory.getLogger(XmlSendPlugin.class);
+  // ContentType.APPLICATION_XML would be ISO-8859-1
+  private static final ContentType APPLICATION_XML =
+      ContentType.create("application/xml", StandardCharsets.UTF_8);
 
   @Override
-  public boolean send(final String body, final Map<String, String> configuration) {
-    try {
-      final String endpoint = configuration.get(GlobalKey.ENDPOINT);
-      final URL obj = new URL(endpoint);
-      final HttpURLConnection con = (HttpURLConnection) obj.openConnection();
-
-      con.setRequestMethod("POST");
-      con.setRequestProperty("Content-Type", "application/xml");
-      con.setDoOutput(true);
-
-      LOG.debug("Send [{}] to [{}]", body, endpoint);
-
-      final DataOutputStream wr = new DataOutputStream(con.getOutputStream());
-      wr.writeBytes(body);
-      wr.flush();
-      wr.close();
-
-      final int responseCode = con.getResponseCode();
-      if (responseCode == HttpStatus.OK.value()) {
-        return true;
-      }
-      return false;
-    } catch (final Exception e) {
-      LOG.error(e.getMessage());
-      return false;
-    }
+  public CompletionStage<Boolean> send(final String body, final Map<String, String> configuration,
+      final HttpSendClient client) {
+    return client.post(body, APPLICATION_XML, configuration);
   }
 }
@@ -0,0 +1,21 @@
+package at.fhjoanneum.ippr.communicator.repositories;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import at.fhjoanneum.ippr.communicator.persistence.entities.messageflow.MessageDictionary;
+
+public interface MessageDictionaryRepository extends CrudRepository<MessageDictionary, Integer> {
+
+  /**
+   * Stores the dictionary unless a dictionary with the fingerprint is already stored
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "insert ignore into message_dictionary (fingerprint, names) "
+      + "values (:fingerprint, :names)", nativeQuery = true)
+  int insert(@Param("fingerprint") int fingerprint, @Param("names") String names);
+}
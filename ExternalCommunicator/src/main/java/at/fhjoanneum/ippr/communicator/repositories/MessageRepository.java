@@ -1,9 +1,58 @@
 package at.fhjoanneum.ippr.communicator.repositories;
 
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import at.fhjoanneum.ippr.communicator.persistence.entities.messageflow.MessageImpl;
+import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.MessageState;
 
 public interface MessageRepository extends CrudRepository<MessageImpl, Long> {
 
+  /**
+   * Updates the state without loading the message first
+   */
+  @Transactional
+  @Modifying
+  @Query("update MESSAGE m set m.messageState = :messageState where m.id = :id")
+  int updateMessageState(@Param("id") Long id, @Param("messageState") MessageState messageState);
+
+  /**
+   * Records a failed send attempt and releases the claim of the outbox
+   */
+  @Transactional
+  @Modifying
+  @Query("update MESSAGE m set m.messageState = :messageState, m.attempts = :attempts, "
+      + "m.nextAttemptAt = :nextAttemptAt, m.claimedBy = null where m.id = :id")
+  int updateAttempt(@Param("id") Long id, @Param("messageState") MessageState messageState,
+      @Param("attempts") int attempts, @Param("nextAttemptAt") Long nextAttemptAt);
+
+  /**
+   * Claims up to batchSize due messages by moving their next attempt to the end of the claim. The
+   * rows are locked by the update, so concurrent instances cannot claim the same message. If the
+   * claiming instance dies, the messages are due again when the claim has expired. Messages
+   * without a next attempt were composed before the outbox existed and are due immediately.
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "update message set claimed_by = :claimedBy, next_attempt_at = :claimedUntil "
+      + "where message_state = :messageState "
+      + "and (next_attempt_at is null or next_attempt_at <= :now) "
+      + "order by next_attempt_at limit :batchSize", nativeQuery = true)
+  int claim(@Param("messageState") String messageState, @Param("now") long now,
+      @Param("claimedUntil") long claimedUntil, @Param("claimedBy") String claimedBy,
+      @Param("batchSize") int batchSize);
+
+  @Query("select m from MESSAGE m where m.claimedBy = :claimedBy and m.messageState = :messageState")
+  List<MessageImpl> findClaimed(@Param("claimedBy") String claimedBy,
+      @Param("messageState") MessageState messageState);
+
+  long countByMessageState(MessageState messageState);
+
+  @Query("select min(m.nextAttemptAt) from MESSAGE m where m.messageState = :messageState")
+  Long findMinNextAttemptAt(@Param("messageState") MessageState messageState);
 }
@@ -0,0 +1,24 @@
+package at.fhjoanneum.ippr.communicator.services;
+
+import at.fhjoanneum.ippr.communicator.utils.FieldNameDictionary;
+
+/**
+ * Keeps the field name dictionaries by their fingerprint, so that internal data which refers to a
+ * dictionary can still be decoded after its protocol was changed
+ */
+public interface FieldNameDictionaryService {
+
+  /**
+   * Stores the dictionary if it is not stored yet, must be called before internal data is encoded
+   * with it
+   *
+   * @return the dictionary, or {@link FieldNameDictionary#EMPTY} if another dictionary with the
+   *         same fingerprint is stored, so that the names are written inline
+   */
+  FieldNameDictionary register(FieldNameDictionary dictionary);
+
+  /**
+   * @throws IllegalStateException if no dictionary with the fingerprint is stored
+   */
+  FieldNameDictionary get(int fingerprint);
+}
@@ -0,0 +1,78 @@
+package at.fhjoanneum.ippr.communicator.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import at.fhjoanneum.ippr.communicator.persistence.entities.messageflow.MessageDictionary;
+import at.fhjoanneum.ippr.communicator.repositories.MessageDictionaryRepository;
+import at.fhjoanneum.ippr.communicator.utils.FieldNameDictionary;
+
+@Service
+public class FieldNameDictionaryServiceImpl implements FieldNameDictionaryService {
+
+  private final static Logger LOG = LoggerFactory.getLogger(FieldNameDictionaryServiceImpl.class);
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  // stored dictionaries are never changed, so they are cached for good
+  private final ConcurrentMap<Integer, FieldNameDictionary> dictionaries =
+      new ConcurrentHashMap<>();
+
+  @Autowired
+  private MessageDictionaryRepository messageDictionaryRepository;
+
+  @Override
+  public FieldNameDictionary register(final FieldNameDictionary dictionary) {
+    FieldNameDictionary stored = dictionaries.get(dictionary.getFingerprint());
+    if (stored == null) {
+      messageDictionaryRepository.insert(dictionary.getFingerprint(), toJson(dictionary));
+      stored = get(dictionary.getFingerprint());
+    }
+
+    if (!stored.getNames().equals(dictionary.getNames())) {
+      LOG.warn("Fingerprint [{}] of {} collides with {}, names are stored inline",
+          dictionary.getFingerprint(), dictionary.getNames(), stored.getNames());
+      return FieldNameDictionary.EMPTY;
+    }
+    return stored;
+  }
+
+  @Override
+  public FieldNameDictionary get(final int fingerprint) {
+    return dictionaries.computeIfAbsent(fingerprint, this::load);
+  }
+
+  private FieldNameDictionary load(final Integer fingerprint) {
+    final MessageDictionary stored = messageDictionaryRepository.findOne(fingerprint);
+    if (stored == null) {
+      throw new IllegalStateException("Unknown field name dictionary [" + fingerprint + "]");
+    }
+    try {
+      final List<String> names =
+          MAPPER.readValue(stored.getNames(), new TypeReference<List<String>>() {});
+      return FieldNameDictionary.of(names);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String toJson(final FieldNameDictionary dictionary) {
+    try {
+      return MAPPER.writeValueAsString(dictionary.getNames());
+    } catch (final JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
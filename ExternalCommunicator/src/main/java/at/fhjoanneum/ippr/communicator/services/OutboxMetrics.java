@@ -0,0 +1,60 @@
+package at.fhjoanneum.ippr.communicator.services;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Lists;
+
+import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.MessageState;
+import at.fhjoanneum.ippr.communicator.repositories.MessageRepository;
+
+/**
+ * Exposes the backlog of the outbox, e.g. <code>outbox.pending</code> and the age of the most
+ * overdue message <code>outbox.lag</code> in milliseconds
+ */
+@Component
+public class OutboxMetrics implements PublicMetrics {
+
+  @Autowired
+  private MessageRepository messageRepository;
+
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong retried = new AtomicLong();
+  private final AtomicLong deadLettered = new AtomicLong();
+
+  void sent() {
+    sent.incrementAndGet();
+  }
+
+  void retried() {
+    retried.incrementAndGet();
+  }
+
+  void deadLettered() {
+    deadLettered.incrementAndGet();
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    final List<Metric<?>> metrics = Lists.newArrayList();
+    metrics.add(new Metric<>("outbox.pending",
+        messageRepository.countByMessageState(MessageState.COMPOSED)));
+    metrics.add(new Metric<>("outbox.dead_letter",
+        messageRepository.countByMessageState(MessageState.DEAD_LETTER)));
+
+    final Long minNextAttemptAt = messageRepository.findMinNextAttemptAt(MessageState.COMPOSED);
+    metrics.add(new Metric<>("outbox.lag", minNextAttemptAt != null
+        ? Math.max(0, System.currentTimeMillis() - minNextAttemptAt) : 0L));
+
+    metrics.add(new Metric<>("outbox.sent", sent.get()));
+    metrics.add(new Metric<>("outbox.retried", retried.get()));
+    metrics.add(new Metric<>("outbox.dead_lettered", deadLettered.get()));
+    return metrics;
+  }
+}
@@ -0,0 +1,26 @@
+package at.fhjoanneum.ippr.communicator.services;
+
+import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.Message;
+
+public interface OutboxService {
+
+  /**
+   * @return the next attempt of a newly composed message, so that the outbox only sends it if it
+   *         is not sent within the claim timeout
+   */
+  long getInitialAttemptAt();
+
+  /**
+   * Marks the message as sent or schedules the next attempt, respectively moves it to
+   * {@link at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.MessageState#DEAD_LETTER}
+   * if the maximum attempts are exceeded
+   */
+  void handleSendResult(Message message, boolean sent);
+
+  /**
+   * Claims and sends a batch of due messages
+   *
+   * @return the amount of claimed messages
+   */
+  int poll();
+}
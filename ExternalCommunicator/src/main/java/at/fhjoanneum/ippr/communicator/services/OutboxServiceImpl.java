@@ -0,0 +1,146 @@
+package at.fhjoanneum.ippr.communicator.services;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import at.fhjoanneum.ippr.communicator.feign.ProcessEngineClient;
+import at.fhjoanneum.ippr.communicator.persistence.entities.messageflow.MessageImpl;
+import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.Message;
+import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.MessageState;
+import at.fhjoanneum.ippr.communicator.plugins.PluginRegistry;
+import at.fhjoanneum.ippr.communicator.repositories.MessageRepository;
+import at.fhjoanneum.ippr.communicator.utils.InternalDataUtils;
+
+/**
+ * Retries messages which could not be sent.
+ * <p>
+ * Failed messages stay COMPOSED and get the time of their next attempt, which grows exponentially
+ * with the attempts and is jittered, so that the messages of an unavailable partner system are not
+ * retried all at once. After the maximum attempts a message is moved to DEAD_LETTER.
+ * <p>
+ * Several communicator instances may poll concurrently, each message is claimed by a single
+ * update, see {@link MessageRepository#claim(String, long, long, String, int)}.
+ */
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+  private final static Logger LOG = LoggerFactory.getLogger(OutboxServiceImpl.class);
+
+  @Value("${outbox.batch-size:50}")
+  private int batchSize;
+
+  // time after which a message claimed by an instance is due again, should exceed the send timeout
+  // including the wait in the queue of the endpoint, see send.http.max-queued-requests
+  @Value("${outbox.claim-timeout:300000}")
+  private long claimTimeout;
+
+  @Value("${outbox.base-delay:5000}")
+  private long baseDelay;
+
+  @Value("${outbox.max-delay:3600000}")
+  private long maxDelay;
+
+  @Value("${outbox.max-attempts:10}")
+  private int maxAttempts;
+
+  @Autowired
+  private MessageRepository messageRepository;
+
+  @Autowired
+  private PluginRegistry pluginRegistry;
+
+  @Autowired
+  private ProcessEngineClient processEngineClient;
+
+  @Autowired
+  private OutboxMetrics outboxMetrics;
+
+  @Override
+  public long getInitialAttemptAt() {
+    return System.currentTimeMillis() + claimTimeout;
+  }
+
+  @Override
+  public void handleSendResult(final Message message, final boolean sent) {
+    if (sent) {
+      processEngineClient.markAsSent(message.getTransferId());
+      messageRepository.updateMessageState(message.getId(), MessageState.SENT);
+      outboxMetrics.sent();
+      LOG.info("Sent [{}]", message);
+      return;
+    }
+
+    final int attempts = message.getAttempts() + 1;
+    if (attempts >= maxAttempts) {
+      messageRepository.updateAttempt(message.getId(), MessageState.DEAD_LETTER, attempts, null);
+      outboxMetrics.deadLettered();
+      LOG.error("Could not send [{}] after [{}] attempts, moved to dead letters", message,
+          attempts);
+    } else {
+      final long nextAttemptAt = System.currentTimeMillis() + getBackoff(attempts);
+      messageRepository.updateAttempt(message.getId(), MessageState.COMPOSED, attempts,
+          nextAttemptAt);
+      outboxMetrics.retried();
+      LOG.warn("Could not send [{}], attempt [{}] of [{}]", message, attempts, maxAttempts);
+    }
+  }
+
+  long getBackoff(final int attempts) {
+    final long delay = Math.min(maxDelay, baseDelay << Math.min(attempts - 1, 30));
+    // equal jitter: at least half of the delay, the rest is random
+    return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+  }
+
+  @Scheduled(fixedDelayString = "${outbox.poll-interval:5000}")
+  @Override
+  public int poll() {
+    final long now = System.currentTimeMillis();
+    final String claim = UUID.randomUUID().toString();
+    final int claimed = messageRepository.claim(MessageState.COMPOSED.name(), now,
+        now + claimTimeout, claim, batchSize);
+    if (claimed == 0) {
+      return 0;
+    }
+
+    final List<MessageImpl> messages = messageRepository.findClaimed(claim, MessageState.COMPOSED);
+    LOG.debug("Claimed [{}] messages to send", messages.size());
+
+    final List<CompletableFuture<Void>> results = messages.stream().map(this::send)
+        .collect(Collectors.toList());
+
+    // the next batch is only claimed when this one is finished
+    try {
+      CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[results.size()]))
+          .get(claimTimeout, TimeUnit.MILLISECONDS);
+    } catch (final TimeoutException e) {
+      LOG.warn("Batch [{}] not finished within the claim timeout", claim);
+    } catch (final Exception e) {
+      LOG.error("Batch [{}] failed: {}", claim, e.getMessage());
+    }
+    return messages.size();
+  }
+
+  private CompletableFuture<Void> send(final Message message) {
+    try {
+      return pluginRegistry.getOutboundPlan(message.getOutboundConfiguration())
+          .send(InternalDataUtils.readExternalData(message)).toCompletableFuture()
+          .thenAccept(result -> handleSendResult(message, result));
+    } catch (final RuntimeException e) {
+      LOG.error("Could not send [{}]: {}", message, e.getMessage());
+      handleSendResult(message, false);
+      return CompletableFuture.completedFuture(null);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package at.fhjoanneum.ippr.communicator.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.common.io.ByteStreams;
+
+public final class CompressionUtils {
+
+  private CompressionUtils() {}
+
+  public static byte[] compress(final String value) {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.length() / 4);
+    try (final GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(value.getBytes(StandardCharsets.UTF_8));
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  public static String decompress(final byte[] value) {
+    try (final GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(value))) {
+      return new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
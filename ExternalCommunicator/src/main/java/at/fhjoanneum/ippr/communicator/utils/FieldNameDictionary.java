@@ -0,0 +1,80 @@
+package at.fhjoanneum.ippr.communicator.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import com.google.common.collect.ImmutableList;
+
+import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocol;
+
+/**
+ * Internal object and field names of a protocol and its children, so that the encoded internal
+ * data only contains their index instead of the names
+ */
+public final class FieldNameDictionary {
+
+  public static final FieldNameDictionary EMPTY = new FieldNameDictionary(ImmutableList.of());
+
+  private final List<String> names;
+  private final Map<String, Integer> indexes = new HashMap<>();
+  private final int fingerprint;
+
+  private FieldNameDictionary(final List<String> names) {
+    this.names = names;
+    final CRC32 crc = new CRC32();
+    for (int i = 0; i < names.size(); i++) {
+      indexes.put(names.get(i), i);
+      crc.update(names.get(i).getBytes(StandardCharsets.UTF_8));
+      crc.update(0);
+    }
+    this.fingerprint = (int) crc.getValue();
+  }
+
+  public static FieldNameDictionary of(final MessageProtocol protocol) {
+    final Set<String> names = new LinkedHashSet<>();
+    add(protocol, names);
+    return new FieldNameDictionary(ImmutableList.copyOf(names));
+  }
+
+  public static FieldNameDictionary of(final List<String> names) {
+    return new FieldNameDictionary(ImmutableList.copyOf(names));
+  }
+
+  private static void add(final MessageProtocol protocol, final Set<String> names) {
+    names.add(protocol.getInternalName());
+    protocol.getFields().forEach(field -> names.add(field.getInternalName()));
+    protocol.getChildren().forEach(child -> add(child, names));
+  }
+
+  /**
+   * @return the index or -1 if the name is not part of the dictionary
+   */
+  public int indexOf(final String name) {
+    final Integer index = indexes.get(name);
+    return index != null ? index : -1;
+  }
+
+  public String get(final int index) {
+    return names.get(index);
+  }
+
+  public int size() {
+    return names.size();
+  }
+
+  public List<String> getNames() {
+    return names;
+  }
+
+  /**
+   * @return checksum of the names, which changes if the protocol is changed
+   */
+  public int getFingerprint() {
+    return fingerprint;
+  }
+}
@@ -0,0 +1,202 @@
+package at.fhjoanneum.ippr.communicator.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import at.fhjoanneum.ippr.communicator.persistence.objects.DataType;
+import at.fhjoanneum.ippr.communicator.persistence.objects.internal.InternalData;
+import at.fhjoanneum.ippr.communicator.persistence.objects.internal.InternalField;
+import at.fhjoanneum.ippr.communicator.persistence.objects.internal.InternalObject;
+
+/**
+ * Compact binary encoding of {@link InternalData}.
+ * <p>
+ * Version 1: magic byte, version byte, fingerprint of the {@link FieldNameDictionary} (int), then
+ * the objects as count followed by key, name and the fields, each field as key, name, data type and
+ * value. Counts and lengths are unsigned varints. Names are written as reference: 0 is null, 1 is
+ * followed by the name as string, n > 1 is the index n - 2 of the dictionary. Strings are written
+ * as varint length + 1 (0 is null) followed by the UTF-8 bytes, data types as ordinal + 1 (0 is
+ * null).
+ * <p>
+ * The dictionary is resolved by its fingerprint when the data is decoded, since the protocol may
+ * have changed since the data was encoded.
+ */
+public final class InternalDataCodec {
+
+  private static final byte MAGIC = (byte) 0xD1;
+  private static final byte VERSION = 1;
+
+  private static final int NULL = 0;
+  private static final int INLINE = 1;
+  private static final int REFERENCE = 2;
+
+  private static final DataType[] DATA_TYPES = DataType.values();
+
+  private InternalDataCodec() {}
+
+  public static boolean isEncoded(final byte[] bytes) {
+    return bytes != null && bytes.length > 1 && bytes[0] == MAGIC;
+  }
+
+  public static byte[] encode(final InternalData data, final FieldNameDictionary dictionary) {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+    out.write(MAGIC);
+    out.write(VERSION);
+    writeInt(out, dictionary.getFingerprint());
+
+    writeVarInt(out, data.getObjects().size());
+    data.getObjects().forEach((key, object) -> {
+      writeName(out, key, dictionary);
+      writeName(out, object.getName(), dictionary);
+      writeVarInt(out, object.getFields().size());
+      object.getFields().forEach((fieldKey, field) -> {
+        writeName(out, fieldKey, dictionary);
+        writeName(out, field.getName(), dictionary);
+        writeVarInt(out, field.getDataType() == null ? 0 : field.getDataType().ordinal() + 1);
+        writeString(out, field.getValue());
+      });
+    });
+    return out.toByteArray();
+  }
+
+  /**
+   * @param dictionaries resolves the dictionary of the fingerprint, only called if a name refers
+   *        to the dictionary
+   */
+  public static InternalData decode(final byte[] bytes,
+      final IntFunction<FieldNameDictionary> dictionaries) {
+    final ByteBuffer in = ByteBuffer.wrap(bytes);
+    try {
+      if (in.get() != MAGIC) {
+        throw new IllegalArgumentException("Internal data is not encoded");
+      }
+      final byte version = in.get();
+      if (version != VERSION) {
+        throw new IllegalArgumentException("Unknown version [" + version + "] of internal data");
+      }
+      final DictionaryReference dictionary = new DictionaryReference(in.getInt(), dictionaries);
+
+      final int objectCount = readVarInt(in);
+      final Map<String, InternalObject> objects = new HashMap<>();
+      for (int i = 0; i < objectCount; i++) {
+        final String key = readName(in, dictionary);
+        final String name = readName(in, dictionary);
+        final int fieldCount = readVarInt(in);
+        final Map<String, InternalField> fields = new HashMap<>();
+        for (int j = 0; j < fieldCount; j++) {
+          final String fieldKey = readName(in, dictionary);
+          final String fieldName = readName(in, dictionary);
+          final int dataType = readVarInt(in);
+          final String value = readString(in);
+          fields.put(fieldKey, new InternalField(fieldName,
+              dataType == 0 ? null : DATA_TYPES[dataType - 1], value));
+        }
+        objects.put(key, new InternalObject(name, fields));
+      }
+      return new InternalData(objects);
+    } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Internal data is corrupt", e);
+    }
+  }
+
+  private static void writeName(final ByteArrayOutputStream out, final String name,
+      final FieldNameDictionary dictionary) {
+    if (name == null) {
+      writeVarInt(out, NULL);
+      return;
+    }
+    final int index = dictionary.indexOf(name);
+    if (index >= 0) {
+      writeVarInt(out, REFERENCE + index);
+    } else {
+      writeVarInt(out, INLINE);
+      writeString(out, name);
+    }
+  }
+
+  private static String readName(final ByteBuffer in, final DictionaryReference dictionary) {
+    final int reference = readVarInt(in);
+    if (reference == NULL) {
+      return null;
+    } else if (reference == INLINE) {
+      return readString(in);
+    }
+    return dictionary.get().get(reference - REFERENCE);
+  }
+
+  private static void writeString(final ByteArrayOutputStream out, final String value) {
+    if (value == null) {
+      writeVarInt(out, 0);
+      return;
+    }
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(out, bytes.length + 1);
+    out.write(bytes, 0, bytes.length);
+  }
+
+  private static String readString(final ByteBuffer in) {
+    final int length = readVarInt(in);
+    if (length == 0) {
+      return null;
+    }
+    final String value =
+        new String(in.array(), in.position(), length - 1, StandardCharsets.UTF_8);
+    in.position(in.position() + length - 1);
+    return value;
+  }
+
+  private static void writeInt(final ByteArrayOutputStream out, final int value) {
+    out.write(value >>> 24);
+    out.write(value >>> 16);
+    out.write(value >>> 8);
+    out.write(value);
+  }
+
+  private static void writeVarInt(final ByteArrayOutputStream out, int value) {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  private static int readVarInt(final ByteBuffer in) {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      final byte b = in.get();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Internal data is corrupt");
+  }
+
+  /**
+   * Dictionary of the encoded data, which is resolved on its first use
+   */
+  private static class DictionaryReference {
+
+    private final int fingerprint;
+    private final IntFunction<FieldNameDictionary> dictionaries;
+    private FieldNameDictionary dictionary;
+
+    private DictionaryReference(final int fingerprint,
+        final IntFunction<FieldNameDictionary> dictionaries) {
+      this.fingerprint = fingerprint;
+      this.dictionaries = dictionaries;
+    }
+
+    private FieldNameDictionary get() {
+      if (dictionary == null) {
+        dictionary = dictionaries.apply(fingerprint);
+      }
+      return dictionary;
+    }
+  }
+}
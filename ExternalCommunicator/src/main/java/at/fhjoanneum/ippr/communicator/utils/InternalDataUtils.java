@@ -1,6 +1,7 @@
 package at.fhjoanneum.ippr.communicator.utils;
 
 import java.io.IOException;
+import java.util.function.IntFunction;
 
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -8,21 +9,69 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import at.fhjoanneum.ippr.communicator.persistence.objects.internal.InternalData;
+import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.Message;
 
 public final class InternalDataUtils {
 
+  // thread-safe after the configuration
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
   private InternalDataUtils() {}
 
   public static String convertInternalDataToJson(final InternalData data)
       throws JsonProcessingException {
-    final ObjectMapper mapper = new ObjectMapper();
-    final String value = mapper.writeValueAsString(data);
-    return value;
+    return MAPPER.writeValueAsString(data);
   }
 
   public static InternalData convertJsonToInternalData(final String data)
       throws JsonParseException, JsonMappingException, IOException {
-    final ObjectMapper mapper = new ObjectMapper();
-    return mapper.readValue(data, InternalData.class);
+    return MAPPER.readValue(data, InternalData.class);
+  }
+
+  /**
+   * Stores the internal data of the message with the {@link InternalDataCodec}
+   */
+  public static void writeInternalData(final Message message, final InternalData data,
+      final FieldNameDictionary dictionary) {
+    message.setEncodedInternalData(InternalDataCodec.encode(data, dictionary));
+  }
+
+  /**
+   * Reads the encoded internal data of the message, or the JSON of messages stored before the
+   * binary encoding
+   *
+   * @param dictionaries resolves the dictionary the data was encoded with by its fingerprint
+   */
+  public static InternalData readInternalData(final Message message,
+      final IntFunction<FieldNameDictionary> dictionaries) throws IOException {
+    if (InternalDataCodec.isEncoded(message.getEncodedInternalData())) {
+      return InternalDataCodec.decode(message.getEncodedInternalData(), dictionaries);
+    }
+    return convertJsonToInternalData(message.getInternalData());
+  }
+
+  /**
+   * Stores the external data of the message, compressed if it is longer than the threshold
+   *
+   * @param compressionThreshold 0 disables the compression
+   */
+  public static void writeExternalData(final Message message, final String data,
+      final int compressionThreshold) {
+    if (compressionThreshold > 0 && data.length() > compressionThreshold) {
+      message.setCompressedExternalData(CompressionUtils.compress(data));
+    } else {
+      message.setExternalData(data);
+    }
+  }
+
+  /**
+   * Reads the external data of the message, compressed data is inflated on every call, so the
+   * result should be kept instead of reading it again
+   */
+  public static String readExternalData(final Message message) {
+    if (message.getCompressedExternalData() != null) {
+      return CompressionUtils.decompress(message.getCompressedExternalData());
+    }
+    return message.getExternalData();
   }
 }
@@ -0,0 +1,129 @@
+package at.fhjoanneum.ippr.communicator.parser;
+
+import static at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocolStubs.field;
+import static at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocolStubs.fields;
+import static at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocolStubs.protocol;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import at.fhjoanneum.ippr.communicator.global.GlobalKey;
+import at.fhjoanneum.ippr.communicator.persistence.objects.internal.InternalObject;
+import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocol;
+import at.fhjoanneum.ippr.communicator.plugins.MessageProtocolPlan;
+
+/**
+ * The expected results are the ones of the former parser, which read the whole message into a
+ * JSON object first
+ */
+public class JsonParserTest {
+
+  private static final Map<String, String> CONFIGURATION =
+      ImmutableMap.of(GlobalKey.TYPE, "type", GlobalKey.TRANSFER_ID, "transferId");
+
+  private final JsonParser parser = new JsonParser();
+
+  @Test
+  public void assignsRootValuesToTheTypeAndObjectsToTheirProtocol() throws Exception {
+    final ParseResult result = parse(order(),
+        "{\"type\": \"order\", \"transferId\": \"1-2\", \"id\": 5, \"note\": \"fast\", "
+            + "\"customer\": {\"name\": \"Jane\"}}");
+
+    assertThat(result.getTransferId()).isEqualTo("1-2");
+    assertThat(result.getData().getObjects()).containsOnlyKeys("Order", "Customer");
+    assertThat(values(result, "Order")).containsOnly(entry("Id", "5"), entry("Note", "fast"));
+    assertThat(values(result, "Customer")).containsOnly(entry("Name", "Jane"));
+  }
+
+  @Test
+  public void readsTheTypeAfterTheRootValues() throws Exception {
+    final ParseResult result =
+        parse(order(), "{\"id\": \"5\", \"transferId\": \"1-2\", \"type\": \"order\"}");
+
+    assertThat(values(result, "Order")).contains(entry("Id", "5"));
+  }
+
+  @Test
+  public void ignoresUnknownFieldsObjectsAndArrays() throws Exception {
+    final ParseResult result = parse(order(),
+        "{\"type\": \"order\", \"transferId\": \"1-2\", \"id\": \"5\", \"unknown\": \"x\", "
+            + "\"items\": [{\"id\": \"7\"}], \"other\": {\"id\": \"8\"}, "
+            + "\"customer\": {\"name\": \"Jane\", \"id\": \"9\"}}");
+
+    assertThat(values(result, "Order")).containsOnly(entry("Id", "5"), entry("Note", "none"));
+    assertThat(values(result, "Customer")).containsOnly(entry("Name", "Jane"));
+  }
+
+  @Test
+  public void usesTheDefaultValueOfMissingFields() throws Exception {
+    final ParseResult result =
+        parse(order(), "{\"type\": \"order\", \"transferId\": \"1-2\", \"id\": \"5\"}");
+
+    assertThat(values(result, "Order")).containsOnly(entry("Id", "5"), entry("Note", "none"));
+    assertThat(values(result, "Customer")).containsOnly(entry("Name", null));
+  }
+
+  @Test
+  public void failsOnMissingMandatoryField() {
+    assertThatThrownBy(
+        () -> parse(order(), "{\"type\": \"order\", \"transferId\": \"1-2\", \"note\": \"x\"}"))
+            .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Missing field");
+  }
+
+  @Test
+  public void failsOnMissingTypeOrTransferId() {
+    assertThatThrownBy(() -> parse(order(), "{\"transferId\": \"1-2\", \"id\": \"5\"}"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> parse(order(), "{\"type\": \"order\", \"id\": \"5\"}"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void usesTheFieldsOfAnEditedProtocolWithTheSameId() throws Exception {
+    final String input = "{\"type\": \"order\", \"transferId\": \"1-2\", \"id\": \"5\", "
+        + "\"note\": \"fast\", \"comment\": \"edited\"}";
+    final MessageProtocol edited = protocol(1L, "order", "Order",
+        fields(field("id", "Id", true, null), field("comment", "Comment", false, null)));
+
+    // the protocols are equal, since they have the same id
+    assertThat(edited).isEqualTo(order());
+    parser.parse(input, order(), Collections.emptyMap(), CONFIGURATION);
+    final ParseResult result =
+        parser.parse(input, edited, Collections.emptyMap(), CONFIGURATION);
+
+    assertThat(values(result, "Order")).containsOnly(entry("Id", "5"), entry("Comment", "edited"));
+  }
+
+  private ParseResult parse(final MessageProtocol protocol, final String input)
+      throws Exception {
+    // the plans are the protocols which are passed to the parser
+    return parser.parse(input, MessageProtocolPlan.of(protocol), Collections.emptyMap(),
+        CONFIGURATION);
+  }
+
+  private static MessageProtocol order() {
+    final MessageProtocol customer =
+        protocol(2L, "customer", "Customer", fields(field("name", "Name", false, null)));
+    return protocol(1L, "order", "Order",
+        fields(field("id", "Id", true, null), field("note", "Note", false, "none")), customer);
+  }
+
+  private static Map<String, String> values(final ParseResult result, final String object) {
+    final InternalObject internalObject = result.getData().getObjects().get(object);
+    final Map<String, String> values = new HashMap<>();
+    internalObject.getFields().forEach((name, field) -> values.put(name, field.getValue()));
+    return values;
+  }
+
+  private static Map.Entry<String, String> entry(final String key, final String value) {
+    return new SimpleEntry<>(key, value);
+  }
+}
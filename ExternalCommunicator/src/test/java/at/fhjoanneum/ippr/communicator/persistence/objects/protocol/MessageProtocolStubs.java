@@ -0,0 +1,100 @@
+package at.fhjoanneum.ippr.communicator.persistence.objects.protocol;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import at.fhjoanneum.ippr.communicator.persistence.objects.DataType;
+
+/**
+ * Message protocols without persistence context for tests, which are equal by their id like the
+ * entities
+ */
+public final class MessageProtocolStubs {
+
+  private MessageProtocolStubs() {}
+
+  public static MessageProtocol protocol(final long id, final String externalName,
+      final String internalName, final List<MessageProtocolField> fields,
+      final MessageProtocol... children) {
+    return new StubProtocol(id, externalName, internalName, fields,
+        ImmutableList.copyOf(Arrays.asList(children)));
+  }
+
+  public static MessageProtocolField field(final String externalName, final String internalName,
+      final boolean mandatory, final String defaultValue) {
+    final MessageProtocolField field = mock(MessageProtocolField.class);
+    when(field.getExternalName()).thenReturn(externalName);
+    when(field.getInternalName()).thenReturn(internalName);
+    when(field.getDataType()).thenReturn(DataType.STRING);
+    when(field.isMandatory()).thenReturn(mandatory);
+    when(field.getDefaultValue()).thenReturn(defaultValue);
+    return field;
+  }
+
+  public static List<MessageProtocolField> fields(final MessageProtocolField... fields) {
+    return ImmutableList.copyOf(fields);
+  }
+
+  private static final class StubProtocol implements MessageProtocol {
+
+    private final Long id;
+    private final String externalName;
+    private final String internalName;
+    private final List<MessageProtocolField> fields;
+    private final List<MessageProtocol> children;
+
+    private StubProtocol(final Long id, final String externalName, final String internalName,
+        final List<MessageProtocolField> fields, final List<MessageProtocol> children) {
+      this.id = id;
+      this.externalName = externalName;
+      this.internalName = internalName;
+      this.fields = fields;
+      this.children = children;
+    }
+
+    @Override
+    public Long getId() {
+      return id;
+    }
+
+    @Override
+    public String getExternalName() {
+      return externalName;
+    }
+
+    @Override
+    public String getInternalName() {
+      return internalName;
+    }
+
+    @Override
+    public List<MessageProtocolField> getFields() {
+      return fields;
+    }
+
+    @Override
+    public List<MessageProtocol> getChildren() {
+      return children;
+    }
+
+    @Override
+    public MessageProtocol getParent() {
+      return null;
+    }
+
+    @Override
+    public int hashCode() {
+      return id.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      return obj instanceof StubProtocol && id.equals(((StubProtocol) obj).id);
+    }
+  }
+}
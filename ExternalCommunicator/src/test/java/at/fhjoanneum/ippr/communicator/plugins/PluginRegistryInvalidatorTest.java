@@ -0,0 +1,67 @@
+package at.fhjoanneum.ippr.communicator.plugins;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import at.fhjoanneum.ippr.communicator.persistence.objects.basic.outbound.BasicOutboundConfiguration;
+
+public class PluginRegistryInvalidatorTest {
+
+  private PluginRegistry pluginRegistry;
+
+  private PluginRegistryInvalidator invalidator;
+
+  @Before
+  public void setUp() {
+    pluginRegistry = mock(PluginRegistry.class);
+    invalidator = new PluginRegistryInvalidator();
+    invalidator.setPluginRegistry(pluginRegistry);
+  }
+
+  @After
+  public void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  public void changeInTransactionInvalidatesThePlanAfterCommit() {
+    final BasicOutboundConfiguration config = mock(BasicOutboundConfiguration.class);
+    when(config.getId()).thenReturn(1L);
+    TransactionSynchronizationManager.initSynchronization();
+
+    invalidator.invalidate(config);
+    verifyZeroInteractions(pluginRegistry);
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(TransactionSynchronization::afterCommit);
+    verify(pluginRegistry).invalidateOutbound(1L);
+  }
+
+  @Test
+  public void rolledBackChangeKeepsThePlans() {
+    TransactionSynchronizationManager.initSynchronization();
+
+    invalidator.invalidate(new Object());
+
+    TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    verifyZeroInteractions(pluginRegistry);
+  }
+
+  @Test
+  public void changeWithoutTransactionInvalidatesImmediately() {
+    invalidator.invalidate(new Object());
+
+    verify(pluginRegistry).invalidateAll();
+  }
+}
@@ -0,0 +1,118 @@
+package at.fhjoanneum.ippr.communicator.plugins.send;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class BulkheadTest {
+
+  private ManualExecutor executor;
+  private Bulkhead bulkhead;
+  private List<Integer> executed;
+
+  @Before
+  public void setUp() {
+    executor = new ManualExecutor();
+    bulkhead = new Bulkhead(executor, 2);
+    executed = new ArrayList<>();
+  }
+
+  @Test
+  public void executesRequestsUpToTheLimit() {
+    assertThat(bulkhead.execute(request(1), 2)).isTrue();
+    assertThat(bulkhead.execute(request(2), 2)).isTrue();
+    assertThat(bulkhead.execute(request(3), 2)).isTrue();
+
+    assertThat(executor.pending()).isEqualTo(2);
+  }
+
+  @Test
+  public void runsQueuedRequestsWhenARunningOneIsFinished() {
+    for (int i = 1; i <= 4; i++) {
+      bulkhead.execute(request(i), 2);
+    }
+
+    executor.runNext();
+    assertThat(executed).containsExactly(1);
+    assertThat(executor.pending()).isEqualTo(2);
+
+    executor.runAll();
+    assertThat(executed).containsExactly(1, 2, 3, 4);
+  }
+
+  @Test
+  public void rejectsRequestsWhenTheQueueIsFull() {
+    for (int i = 1; i <= 4; i++) {
+      assertThat(bulkhead.execute(request(i), 2)).isTrue();
+    }
+
+    assertThat(bulkhead.execute(request(5), 2)).isFalse();
+
+    executor.runNext();
+    assertThat(bulkhead.execute(request(6), 2)).isTrue();
+  }
+
+  @Test
+  public void releasesTheSlotIfTheRequestFails() {
+    bulkhead.execute(() -> {
+      throw new IllegalStateException();
+    }, 1);
+    bulkhead.execute(request(2), 1);
+
+    try {
+      executor.runNext();
+    } catch (final IllegalStateException e) {
+      // the failure of the request is not handled by the bulkhead
+    }
+    executor.runAll();
+    assertThat(executed).containsExactly(2);
+  }
+
+  @Test
+  public void appliesTheLatestLimit() {
+    bulkhead.execute(request(1), 1);
+    bulkhead.execute(request(2), 1);
+    assertThat(executor.pending()).isEqualTo(1);
+
+    bulkhead.execute(request(3), 2);
+    assertThat(executor.pending()).isEqualTo(2);
+  }
+
+  private Runnable request(final int id) {
+    return () -> executed.add(id);
+  }
+
+  /**
+   * Runs the submitted tasks only when the test asks for it
+   */
+  private static class ManualExecutor implements Executor {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    @Override
+    public void execute(final Runnable task) {
+      tasks.add(task);
+    }
+
+    private int pending() {
+      return tasks.size();
+    }
+
+    private void runNext() {
+      tasks.poll().run();
+    }
+
+    private void runAll() {
+      while (!tasks.isEmpty()) {
+        runNext();
+      }
+    }
+  }
+}
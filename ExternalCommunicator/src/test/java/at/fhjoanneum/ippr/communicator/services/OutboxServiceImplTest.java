@@ -0,0 +1,126 @@
+package at.fhjoanneum.ippr.communicator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Matchers.longThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import at.fhjoanneum.ippr.communicator.feign.ProcessEngineClient;
+import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.Message;
+import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.MessageState;
+import at.fhjoanneum.ippr.communicator.plugins.PluginRegistry;
+import at.fhjoanneum.ippr.communicator.repositories.MessageRepository;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OutboxServiceImplTest {
+
+  private static final long BASE_DELAY = 5000;
+  private static final long MAX_DELAY = 3600000;
+
+  @Mock
+  private MessageRepository messageRepository;
+
+  @Mock
+  private PluginRegistry pluginRegistry;
+
+  @Mock
+  private ProcessEngineClient processEngineClient;
+
+  @Mock
+  private OutboxMetrics outboxMetrics;
+
+  @InjectMocks
+  private OutboxServiceImpl outboxService;
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(outboxService, "baseDelay", BASE_DELAY);
+    ReflectionTestUtils.setField(outboxService, "maxDelay", MAX_DELAY);
+    ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+  }
+
+  @Test
+  public void backoffDoublesWithEachAttempt() {
+    for (int attempts = 1; attempts <= 5; attempts++) {
+      final long delay = BASE_DELAY << (attempts - 1);
+      for (int i = 0; i < 100; i++) {
+        assertThat(outboxService.getBackoff(attempts)).isBetween(delay / 2, delay);
+      }
+    }
+  }
+
+  @Test
+  public void backoffIsCappedAtTheMaximumDelay() {
+    for (final int attempts : new int[] {11, 31, 64, Integer.MAX_VALUE}) {
+      assertThat(outboxService.getBackoff(attempts)).isBetween(MAX_DELAY / 2, MAX_DELAY);
+    }
+  }
+
+  @Test
+  public void backoffIsJittered() {
+    final Set<Long> delays = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      delays.add(outboxService.getBackoff(10));
+    }
+    assertThat(delays.size()).isGreaterThan(1);
+  }
+
+  @Test
+  public void failedMessageIsRetriedLater() {
+    final long now = System.currentTimeMillis();
+    outboxService.handleSendResult(message(1), false);
+
+    verify(messageRepository).updateAttempt(eq(1L), eq(MessageState.COMPOSED), eq(2),
+        longBetween(now + BASE_DELAY, now + 2 * BASE_DELAY + 1000));
+  }
+
+  @Test
+  public void failedMessageIsDeadLetteredAfterTheMaximumAttempts() {
+    outboxService.handleSendResult(message(2), false);
+
+    verify(messageRepository).updateAttempt(eq(1L), eq(MessageState.DEAD_LETTER), eq(3),
+        (Long) isNull());
+  }
+
+  @Test
+  public void sentMessageIsMarkedAsSent() {
+    outboxService.handleSendResult(message(0), true);
+
+    verify(processEngineClient).markAsSent("transfer");
+    verify(messageRepository).updateMessageState(1L, MessageState.SENT);
+  }
+
+  private static Message message(final int attempts) {
+    final Message message = mock(Message.class);
+    when(message.getId()).thenReturn(1L);
+    when(message.getTransferId()).thenReturn("transfer");
+    when(message.getAttempts()).thenReturn(attempts);
+    return message;
+  }
+
+  private static long longBetween(final long from, final long to) {
+    return longThat(new ArgumentMatcher<Long>() {
+      @Override
+      public boolean matches(final Object argument) {
+        final Long value = (Long) argument;
+        return value != null && value >= from && value <= to;
+      }
+    });
+  }
+}
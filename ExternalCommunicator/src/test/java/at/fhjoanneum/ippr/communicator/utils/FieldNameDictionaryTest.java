@@ -0,0 +1,57 @@
+package at.fhjoanneum.ippr.communicator.utils;
+
+import static at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocolStubs.field;
+import static at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocolStubs.fields;
+import static at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocolStubs.protocol;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import at.fhjoanneum.ippr.communicator.persistence.objects.protocol.MessageProtocol;
+
+public class FieldNameDictionaryTest {
+
+  @Test
+  public void containsTheInternalNamesOfTheProtocolAndItsChildrenOnce() {
+    final FieldNameDictionary dictionary = FieldNameDictionary.of(order("Note"));
+
+    assertThat(dictionary.getNames()).containsExactly("Order", "Id", "Note", "Customer", "Name");
+    assertThat(dictionary.indexOf("Customer")).isEqualTo(3);
+    assertThat(dictionary.get(3)).isEqualTo("Customer");
+    assertThat(dictionary.indexOf("Unknown")).isEqualTo(-1);
+  }
+
+  @Test
+  public void fingerprintChangesWithTheNames() {
+    assertThat(FieldNameDictionary.of(order("Note")).getFingerprint())
+        .isEqualTo(FieldNameDictionary.of(order("Note")).getFingerprint())
+        .isNotEqualTo(FieldNameDictionary.of(order("Comment")).getFingerprint());
+  }
+
+  @Test
+  public void storedNamesResultInTheSameDictionary() {
+    final FieldNameDictionary dictionary = FieldNameDictionary.of(order("Note"));
+    final FieldNameDictionary stored = FieldNameDictionary.of(dictionary.getNames());
+
+    assertThat(stored.getNames()).isEqualTo(dictionary.getNames());
+    assertThat(stored.getFingerprint()).isEqualTo(dictionary.getFingerprint());
+  }
+
+  @Test
+  public void emptyDictionaryHasNoNames() {
+    assertThat(FieldNameDictionary.EMPTY.size()).isZero();
+    assertThat(FieldNameDictionary.EMPTY.indexOf("Order")).isEqualTo(-1);
+    assertThat(FieldNameDictionary.of(Arrays.asList()).getFingerprint())
+        .isEqualTo(FieldNameDictionary.EMPTY.getFingerprint());
+  }
+
+  private static MessageProtocol order(final String note) {
+    // the customer repeats the id, which is only added once
+    final MessageProtocol customer = protocol(2L, "customer", "Customer",
+        fields(field("id", "Id", true, null), field("name", "Name", false, null)));
+    return protocol(1L, "order", "Order",
+        fields(field("id", "Id", true, null), field("note", note, false, null)), customer);
+  }
+}
@@ -0,0 +1,100 @@
+package at.fhjoanneum.ippr.communicator.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+
+import at.fhjoanneum.ippr.communicator.persistence.objects.DataType;
+import at.fhjoanneum.ippr.communicator.persistence.objects.internal.InternalData;
+import at.fhjoanneum.ippr.communicator.persistence.objects.internal.InternalField;
+import at.fhjoanneum.ippr.communicator.persistence.objects.internal.InternalObject;
+
+public class InternalDataCodecTest {
+
+  // longer than a single byte varint
+  private static final String LONG_NOTE = Strings.repeat("ü", 200);
+
+  private static final FieldNameDictionary DICTIONARY =
+      FieldNameDictionary.of(Arrays.asList("Order", "Id", "Note", "Customer", "Name"));
+
+  @Test
+  public void roundTripsTheInternalData() throws Exception {
+    final InternalData data = data(LONG_NOTE);
+
+    final byte[] encoded = InternalDataCodec.encode(data, DICTIONARY);
+
+    assertThat(InternalDataCodec.isEncoded(encoded)).isTrue();
+    assertThat(InternalDataCodec.decode(encoded, fingerprint -> DICTIONARY))
+        .isEqualToComparingFieldByFieldRecursively(data);
+  }
+
+  @Test
+  public void isSmallerThanTheJson() throws Exception {
+    final InternalData data = data("fast");
+
+    assertThat(InternalDataCodec.encode(data, DICTIONARY).length).isLessThan(
+        InternalDataUtils.convertInternalDataToJson(data).getBytes(StandardCharsets.UTF_8).length
+            / 2);
+  }
+
+  @Test
+  public void decodesWithTheDictionaryOfTheEncodedFingerprint() {
+    final byte[] encoded = InternalDataCodec.encode(data("fast"), DICTIONARY);
+    final FieldNameDictionary edited =
+        FieldNameDictionary.of(Arrays.asList("Order", "Id", "Comment", "Customer", "Name"));
+    final Map<Integer, FieldNameDictionary> dictionaries = ImmutableMap
+        .of(DICTIONARY.getFingerprint(), DICTIONARY, edited.getFingerprint(), edited);
+
+    assertThat(InternalDataCodec.decode(encoded, dictionaries::get))
+        .isEqualToComparingFieldByFieldRecursively(data("fast"));
+  }
+
+  @Test
+  public void doesNotResolveTheDictionaryIfAllNamesAreInline() {
+    final byte[] encoded = InternalDataCodec.encode(data("fast"), FieldNameDictionary.EMPTY);
+
+    assertThat(InternalDataCodec.decode(encoded, fingerprint -> {
+      throw new IllegalStateException("Unknown field name dictionary");
+    })).isEqualToComparingFieldByFieldRecursively(data("fast"));
+  }
+
+  @Test
+  public void detectsJsonAsNotEncoded() throws Exception {
+    assertThat(InternalDataCodec.isEncoded(null)).isFalse();
+    assertThat(InternalDataCodec.isEncoded(InternalDataUtils.convertInternalDataToJson(data("fast"))
+        .getBytes(StandardCharsets.UTF_8))).isFalse();
+  }
+
+  @Test
+  public void failsOnTruncatedData() {
+    final byte[] encoded = InternalDataCodec.encode(data("fast"), DICTIONARY);
+
+    assertThatThrownBy(() -> InternalDataCodec
+        .decode(Arrays.copyOf(encoded, encoded.length - 3), fingerprint -> DICTIONARY))
+            .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static InternalData data(final String note) {
+    final Map<String, InternalField> orderFields = new HashMap<>();
+    orderFields.put("Id", new InternalField("Id", DataType.INT, "5"));
+    orderFields.put("Note", new InternalField("Note", DataType.STRING, note));
+    orderFields.put("Unknown", new InternalField("Unknown", null, null));
+
+    final Map<String, InternalField> customerFields = new HashMap<>();
+    customerFields.put("Name", new InternalField("Name", DataType.STRING, "Jane"));
+
+    final Map<String, InternalObject> objects = new HashMap<>();
+    objects.put("Order", new InternalObject("Order", orderFields));
+    objects.put("Customer", new InternalObject("Customer", customerFields));
+    return new InternalData(objects);
+  }
+}
@@ -0,0 +1,62 @@
+package at.fhjoanneum.ippr.communicator.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+
+import at.fhjoanneum.ippr.communicator.persistence.entities.messageflow.MessageBuilder;
+import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.Message;
+import at.fhjoanneum.ippr.communicator.persistence.objects.messageflow.MessageState;
+
+public class InternalDataUtilsTest {
+
+  private static final String LARGE = Strings.repeat("{\"name\": \"value\"}", 100);
+
+  @Test
+  public void compressesExternalDataAboveTheThreshold() {
+    final Message message = message();
+
+    InternalDataUtils.writeExternalData(message, LARGE, 1024);
+
+    assertThat(message.getExternalData()).isNull();
+    assertThat(message.getCompressedExternalData().length).isLessThan(LARGE.length() / 10);
+    assertThat(InternalDataUtils.readExternalData(message)).isEqualTo(LARGE);
+  }
+
+  @Test
+  public void storesExternalDataUpToTheThresholdAsIs() {
+    final Message message = message();
+
+    InternalDataUtils.writeExternalData(message, LARGE, LARGE.length());
+
+    assertThat(message.getCompressedExternalData()).isNull();
+    assertThat(InternalDataUtils.readExternalData(message)).isEqualTo(LARGE);
+  }
+
+  @Test
+  public void zeroThresholdDisablesTheCompression() {
+    final Message message = message();
+
+    InternalDataUtils.writeExternalData(message, LARGE, 0);
+
+    assertThat(message.getCompressedExternalData()).isNull();
+    assertThat(message.getExternalData()).isEqualTo(LARGE);
+  }
+
+  @Test
+  public void writingPlainDataReplacesCompressedData() {
+    final Message message = message();
+    InternalDataUtils.writeExternalData(message, LARGE, 1024);
+
+    InternalDataUtils.writeExternalData(message, "small", 1024);
+
+    assertThat(message.getCompressedExternalData()).isNull();
+    assertThat(InternalDataUtils.readExternalData(message)).isEqualTo("small");
+  }
+
+  private static Message message() {
+    return new MessageBuilder().messageState(MessageState.TO_PARSE).build();
+  }
+}
@@ -14,9 +14,11 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToOne;
+import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 
 import org.apache.commons.lang3.StringUtils;
@@ -34,6 +36,7 @@ import at.fhjoanneum.ippr.persistence.objects.model.messageflow.MessageFlow;
 import at.fhjoanneum.ippr.persistence.objects.model.state.State;
 
 @Entity(name = "SUBJECT_STATE")
+@Table(indexes = {@Index(name = "idx_subject_state_timeout", columnList = "timeout_due_at")})
 public class SubjectStateImpl implements SubjectState, Serializable {
 
   private static final long serialVersionUID = -8145174613972009727L;
@@ -66,8 +69,8 @@ public class SubjectStateImpl implements SubjectState, Serializable {
   @NotNull
   private LocalDateTime lastChanged;
 
-  @Column
-  private String timeoutActor;
+  @Column(name = "timeout_due_at")
+  private LocalDateTime timeoutDueAt;
 
   SubjectStateImpl() {}
 
@@ -163,13 +166,13 @@ public class SubjectStateImpl implements SubjectState, Serializable {
   }
 
   @Override
-  public void setTimeoutActor(final String timeoutActor) {
-    this.timeoutActor = timeoutActor;
+  public void setTimeoutDueAt(final LocalDateTime timeoutDueAt) {
+    this.timeoutDueAt = timeoutDueAt;
   }
 
   @Override
-  public String getTimeoutActor() {
-    return timeoutActor;
+  public LocalDateTime getTimeoutDueAt() {
+    return timeoutDueAt;
   }
 
   @Override
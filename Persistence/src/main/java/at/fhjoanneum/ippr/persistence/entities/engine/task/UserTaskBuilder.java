@@ -0,0 +1,30 @@
+package at.fhjoanneum.ippr.persistence.entities.engine.task;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import at.fhjoanneum.ippr.persistence.builder.Builder;
+import at.fhjoanneum.ippr.persistence.objects.engine.state.SubjectState;
+import at.fhjoanneum.ippr.persistence.objects.engine.task.UserTask;
+
+public class UserTaskBuilder implements Builder<UserTask> {
+
+  private SubjectState subjectState;
+
+  public UserTaskBuilder subjectState(final SubjectState subjectState) {
+    checkNotNull(subjectState);
+    checkNotNull(subjectState.getSubject().getUser());
+    this.subjectState = subjectState;
+    return this;
+  }
+
+  @Override
+  public UserTask build() {
+    checkNotNull(subjectState);
+
+    return new UserTaskImpl(subjectState.getSsId(), subjectState.getSubject().getUser(),
+        subjectState.getProcessInstance().getPiId(),
+        subjectState.getProcessInstance().getProcessModel().getName(),
+        subjectState.getCurrentState().getName(),
+        subjectState.getCurrentState().getFunctionType().name(), subjectState.getLastChanged());
+  }
+}
@@ -0,0 +1,122 @@
+package at.fhjoanneum.ippr.persistence.entities.engine.task;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import at.fhjoanneum.ippr.persistence.objects.engine.task.UserTask;
+
+@Entity(name = "USER_TASK")
+@Table(indexes = {@Index(name = "idx_user_task_user", columnList = "user_id,last_changed"),
+    @Index(name = "idx_user_task_pi", columnList = "pi_id")})
+public class UserTaskImpl implements UserTask, Serializable {
+
+  private static final long serialVersionUID = 4625326407981519032L;
+
+  @Id
+  @Column(name = "ss_id")
+  private Long ssId;
+
+  @Column(name = "user_id")
+  @NotNull
+  private Long userId;
+
+  @Column(name = "pi_id")
+  @NotNull
+  private Long piId;
+
+  @Column(name = "process_name")
+  private String processName;
+
+  @Column(name = "state_name")
+  private String stateName;
+
+  @Column(name = "function_type")
+  private String functionType;
+
+  @Column(name = "last_changed")
+  @NotNull
+  private LocalDateTime lastChanged;
+
+  UserTaskImpl() {}
+
+  UserTaskImpl(final Long ssId, final Long userId, final Long piId, final String processName,
+      final String stateName, final String functionType, final LocalDateTime lastChanged) {
+    this.ssId = ssId;
+    this.userId = userId;
+    this.piId = piId;
+    this.processName = processName;
+    this.stateName = stateName;
+    this.functionType = functionType;
+    this.lastChanged = lastChanged;
+  }
+
+  @Override
+  public Long getSsId() {
+    return ssId;
+  }
+
+  @Override
+  public Long getUserId() {
+    return userId;
+  }
+
+  @Override
+  public Long getPiId() {
+    return piId;
+  }
+
+  @Override
+  public String getProcessName() {
+    return processName;
+  }
+
+  @Override
+  public String getStateName() {
+    return stateName;
+  }
+
+  @Override
+  public String getFunctionType() {
+    return functionType;
+  }
+
+  @Override
+  public LocalDateTime getLastChanged() {
+    return lastChanged;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(ssId);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    final UserTaskImpl other = (UserTaskImpl) obj;
+    return Objects.equals(ssId, other.ssId);
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("ssId", ssId)
+        .append("userId", userId).append("piId", piId).append("stateName", stateName)
+        .toString();
+  }
+}
@@ -34,7 +34,7 @@ public interface SubjectState {
 
   boolean isNextState(final State nextState);
 
-  void setTimeoutActor(final String timeoutActor);
+  void setTimeoutDueAt(final LocalDateTime timeoutDueAt);
 
-  String getTimeoutActor();
+  LocalDateTime getTimeoutDueAt();
 }
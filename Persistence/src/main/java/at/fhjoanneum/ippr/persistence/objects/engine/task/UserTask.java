@@ -0,0 +1,24 @@
+package at.fhjoanneum.ippr.persistence.objects.engine.task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized entry of a user's task inbox, i.e. a subject state which currently requires an
+ * action of the assigned user.
+ */
+public interface UserTask {
+
+  Long getSsId();
+
+  Long getUserId();
+
+  Long getPiId();
+
+  String getProcessName();
+
+  String getStateName();
+
+  String getFunctionType();
+
+  LocalDateTime getLastChanged();
+}
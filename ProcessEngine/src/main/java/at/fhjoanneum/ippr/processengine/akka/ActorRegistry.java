@@ -0,0 +1,238 @@
+package at.fhjoanneum.ippr.processengine.akka;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+
+import akka.actor.ActorRef;
+import akka.actor.UntypedActorContext;
+import at.fhjoanneum.ippr.processengine.akka.config.SpringExtension;
+
+/**
+ * Registry of the child actors of a supervisor, e.g. piId -> ProcessActor or userId -> UserActor.
+ * <p>
+ * Lookups are non-blocking. Each created actor is watched by the owning supervisor, which removes
+ * it again via {@link #unregister(ActorRef)} when it receives the corresponding
+ * {@link akka.actor.Terminated} message.
+ * <p>
+ * If activation on demand is enabled, actors which were not woken up at start up are created by
+ * the first message addressed to them.
+ * <p>
+ * Idle actors may ask to be passivated, see
+ * {@link at.fhjoanneum.ippr.processengine.akka.actors.PassivatingActor}. Messages which the
+ * supervisor forwards via {@link #forward(ActorRef, Object)} while an actor is passivating are
+ * buffered and delivered to the actor again if it cancels the passivation, or to a new actor
+ * created after it has been terminated.
+ * <p>
+ * Tasks must not tell a registered actor directly, since it may already be stopped before the
+ * supervisor received its {@link akka.actor.Terminated}. They send a {@link Deliver} to the
+ * supervisor instead, which forwards the message or buffers it.
+ */
+public class ActorRegistry {
+
+  private final static Logger LOG = LoggerFactory.getLogger(ActorRegistry.class);
+
+  private final ConcurrentMap<Long, ActorRef> actors = new ConcurrentHashMap<>();
+  private final ConcurrentMap<ActorRef, Long> ids = new ConcurrentHashMap<>();
+  // buffers are only accessed by the supervisor itself
+  private final ConcurrentMap<Long, List<Envelope>> passivating = new ConcurrentHashMap<>();
+
+  private final AtomicLong activations = new AtomicLong();
+  private final AtomicLong passivations = new AtomicLong();
+
+  private final UntypedActorContext context;
+  private final SpringExtension springExtension;
+  private final String actorBeanName;
+  private final String namePrefix;
+  private final boolean activateOnDemand;
+
+  public ActorRegistry(final UntypedActorContext context, final SpringExtension springExtension,
+      final String actorBeanName, final String namePrefix) {
+    this(context, springExtension, actorBeanName, namePrefix, false);
+  }
+
+  public ActorRegistry(final UntypedActorContext context, final SpringExtension springExtension,
+      final String actorBeanName, final String namePrefix, final boolean activateOnDemand) {
+    this.context = context;
+    this.springExtension = springExtension;
+    this.actorBeanName = actorBeanName;
+    this.namePrefix = namePrefix;
+    this.activateOnDemand = activateOnDemand;
+    ActorRegistryMetrics.register(actorBeanName, this);
+  }
+
+  public Optional<ActorRef> findActor(final Long id) {
+    return Optional.ofNullable(actors.get(id));
+  }
+
+  /**
+   * Like {@link #findActor(Long)}, but creates the actor if activation on demand is enabled
+   */
+  public Optional<ActorRef> findOrActivateActor(final Long id) {
+    return activateOnDemand ? Optional.of(getOrCreateActor(id)) : findActor(id);
+  }
+
+  public ActorRef getOrCreateActor(final Long id) {
+    return actors.computeIfAbsent(id, this::createActor);
+  }
+
+  /**
+   * Forwards the current message of the supervisor or buffers it if the actor is passivating
+   */
+  public void forward(final ActorRef actor, final Object msg) {
+    final Long id = ids.get(actor);
+    final List<Envelope> buffer = id != null ? passivating.get(id) : null;
+    if (buffer != null) {
+      buffer.add(new Envelope(msg, context.sender()));
+    } else {
+      actor.forward(msg, context);
+    }
+  }
+
+  /**
+   * Handles the {@link Passivate} request of an idle actor
+   */
+  public void passivate(final ActorRef actor) {
+    final Long id = ids.get(actor);
+    if (id == null) {
+      return;
+    }
+    passivating.putIfAbsent(id, Lists.newArrayList());
+    actor.tell(new PassivateAck(), context.self());
+  }
+
+  /**
+   * Handles the {@link PassivateCancel} of an actor which received messages in the meantime
+   */
+  public void cancelPassivation(final ActorRef actor) {
+    final Long id = ids.get(actor);
+    final List<Envelope> buffer = id != null ? passivating.remove(id) : null;
+    if (buffer != null) {
+      LOG.debug("Passivation of actor [{}] cancelled", actor.path().name());
+      deliver(actor, buffer);
+    }
+  }
+
+  public void unregister(final ActorRef actor) {
+    final Long id = ids.remove(actor);
+    if (id != null) {
+      actors.remove(id, actor);
+      LOG.debug("Removed actor [{}] from registry", actor.path().name());
+
+      final List<Envelope> buffer = passivating.remove(id);
+      if (buffer != null) {
+        passivations.incrementAndGet();
+        LOG.debug("Passivated actor [{}]", actor.path().name());
+        if (!buffer.isEmpty()) {
+          deliver(getOrCreateActor(id), buffer);
+        }
+      }
+    }
+  }
+
+  public int size() {
+    return actors.size();
+  }
+
+  int passivatingSize() {
+    return passivating.size();
+  }
+
+  long getActivations() {
+    return activations.get();
+  }
+
+  long getPassivations() {
+    return passivations.get();
+  }
+
+  private void deliver(final ActorRef actor, final List<Envelope> buffer) {
+    buffer.forEach(envelope -> actor.tell(envelope.msg, envelope.sender));
+  }
+
+  private ActorRef createActor(final Long id) {
+    final ActorRef actor =
+        context.actorOf(springExtension.props(actorBeanName, id), namePrefix + id);
+    ids.put(actor, id);
+    activations.incrementAndGet();
+    // watch must be executed by the supervisor itself, since tasks also create actors
+    context.self().tell(new Watch(actor), ActorRef.noSender());
+    LOG.info("Created new actor [{}]", actor.path().name());
+    return actor;
+  }
+
+  /**
+   * Message to the supervisor to watch a newly created child.
+   */
+  public static class Watch {
+
+    private final ActorRef actor;
+
+    public Watch(final ActorRef actor) {
+      this.actor = actor;
+    }
+
+    public ActorRef getActor() {
+      return actor;
+    }
+  }
+
+  /**
+   * Message to the supervisor to forward a message to the actor with the given id, which is
+   * created if necessary. The sender of the {@link Deliver} is kept as sender of the message.
+   */
+  public static class Deliver {
+
+    private final Long id;
+    private final Object message;
+
+    public Deliver(final Long id, final Object message) {
+      this.id = id;
+      this.message = message;
+    }
+
+    public Long getId() {
+      return id;
+    }
+
+    public Object getMessage() {
+      return message;
+    }
+  }
+
+  /**
+   * Message of an idle child to its supervisor to request its passivation.
+   */
+  public static class Passivate {
+  }
+
+  /**
+   * Message of the supervisor to a child that messages are buffered from now on.
+   */
+  public static class PassivateAck {
+  }
+
+  /**
+   * Message of a child to its supervisor if it is not idle anymore.
+   */
+  public static class PassivateCancel {
+  }
+
+  private static class Envelope {
+
+    private final Object msg;
+    private final ActorRef sender;
+
+    private Envelope(final Object msg, final ActorRef sender) {
+      this.msg = msg;
+      this.sender = sender;
+    }
+  }
+}
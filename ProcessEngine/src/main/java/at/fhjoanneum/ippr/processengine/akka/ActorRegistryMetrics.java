@@ -0,0 +1,39 @@
+package at.fhjoanneum.ippr.processengine.akka;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Exposes live and passivated actors of the actor registries, e.g.
+ * <code>akka.actors.UserActor.live</code>
+ */
+@Component
+public class ActorRegistryMetrics implements PublicMetrics {
+
+  private final static Map<String, ActorRegistry> REGISTRIES = new ConcurrentHashMap<>();
+
+  static void register(final String actorBeanName, final ActorRegistry registry) {
+    REGISTRIES.put(actorBeanName, registry);
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    final List<Metric<?>> metrics = Lists.newArrayList();
+    REGISTRIES.forEach((name, registry) -> {
+      final String prefix = "akka.actors." + name;
+      metrics.add(new Metric<>(prefix + ".live", registry.size()));
+      metrics.add(new Metric<>(prefix + ".passivating", registry.passivatingSize()));
+      metrics.add(new Metric<>(prefix + ".activations", registry.getActivations()));
+      metrics.add(new Metric<>(prefix + ".passivations", registry.getPassivations()));
+    });
+    return metrics;
+  }
+}
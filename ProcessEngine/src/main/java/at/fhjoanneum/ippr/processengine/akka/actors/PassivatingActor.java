@@ -0,0 +1,69 @@
+package at.fhjoanneum.ippr.processengine.akka.actors;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import akka.actor.ReceiveTimeout;
+import akka.actor.UntypedActor;
+import at.fhjoanneum.ippr.processengine.akka.ActorRegistry;
+import at.fhjoanneum.ippr.processengine.akka.tasks.TaskPools;
+import scala.concurrent.duration.Duration;
+
+/**
+ * Actor which asks its supervisor to passivate it after it was idle for
+ * <code>actor.passivation.idle-timeout</code> seconds (0 disables passivation).
+ * <p>
+ * The actor only stops if it did not receive any other message between its
+ * {@link ActorRegistry.Passivate} request and the acknowledgement of the supervisor, and if none
+ * of its tasks is running, neither as child nor in a {@link TaskPools} worker. Since the next
+ * message addressed to a passivated actor creates it again, subclasses must load their state in
+ * preStart.
+ */
+public abstract class PassivatingActor extends UntypedActor {
+
+  @Value("${actor.passivation.idle-timeout:0}")
+  private long idleTimeout;
+
+  @Autowired
+  private TaskPools taskPools;
+
+  private boolean passivationRequested;
+
+  @Override
+  public void preStart() throws Exception {
+    if (idleTimeout > 0) {
+      getContext().setReceiveTimeout(Duration.create(idleTimeout, TimeUnit.SECONDS));
+    }
+  }
+
+  /**
+   * @return true if the message belongs to the passivation and was handled
+   */
+  protected boolean handlePassivation(final Object obj) {
+    if (obj instanceof ReceiveTimeout) {
+      // running tasks which are children would be stopped with the actor
+      if (!hasRunningTasks()) {
+        passivationRequested = true;
+        getContext().parent().tell(new ActorRegistry.Passivate(), getSelf());
+      }
+      return true;
+    } else if (obj instanceof ActorRegistry.PassivateAck) {
+      if (passivationRequested && !hasRunningTasks()) {
+        getContext().stop(getSelf());
+      } else {
+        getContext().parent().tell(new ActorRegistry.PassivateCancel(), getSelf());
+      }
+      passivationRequested = false;
+      return true;
+    }
+    passivationRequested = false;
+    return false;
+  }
+
+  private boolean hasRunningTasks() {
+    return getContext().getChildren().iterator().hasNext()
+        || taskPools.getTasksInFlight(getSelf()) > 0;
+  }
+}
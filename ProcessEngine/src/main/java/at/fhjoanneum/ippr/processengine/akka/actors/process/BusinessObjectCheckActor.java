@@ -22,20 +22,17 @@ import at.fhjoanneum.ippr.commons.dto.processengine.stateobject.BusinessObjectFi
 import at.fhjoanneum.ippr.commons.dto.processengine.stateobject.BusinessObjectInstanceDTO;
 import at.fhjoanneum.ippr.commons.dto.processengine.stateobject.UserAssignmentDTO;
 import at.fhjoanneum.ippr.persistence.objects.engine.subject.Subject;
-import at.fhjoanneum.ippr.persistence.objects.model.businessobject.BusinessObjectModel;
-import at.fhjoanneum.ippr.persistence.objects.model.businessobject.field.BusinessObjectFieldModel;
-import at.fhjoanneum.ippr.persistence.objects.model.businessobject.permission.BusinessObjectFieldPermission;
 import at.fhjoanneum.ippr.persistence.objects.model.enums.FieldPermission;
 import at.fhjoanneum.ippr.persistence.objects.model.enums.StateFunctionType;
 import at.fhjoanneum.ippr.persistence.objects.model.enums.SubjectModelType;
-import at.fhjoanneum.ippr.persistence.objects.model.messageflow.MessageFlow;
-import at.fhjoanneum.ippr.persistence.objects.model.state.State;
-import at.fhjoanneum.ippr.persistence.objects.model.subject.SubjectModel;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.workflow.StateObjectChangeMessage;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.FieldNode;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.MessageFlowNode;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.PermissionNode;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.StateNode;
 import at.fhjoanneum.ippr.processengine.parser.DbValueParser;
-import at.fhjoanneum.ippr.processengine.repositories.BusinessObjectFieldPermissionRepository;
-import at.fhjoanneum.ippr.processengine.repositories.StateRepository;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectRepository;
+import at.fhjoanneum.ippr.processengine.services.ProcessModelGraphCache;
 
 @Transactional
 @Component("BusinessObjectCheckActor")
@@ -47,9 +44,7 @@ public class BusinessObjectCheckActor extends UntypedActor {
   @Autowired
   private SubjectRepository subjectRepository;
   @Autowired
-  private StateRepository stateRepository;
-  @Autowired
-  private BusinessObjectFieldPermissionRepository businessObjectFieldPermissionRepository;
+  private ProcessModelGraphCache processModelGraphCache;
   @Autowired
   private DbValueParser parser;
 
@@ -74,27 +69,19 @@ public class BusinessObjectCheckActor extends UntypedActor {
 
       boolean correct = true;
 
-      final State state = stateRepository.findOne(currentState);
+      final StateNode state = processModelGraphCache.getState(currentState);
 
       if (!checkSendState(state, request)) {
         getSender().tell(Boolean.FALSE, getSelf());
         return;
       }
 
-      // retrieve all business object models - also childs
-      final List<BusinessObjectModel> businessObjectModels =
-          state.getBusinessObjectModels().stream().map(BusinessObjectModel::flattened)
-              .flatMap(List::stream).collect(Collectors.toList());
-
-      final List<BusinessObjectFieldModel> fieldModels =
-          businessObjectModels.stream().map(BusinessObjectModel::getBusinessObjectFieldModels)
-              .flatMap(List::stream).collect(Collectors.toList());
-
       final Map<Long, String> fieldInstances =
           convertToMap(request.getStateObjectChangeDTO().getBusinessObjects());
 
-      for (final BusinessObjectFieldModel fieldModel : fieldModels) {
-        correct = checkField(fieldModel, fieldInstances.get(fieldModel.getBofmId()));
+      // fields of all business object models - also childs
+      for (final FieldNode field : state.getFields()) {
+        correct = checkField(state, field, fieldInstances.get(field.getBofmId()));
         if (!correct) {
           LOG.info("Result of business object check was false");
           getSender().tell(Boolean.FALSE, getSelf());
@@ -109,12 +96,12 @@ public class BusinessObjectCheckActor extends UntypedActor {
     }
   }
 
-  private boolean checkSendState(final State state,
+  private boolean checkSendState(final StateNode state,
       final StateObjectChangeMessage.Request request) {
     if (state.getFunctionType().equals(StateFunctionType.SEND)) {
 
-      final List<MessageFlow> missingUsers = state.getMessageFlow().stream()
-          .filter(mf -> SubjectModelType.INTERNAL.equals(mf.getReceiver().getSubjectModelType()))
+      final List<MessageFlowNode> missingUsers = state.getMessageFlows().stream()
+          .filter(mf -> SubjectModelType.INTERNAL.equals(mf.getReceiverType()))
           .filter(messageFlow -> isUserIdNotAssigned(messageFlow, request.getPiId()))
           .collect(Collectors.toList());
 
@@ -133,13 +120,13 @@ public class BusinessObjectCheckActor extends UntypedActor {
           .collect(Collectors.toMap(UserAssignmentDTO::getSmId, UserAssignmentDTO::getUserId));
 
       final long count = missingUsers.stream().filter(messageFlow -> {
-        final SubjectModel receiver = messageFlow.getReceiver();
-        if (userAssignmentsMap.containsKey(receiver.getSmId())
-            && userAssignmentsMap.get(receiver.getSmId()) != null) {
-          LOG.debug("Could find user assignment for SM_ID [{}]", receiver.getSmId());
+        final Long receiverSmId = messageFlow.getReceiverSmId();
+        if (userAssignmentsMap.containsKey(receiverSmId)
+            && userAssignmentsMap.get(receiverSmId) != null) {
+          LOG.debug("Could find user assignment for SM_ID [{}]", receiverSmId);
           return true;
         } else {
-          LOG.error("Could not find user assignment for SM_ID [{}]", receiver.getSmId());
+          LOG.error("Could not find user assignment for SM_ID [{}]", receiverSmId);
           return false;
         }
       }).count();
@@ -149,12 +136,12 @@ public class BusinessObjectCheckActor extends UntypedActor {
     return true;
   }
 
-  private boolean isUserIdNotAssigned(final MessageFlow messageFlow, final Long piId) {
+  private boolean isUserIdNotAssigned(final MessageFlowNode messageFlow, final Long piId) {
     final Optional<Subject> subjectOpt = Optional.ofNullable(subjectRepository
-        .getSubjectForSubjectModelInProcess(piId, messageFlow.getReceiver().getSmId()));
+        .getSubjectForSubjectModelInProcess(piId, messageFlow.getReceiverSmId()));
     if (!subjectOpt.isPresent()) {
-      LOG.error("No subject present for SM_ID [{}] in PI_ID [{}]",
-          messageFlow.getReceiver().getSmId(), piId);
+      LOG.error("No subject present for SM_ID [{}] in PI_ID [{}]", messageFlow.getReceiverSmId(),
+          piId);
       throw new IllegalStateException();
     }
 
@@ -182,15 +169,16 @@ public class BusinessObjectCheckActor extends UntypedActor {
             BusinessObjectFieldInstanceDTO::getValue));
   }
 
-  private boolean checkField(final BusinessObjectFieldModel fieldModel, final String fieldValue) {
-    final BusinessObjectFieldPermission fieldPermission = businessObjectFieldPermissionRepository
-        .getBusinessObjectFieldPermissionInState(fieldModel.getBofmId(), currentState);
+  private boolean checkField(final StateNode state, final FieldNode fieldModel,
+      final String fieldValue) {
+    final Optional<PermissionNode> permissionOpt = state.getPermission(fieldModel.getBofmId());
 
-    if (fieldPermission == null) {
+    if (!permissionOpt.isPresent()) {
       LOG.warn("Could not find field permission in state S_ID [{}] for field model BOFM_ID [{}]",
           currentState, fieldModel.getBofmId());
       return true;
     }
+    final PermissionNode fieldPermission = permissionOpt.get();
 
     if (fieldPermission.getPermission().equals(FieldPermission.READ_WRITE)) {
       if (fieldPermission.isMandatory() && StringUtils.isBlank(fieldValue)) {
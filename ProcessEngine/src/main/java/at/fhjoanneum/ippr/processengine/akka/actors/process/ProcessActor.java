@@ -9,7 +9,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
-import akka.actor.UntypedActor;
+import at.fhjoanneum.ippr.processengine.akka.actors.PassivatingActor;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.info.ProcessStateMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.stop.ProcessStopMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.workflow.StateObjectChangeMessage;
@@ -19,7 +19,7 @@ import at.fhjoanneum.ippr.processengine.akka.tasks.TaskManager;
 @Transactional(isolation = Isolation.READ_COMMITTED)
 @Component("ProcessActor")
 @Scope("prototype")
-public class ProcessActor extends UntypedActor {
+public class ProcessActor extends PassivatingActor {
 
   private final static Logger LOG = LoggerFactory.getLogger(ProcessActor.class);
 
@@ -34,7 +34,9 @@ public class ProcessActor extends UntypedActor {
 
   @Override
   public void onReceive(final Object obj) throws Throwable {
-    if (obj instanceof ProcessStateMessage.Request) {
+    if (handlePassivation(obj)) {
+      return;
+    } else if (obj instanceof ProcessStateMessage.Request) {
       handleProcessStateMessage(obj);
     } else if (obj instanceof ProcessStopMessage.Request) {
       handleProcessStopMessage(obj);
@@ -5,14 +5,16 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import akka.actor.ActorRef;
+import akka.actor.Terminated;
 import akka.actor.UntypedActor;
-import at.fhjoanneum.ippr.processengine.akka.AkkaSelector;
+import at.fhjoanneum.ippr.processengine.akka.ActorRegistry;
 import at.fhjoanneum.ippr.processengine.akka.config.SpringExtension;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.info.ProcessInfoMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.info.ProcessStateMessage;
@@ -33,11 +35,23 @@ public class ProcessSupervisorActor extends UntypedActor {
   @Autowired
   private TaskManager taskManager;
 
-  @Autowired
-  private AkkaSelector akkaSelector;
   @Autowired
   private SpringExtension springExtension;
 
+  @Value("${startup.wakeup.eager:true}")
+  private boolean eagerWakeUp;
+
+  @Value("${actor.passivation.idle-timeout:0}")
+  private long idleTimeout;
+
+  private ActorRegistry processActors;
+
+  @Override
+  public void preStart() throws Exception {
+    processActors = new ActorRegistry(getContext(), springExtension, "ProcessActor", "Process-",
+        !eagerWakeUp || idleTimeout > 0);
+  }
+
   @Override
   public void onReceive(final Object obj) throws Throwable {
     if (obj instanceof ProcessStartMessage.Request) {
@@ -52,6 +66,14 @@ public class ProcessSupervisorActor extends UntypedActor {
       handleProcessStopMessage(obj);
     } else if (obj instanceof StateObjectChangeMessage.Request) {
       handleStateObjectChangeMessage(obj);
+    } else if (obj instanceof ActorRegistry.Watch) {
+      getContext().watch(((ActorRegistry.Watch) obj).getActor());
+    } else if (obj instanceof ActorRegistry.Passivate) {
+      processActors.passivate(getSender());
+    } else if (obj instanceof ActorRegistry.PassivateCancel) {
+      processActors.cancelPassivation(getSender());
+    } else if (obj instanceof Terminated) {
+      processActors.unregister(((Terminated) obj).getActor());
     } else {
       LOG.warn("Unhandled message: {}", obj);
       unhandled(obj);
@@ -60,49 +82,28 @@ public class ProcessSupervisorActor extends UntypedActor {
 
   private void handleProcessStartMessage(final Object obj) {
     taskManager.executeTask(TaskAllocation.PROCESS_START_TASK, getContext(), obj,
-        (final Long piId) -> {
-          final String processInstanceId = getProcessActorId(piId);
-          final Optional<ActorRef> actorOpt =
-              akkaSelector.findActor(getContext(), processInstanceId);
-          if (!actorOpt.isPresent()) {
-            getContext().actorOf(springExtension.props("ProcessActor", piId), processInstanceId);
-            LOG.info("Created new actor for process instance: {}", processInstanceId);
-          }
-        });
-  }
-
-  private String getProcessActorId(final Long piId) {
-    return "Process-" + piId;
+        (final Long piId) -> processActors.getOrCreateActor(piId));
   }
 
   private void handleProcessStateMessage(final Object obj) {
     final ProcessStateMessage.Request msg = (ProcessStateMessage.Request) obj;
 
-    final String processInstanceId = getProcessActorId(msg.getPiId());
-    final Optional<ActorRef> actorOpt = akkaSelector.findActor(getContext(), processInstanceId);
+    final Optional<ActorRef> actorOpt = processActors.findOrActivateActor(msg.getPiId());
 
     if (!actorOpt.isPresent()) {
-      final String error = "Could not find process actor for: " + processInstanceId;
+      final String error = "Could not find process actor for PI_ID: " + msg.getPiId();
       getSender().tell(new akka.actor.Status.Failure(new IllegalArgumentException(error)),
           getSelf());
       return;
     }
 
-    actorOpt.get().forward(msg, getContext());
+    processActors.forward(actorOpt.get(), msg);
   }
 
   private void handleProcessWakeUpMessage(final Object obj) {
     final ProcessWakeUpMessage.Request msg = (ProcessWakeUpMessage.Request) obj;
 
-    final String processInstanceId = getProcessActorId(msg.getPiId());
-    final Optional<ActorRef> actorOpt = akkaSelector.findActor(getContext(), processInstanceId);
-
-    if (!actorOpt.isPresent()) {
-      getContext().actorOf(springExtension.props("ProcessActor", msg.getPiId()), processInstanceId);
-      LOG.info("Created new actor for process instance after wake up message: {}",
-          processInstanceId);
-    }
-
+    processActors.getOrCreateActor(msg.getPiId());
     getSender().tell(new ProcessWakeUpMessage.Response(msg.getPiId()), getSelf());
   }
 
@@ -116,11 +117,10 @@ public class ProcessSupervisorActor extends UntypedActor {
   }
 
   private <T> void forwardToProcessActor(final Long piId, final T msg) {
-    final String processInstanceId = getProcessActorId(piId);
-    final Optional<ActorRef> actorOpt = akkaSelector.findActor(getContext(), processInstanceId);
+    final Optional<ActorRef> actorOpt = processActors.findOrActivateActor(piId);
 
     if (actorOpt.isPresent()) {
-      actorOpt.get().forward(msg, getContext());
+      processActors.forward(actorOpt.get(), msg);
     }
   }
 
@@ -0,0 +1,150 @@
+package at.fhjoanneum.ippr.processengine.akka.actors.timeout;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+import akka.actor.ActorRef;
+import akka.actor.Cancellable;
+import akka.actor.UntypedActor;
+import at.fhjoanneum.ippr.processengine.akka.messages.process.timeout.TimeoutScheduleCancelMessage;
+import at.fhjoanneum.ippr.processengine.akka.messages.process.timeout.TimeoutsExpiredMessage;
+import at.fhjoanneum.ippr.processengine.model.ScheduledTimeout;
+import at.fhjoanneum.ippr.processengine.repositories.CustomTypesQueriesRepository;
+import scala.concurrent.duration.Duration;
+import scala.concurrent.duration.FiniteDuration;
+
+/**
+ * Hashed timing wheel for the timeouts of all subject states.
+ * <p>
+ * Due times are persisted in SUBJECT_STATE.TIMEOUT_DUE_AT, therefore the wheel only holds the
+ * timeouts which are due within the next revolution and reloads the following ones every half
+ * revolution. Expired timeouts are sent in one batch per user to the user supervisor. The slots
+ * are kept by a {@link TimingWheel}.
+ */
+@Component("TimeoutWheelActor")
+@Scope("prototype")
+public class TimeoutWheelActor extends UntypedActor {
+
+  private final static Logger LOG = LoggerFactory.getLogger(TimeoutWheelActor.class);
+
+  private static final Object TICK = "TICK";
+
+  @Autowired
+  private CustomTypesQueriesRepository customTypesQueriesRepository;
+
+  @Autowired
+  private ActorRef userSupervisorActor;
+
+  @Value("${timeout.wheel.tick:1000}")
+  private long tickMillis;
+
+  @Value("${timeout.wheel.size:512}")
+  private int wheelSize;
+
+  private TimingWheel<ScheduledTimeout> wheel;
+
+  private LocalDateTime loadedUntil;
+  private Cancellable ticker;
+
+  @Override
+  public void preStart() throws Exception {
+    wheel = new TimingWheel<>(System.currentTimeMillis(), tickMillis, wheelSize);
+    load(null);
+
+    final FiniteDuration tick = Duration.create(tickMillis, TimeUnit.MILLISECONDS);
+    ticker = getContext().system().scheduler().schedule(tick, tick, getSelf(), TICK,
+        getContext().dispatcher(), ActorRef.noSender());
+  }
+
+  @Override
+  public void postStop() throws Exception {
+    if (ticker != null) {
+      ticker.cancel();
+    }
+  }
+
+  @Override
+  public void onReceive(final Object obj) throws Throwable {
+    if (TICK.equals(obj)) {
+      handleTick();
+    } else if (obj instanceof ScheduledTimeout) {
+      handleScheduledTimeout((ScheduledTimeout) obj);
+    } else if (obj instanceof TimeoutScheduleCancelMessage) {
+      cancel(((TimeoutScheduleCancelMessage) obj).getSsId());
+    } else {
+      LOG.warn("Unhandled message: [{}]", obj);
+      unhandled(obj);
+    }
+  }
+
+  private void handleScheduledTimeout(final ScheduledTimeout timeout) {
+    cancel(timeout.getSsId());
+    // later timeouts are loaded from the database with their window
+    if (timeout.getDueAt().isBefore(loadedUntil)) {
+      add(timeout);
+    }
+  }
+
+  private void handleTick() {
+    final long previousTick = wheel.getCurrentTick();
+    final List<ScheduledTimeout> expired = wheel.advance(System.currentTimeMillis());
+
+    final long halfRevolution = Math.max(1, wheelSize / 2);
+    final boolean reload =
+        wheel.getCurrentTick() / halfRevolution > previousTick / halfRevolution;
+
+    if (!expired.isEmpty()) {
+      fire(expired);
+    }
+    if (reload) {
+      load(loadedUntil);
+    }
+  }
+
+  private void fire(final List<ScheduledTimeout> expired) {
+    final Map<Long, List<Long>> ssIdsPerUser = expired.stream()
+        .collect(Collectors.groupingBy(ScheduledTimeout::getUserId,
+            Collectors.mapping(ScheduledTimeout::getSsId, Collectors.toList())));
+
+    LOG.info("[{}] timeouts expired for [{}] users", expired.size(), ssIdsPerUser.size());
+    ssIdsPerUser.forEach((userId, ssIds) -> userSupervisorActor
+        .tell(new TimeoutsExpiredMessage(userId, ssIds), getSelf()));
+  }
+
+  private void load(final LocalDateTime from) {
+    final LocalDateTime until = toLocalDateTime(wheel.getRevolutionEnd());
+    final List<ScheduledTimeout> timeouts =
+        customTypesQueriesRepository.getTimeoutsDue(from, until);
+    timeouts.forEach(this::add);
+    loadedUntil = until;
+    LOG.debug("Loaded [{}] timeouts due until [{}], [{}] scheduled", timeouts.size(), until,
+        wheel.size());
+  }
+
+  private void add(final ScheduledTimeout timeout) {
+    wheel.add(timeout.getSsId(), timeout,
+        timeout.getDueAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+  }
+
+  private void cancel(final Long ssId) {
+    if (wheel.cancel(ssId)) {
+      LOG.debug("Timeout is cancelled for SS_ID [{}]", ssId);
+    }
+  }
+
+  private static LocalDateTime toLocalDateTime(final long epochMillis) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+  }
+}
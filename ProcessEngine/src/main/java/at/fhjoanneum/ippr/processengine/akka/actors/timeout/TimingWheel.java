@@ -0,0 +1,124 @@
+package at.fhjoanneum.ippr.processengine.akka.actors.timeout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Slots of a hashed timing wheel, the time is passed in by the caller.
+ * <p>
+ * A value is put into the slot of its deadline tick modulo the wheel size and expires when its
+ * deadline tick is reached. Values due later than one revolution share the slot with earlier ones
+ * and stay in it until their deadline tick is reached.
+ */
+class TimingWheel<T> {
+
+  private final long startedAt;
+  private final long tickMillis;
+  private final int wheelSize;
+
+  private final Map<Long, Entry<T>> entries = new HashMap<>();
+  private final List<Set<Long>> slots;
+
+  private long currentTick;
+
+  TimingWheel(final long startedAt, final long tickMillis, final int wheelSize) {
+    this.startedAt = startedAt;
+    this.tickMillis = tickMillis;
+    this.wheelSize = wheelSize;
+    slots = new ArrayList<>(wheelSize);
+    for (int i = 0; i < wheelSize; i++) {
+      slots.add(new HashSet<>());
+    }
+  }
+
+  /**
+   * Adds the value or replaces the value with the same id
+   */
+  void add(final Long id, final T value, final long dueAt) {
+    cancel(id);
+    // round up, overdue values expire with the next tick
+    final long deadlineTick =
+        Math.max(currentTick + 1, (dueAt - startedAt + tickMillis - 1) / tickMillis);
+    entries.put(id, new Entry<>(value, deadlineTick));
+    slots.get(slotOf(deadlineTick)).add(id);
+  }
+
+  /**
+   * @return true if a value with the id was scheduled
+   */
+  boolean cancel(final Long id) {
+    final Entry<T> entry = entries.remove(id);
+    if (entry == null) {
+      return false;
+    }
+    slots.get(slotOf(entry.deadlineTick)).remove(id);
+    return true;
+  }
+
+  /**
+   * Advances the wheel to the tick of the time
+   *
+   * @return the values whose deadline tick is reached
+   */
+  List<T> advance(final long now) {
+    final long targetTick = (now - startedAt) / tickMillis;
+    if (targetTick <= currentTick) {
+      return Collections.emptyList();
+    }
+
+    final List<T> expired = new ArrayList<>();
+    // if ticks were delayed by more than one revolution, each slot is visited once
+    for (long tick = Math.max(currentTick + 1, targetTick - wheelSize + 1); tick <= targetTick;
+        tick++) {
+      final Set<Long> slot = slots.get(slotOf(tick));
+      if (slot.isEmpty()) {
+        continue;
+      }
+      for (final Long id : new ArrayList<>(slot)) {
+        final Entry<T> entry = entries.get(id);
+        if (entry.deadlineTick <= targetTick) {
+          slot.remove(id);
+          entries.remove(id);
+          expired.add(entry.value);
+        }
+      }
+    }
+    currentTick = targetTick;
+    return expired;
+  }
+
+  long getCurrentTick() {
+    return currentTick;
+  }
+
+  /**
+   * @return the time until which the values fit into the wheel from the current tick
+   */
+  long getRevolutionEnd() {
+    return startedAt + (currentTick + wheelSize) * tickMillis;
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  private int slotOf(final long tick) {
+    return (int) (tick % wheelSize);
+  }
+
+  private static class Entry<T> {
+
+    private final T value;
+    private final long deadlineTick;
+
+    private Entry(final T value, final long deadlineTick) {
+      this.value = value;
+      this.deadlineTick = deadlineTick;
+    }
+  }
+}
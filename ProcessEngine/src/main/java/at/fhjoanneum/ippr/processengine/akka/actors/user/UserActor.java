@@ -1,6 +1,9 @@
 package at.fhjoanneum.ippr.processengine.akka.actors.user;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,18 +13,20 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
-import akka.actor.UntypedActor;
 import at.fhjoanneum.ippr.commons.dto.processengine.SendProcessMessage;
 import at.fhjoanneum.ippr.commons.dto.processengine.TaskDTO;
 import at.fhjoanneum.ippr.persistence.objects.engine.enums.ProcessInstanceState;
+import at.fhjoanneum.ippr.processengine.akka.actors.PassivatingActor;
 import at.fhjoanneum.ippr.processengine.akka.config.Global;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.info.TasksOfUserMessage;
+import at.fhjoanneum.ippr.processengine.akka.messages.process.info.UserInboxMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.initialize.UserActorInitializeMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.refinement.ExecuteRefinementMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.stop.ProcessStopMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.timeout.TimeoutExecuteMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.timeout.TimeoutScheduleCancelMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.timeout.TimeoutScheduleStartMessage;
+import at.fhjoanneum.ippr.processengine.akka.messages.process.timeout.TimeoutsExpiredMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.wakeup.UserActorWakeUpMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.workflow.AssignUsersMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.workflow.MessageReceiveMessage;
@@ -30,32 +35,44 @@ import at.fhjoanneum.ippr.processengine.akka.messages.process.workflow.StateObje
 import at.fhjoanneum.ippr.processengine.akka.messages.process.workflow.StateObjectMessage;
 import at.fhjoanneum.ippr.processengine.akka.tasks.TaskAllocation;
 import at.fhjoanneum.ippr.processengine.akka.tasks.TaskManager;
-import at.fhjoanneum.ippr.processengine.repositories.CustomTypesQueriesRepository;
 import at.fhjoanneum.ippr.processengine.repositories.ProcessInstanceRepository;
+import at.fhjoanneum.ippr.processengine.services.UserInboxService;
 
 @Transactional(isolation = Isolation.READ_COMMITTED)
 @Component("UserActor")
 @Scope("prototype")
-public class UserActor extends UntypedActor {
+public class UserActor extends PassivatingActor {
 
   private final static Logger LOG = LoggerFactory.getLogger(UserActor.class);
 
   @Autowired
   private ProcessInstanceRepository processInstanceRepository;
   @Autowired
-  private CustomTypesQueriesRepository customTypesQueriesRepository;
+  private UserInboxService userInboxService;
   @Autowired
   private TaskManager taskManager;
 
   private final Long userId;
 
+  // tasks of the user ordered by last change, kept up to date by UserInboxMessages
+  private final Map<Long, TaskDTO> inbox = new LinkedHashMap<>();
+
   public UserActor(final Long userId) {
     this.userId = userId;
   }
 
+  @Override
+  public void preStart() throws Exception {
+    super.preStart();
+    userInboxService.getTasksOfUser(userId).forEach(task -> inbox.put(task.getSsId(), task));
+    LOG.debug("Loaded inbox of user [{}] with [{}] tasks", userId, inbox.size());
+  }
+
   @Override
   public void onReceive(final Object obj) throws Throwable {
-    if (obj instanceof UserActorInitializeMessage.Request) {
+    if (handlePassivation(obj)) {
+      return;
+    } else if (obj instanceof UserActorInitializeMessage.Request) {
       handleActorInitializeMessage(obj);
     } else if (obj instanceof UserActorWakeUpMessage.Request) {
       handleUserWakeUpMessage(obj);
@@ -63,6 +80,8 @@ public class UserActor extends UntypedActor {
       handleProcessStopMessage(obj);
     } else if (obj instanceof TasksOfUserMessage.Request) {
       handleTasksOfUserMessage(obj);
+    } else if (obj instanceof UserInboxMessage.Change) {
+      handleUserInboxMessage(obj);
     } else if (obj instanceof StateObjectMessage.Request) {
       handleStateObjectMessage(obj);
     } else if (obj instanceof StateObjectChangeMessage.Request) {
@@ -77,6 +96,8 @@ public class UserActor extends UntypedActor {
       handleExecuteRefinementMessage(obj);
     } else if (obj instanceof TimeoutScheduleStartMessage) {
       handleTimeoutScheduleStartMessage(obj);
+    } else if (obj instanceof TimeoutsExpiredMessage) {
+      handleTimeoutsExpiredMessage(obj);
     } else if (obj instanceof TimeoutExecuteMessage) {
       handleTimeoutExecuteMessage(obj);
     } else if (obj instanceof TimeoutScheduleCancelMessage) {
@@ -115,12 +136,21 @@ public class UserActor extends UntypedActor {
   }
 
   private void handleTasksOfUserMessage(final Object obj) {
-    final TasksOfUserMessage.Request msg = (TasksOfUserMessage.Request) obj;
-
-    final List<TaskDTO> tasks = customTypesQueriesRepository.getTasksOfUser(msg.getUserId());
+    final List<TaskDTO> tasks = new ArrayList<>(inbox.values());
     getSender().tell(new TasksOfUserMessage.Response(tasks), getSelf());
   }
 
+  private void handleUserInboxMessage(final Object obj) {
+    if (obj instanceof UserInboxMessage.Upsert) {
+      final TaskDTO task = ((UserInboxMessage.Upsert) obj).getTask();
+      // re-insert to keep the order of last change
+      inbox.remove(task.getSsId());
+      inbox.put(task.getSsId(), task);
+    } else {
+      inbox.remove(((UserInboxMessage.Remove) obj).getSsId());
+    }
+  }
+
   private void handleStateObjectMessage(final Object obj) {
     taskManager.executeTask(TaskAllocation.STATE_OBJECT_RETRIEVE_TASK, getContext(), obj);
   }
@@ -146,7 +176,13 @@ public class UserActor extends UntypedActor {
   }
 
   private void handleTimeoutScheduleStartMessage(final Object obj) {
-    taskManager.executeTaskInContext(TaskAllocation.START_TIMEOUT_TASK, getContext(), obj);
+    taskManager.executeTask(TaskAllocation.START_TIMEOUT_TASK, getContext(), obj);
+  }
+
+  private void handleTimeoutsExpiredMessage(final Object obj) {
+    final TimeoutsExpiredMessage msg = (TimeoutsExpiredMessage) obj;
+    msg.getSsIds().forEach(ssId -> taskManager.executeTask(TaskAllocation.EXECUTE_TIMEOUT_TASK,
+        getContext(), new TimeoutExecuteMessage(ssId)));
   }
 
   private void handleTimeoutExecuteMessage(final Object obj) {
@@ -154,7 +190,7 @@ public class UserActor extends UntypedActor {
   }
 
   private void handleTimeoutCancelMessage(final Object obj) {
-    taskManager.executeTaskInContext(TaskAllocation.CANCEL_TIMEOUT_TASK, getContext(), obj);
+    taskManager.executeTask(TaskAllocation.CANCEL_TIMEOUT_TASK, getContext(), obj);
   }
 
   private void handleSendProcessMessage(final Object obj) {
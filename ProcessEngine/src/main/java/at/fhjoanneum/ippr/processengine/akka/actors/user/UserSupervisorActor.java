@@ -1,12 +1,11 @@
 package at.fhjoanneum.ippr.processengine.akka.actors.user;
 
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Isolation;
@@ -15,14 +14,17 @@ import org.springframework.transaction.annotation.Transactional;
 import com.google.common.collect.Lists;
 
 import akka.actor.ActorRef;
+import akka.actor.Terminated;
 import akka.actor.UntypedActor;
 import at.fhjoanneum.ippr.persistence.objects.engine.process.ProcessInstance;
-import at.fhjoanneum.ippr.processengine.akka.AkkaSelector;
+import at.fhjoanneum.ippr.processengine.akka.ActorRegistry;
 import at.fhjoanneum.ippr.processengine.akka.config.SpringExtension;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.info.TasksOfUserMessage;
+import at.fhjoanneum.ippr.processengine.akka.messages.process.info.UserInboxMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.initialize.ActorInitializeMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.stop.ProcessStopMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.timeout.TimeoutScheduleStartMessage;
+import at.fhjoanneum.ippr.processengine.akka.messages.process.timeout.TimeoutsExpiredMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.wakeup.UserActorWakeUpMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.workflow.AssignUsersMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.workflow.MessagesSendMessage;
@@ -39,9 +41,6 @@ public class UserSupervisorActor extends UntypedActor {
 
   private final static Logger LOG = LoggerFactory.getLogger(UserSupervisorActor.class);
 
-  @Autowired
-  private AkkaSelector akkaSelector;
-
   @Autowired
   private TaskManager taskManager;
 
@@ -51,6 +50,20 @@ public class UserSupervisorActor extends UntypedActor {
   @Autowired
   private SpringExtension springExtension;
 
+  @Value("${startup.wakeup.eager:true}")
+  private boolean eagerWakeUp;
+
+  @Value("${actor.passivation.idle-timeout:0}")
+  private long idleTimeout;
+
+  private ActorRegistry userActors;
+
+  @Override
+  public void preStart() throws Exception {
+    userActors = new ActorRegistry(getContext(), springExtension, "UserActor", "ProcessUser-",
+        !eagerWakeUp || idleTimeout > 0);
+  }
+
   @Override
   public void onReceive(final Object obj) throws Throwable {
     if (obj instanceof ActorInitializeMessage.Request) {
@@ -61,6 +74,8 @@ public class UserSupervisorActor extends UntypedActor {
       handleProcessStopMessage(obj);
     } else if (obj instanceof TasksOfUserMessage.Request) {
       handleTasksOfUserMessage(obj);
+    } else if (obj instanceof UserInboxMessage.Change) {
+      handleUserInboxMessage(obj);
     } else if (obj instanceof StateObjectMessage.Request) {
       handleStateObjectMessage(obj);
     } else if (obj instanceof StateObjectChangeMessage.Request) {
@@ -71,6 +86,18 @@ public class UserSupervisorActor extends UntypedActor {
       handleAssignUsersMessage(obj);
     } else if (obj instanceof TimeoutScheduleStartMessage) {
       handleTimeoutScheduleStartMessage(obj);
+    } else if (obj instanceof TimeoutsExpiredMessage) {
+      handleTimeoutsExpiredMessage(obj);
+    } else if (obj instanceof ActorRegistry.Deliver) {
+      handleDeliver(obj);
+    } else if (obj instanceof ActorRegistry.Watch) {
+      getContext().watch(((ActorRegistry.Watch) obj).getActor());
+    } else if (obj instanceof ActorRegistry.Passivate) {
+      userActors.passivate(getSender());
+    } else if (obj instanceof ActorRegistry.PassivateCancel) {
+      userActors.cancelPassivation(getSender());
+    } else if (obj instanceof Terminated) {
+      userActors.unregister(((Terminated) obj).getActor());
     } else {
       LOG.warn("Unhandled message: {}", obj);
       unhandled(obj);
@@ -81,22 +108,14 @@ public class UserSupervisorActor extends UntypedActor {
     taskManager.executeTaskInContext(TaskAllocation.PROCESS_INITIALIZE_TASK, getContext(), obj);
   }
 
-  private String getUserId(final Long userId) {
-    return "ProcessUser-" + userId;
+  private void handleDeliver(final Object obj) {
+    final ActorRegistry.Deliver msg = (ActorRegistry.Deliver) obj;
+    userActors.forward(userActors.getOrCreateActor(msg.getId()), msg.getMessage());
   }
 
   private void handleUserWakeUpMessage(final Object obj) {
     final UserActorWakeUpMessage.Request msg = (UserActorWakeUpMessage.Request) obj;
-    final String userId = getUserId(msg.getUserId());
-    final Optional<ActorRef> actorOpt = akkaSelector.findActor(getContext(), userId);
-
-    ActorRef actor = null;
-    if (!actorOpt.isPresent()) {
-      actor = getContext().actorOf(springExtension.props("UserActor", msg.getUserId()), userId);
-    } else {
-      actor = actorOpt.get();
-    }
-    actor.forward(msg, getContext());
+    userActors.forward(userActors.getOrCreateActor(msg.getUserId()), msg);
   }
 
   private void handleProcessStopMessage(final Object obj) {
@@ -107,16 +126,9 @@ public class UserSupervisorActor extends UntypedActor {
     if (processOpt.isPresent()) {
       final ProcessInstance process = processOpt.get();
       if (process.isStopped()) {
-        final List<String> userIds =
-            process.getSubjects().stream().filter(subject -> subject.getUser() != null)
-                .map(subject -> "ProcessUser-" + subject.getUser()).collect(Collectors.toList());
-
-        userIds.forEach(userId -> {
-          final Optional<ActorRef> actorOpt = akkaSelector.findActor(getContext(), userId);
-          if (actorOpt.isPresent()) {
-            actorOpt.get().forward(msg, getContext());
-          }
-        });
+        process.getSubjects().stream().filter(subject -> subject.getUser() != null)
+            .map(subject -> userActors.findActor(subject.getUser())).filter(Optional::isPresent)
+            .forEach(actorOpt -> userActors.forward(actorOpt.get(), msg));
       }
     }
   }
@@ -124,14 +136,20 @@ public class UserSupervisorActor extends UntypedActor {
   private void handleTasksOfUserMessage(final Object obj) {
     final TasksOfUserMessage.Request msg = (TasksOfUserMessage.Request) obj;
 
-    final String userId = getUserId(msg.getUserId());
-    final Optional<ActorRef> actorOpt = akkaSelector.findActor(getContext(), userId);
+    final Optional<ActorRef> actorOpt = userActors.findOrActivateActor(msg.getUserId());
     if (!actorOpt.isPresent()) {
       getSender().tell(new TasksOfUserMessage.Response(Lists.newArrayList()), getSelf());
       return;
     }
 
-    actorOpt.get().forward(msg, getContext());
+    userActors.forward(actorOpt.get(), msg);
+  }
+
+  private void handleUserInboxMessage(final Object obj) {
+    final UserInboxMessage.Change msg = (UserInboxMessage.Change) obj;
+    // inactive user actors load their inbox on start
+    userActors.findActor(msg.getUserId())
+        .ifPresent(actor -> userActors.forward(actor, msg));
   }
 
   private void handleStateObjectMessage(final Object obj) {
@@ -143,16 +161,15 @@ public class UserSupervisorActor extends UntypedActor {
   }
 
   private <T> void forwardToUserActor(final Long userId, final T msg) {
-    final String actorUserId = getUserId(userId);
-    final Optional<ActorRef> actorOpt = akkaSelector.findActor(getContext(), actorUserId);
+    final Optional<ActorRef> actorOpt = userActors.findOrActivateActor(userId);
 
     if (actorOpt.isPresent()) {
       LOG.debug("Found user actor and will forward message");
-      actorOpt.get().forward(msg, getContext());
+      userActors.forward(actorOpt.get(), msg);
     } else {
       getSender().tell(
           new akka.actor.Status.Failure(
-              new IllegalArgumentException("Could not find actor for user: " + actorUserId)),
+              new IllegalArgumentException("Could not find actor for user: " + userId)),
           getSelf());
       return;
     }
@@ -175,4 +192,9 @@ public class UserSupervisorActor extends UntypedActor {
     final TimeoutScheduleStartMessage msg = (TimeoutScheduleStartMessage) obj;
     forwardToUserActor(msg.getUserId(), msg);
   }
+
+  private void handleTimeoutsExpiredMessage(final Object obj) {
+    final TimeoutsExpiredMessage msg = (TimeoutsExpiredMessage) obj;
+    userActors.forward(userActors.getOrCreateActor(msg.getUserId()), msg);
+  }
 }
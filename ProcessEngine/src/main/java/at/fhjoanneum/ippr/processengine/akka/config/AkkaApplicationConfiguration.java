@@ -1,15 +1,22 @@
 package at.fhjoanneum.ippr.processengine.akka.config;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 
 import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
+import at.fhjoanneum.ippr.processengine.startup.UserInboxRebuild;
+import at.fhjoanneum.ippr.commons.akka.dispatch.DispatcherMetrics;
 
 @Configuration
 public class AkkaApplicationConfiguration {
@@ -20,7 +27,14 @@ public class AkkaApplicationConfiguration {
   @Autowired
   private SpringExtension springExtension;
 
+  @Value("${dispatcher.routing.parallelism-max:16}")
+  private int routingParallelismMax;
+
+  @Value("${dispatcher.blocking.pool-size:10}")
+  private int blockingPoolSize;
+
   @Bean
+  @DependsOn(UserInboxRebuild.NAME)
   public ActorSystem actorSystem() {
     final ActorSystem actorSystem = ActorSystem.create("ProcessEngine", akkaConfiguration());
     springExtension.initialize(applicationContext);
@@ -39,8 +53,23 @@ public class AkkaApplicationConfiguration {
         "UserSupervisorActor");
   }
 
+  @Bean
+  public ActorRef timeoutWheelActor() {
+    return actorSystem().actorOf(springExtension.props("TimeoutWheelActor"), "TimeoutWheelActor");
+  }
+
+  @Bean
+  public DispatcherMetrics dispatcherMetrics() {
+    return new DispatcherMetrics();
+  }
+
   @Bean
   public Config akkaConfiguration() {
-    return ConfigFactory.load();
+    final Map<String, Object> dispatchers = new HashMap<>();
+    dispatchers.put(SpringExtension.ROUTING_DISPATCHER + ".fork-join-executor.parallelism-max",
+        routingParallelismMax);
+    dispatchers.put(SpringExtension.BLOCKING_DISPATCHER + ".thread-pool-executor.fixed-pool-size",
+        blockingPoolSize);
+    return ConfigFactory.parseMap(dispatchers).withFallback(ConfigFactory.load());
   }
 }
@@ -0,0 +1,47 @@
+package at.fhjoanneum.ippr.processengine.akka.messages.process.info;
+
+import at.fhjoanneum.ippr.commons.dto.processengine.TaskDTO;
+
+public class UserInboxMessage {
+
+  public static abstract class Change {
+
+    private final Long userId;
+
+    public Change(final Long userId) {
+      this.userId = userId;
+    }
+
+    public Long getUserId() {
+      return userId;
+    }
+  }
+
+  public static class Upsert extends Change {
+
+    private final TaskDTO task;
+
+    public Upsert(final Long userId, final TaskDTO task) {
+      super(userId);
+      this.task = task;
+    }
+
+    public TaskDTO getTask() {
+      return task;
+    }
+  }
+
+  public static class Remove extends Change {
+
+    private final Long ssId;
+
+    public Remove(final Long userId, final Long ssId) {
+      super(userId);
+      this.ssId = ssId;
+    }
+
+    public Long getSsId() {
+      return ssId;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package at.fhjoanneum.ippr.processengine.akka.messages.process.timeout;
+
+import java.util.List;
+
+/**
+ * Batch of expired timeouts of subject states of one user
+ */
+public class TimeoutsExpiredMessage {
+
+  private final Long userId;
+  private final List<Long> ssIds;
+
+  public TimeoutsExpiredMessage(final Long userId, final List<Long> ssIds) {
+    this.userId = userId;
+    this.ssIds = ssIds;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public List<Long> getSsIds() {
+    return ssIds;
+  }
+}
@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import akka.actor.Status;
 import akka.actor.UntypedActor;
 import akka.actor.UntypedActorContext;
 
@@ -19,6 +20,8 @@ public abstract class AbstractTask<I> extends UntypedActor implements Task<I> {
 
   private UntypedActorContext parentContext;
 
+  private boolean awaitingStageResult;
+
   public AbstractTask() {}
 
   public <T> AbstractTask(final TaskCallback<T> callback) {
@@ -40,18 +43,56 @@ public abstract class AbstractTask<I> extends UntypedActor implements Task<I> {
 
   @Override
   public void onReceive(final Object obj) throws Exception {
+    // pooled workers are reused and must not stop after a message
+    final boolean pooled = obj instanceof TaskPools.Execute;
+    final Object msg = pooled ? ((TaskPools.Execute) obj).getMessage() : obj;
+
+    awaitingStageResult = false;
     try {
-      if (canHandle(obj)) {
-        execute((I) obj);
-      } else {
-        LOG.warn("Cannot handle received message: {}", obj);
-        unhandled(obj);
+      if (canHandle(msg)) {
+        execute((I) msg);
+      } else if (!handleStageResult(msg)) {
+        LOG.warn("Cannot handle received message: {}", msg);
+        unhandled(msg);
+      }
+    } catch (final Exception e) {
+      awaitingStageResult = false;
+      if (pooled) {
+        // a pooled worker is resumed by its supervisor, so the sender must be told here
+        replyFailure(e);
       }
+      throw e;
     } finally {
-      getContext().stop(getSelf());
+      if (pooled) {
+        ((TaskPools.Execute) obj).complete();
+      } else if (!awaitingStageResult) {
+        getContext().stop(getSelf());
+      }
     }
   }
 
+  private void replyFailure(final Exception e) {
+    if (!getSender().equals(getContext().system().deadLetters())) {
+      getSender().tell(new Status.Failure(e), getSelf());
+    }
+  }
+
+  /**
+   * Handles the result of a stage which was started by this task, e.g. a piped ask.
+   *
+   * @return true if the message was a stage result of this task
+   */
+  protected boolean handleStageResult(final Object obj) throws Exception {
+    return false;
+  }
+
+  /**
+   * Keeps the task alive after the current message, until the next stage result is received.
+   */
+  protected void awaitStageResult() {
+    awaitingStageResult = true;
+  }
+
   @Override
   public <T> void registerCallback(final TaskCallback<T> callback) {
     this.callback = callback;
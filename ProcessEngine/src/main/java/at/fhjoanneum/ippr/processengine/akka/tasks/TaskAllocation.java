@@ -4,31 +4,45 @@ public enum TaskAllocation {
 
   // @formatter:off
   STATE_OBJECT_CHANGE_TASK("User.StateObjectChangeTask"),
-  STATE_OBJECT_RETRIEVE_TASK("User.StateObjectRetrieveTask"),
+  STATE_OBJECT_RETRIEVE_TASK("User.StateObjectRetrieveTask", true),
   USER_ACTOR_INITIALIZE_TASK("User.UserActorInitializeTask"),
-  PROCESS_STATE_TASK("Process.ProcessStateTask"),
+  PROCESS_STATE_TASK("Process.ProcessStateTask", true),
   PROCESS_STOP_TASK("Process.ProcessStopTask"),
   PROCESS_STATE_CHANGE_TASK("Process.ProcessStateChangeTask"),
   PROCESS_START_TASK("ProcessSupervisor.ProcessStartTask"),
-  PROCESS_INFO_TASK("ProcessSupervisor.ProcessInfoTask"),
+  PROCESS_INFO_TASK("ProcessSupervisor.ProcessInfoTask", true),
   PROCESS_INITIALIZE_TASK("UserSupervisor.ProcessInitializeTask"),
   SEND_MESSAGES_TASK("UserSupervisor.SendMessagesTask"),
   MESSAGE_RECEIVED_TASK("User.MessageReceivedTask"),
-  ASSIGN_USERS_TASK("UserSupervisor.AssignUsersTask"),
+  ASSIGN_USERS_TASK("UserSupervisor.AssignUsersTask", true),
   EXECUTE_REFINEMENT_TASK("User.ExecuteRefinement"),
   START_TIMEOUT_TASK("User.StartTimeoutTask"),
-  EXECUTE_TIMEOUT_TASK("User.ExecuteTimeoutTask"),
+  EXECUTE_TIMEOUT_TASK("User.ExecuteTimeoutTask", true),
   CANCEL_TIMEOUT_TASK("User.CancelTimeoutTask"),
   SEND_PROCESS_MESSAGE_TASK("User.SendProcessMessageTask");
   // @formatter:on
 
   private final String actorName;
+  private final boolean pooled;
 
   private TaskAllocation(final String actorName) {
+    this(actorName, false);
+  }
+
+  /**
+   * @param pooled true if the task is stateless and can be executed by a worker of
+   *        {@link TaskPools}
+   */
+  private TaskAllocation(final String actorName, final boolean pooled) {
     this.actorName = actorName;
+    this.pooled = pooled;
   }
 
   String getActorName() {
     return actorName;
   }
+
+  boolean isPooled() {
+    return pooled;
+  }
 }
@@ -17,8 +17,15 @@ public class TaskManager {
   @Autowired
   private SpringExtension springExtension;
 
+  @Autowired
+  private TaskPools taskPools;
+
   public void executeTask(final TaskAllocation task, final UntypedActorContext context,
       final Object msg) {
+    if (task.isPooled()) {
+      taskPools.execute(task, msg, context.sender(), context.self());
+      return;
+    }
     final ActorRef taskActor =
         context.actorOf(springExtension.props(task.getActorName()), getTaskId());
     taskActor.forward(msg, context);
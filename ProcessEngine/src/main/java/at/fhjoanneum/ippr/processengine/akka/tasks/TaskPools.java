@@ -0,0 +1,153 @@
+package at.fhjoanneum.ippr.processengine.akka.tasks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.DeadLetter;
+import akka.actor.OneForOneStrategy;
+import akka.actor.Props;
+import akka.actor.Status;
+import akka.actor.SupervisorStrategy;
+import akka.actor.UntypedActor;
+import akka.routing.SmallestMailboxPool;
+import at.fhjoanneum.ippr.processengine.akka.config.SpringExtension;
+import scala.concurrent.duration.Duration;
+
+/**
+ * Pools of long-lived workers for tasks which are marked as pooled in {@link TaskAllocation}.
+ * <p>
+ * The size of a pool is configured by <code>task.pool.size</code> or
+ * <code>task.pool.&lt;TASK&gt;.size</code>, the mailbox of a worker is bounded by
+ * <code>task-pool-mailbox</code> in the akka configuration.
+ * <p>
+ * Senders are never blocked by a full mailbox. The rejected message becomes a dead letter and the
+ * sender receives a {@link Status.Failure} with a {@link RejectedExecutionException}. A worker
+ * which throws is resumed, the sender receives a {@link Status.Failure} with the thrown exception.
+ * <p>
+ * The tasks which are queued or running for an actor are counted, so that the actor is not
+ * passivated while they are in flight.
+ */
+@Component
+public class TaskPools {
+
+  private final static Logger LOG = LoggerFactory.getLogger(TaskPools.class);
+
+  private final static String MAILBOX = "task-pool-mailbox";
+
+  private final static SupervisorStrategy WORKER_STRATEGY =
+      new OneForOneStrategy(-1, Duration.Inf(), t -> SupervisorStrategy.resume());
+
+  @Autowired
+  private ActorSystem actorSystem;
+  @Autowired
+  private SpringExtension springExtension;
+  @Autowired
+  private Environment environment;
+
+  @Value("${task.pool.size:8}")
+  private int defaultSize;
+
+  private final ConcurrentMap<TaskAllocation, ActorRef> pools = new ConcurrentHashMap<>();
+  private final ConcurrentMap<ActorRef, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  private void subscribeRejections() {
+    final ActorRef listener =
+        actorSystem.actorOf(Props.create(RejectionListener.class), "TaskPoolRejections");
+    actorSystem.eventStream().subscribe(listener, DeadLetter.class);
+  }
+
+  /**
+   * @param origin the actor which executes the task, its tasks in flight are counted
+   */
+  public void execute(final TaskAllocation task, final Object msg, final ActorRef sender,
+      final ActorRef origin) {
+    inFlight.computeIfAbsent(origin, key -> new AtomicInteger()).incrementAndGet();
+    pools.computeIfAbsent(task, this::createPool)
+        .tell(new Execute(msg, () -> completed(origin)), sender);
+  }
+
+  /**
+   * @return the amount of tasks of the actor which are queued or running
+   */
+  public int getTasksInFlight(final ActorRef origin) {
+    final AtomicInteger count = inFlight.get(origin);
+    return count != null ? count.get() : 0;
+  }
+
+  private void completed(final ActorRef origin) {
+    inFlight.computeIfPresent(origin, (key, count) -> count.decrementAndGet() > 0 ? count : null);
+  }
+
+  private ActorRef createPool(final TaskAllocation task) {
+    final int size =
+        environment.getProperty("task.pool." + task.name() + ".size", Integer.class, defaultSize);
+    final ActorRef pool = actorSystem.actorOf(
+        new SmallestMailboxPool(size).withSupervisorStrategy(WORKER_STRATEGY)
+            .props(springExtension.props(task.getActorName()).withMailbox(MAILBOX)),
+        "TaskPool-" + task.name());
+    LOG.info("Created pool with [{}] workers for [{}]", size, task);
+    return pool;
+  }
+
+  /**
+   * Replies to the sender of a task which was rejected by a full worker mailbox
+   */
+  private static class RejectionListener extends UntypedActor {
+
+    @Override
+    public void onReceive(final Object obj) throws Exception {
+      if (!(obj instanceof DeadLetter) || !(((DeadLetter) obj).message() instanceof Execute)) {
+        return;
+      }
+      final DeadLetter deadLetter = (DeadLetter) obj;
+      final Execute execute = (Execute) deadLetter.message();
+      execute.complete();
+      final Object msg = execute.getMessage();
+      LOG.warn("Rejected [{}], since the mailbox of [{}] is full", msg,
+          deadLetter.recipient().path());
+      if (!deadLetter.sender().equals(getContext().system().deadLetters())) {
+        deadLetter.sender().tell(new Status.Failure(new RejectedExecutionException(
+            "Task pool is full, rejected [" + msg + "]")), ActorRef.noSender());
+      }
+    }
+  }
+
+  /**
+   * Message to a pooled worker, which must not stop after executing the wrapped message
+   */
+  public static class Execute {
+
+    private final Object message;
+    private final Runnable completion;
+
+    public Execute(final Object message, final Runnable completion) {
+      this.message = message;
+      this.completion = completion;
+    }
+
+    public Object getMessage() {
+      return message;
+    }
+
+    /**
+     * Must be called once the message was executed or rejected
+     */
+    public void complete() {
+      completion.run();
+    }
+  }
+}
@@ -91,6 +91,17 @@ public class ProcessStartTask extends AbstractTask<ProcessStartMessage.Request>
       LOG.info("Created new process instance: {}", processInstance);
       callback(processInstance.getPiId());
 
+      final long caseId = processInstance.getPiId();
+      final long processModelId = processInstance.getProcessModel().getPmId();
+      final String activity = "Process Start";
+      final DateTime now = DateTime.now();
+      final String timestamp = now.toString("dd.MM.yyyy HH:mm");
+      final EventLoggerDTO event =
+          new EventLoggerDTO(caseId, processModelId, timestamp, activity, "", "", "", "", "");
+      event.setEpochMillis(now.getMillis());
+      // queued by the sender after commit
+      eventLoggerSender.send(event);
+
       final ActorRef sender = getSender();
       TransactionSynchronizationManager
           .registerSynchronization(new TransactionSynchronizationAdapter() {
@@ -98,13 +109,6 @@ public class ProcessStartTask extends AbstractTask<ProcessStartMessage.Request>
             public void afterCommit() {
               // start process
               sender.tell(new ProcessStartMessage.Response(processInstance.getPiId()), getSelf());
-              final long caseId = processInstance.getPiId();
-              final long processModelId = processInstance.getProcessModel().getPmId();
-              final String activity = "Process Start";
-              final String timestamp = DateTime.now().toString("dd.MM.yyyy HH:mm");
-              final EventLoggerDTO event =
-                  new EventLoggerDTO(caseId, processModelId, timestamp, activity, "", "", "", "", "");
-              eventLoggerSender.send(event);
             }
           });
     } catch (final Exception e) {
@@ -13,6 +13,7 @@ import at.fhjoanneum.ippr.processengine.akka.tasks.AbstractTask;
 import at.fhjoanneum.ippr.processengine.akka.tasks.TaskCallback;
 import at.fhjoanneum.ippr.processengine.repositories.ProcessInstanceRepository;
 import at.fhjoanneum.ippr.processengine.services.EventLoggerSender;
+import at.fhjoanneum.ippr.processengine.services.UserInboxService;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +42,9 @@ public class ProcessStateChangeTask extends AbstractTask<StateObjectChangeMessag
   @Autowired
   private EventLoggerSender eventLoggerSender;
 
+  @Autowired
+  private UserInboxService userInboxService;
+
   public <T> ProcessStateChangeTask(final TaskCallback<T> callback) {
     super(callback);
   }
@@ -76,14 +80,17 @@ public class ProcessStateChangeTask extends AbstractTask<StateObjectChangeMessag
       // set to finished
       process.setState(ProcessInstanceState.FINISHED);
       processInstanceRepository.save((ProcessInstanceImpl) process);
+      userInboxService.removeProcess(process.getPiId());
       LOG.info("All subject states are in 'END' state, set process instance to 'FINISHED'");
 
       final long caseId = process.getPiId();
       final long processModelId = process.getProcessModel().getPmId();
       final String activity = "Process End";
-      final String timestamp = DateTime.now().toString("dd.MM.yyyy HH:mm");
+      final DateTime now = DateTime.now();
+      final String timestamp = now.toString("dd.MM.yyyy HH:mm");
       final EventLoggerDTO event =
           new EventLoggerDTO(caseId, processModelId, timestamp, activity, "", "", "", "", "");
+      event.setEpochMillis(now.getMillis());
       eventLoggerSender.send(event);
 
       final ActorRef sender = getSender();
@@ -17,6 +17,7 @@ import at.fhjoanneum.ippr.processengine.akka.messages.process.stop.ProcessStopMe
 import at.fhjoanneum.ippr.processengine.akka.tasks.AbstractTask;
 import at.fhjoanneum.ippr.processengine.akka.tasks.TaskCallback;
 import at.fhjoanneum.ippr.processengine.repositories.ProcessInstanceRepository;
+import at.fhjoanneum.ippr.processengine.services.UserInboxService;
 
 @Component("Process.ProcessStopTask")
 @Scope("prototype")
@@ -31,6 +32,9 @@ public class ProcessStopTask extends AbstractTask<ProcessStopMessage.Request> {
   @Autowired
   private ProcessInstanceRepository processInstanceRepository;
 
+  @Autowired
+  private UserInboxService userInboxService;
+
   @Override
   public boolean canHandle(final Object obj) {
     return obj instanceof ProcessStopMessage.Request;
@@ -50,6 +54,7 @@ public class ProcessStopTask extends AbstractTask<ProcessStopMessage.Request> {
     }
 
     process.setState(ProcessInstanceState.CANCELLED_BY_USER);
+    userInboxService.removeProcess(process.getPiId());
 
     TransactionSynchronizationManager
         .registerSynchronization(new TransactionSynchronizationAdapter() {
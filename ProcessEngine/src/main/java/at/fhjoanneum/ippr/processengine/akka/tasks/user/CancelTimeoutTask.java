@@ -1,15 +1,13 @@
 package at.fhjoanneum.ippr.processengine.akka.tasks.user;
 
-import java.util.Optional;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import akka.actor.ActorRef;
-import akka.actor.UntypedActorContext;
 import at.fhjoanneum.ippr.persistence.objects.engine.state.SubjectState;
-import at.fhjoanneum.ippr.processengine.akka.AkkaSelector;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.timeout.TimeoutScheduleCancelMessage;
 import at.fhjoanneum.ippr.processengine.akka.tasks.AbstractTask;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectStateRepository;
@@ -18,15 +16,11 @@ import at.fhjoanneum.ippr.processengine.repositories.SubjectStateRepository;
 @Scope("prototype")
 public class CancelTimeoutTask extends AbstractTask<TimeoutScheduleCancelMessage> {
 
-  @Autowired
-  private AkkaSelector akkaSelector;
-
   @Autowired
   private SubjectStateRepository subjectStateRepository;
 
-  public CancelTimeoutTask(final UntypedActorContext parentContext) {
-    super(parentContext);
-  }
+  @Autowired
+  private ActorRef timeoutWheelActor;
 
   @Override
   public boolean canHandle(final Object obj) {
@@ -36,12 +30,14 @@ public class CancelTimeoutTask extends AbstractTask<TimeoutScheduleCancelMessage
   @Override
   public void execute(final TimeoutScheduleCancelMessage message) throws Exception {
     final SubjectState subjectState = subjectStateRepository.findOne(message.getSsId());
-    final String actorId = subjectState.getTimeoutActor();
-    subjectState.setTimeoutActor(null);
-
-    final Optional<ActorRef> timeoutScheduler = akkaSelector.findActor(getParentContext(), actorId);
-    if (timeoutScheduler.isPresent()) {
-      timeoutScheduler.get().forward(message, getParentContext());
-    }
+    subjectState.setTimeoutDueAt(null);
+
+    TransactionSynchronizationManager
+        .registerSynchronization(new TransactionSynchronizationAdapter() {
+          @Override
+          public void afterCommit() {
+            timeoutWheelActor.tell(message, ActorRef.noSender());
+          }
+        });
   }
 }
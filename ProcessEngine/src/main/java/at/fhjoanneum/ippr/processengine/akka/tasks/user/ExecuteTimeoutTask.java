@@ -22,6 +22,7 @@ import at.fhjoanneum.ippr.processengine.akka.messages.process.timeout.TimeoutExe
 import at.fhjoanneum.ippr.processengine.akka.tasks.AbstractTask;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectRepository;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectStateRepository;
+import at.fhjoanneum.ippr.processengine.services.UserInboxService;
 
 @Component("User.ExecuteTimeoutTask")
 @Scope("prototype")
@@ -35,6 +36,9 @@ public class ExecuteTimeoutTask extends AbstractTask<TimeoutExecuteMessage> {
   @Autowired
   private SubjectStateRepository subjectStateRepository;
 
+  @Autowired
+  private UserInboxService userInboxService;
+
   @Override
   public boolean canHandle(final Object obj) {
     return obj instanceof TimeoutExecuteMessage;
@@ -43,6 +47,10 @@ public class ExecuteTimeoutTask extends AbstractTask<TimeoutExecuteMessage> {
   @Override
   public void execute(final TimeoutExecuteMessage message) throws Exception {
     final SubjectState subjectState = subjectStateRepository.findOne(message.getSsId());
+    if (subjectState.getTimeoutDueAt() == null) {
+      LOG.debug("Timeout was cancelled in the meantime for [{}]", subjectState);
+      return;
+    }
     LOG.debug("Execute timeout for [{}]", subjectState);
 
     final Optional<Transition> timeoutTransitionOpt =
@@ -58,7 +66,8 @@ public class ExecuteTimeoutTask extends AbstractTask<TimeoutExecuteMessage> {
 
     handleSendState(subjectState);
 
-    subjectState.setTimeoutActor(null);
+    subjectState.setTimeoutDueAt(null);
+    userInboxService.update(subjectState);
   }
 
   private void handleSendState(final SubjectState subjectState) {
@@ -75,6 +84,7 @@ public class ExecuteTimeoutTask extends AbstractTask<TimeoutExecuteMessage> {
             final State newState =
                 getReceiveState(receiveSubjectState, currentState.getSubjectModel());
             receiveSubjectState.setCurrentState(newState);
+            userInboxService.update(receiveSubjectState);
             LOG.info("Due to timeout new state for [{}]", receiveSubjectState);
           });
     }
@@ -14,6 +14,7 @@ import at.fhjoanneum.ippr.processengine.akka.tasks.AbstractTask;
 import at.fhjoanneum.ippr.processengine.repositories.MessageFlowRepository;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectStateRepository;
 import at.fhjoanneum.ippr.processengine.services.EventLoggerSender;
+import at.fhjoanneum.ippr.processengine.services.UserInboxService;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +38,8 @@ public class MessageReceivedTask extends AbstractTask<MessageReceiveMessage.Requ
   private MessageFlowRepository messageFlowRepository;
   @Autowired
   private EventLoggerSender eventLoggerSender;
+  @Autowired
+  private UserInboxService userInboxService;
 
   @Override
   public boolean canHandle(final Object obj) {
@@ -65,7 +68,7 @@ public class MessageReceivedTask extends AbstractTask<MessageReceiveMessage.Requ
       LOG.debug("Message already received: {}", subjectState);
     } else {
       subjectState.setToReceived(messageFlowRepository.findOne(request.getMfId()));
-      if (subjectState.getTimeoutActor() != null) {
+      if (subjectState.getTimeoutDueAt() != null) {
         getContext().parent().tell(new TimeoutScheduleCancelMessage(subjectState.getSsId()),
             getSelf());
       }
@@ -76,7 +79,8 @@ public class MessageReceivedTask extends AbstractTask<MessageReceiveMessage.Requ
       final String activity = subjectState.getCurrentState().getName();
       final String state = StateFunctionType.RECEIVE.name();
       final String resource = subjectState.getSubject().getSubjectModel().getName();
-      final String timestamp = DateTime.now().toString("dd.MM.yyyy HH:mm");
+      final DateTime now = DateTime.now();
+      final String timestamp = now.toString("dd.MM.yyyy HH:mm");
 
       final MessageFlow messageFlow = messageFlowRepository.findOne(request.getMfId());
       final String messageType = messageFlow
@@ -86,9 +90,11 @@ public class MessageReceivedTask extends AbstractTask<MessageReceiveMessage.Requ
 
       final EventLoggerDTO event = new EventLoggerDTO(caseId, processModelId, timestamp, activity,
           resource, state, messageType, recipient, msgSender);
+      event.setEpochMillis(now.getMillis());
       eventLoggerSender.send(event);
 
       subjectStateRepository.save((SubjectStateImpl) subjectState);
+      userInboxService.update(subjectState);
       LOG.info("New received sub state: {}", subjectState);
     }
 
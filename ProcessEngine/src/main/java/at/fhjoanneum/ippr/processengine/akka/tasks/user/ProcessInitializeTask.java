@@ -21,13 +21,12 @@ import akka.actor.UntypedActorContext;
 import akka.pattern.PatternsCS;
 import at.fhjoanneum.ippr.persistence.objects.engine.process.ProcessInstance;
 import at.fhjoanneum.ippr.persistence.objects.engine.subject.Subject;
-import at.fhjoanneum.ippr.processengine.akka.AkkaSelector;
+import at.fhjoanneum.ippr.processengine.akka.ActorRegistry;
 import at.fhjoanneum.ippr.processengine.akka.config.Global;
 import at.fhjoanneum.ippr.processengine.akka.config.SpringExtension;
 import at.fhjoanneum.ippr.processengine.akka.messages.EmptyMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.initialize.ActorInitializeMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.initialize.UserActorInitializeMessage;
-import at.fhjoanneum.ippr.processengine.akka.messages.process.initialize.UserActorInitializeMessage.Request;
 import at.fhjoanneum.ippr.processengine.akka.tasks.AbstractTask;
 import at.fhjoanneum.ippr.processengine.repositories.ProcessInstanceRepository;
 
@@ -39,8 +38,6 @@ public class ProcessInitializeTask extends AbstractTask<ActorInitializeMessage.R
 
   @Autowired
   private SpringExtension springExtension;
-  @Autowired
-  private AkkaSelector akkaSelector;
 
   @Autowired
   private ProcessInstanceRepository processInstanceRepository;
@@ -65,7 +62,7 @@ public class ProcessInitializeTask extends AbstractTask<ActorInitializeMessage.R
     }
 
     final ProcessInstance processInstance = processInstanceOpt.get();
-    final List<Pair<ActorRef, Request>> actorsWithMessage =
+    final List<Pair<ActorRef, Object>> actorsWithMessage =
         getActorsWithMessage(processInstance.getPiId(), processInstance.getSubjects());
     LOG.debug("Send ActorInitializeMessage.Request to actors: {}", actorsWithMessage);
 
@@ -87,27 +84,16 @@ public class ProcessInitializeTask extends AbstractTask<ActorInitializeMessage.R
         });
   }
 
-  private List<Pair<ActorRef, UserActorInitializeMessage.Request>> getActorsWithMessage(
-      final Long piId, final List<Subject> subjects) {
-    final List<Pair<ActorRef, UserActorInitializeMessage.Request>> actors = Lists.newArrayList();
+  private List<Pair<ActorRef, Object>> getActorsWithMessage(final Long piId,
+      final List<Subject> subjects) {
+    final List<Pair<ActorRef, Object>> actors = Lists.newArrayList();
 
     subjects.forEach(subject -> {
       if (subject.getUser() != null) {
-        final String userId = getUserId(subject.getUser());
-        LOG.debug("Try to find or create new actor for: {}", userId);
-        final Optional<ActorRef> actorOpt = akkaSelector.findActor(getParentContext(), userId);
-
-        if (!actorOpt.isPresent()) {
-          actors
-              .add(
-                  Pair.of(
-                      getParentContext()
-                          .actorOf(springExtension.props("UserActor", subject.getUser()), userId),
-                      new UserActorInitializeMessage.Request(piId, subject.getSId())));
-        } else {
-          actors.add(Pair.of(actorOpt.get(),
-              new UserActorInitializeMessage.Request(piId, subject.getSId())));
-        }
+        LOG.debug("Try to find or create new actor for user: {}", subject.getUser());
+        // delivered by the supervisor, since the user actor may be passivating
+        actors.add(Pair.of(getParentContext().self(), new ActorRegistry.Deliver(subject.getUser(),
+            new UserActorInitializeMessage.Request(piId, subject.getSId()))));
       } else if (subject.getGroup() != null) {
         // TODO add group support
       } else {
@@ -120,8 +106,4 @@ public class ProcessInitializeTask extends AbstractTask<ActorInitializeMessage.R
     });
     return actors;
   }
-
-  private String getUserId(final Long piId) {
-    return "ProcessUser-" + piId;
-  }
 }
@@ -1,7 +1,6 @@
 package at.fhjoanneum.ippr.processengine.akka.tasks.user;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
@@ -24,13 +23,13 @@ import akka.actor.UntypedActorContext;
 import akka.pattern.PatternsCS;
 import at.fhjoanneum.ippr.persistence.entities.engine.state.SubjectStateImpl;
 import at.fhjoanneum.ippr.persistence.objects.engine.state.SubjectState;
-import at.fhjoanneum.ippr.processengine.akka.AkkaSelector;
+import at.fhjoanneum.ippr.processengine.akka.ActorRegistry;
 import at.fhjoanneum.ippr.processengine.akka.config.Global;
-import at.fhjoanneum.ippr.processengine.akka.config.SpringExtension;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.workflow.MessageReceiveMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.workflow.MessagesSendMessage;
 import at.fhjoanneum.ippr.processengine.akka.tasks.AbstractTask;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectStateRepository;
+import at.fhjoanneum.ippr.processengine.services.UserInboxService;
 
 @Component("UserSupervisor.SendMessagesTask")
 @Scope("prototype")
@@ -39,16 +38,17 @@ public class SendMessagesTask extends AbstractTask<MessagesSendMessage.Request>
   private final static Logger LOG = LoggerFactory.getLogger(SendMessagesTask.class);
 
   @Autowired
-  private AkkaSelector akkaSelector;
-  @Autowired
-  private SpringExtension springExtension;
+  private SubjectStateRepository subjectStateRepository;
 
   @Autowired
-  private SubjectStateRepository subjectStateRepository;
+  private UserInboxService userInboxService;
 
   @PersistenceContext
   private EntityManager entityManager;
 
+  private MessagesSendMessage.Request request;
+  private ActorRef sender;
+
   public SendMessagesTask(final UntypedActorContext parentContext) {
     super(parentContext);
   }
@@ -60,55 +60,63 @@ public class SendMessagesTask extends AbstractTask<MessagesSendMessage.Request>
 
   @Override
   public void execute(final MessagesSendMessage.Request request) throws Exception {
+    this.request = request;
+    this.sender = getSender();
+
     final List<CompletableFuture<Object>> futures =
         request.getUserMessageFlowIds()
             .stream().map(userMessageFlow -> convertToFuture(request.getPiId(),
                 userMessageFlow.getLeft(), userMessageFlow.getRight()))
             .collect(Collectors.toList());
 
-    final ActorRef sender = getSender();
+    PatternsCS
+        .pipe(CompletableFuture.allOf(Iterables.toArray(futures, CompletableFuture.class))
+            .thenApply(result -> new MessagesReceived()), getContext().dispatcher())
+        .to(getSelf());
+    awaitStageResult();
+  }
 
-    try {
-      CompletableFuture.allOf(Iterables.toArray(futures, CompletableFuture.class)).get();
+  @Override
+  protected boolean handleStageResult(final Object obj) throws Exception {
+    if (obj instanceof MessagesReceived) {
       LOG.info("All users received the message in PI_ID [{}]", request.getPiId());
       final SubjectState sendState = subjectStateRepository.findOne(request.getSendSubjectState());
       sendState.setToSent();
       subjectStateRepository.save((SubjectStateImpl) sendState);
+      userInboxService.update(sendState);
       LOG.debug("{} is set to 'SENT'", sendState);
-    } catch (final Exception e) {
+
+      TransactionSynchronizationManager
+          .registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+              sender.tell(new MessagesSendMessage.Response(), getSelf());
+            }
+          });
+      return true;
+    } else if (obj instanceof Status.Failure) {
       LOG.error("At least one user did not receive the message in PI_ID [{}]", request.getPiId());
       sender.tell(
           new Status.Failure(new IllegalStateException(
               "Could not send message to all users in PI_ID [" + request.getPiId() + "]")),
           getSelf());
+      return true;
     }
-
-    TransactionSynchronizationManager
-        .registerSynchronization(new TransactionSynchronizationAdapter() {
-          @Override
-          public void afterCommit() {
-            sender.tell(new MessagesSendMessage.Response(), getSelf());
-          }
-        });
+    return false;
   }
 
   private CompletableFuture<Object> convertToFuture(final Long piId, final Long userId,
       final Long mfId) {
-    final Optional<ActorRef> userActorOpt =
-        akkaSelector.findActor(getParentContext(), getUserId(userId));
-    ActorRef userActor = null;
-    if (userActorOpt.isPresent()) {
-      userActor = userActorOpt.get();
-    } else {
-      userActor =
-          getParentContext().actorOf(springExtension.props("UserActor", userId), getUserId(userId));
-    }
+    // delivered by the supervisor, since the user actor may be passivating
     return PatternsCS
-        .ask(userActor, new MessageReceiveMessage.Request(piId, userId, mfId), Global.TIMEOUT)
+        .ask(getParentContext().self(), new ActorRegistry.Deliver(userId,
+            new MessageReceiveMessage.Request(piId, userId, mfId)), Global.TIMEOUT)
         .toCompletableFuture();
   }
 
-  private String getUserId(final Long userId) {
-    return "ProcessUser-" + userId;
+  /**
+   * Stage result when all receivers have confirmed the message
+   */
+  private static class MessagesReceived {
   }
 }
@@ -17,6 +17,7 @@ import org.springframework.transaction.support.TransactionSynchronizationAdapter
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import akka.actor.ActorRef;
+import akka.actor.Status;
 import akka.pattern.PatternsCS;
 import at.fhjoanneum.ippr.commons.dto.processengine.SendProcessMessage;
 import at.fhjoanneum.ippr.persistence.entities.engine.businessobject.BusinessObjectInstanceBuilder;
@@ -50,6 +51,7 @@ import at.fhjoanneum.ippr.processengine.repositories.ProcessModelRepository;
 import at.fhjoanneum.ippr.processengine.repositories.StateRepository;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectRepository;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectStateRepository;
+import at.fhjoanneum.ippr.processengine.services.UserInboxService;
 
 @Component("User.SendProcessMessageTask")
 @Scope("prototype")
@@ -79,10 +81,14 @@ public class SendProcessMessageTask extends AbstractTask<SendProcessMessage.Requ
   private StateRepository stateRepository;
   @Autowired
   private SubjectStateRepository subjectStateRepository;
+  @Autowired
+  private UserInboxService userInboxService;
 
   @PersistenceContext
   private EntityManager entityManager;
 
+  private ActorRef sender;
+
   @Override
   public boolean canHandle(final Object obj) {
     return obj instanceof SendProcessMessage.Request;
@@ -92,39 +98,69 @@ public class SendProcessMessageTask extends AbstractTask<SendProcessMessage.Requ
   public void execute(final SendProcessMessage.Request message) throws Exception {
     final MessageFlow sendMf = messageFlowRepository.findOne(message.getMfId());
     final Subject senderSubject = subjectRepository.findOne(message.getSubjectPartnerId());
+    sender = getSender();
 
     if (!senderSubject.getProcessPartner().isPresent()) {
       final ProcessInstance processInstance = startProcess(sendMf, message.getUserId());
       final Subject receiveSubject = initSubjects(processInstance);
       initBusinessObjects(processInstance, sendMf, receiveSubject, message.getBoId());
-
-      PatternsCS.ask(processSupervisorActor,
-          new ProcessWakeUpMessage.Request(processInstance.getPiId()), Global.TIMEOUT)
-          .toCompletableFuture().get();
-
-      PatternsCS.ask(userSupervisorActor,
-          new UserActorWakeUpMessage.Request(receiveSubject.getUser()), Global.TIMEOUT)
-          .toCompletableFuture().get();
-
       receiveSubject.setProcessPartner(senderSubject);
+
+      wakeUpAfterCommit(processInstance.getPiId(), receiveSubject.getUser());
     } else {
       final Subject receiveSubject = senderSubject.getProcessPartner().get();
       initBusinessObjects(receiveSubject.getSubjectState().getProcessInstance(), sendMf,
           receiveSubject, message.getBoId());
       receiveSubject.setProcessPartner(senderSubject);
-    }
 
-    final ActorRef sender = getSender();
+      TransactionSynchronizationManager
+          .registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+              sender.tell(new SendProcessMessage.Response(), getSelf());
+            }
+          });
+    }
+  }
 
+  /**
+   * Wakes up the started process and its receiving user without blocking the dispatcher, the
+   * response is sent when both are woken up
+   */
+  private void wakeUpAfterCommit(final Long piId, final Long userId) {
+    awaitStageResult();
+    final ActorRef self = getSelf();
     TransactionSynchronizationManager
         .registerSynchronization(new TransactionSynchronizationAdapter() {
           @Override
-          public void afterCommit() {
-            sender.tell(new SendProcessMessage.Response(), getSelf());
+          public void afterCompletion(final int status) {
+            if (status != STATUS_COMMITTED) {
+              getContext().stop(self);
+              return;
+            }
+            PatternsCS.pipe(PatternsCS
+                .ask(processSupervisorActor, new ProcessWakeUpMessage.Request(piId),
+                    Global.TIMEOUT)
+                .thenCompose(result -> PatternsCS.ask(userSupervisorActor,
+                    new UserActorWakeUpMessage.Request(userId), Global.TIMEOUT))
+                .thenApply(result -> new WokenUp()), getContext().dispatcher()).to(self);
           }
         });
   }
 
+  @Override
+  protected boolean handleStageResult(final Object obj) throws Exception {
+    if (obj instanceof WokenUp) {
+      sender.tell(new SendProcessMessage.Response(), getSelf());
+    } else if (obj instanceof Status.Failure) {
+      LOG.error("Could not wake up the started process", ((Status.Failure) obj).cause());
+      sender.tell(obj, getSelf());
+    } else {
+      return false;
+    }
+    return true;
+  }
+
   private ProcessInstance startProcess(final MessageFlow mf, final Long userId) {
     final ProcessInstanceBuilder processBuilder = new ProcessInstanceBuilder();
     final ProcessModel processModel =
@@ -208,6 +244,7 @@ public class SendProcessMessageTask extends AbstractTask<SendProcessMessage.Requ
     });
 
     startSubject.getSubjectState().setToReceived(receiveMf);
+    userInboxService.update(startSubject.getSubjectState());
   }
 
   private static Map<String, BusinessObjectFieldInstance> getFieldMap(
@@ -215,4 +252,10 @@ public class SendProcessMessageTask extends AbstractTask<SendProcessMessage.Requ
     return fields.stream()
         .collect(Collectors.toMap(f -> f.getBusinessObjectFieldModel().getFieldName(), f -> f));
   }
+
+  /**
+   * Stage result when the started process and its receiving user are woken up
+   */
+  private static class WokenUp {
+  }
 }
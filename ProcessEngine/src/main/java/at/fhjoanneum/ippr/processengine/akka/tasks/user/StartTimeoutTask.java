@@ -1,35 +1,33 @@
 package at.fhjoanneum.ippr.processengine.akka.tasks.user;
 
-import java.util.UUID;
+import java.time.LocalDateTime;
 
-import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import akka.actor.ActorRef;
-import akka.actor.UntypedActorContext;
 import at.fhjoanneum.ippr.persistence.objects.engine.state.SubjectState;
-import at.fhjoanneum.ippr.processengine.akka.config.SpringExtension;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.timeout.TimeoutScheduleStartMessage;
 import at.fhjoanneum.ippr.processengine.akka.tasks.AbstractTask;
+import at.fhjoanneum.ippr.processengine.model.ScheduledTimeout;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectStateRepository;
 
 @Component("User.StartTimeoutTask")
 @Scope("prototype")
 public class StartTimeoutTask extends AbstractTask<TimeoutScheduleStartMessage> {
 
-  private static final String TIMEOUT_SCHEDULER = "TIMEOUT_SCHEDULER_";
-
-  @Autowired
-  private SpringExtension springExtension;
+  private final static Logger LOG = LoggerFactory.getLogger(StartTimeoutTask.class);
 
   @Autowired
   private SubjectStateRepository subjectStateRepository;
 
-  public StartTimeoutTask(final UntypedActorContext parentContext) {
-    super(parentContext);
-  }
+  @Autowired
+  private ActorRef timeoutWheelActor;
 
   @Override
   public boolean canHandle(final Object obj) {
@@ -39,16 +37,21 @@ public class StartTimeoutTask extends AbstractTask<TimeoutScheduleStartMessage>
   @Override
   public void execute(final TimeoutScheduleStartMessage message) throws Exception {
     final SubjectState subjectState = subjectStateRepository.findOne(message.getSsId());
-    final String id =
-        StringUtils.isBlank(message.getTimeoutActorId()) ? getId() : message.getTimeoutActorId();
-    subjectState.setTimeoutActor(id);
-
-    final ActorRef timeoutScheduler =
-        getParentContext().actorOf(springExtension.props("TimeoutScheduleActor"), id);
-    timeoutScheduler.forward(message, getParentContext());
-  }
-
-  private static String getId() {
-    return TIMEOUT_SCHEDULER + UUID.randomUUID().toString();
+    final long timeout =
+        subjectState.getCurrentState().getTimeoutTransition().get().getTimeout().longValue();
+
+    final LocalDateTime dueAt = subjectState.getLastChanged().plusMinutes(timeout);
+    subjectState.setTimeoutDueAt(dueAt);
+    LOG.info("Start [{}] min. timeout for [{}], due at [{}]", timeout, subjectState, dueAt);
+
+    final ScheduledTimeout scheduledTimeout =
+        new ScheduledTimeout(subjectState.getSsId(), message.getUserId(), dueAt);
+    TransactionSynchronizationManager
+        .registerSynchronization(new TransactionSynchronizationAdapter() {
+          @Override
+          public void afterCommit() {
+            timeoutWheelActor.tell(scheduledTimeout, ActorRef.noSender());
+          }
+        });
   }
 }
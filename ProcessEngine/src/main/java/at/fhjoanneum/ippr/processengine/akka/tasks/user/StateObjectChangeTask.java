@@ -1,6 +1,7 @@
 package at.fhjoanneum.ippr.processengine.akka.tasks.user;
 
 import akka.actor.ActorRef;
+import akka.actor.Cancellable;
 import akka.actor.Status;
 import akka.pattern.Patterns;
 import akka.pattern.PatternsCS;
@@ -16,19 +17,18 @@ import at.fhjoanneum.ippr.persistence.entities.engine.businessobject.field.Busin
 import at.fhjoanneum.ippr.persistence.entities.engine.businessobject.field.BusinessObjectFieldInstanceImpl;
 import at.fhjoanneum.ippr.persistence.entities.engine.enums.SubjectSubState;
 import at.fhjoanneum.ippr.persistence.entities.engine.state.SubjectStateImpl;
+import at.fhjoanneum.ippr.persistence.entities.model.businessobject.BusinessObjectModelImpl;
+import at.fhjoanneum.ippr.persistence.entities.model.businessobject.field.BusinessObjectFieldModelImpl;
+import at.fhjoanneum.ippr.persistence.entities.model.state.StateImpl;
 import at.fhjoanneum.ippr.persistence.objects.engine.businessobject.BusinessObjectFieldInstance;
 import at.fhjoanneum.ippr.persistence.objects.engine.businessobject.BusinessObjectInstance;
 import at.fhjoanneum.ippr.persistence.objects.engine.process.ProcessInstance;
 import at.fhjoanneum.ippr.persistence.objects.engine.state.SubjectState;
 import at.fhjoanneum.ippr.persistence.objects.engine.subject.Subject;
-import at.fhjoanneum.ippr.persistence.objects.model.businessobject.BusinessObjectModel;
-import at.fhjoanneum.ippr.persistence.objects.model.businessobject.permission.BusinessObjectFieldPermission;
 import at.fhjoanneum.ippr.persistence.objects.model.enums.FieldPermission;
 import at.fhjoanneum.ippr.persistence.objects.model.enums.FieldType;
 import at.fhjoanneum.ippr.persistence.objects.model.enums.StateFunctionType;
 import at.fhjoanneum.ippr.persistence.objects.model.enums.SubjectModelType;
-import at.fhjoanneum.ippr.persistence.objects.model.messageflow.MessageFlow;
-import at.fhjoanneum.ippr.persistence.objects.model.state.State;
 import at.fhjoanneum.ippr.processengine.akka.config.Global;
 import at.fhjoanneum.ippr.processengine.akka.config.SpringExtension;
 import at.fhjoanneum.ippr.processengine.akka.messages.EmptyMessage;
@@ -40,25 +40,36 @@ import at.fhjoanneum.ippr.processengine.akka.messages.process.workflow.StateObje
 import at.fhjoanneum.ippr.processengine.akka.messages.process.workflow.StateObjectChangeMessage.Request;
 import at.fhjoanneum.ippr.processengine.akka.tasks.AbstractTask;
 import at.fhjoanneum.ippr.processengine.feign.ExternalCommunicatorClient;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.BusinessObjectNode;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.MessageFlowNode;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.PermissionNode;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.StateNode;
 import at.fhjoanneum.ippr.processengine.parser.DbValueParser;
 import at.fhjoanneum.ippr.processengine.repositories.*;
 import at.fhjoanneum.ippr.processengine.services.EventLoggerSender;
+import at.fhjoanneum.ippr.processengine.services.ExternalSendAcknowledgements;
+import at.fhjoanneum.ippr.processengine.services.ProcessModelGraphCache;
+import at.fhjoanneum.ippr.processengine.services.UserInboxService;
+import com.google.common.collect.Iterables;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
-import scala.concurrent.Await;
+import scala.concurrent.ExecutionContextExecutor;
 import scala.concurrent.Future;
+import scala.concurrent.duration.Duration;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -80,26 +91,36 @@ public class StateObjectChangeTask extends AbstractTask<StateObjectChangeMessage
   @Autowired
   private BusinessObjectFieldInstanceRepository businessObjectFieldInstanceRepository;
   @Autowired
-  private BusinessObjectFieldPermissionRepository businessObjectFieldPermissionRepository;
-  @Autowired
-  private StateRepository stateRepository;
+  private ProcessModelGraphCache processModelGraphCache;
   @Autowired
   private SubjectRepository subjectRepository;
   @Autowired
-  private MessageFlowRepository messageFlowRepository;
-  @Autowired
   private EventLoggerSender eventLoggerSender;
 
   @Autowired
   private ExternalCommunicatorClient externalCommunicatorClient;
+  @Autowired
+  private ExternalSendAcknowledgements externalSendAcknowledgements;
+
+  @Value("${external.send.timeout:5000}")
+  private long externalSendTimeout;
 
   @Autowired
   private DbValueParser valueParser;
 
+  @Autowired
+  private UserInboxService userInboxService;
+
   @PersistenceContext
   private EntityManager entityManager;
 
+  private StateObjectChangeMessage.Request request;
   private ActorRef sender;
+  private Long ssId;
+  private int pendingSends;
+  private boolean processMessagesSent;
+  private List<String> externalTransferIds;
+  private Cancellable externalSentDeadline;
 
   @Override
   public boolean canHandle(final Object obj) {
@@ -108,80 +129,118 @@ public class StateObjectChangeTask extends AbstractTask<StateObjectChangeMessage
 
   @Override
   public void execute(final StateObjectChangeMessage.Request request) throws Exception {
-    handleStateObjectChangeMessage(request);
-  }
+    this.request = request;
+    this.sender = getSender();
 
-  private void handleStateObjectChangeMessage(final StateObjectChangeMessage.Request request)
-      throws Exception {
     final SubjectState subjectState = Optional
         .ofNullable(
             subjectStateRepository.getSubjectStateOfUser(request.getPiId(), request.getUserId()))
         .get();
-
-    sender = getSender();
+    ssId = subjectState.getSsId();
 
     final ActorRef bussinessObjectCheckActor = getContext().actorOf(
         springExtension.props("BusinessObjectCheckActor", subjectState.getCurrentState().getSId()),
         UUID.randomUUID().toString());
 
-    // must block thread since transaction is lost when using completable future
-    final Future<Object> future = Patterns.ask(bussinessObjectCheckActor, request, Global.TIMEOUT);
-    final boolean correct =
-        ((Boolean) Await.result(future, Global.TIMEOUT.duration())).booleanValue();
+    pipeToSelf(Patterns.ask(bussinessObjectCheckActor, request, Global.TIMEOUT));
+  }
+
+  @Override
+  public void postStop() throws Exception {
+    if (externalTransferIds != null) {
+      externalTransferIds.forEach(externalSendAcknowledgements::discard);
+    }
+    super.postStop();
+  }
+
+  @Override
+  protected boolean handleStageResult(final Object obj) throws Exception {
+    if (obj instanceof Boolean) {
+      handleCheckResult(((Boolean) obj).booleanValue());
+    } else if (obj instanceof AssignUsersMessage.Response) {
+      triggerSends();
+    } else if (obj instanceof MessagesSendMessage.Response) {
+      LOG.info("All users received the message in PI_ID [{}]", request.getPiId());
+      sendCompleted();
+    } else if (obj instanceof SendProcessMessage.Response) {
+      processMessagesSent = true;
+      sendCompleted();
+    } else if (obj instanceof ExternalMessagesSent) {
+      externalMessagesSent();
+    } else if (obj instanceof ExternalSentDeadline) {
+      externalSentDeadlineReached();
+    } else if (obj instanceof Status.Failure) {
+      fail(((Status.Failure) obj).cause());
+    } else {
+      return false;
+    }
+    return true;
+  }
 
+  private void handleCheckResult(final boolean correct) {
     if (!correct) {
       sender.tell(new Status.Failure(
           new IllegalArgumentException("Check of business objects returned false")), getSelf());
+      return;
+    }
+
+    final SubjectState subjectState = subjectStateRepository.findOne(ssId);
+    final StateNode currentState = getCurrentState(subjectState);
+    initBusinessObjectInstances(currentState, request);
+    setValuesOfBusinessObjectFieldInstances(currentState, request);
+
+    if (StateFunctionType.SEND.equals(currentState.getFunctionType())
+        && SubjectSubState.TO_SEND.equals(subjectState.getSubState())) {
+      assignUsers();
     } else {
-      initBusinessObjectInstances(subjectState, request);
-      setValuesOfBusinessObjectFieldInstances(subjectState.getCurrentState(), request);
-      sendMessages(subjectState, request);
-
-      TransactionSynchronizationManager
-          .registerSynchronization(new TransactionSynchronizationAdapter() {
-            @Override
-            public void afterCommit() {
-              sender.tell(new EmptyMessage(), getSelf());
-              handleAdditionalActions(subjectState);
-            }
-          });
+      changeToNextState(subjectState, request);
+      finish(subjectState);
     }
   }
 
-  private void initBusinessObjectInstances(final SubjectState state,
+  private StateNode getCurrentState(final SubjectState subjectState) {
+    return processModelGraphCache.getState(subjectState.getCurrentState().getSId());
+  }
+
+  private void initBusinessObjectInstances(final StateNode state,
       final StateObjectChangeMessage.Request request) {
     final ProcessInstance processInstance = processInstanceRepository.findOne(request.getPiId());
+    final Set<Long> created = processInstance.getBusinessObjectInstances().stream()
+        .map(instance -> instance.getBusinessObjectModel().getBomId())
+        .collect(Collectors.toSet());
 
-    final List<BusinessObjectModel> toCreate = state.getCurrentState().getBusinessObjectModels()
-        .stream().map(BusinessObjectModel::flattened).flatMap(List::stream)
-        .filter(model -> !processInstance.isBusinessObjectInstanceOfModelCreated(model))
-        .collect(Collectors.toList());
+    final List<BusinessObjectNode> toCreate = state.getBusinessObjects().stream()
+        .filter(model -> !created.contains(model.getBomId())).collect(Collectors.toList());
 
-    LOG.debug("Must create instances for business object models: {}", toCreate);
+    LOG.debug("Must create instances for business object models: {}",
+        toCreate.stream().map(BusinessObjectNode::getBomId).collect(Collectors.toList()));
     toCreate.forEach(model -> createBusinessObjectInstanceOfModel(processInstance, model));
   }
 
   private void createBusinessObjectInstanceOfModel(final ProcessInstance processInstance,
-      final BusinessObjectModel businessObjectModel) {
+      final BusinessObjectNode businessObjectModel) {
+    // the models are known from the graph, references avoid loading them again
     final BusinessObjectInstance businessObjectInstance = new BusinessObjectInstanceBuilder()
-        .processInstance(processInstance).businessObjectModel(businessObjectModel).build();
-
-    final List<BusinessObjectFieldInstanceImpl> fields =
-        businessObjectModel.getBusinessObjectFieldModels().stream()
-            .map(fieldModel -> new BusinessObjectFieldInstanceBuilder()
-                .businessObjectInstance(businessObjectInstance).businessObjectFieldModel(fieldModel)
-                .build())
-            .map(field -> (BusinessObjectFieldInstanceImpl) field).collect(Collectors.toList());
+        .processInstance(processInstance).businessObjectModel(entityManager
+            .getReference(BusinessObjectModelImpl.class, businessObjectModel.getBomId()))
+        .build();
+
+    final List<BusinessObjectFieldInstanceImpl> fields = businessObjectModel.getFields().stream()
+        .map(fieldModel -> new BusinessObjectFieldInstanceBuilder()
+            .businessObjectInstance(businessObjectInstance)
+            .businessObjectFieldModel(entityManager
+                .getReference(BusinessObjectFieldModelImpl.class, fieldModel.getBofmId()))
+            .build())
+        .map(field -> (BusinessObjectFieldInstanceImpl) field).collect(Collectors.toList());
 
     businessObjectInstanceRepository.save((BusinessObjectInstanceImpl) businessObjectInstance);
     businessObjectFieldInstanceRepository.save(fields);
-    LOG.info("Created new business object instance: {}", businessObjectInstance);
+    LOG.info("Created new business object instance for BOM_ID [{}] in PI_ID [{}]",
+        businessObjectModel.getBomId(), processInstance.getPiId());
   }
 
-  private void setValuesOfBusinessObjectFieldInstances(final State currentState,
+  private void setValuesOfBusinessObjectFieldInstances(final StateNode state,
       final StateObjectChangeMessage.Request request) {
-    final ActorRef sender = getSender();
-
     if (request.getStateObjectChangeDTO().getBusinessObjects() == null) {
       return;
     }
@@ -190,21 +249,25 @@ public class StateObjectChangeTask extends AbstractTask<StateObjectChangeMessage
         request.getStateObjectChangeDTO().getBusinessObjects().stream()
             .map(BusinessObjectInstanceDTO::flattened).flatMap(List::stream);
 
+    final Map<Long, BusinessObjectFieldInstanceImpl> fieldInstances =
+        businessObjectFieldInstanceRepository
+            .getBusinessObjectFieldInstancesOfProcess(request.getPiId()).stream()
+            .collect(Collectors.toMap(
+                fieldInstance -> fieldInstance.getBusinessObjectFieldModel().getBofmId(),
+                fieldInstance -> fieldInstance));
+
+    final List<BusinessObjectFieldInstanceImpl> changed = new ArrayList<>();
     businessObjects.map(BusinessObjectInstanceDTO::getFields).flatMap(List::stream)
         .forEach(field -> {
-          final Optional<BusinessObjectFieldPermission> permissionOpt = Optional.ofNullable(
-              businessObjectFieldPermissionRepository.getBusinessObjectFieldPermissionInState(
-                  field.getBofmId(), currentState.getSId()));
+          final Optional<PermissionNode> permissionOpt = state.getPermission(field.getBofmId());
 
           if (permissionOpt.isPresent()) {
-            final BusinessObjectFieldPermission permission = permissionOpt.get();
+            final PermissionNode permission = permissionOpt.get();
 
             if (permission.getPermission().equals(FieldPermission.READ_WRITE)
                 && StringUtils.isNotBlank(field.getValue())) {
-              final Optional<BusinessObjectFieldInstance> fieldInstanceOpt =
-                  Optional.ofNullable(businessObjectFieldInstanceRepository
-                      .getBusinessObjectFieldInstanceForModelInProcess(request.getPiId(),
-                          field.getBofmId()));
+              final Optional<BusinessObjectFieldInstanceImpl> fieldInstanceOpt =
+                  Optional.ofNullable(fieldInstances.get(field.getBofmId()));
               if (!fieldInstanceOpt.isPresent()) {
                 sender.tell(
                     new akka.actor.Status.Failure(new IllegalStateException(
@@ -212,183 +275,198 @@ public class StateObjectChangeTask extends AbstractTask<StateObjectChangeMessage
                     getSelf());
               } else {
                 // parse the value
-                final BusinessObjectFieldInstance fieldInstance = fieldInstanceOpt.get();
+                final BusinessObjectFieldInstanceImpl fieldInstance = fieldInstanceOpt.get();
                 final FieldType fieldType =
                     fieldInstance.getBusinessObjectFieldModel().getFieldType();
                 final String value = valueParser.parse(field.getValue(), fieldType);
                 LOG.debug("Parsed value is: {}", value);
-                fieldInstance.setValue(value);
-                businessObjectFieldInstanceRepository
-                    .save((BusinessObjectFieldInstanceImpl) fieldInstance);
-                LOG.info("Updated the value of field instance: {} to {}", fieldInstance, value);
+                if (!Objects.equals(value, fieldInstance.getValue())) {
+                  fieldInstance.setValue(value);
+                  changed.add(fieldInstance);
+                  LOG.info("Updated the value of field instance: {} to {}", fieldInstance, value);
+                }
               }
             }
           }
         });
+
+    // updates are flushed as one JDBC batch (see hibernate.jdbc.batch_size)
+    if (!changed.isEmpty()) {
+      businessObjectFieldInstanceRepository.save(changed);
+    }
   }
 
-  private void sendMessages(final SubjectState subjectState,
-      final StateObjectChangeMessage.Request request) {
-    if (StateFunctionType.SEND.equals(subjectState.getCurrentState().getFunctionType())
-        && SubjectSubState.TO_SEND.equals(subjectState.getSubState())) {
-      assignUsers(request, subjectState);
+  private void assignUsers() {
+    if (request.getStateObjectChangeDTO().getUserAssignments() == null
+        || request.getStateObjectChangeDTO().getUserAssignments().isEmpty()) {
+      LOG.debug("All user assignements are done at the moment for P_ID [{}]", request.getPiId());
+      triggerSends();
     } else {
-      changeToNextState(subjectState, request);
+      pipeToSelf(Patterns.ask(getContext().parent(),
+          new AssignUsersMessage.Request(request.getPiId(),
+              request.getStateObjectChangeDTO().getUserAssignments()),
+          Global.TIMEOUT));
     }
   }
 
-  private void assignUsers(final StateObjectChangeMessage.Request request,
-      final SubjectState subjectState) {
-    try {
-      if (request.getStateObjectChangeDTO().getUserAssignments() == null
-          || request.getStateObjectChangeDTO().getUserAssignments().isEmpty()) {
-        LOG.debug("All user assignements are done at the moment for P_ID [{}]", request.getPiId());
-      } else {
-        PatternsCS
-            .ask(getContext().parent(),
-                new AssignUsersMessage.Request(request.getPiId(),
-                    request.getStateObjectChangeDTO().getUserAssignments()),
-                Global.TIMEOUT)
-            .toCompletableFuture().get();
-      }
-
-      triggerSendInternal(subjectState, request);
-      triggerSendExternal(subjectState, request);
-      triggerSendProcess(subjectState, request);
-
-    } catch (final Exception e) {
-      LOG.error(e.getMessage());
-      sender.tell(new Status.Failure(new IllegalStateException("Error: " + e.getMessage())),
-          getSelf());
+  private void triggerSends() {
+    final SubjectState subjectState = subjectStateRepository.findOne(ssId);
+    final StateNode currentState = getCurrentState(subjectState);
+    pendingSends = 0;
+
+    triggerSendInternal(subjectState, currentState, request);
+    triggerSendExternal(subjectState, currentState, request);
+    triggerSendProcess(subjectState, currentState, request);
+
+    if (pendingSends == 0) {
+      finish(subjectState);
     }
   }
 
-  private void triggerSendProcess(final SubjectState subjectState, final Request request) {
-    subjectState.getCurrentState().getMessageFlow().stream()
-        .filter(mf -> SubjectModelType.PROCESS.equals(mf.getReceiver().getSubjectModelType()))
+  private void sendCompleted() {
+    if (--pendingSends > 0) {
+      awaitStageResult();
+      return;
+    }
+
+    final SubjectState subjectState = subjectStateRepository.findOne(ssId);
+    if (processMessagesSent) {
+      subjectState.setToSent();
+    }
+
+    if (SubjectSubState.SENT.equals(subjectState.getSubState())) {
+      changeToNextState(subjectState, request);
+      finish(subjectState);
+    } else {
+      sender.tell(new Status.Failure(new IllegalStateException(
+          "Sender state is not in 'SENT' state [" + subjectState + "]")), getSelf());
+    }
+  }
+
+  private void triggerSendProcess(final SubjectState subjectState, final StateNode currentState,
+      final Request request) {
+    currentState.getMessageFlows().stream()
+        .filter(mf -> SubjectModelType.PROCESS.equals(mf.getReceiverType()))
         .forEachOrdered(mf -> {
           final BusinessObjectInstance boInstance =
               businessObjectInstanceRepository.getBusinessObjectInstanceOfModelInProcess(
-                  request.getPiId(), mf.getBusinessObjectModels().get(0).getBomId());
-
-          try {
-            PatternsCS
-                .ask(getContext().parent(),
-                    new SendProcessMessage.Request(request.getPiId(),
-                        subjectState.getSubject().getSId(),
-                        request.getStateObjectChangeDTO().getUserAssignments() == null
-                            || request.getStateObjectChangeDTO().getUserAssignments().isEmpty()
-                                ? null
-                                : request.getStateObjectChangeDTO().getUserAssignments().get(0)
-                                    .getUserId(),
-                        mf.getMfId(), boInstance != null ? boInstance.getBoiId() : null),
-                    Global.TIMEOUT)
-                .toCompletableFuture().get();
-
-            subjectState.setToSent();
-            changeToNextState(subjectState, request);
-          } catch (final Exception e) {
-            LOG.error(e.getMessage());
-            sender.tell(new Status.Failure(new IllegalStateException("Error: " + e.getMessage())),
-                getSelf());
-          }
+                  request.getPiId(), mf.getBusinessObjects().get(0).getBomId());
+
+          pendingSends++;
+          pipeToSelf(Patterns.ask(getContext().parent(),
+              new SendProcessMessage.Request(request.getPiId(),
+                  subjectState.getSubject().getSId(),
+                  request.getStateObjectChangeDTO().getUserAssignments() == null
+                      || request.getStateObjectChangeDTO().getUserAssignments().isEmpty()
+                          ? null
+                          : request.getStateObjectChangeDTO().getUserAssignments().get(0)
+                              .getUserId(),
+                  mf.getMfId(), boInstance != null ? boInstance.getBoiId() : null),
+              Global.TIMEOUT));
         });
   }
 
-  private void triggerSendInternal(final SubjectState subjectState,
+  private void triggerSendInternal(final SubjectState subjectState, final StateNode currentState,
       final StateObjectChangeMessage.Request request) {
     final ActorRef userActor = getContext().parent();
 
-    final List<Pair<Long, Long>> userMessageFlowIds =
-        subjectState.getCurrentState().getMessageFlow().stream()
-            .filter(mf -> SubjectModelType.INTERNAL.equals(mf.getReceiver().getSubjectModelType()))
-            .map(messageFlow -> getUserMessageFlowIds(request.getPiId(), messageFlow))
-            .collect(Collectors.toList());
+    final List<Pair<Long, Long>> userMessageFlowIds = currentState.getMessageFlows().stream()
+        .filter(mf -> SubjectModelType.INTERNAL.equals(mf.getReceiverType()))
+        .map(messageFlow -> getUserMessageFlowIds(request.getPiId(), messageFlow))
+        .collect(Collectors.toList());
 
     // Log Send Event
     final long caseId = subjectState.getProcessInstance().getPiId();
     final long processModelId = subjectState.getProcessInstance().getProcessModel().getPmId();
-    final String activity = subjectState.getCurrentState().getName();
+    final String activity = currentState.getName();
     final String state = StateFunctionType.SEND.name();
     final String resource = subjectState.getSubject().getSubjectModel().getName();
-    final String timestamp = DateTime.now().toString("dd.MM.yyyy HH:mm");
-    final MessageFlow messageFlow = messageFlowRepository.findOne(subjectState.getCurrentState().getMessageFlow().get(0).getMfId());
-    final String messageType = messageFlow
-            .getBusinessObjectModels().get(0).getName();
-    final String recipient = subjectState.getCurrentState().getMessageFlow().get(0).getReceiver().getName();
+    final DateTime now = DateTime.now();
+    final String timestamp = now.toString("dd.MM.yyyy HH:mm");
+    final MessageFlowNode messageFlow = currentState.getMessageFlows().get(0);
+    final String messageType = messageFlow.getBusinessObjects().get(0).getName();
+    final String recipient = messageFlow.getReceiverName();
     final String msgSender = resource;
 
 
     final EventLoggerDTO event = new EventLoggerDTO(caseId, processModelId, timestamp, activity,
         resource, state, messageType, recipient, msgSender);
+    event.setEpochMillis(now.getMillis());
     eventLoggerSender.send(event);
 
     if (!userMessageFlowIds.isEmpty()) {
-      try {
-        PatternsCS
-            .ask(userActor, new MessagesSendMessage.Request(request.getPiId(),
-                subjectState.getSsId(), userMessageFlowIds), Global.TIMEOUT)
-            .toCompletableFuture().get();
-        LOG.info("All users [{}] received the message in PI_ID [{}]", userMessageFlowIds,
-            request.getPiId());
-
-        entityManager.refresh(subjectState);
-        if (SubjectSubState.SENT.equals(subjectState.getSubState())) {
-          changeToNextState(subjectState, request);
-        } else {
-          sender.tell(new Status.Failure(new IllegalStateException(
-              "Sender state is not in 'SENT' state [" + subjectState + "]")), getSelf());
-        }
-      } catch (final Exception e) {
-        sender.tell(
-            new Status.Failure(new IllegalStateException(
-                "Could not send message to all users in PI_ID [" + request.getPiId() + "]")),
-            getSelf());
-      }
+      pendingSends++;
+      pipeToSelf(Patterns.ask(userActor, new MessagesSendMessage.Request(request.getPiId(),
+          subjectState.getSsId(), userMessageFlowIds), Global.TIMEOUT));
     }
   }
 
-  private Pair<Long, Long> getUserMessageFlowIds(final Long piId, final MessageFlow messageFlow) {
-    final Subject receiver = subjectRepository.getSubjectForSubjectModelInProcess(piId,
-        messageFlow.getReceiver().getSmId());
+  private Pair<Long, Long> getUserMessageFlowIds(final Long piId,
+      final MessageFlowNode messageFlow) {
+    final Subject receiver =
+        subjectRepository.getSubjectForSubjectModelInProcess(piId, messageFlow.getReceiverSmId());
     entityManager.refresh(receiver);
     return Pair.of(receiver.getUser(), messageFlow.getMfId());
   }
 
-  private void triggerSendExternal(final SubjectState subjectState,
+  private void triggerSendExternal(final SubjectState subjectState, final StateNode currentState,
       final StateObjectChangeMessage.Request request) {
 
-    final List<MessageFlow> messageFlows = subjectState.getCurrentState().getMessageFlow().stream()
-        .filter(mf -> SubjectModelType.EXTERNAL.equals(mf.getReceiver().getSubjectModelType()))
-        .collect(Collectors.toList());
-
-    messageFlows.stream()
+    final List<ExternalCommunicatorMessage> outputs = currentState.getMessageFlows().stream()
+        .filter(mf -> SubjectModelType.EXTERNAL.equals(mf.getReceiverType()))
         .map(mf -> getExternalOutputMessage(request.getPiId(), mf, subjectState.getSubject()))
-        .forEachOrdered(output -> {
-          LOG.debug("Send message to external-communicator [{}]", output);
-          externalCommunicatorClient.sendExternalOutputMessage(output);
-          subjectState.setToNotifiedEC();
-        });
+        .collect(Collectors.toList());
 
-    if (messageFlows.size() >= 1) {
-      if (waitForECResponse(subjectState)) {
-        changeToNextState(subjectState, request);
-      } else {
-        sender.tell(new Status.Failure(new IllegalStateException(
-            "Could not send message to all external users in PI_ID [" + request.getPiId() + "]")),
-            getSelf());
-      }
+    if (outputs.isEmpty()) {
+      return;
     }
+
+    // the state must be committed before the external communicator is able to mark it as sent
+    subjectState.setToNotifiedEC();
+    subjectStateRepository.save((SubjectStateImpl) subjectState);
+    userInboxService.update(subjectState);
+
+    externalTransferIds = outputs.stream().map(ExternalCommunicatorMessage::getTransferId)
+        .collect(Collectors.toList());
+    final List<CompletableFuture<Void>> acknowledgements = externalTransferIds.stream()
+        .map(externalSendAcknowledgements::expect).collect(Collectors.toList());
+
+    pendingSends++;
+    PatternsCS.pipe(CompletableFuture
+        .allOf(Iterables.toArray(acknowledgements, CompletableFuture.class))
+        .thenApply(result -> new ExternalMessagesSent()), getContext().dispatcher())
+        .to(getSelf());
+    awaitStageResult();
+
+    final ActorRef self = getSelf();
+    final ExecutionContextExecutor dispatcher = getContext().dispatcher();
+    TransactionSynchronizationManager
+        .registerSynchronization(new TransactionSynchronizationAdapter() {
+          @Override
+          public void afterCommit() {
+            CompletableFuture.runAsync(() -> outputs.forEach(output -> {
+              LOG.debug("Send message to external-communicator [{}]", output);
+              externalCommunicatorClient.sendExternalOutputMessage(output);
+            }), dispatcher).whenComplete((result, e) -> {
+              if (e != null) {
+                self.tell(new Status.Failure(e), ActorRef.noSender());
+              }
+            });
+            externalSentDeadline = getContext().system().scheduler().scheduleOnce(
+                Duration.create(externalSendTimeout, TimeUnit.MILLISECONDS), self,
+                new ExternalSentDeadline(), dispatcher, ActorRef.noSender());
+          }
+        });
   }
 
   private ExternalCommunicatorMessage getExternalOutputMessage(final Long piId,
-      final MessageFlow messageFlow, final Subject sender) {
+      final MessageFlowNode messageFlow, final Subject sender) {
     final Set<BusinessObject> businessObjects = new HashSet<>();
 
-    messageFlow.getBusinessObjectModels().stream().forEachOrdered(bom -> {
+    messageFlow.getBusinessObjects().stream().forEachOrdered(bom -> {
       final Set<at.fhjoanneum.ippr.commons.dto.communicator.BusinessObjectField> fields =
           new HashSet<>();
-      bom.getBusinessObjectFieldModels().stream().forEachOrdered(field -> {
+      bom.getFields().stream().forEachOrdered(field -> {
         final BusinessObjectFieldInstance instance = businessObjectFieldInstanceRepository
             .getBusinessObjectFieldInstanceForModelInProcess(piId, field.getBofmId());
         fields.add(new at.fhjoanneum.ippr.commons.dto.communicator.BusinessObjectField(
@@ -403,39 +481,76 @@ public class StateObjectChangeTask extends AbstractTask<StateObjectChangeMessage
         getTransferId(piId, sender.getSId(), messageFlow.getMfId()), businessObjects);
   }
 
+  private void externalMessagesSent() {
+    if (externalSentDeadline != null) {
+      externalSentDeadline.cancel();
+    }
+    externalTransferIds = null;
+    LOG.debug("External communicator marked [{}] as 'SENT'", ssId);
+    sendCompleted();
+  }
 
-  private boolean waitForECResponse(final SubjectState subjectState) {
-    try {
-      for (int i = 0; i < 5; i++) {
-        TimeUnit.SECONDS.sleep(1);
-        entityManager.refresh(subjectState);
-        if (SubjectSubState.SENT.equals(subjectState.getSubState())) {
-          LOG.debug("Subject is now in 'SENT' [{}]", subjectState);
-          return true;
-        }
-      }
-      return false;
-    } catch (final Exception e) {
-      LOG.error(e.getMessage());
-      return false;
+  private void externalSentDeadlineReached() {
+    if (externalTransferIds == null) {
+      awaitStageResult();
+      return;
+    }
+    externalTransferIds.forEach(externalSendAcknowledgements::discard);
+
+    // the acknowledgement is lost if it was received by another instance or before a restart
+    final SubjectState subjectState = subjectStateRepository.findOne(ssId);
+    if (subjectState != null && SubjectSubState.SENT.equals(subjectState.getSubState())) {
+      LOG.info("No acknowledgement received, but [{}] is already marked as 'SENT'", ssId);
+      externalMessagesSent();
+      return;
     }
+    externalTransferIds = null;
+
+    sender.tell(new Status.Failure(new IllegalStateException(
+        "Could not send message to all external users in PI_ID [" + request.getPiId() + "]")),
+        getSelf());
+  }
+
+  private void pipeToSelf(final Future<Object> future) {
+    Patterns.pipe(future, getContext().dispatcher()).to(getSelf());
+    awaitStageResult();
+  }
+
+  private void fail(final Throwable cause) {
+    LOG.error(cause.getMessage());
+    sender.tell(new Status.Failure(new IllegalStateException("Error: " + cause.getMessage())),
+        getSelf());
+  }
+
+  private void finish(final SubjectState subjectState) {
+    final StateNode currentState = getCurrentState(subjectState);
+    TransactionSynchronizationManager
+        .registerSynchronization(new TransactionSynchronizationAdapter() {
+          @Override
+          public void afterCommit() {
+            sender.tell(new EmptyMessage(), getSelf());
+            handleAdditionalActions(subjectState, currentState);
+          }
+        });
   }
 
   private void changeToNextState(final SubjectState subjectState,
       final StateObjectChangeMessage.Request request) {
 
     final Long nextStateId = request.getStateObjectChangeDTO().getNextStateId();
-    final State nextState = stateRepository.findOne(nextStateId);
-    subjectState.setCurrentState(nextState);
+    final StateNode nextState = processModelGraphCache.getState(nextStateId);
+    subjectState.setCurrentState(entityManager.getReference(StateImpl.class, nextStateId));
     subjectStateRepository.save((SubjectStateImpl) subjectState);
-    LOG.info("Changed subject S_ID [{}] to state: {}", subjectState.getSubject().getSId(),
-        nextState);
+    userInboxService.update(subjectState);
+    LOG.info("Changed subject S_ID [{}] to state S_ID [{}]", subjectState.getSubject().getSId(),
+        nextStateId);
 
-    if (subjectState.getCurrentState().getFunctionType() == StateFunctionType.FUNCTION) {
+    if (nextState.getFunctionType() == StateFunctionType.FUNCTION) {
       final long caseId = subjectState.getProcessInstance().getPiId();
       final long processModelId = subjectState.getProcessInstance().getProcessModel().getPmId();
-      final String activity = subjectState.getCurrentState().getName();
-      final String timestamp = DateTime.now().toString("dd.MM.yyyy HH:mm");
+      final String activity = nextState.getName();
+      final DateTime now = DateTime.now();
+      final String timestamp = now.toString("dd.MM.yyyy HH:mm");
       final String resource = subjectState.getSubject().getSubjectModel().getName();
       final String state = StateFunctionType.FUNCTION.name();
       final String messageType = "";
@@ -444,24 +559,23 @@ public class StateObjectChangeTask extends AbstractTask<StateObjectChangeMessage
 
       final EventLoggerDTO event = new EventLoggerDTO(caseId, processModelId, timestamp, activity,
           resource, state, messageType, recipient, sender);
+      event.setEpochMillis(now.getMillis());
       eventLoggerSender.send(event);
     }
   }
 
 
-  private void handleAdditionalActions(final SubjectState subjectState) {
-    final State currentState = subjectState.getCurrentState();
-
+  private void handleAdditionalActions(final SubjectState subjectState,
+      final StateNode currentState) {
     if (StateFunctionType.RECEIVE.equals(currentState.getFunctionType())
-        && currentState.getTimeoutTransition().isPresent()) {
+        && currentState.hasTimeoutTransition()) {
       startTimeout(subjectState);
     }
 
     if (StateFunctionType.RECEIVE.equals(currentState.getFunctionType())
-        && currentState.getMessageFlow().stream()
-            .filter(mf -> mf.getSender().getSubjectModelType().equals(SubjectModelType.EXTERNAL))
-            .count() >= 1) {
-      notifyExternalCommunicator(subjectState);
+        && currentState.getMessageFlows().stream()
+            .anyMatch(mf -> SubjectModelType.EXTERNAL.equals(mf.getSenderType()))) {
+      notifyExternalCommunicator(subjectState, currentState);
     }
 
     if (StateFunctionType.REFINEMENT.equals(currentState.getFunctionType())) {
@@ -476,9 +590,10 @@ public class StateObjectChangeTask extends AbstractTask<StateObjectChangeMessage
         getSelf());
   }
 
-  private void notifyExternalCommunicator(final SubjectState subjectState) {
-    subjectState.getCurrentState().getMessageFlow().stream()
-        .filter(mf -> mf.getSender().getSubjectModelType().equals(SubjectModelType.EXTERNAL))
+  private void notifyExternalCommunicator(final SubjectState subjectState,
+      final StateNode currentState) {
+    currentState.getMessageFlows().stream()
+        .filter(mf -> SubjectModelType.EXTERNAL.equals(mf.getSenderType()))
         .map(mf -> getTransferId(subjectState.getProcessInstance().getPiId(),
             subjectState.getSubject().getSId(), mf.getMfId()))
         .collect(Collectors.toSet()).stream().forEachOrdered(transferId -> {
@@ -499,4 +614,16 @@ public class StateObjectChangeTask extends AbstractTask<StateObjectChangeMessage
     final String transferId = piId + "-" + sId + (mfId != null ? "-" + mfId : "");
     return transferId;
   }
+
+  /**
+   * Stage result when the external communicator acknowledged all sent messages
+   */
+  private static class ExternalMessagesSent {
+  }
+
+  /**
+   * Stage message when the external communicator did not acknowledge in time
+   */
+  private static class ExternalSentDeadline {
+  }
 }
@@ -27,24 +27,24 @@ import at.fhjoanneum.ippr.persistence.objects.engine.state.SubjectState;
 import at.fhjoanneum.ippr.persistence.objects.engine.subject.Subject;
 import at.fhjoanneum.ippr.persistence.objects.model.businessobject.BusinessObjectModel;
 import at.fhjoanneum.ippr.persistence.objects.model.businessobject.field.BusinessObjectFieldModel;
-import at.fhjoanneum.ippr.persistence.objects.model.businessobject.permission.BusinessObjectFieldPermission;
 import at.fhjoanneum.ippr.persistence.objects.model.enums.FieldPermission;
-import at.fhjoanneum.ippr.persistence.objects.model.enums.StateEventType;
 import at.fhjoanneum.ippr.persistence.objects.model.enums.StateFunctionType;
 import at.fhjoanneum.ippr.persistence.objects.model.enums.SubjectModelType;
 import at.fhjoanneum.ippr.persistence.objects.model.enums.TransitionType;
 import at.fhjoanneum.ippr.persistence.objects.model.messageflow.MessageFlow;
 import at.fhjoanneum.ippr.persistence.objects.model.process.ProcessModel;
-import at.fhjoanneum.ippr.persistence.objects.model.state.State;
 import at.fhjoanneum.ippr.persistence.objects.model.subject.SubjectModel;
-import at.fhjoanneum.ippr.persistence.objects.model.transition.Transition;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.workflow.StateObjectMessage;
 import at.fhjoanneum.ippr.processengine.akka.tasks.AbstractTask;
 import at.fhjoanneum.ippr.processengine.composer.DbValueComposer;
-import at.fhjoanneum.ippr.processengine.repositories.BusinessObjectFieldPermissionRepository;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.MessageFlowNode;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.PermissionNode;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.StateNode;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.TransitionNode;
 import at.fhjoanneum.ippr.processengine.repositories.BusinessObjectInstanceRepository;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectRepository;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectStateRepository;
+import at.fhjoanneum.ippr.processengine.services.ProcessModelGraphCache;
 
 @Component("User.StateObjectRetrieveTask")
 @Scope("prototype")
@@ -55,7 +55,7 @@ public class StateObjectRetrieveTask extends AbstractTask<StateObjectMessage.Req
   @Autowired
   private SubjectStateRepository subjectStateRepository;
   @Autowired
-  private BusinessObjectFieldPermissionRepository businessObjectFieldPermissionRepository;
+  private ProcessModelGraphCache processModelGraphCache;
   @Autowired
   private BusinessObjectInstanceRepository businessObjectInstanceRepository;
   @Autowired
@@ -161,18 +161,16 @@ public class StateObjectRetrieveTask extends AbstractTask<StateObjectMessage.Req
       final Optional<BusinessObjectInstance> businessObjectInstanceOpt) {
 
     final List<BusinessObjectFieldDTO> fields = Lists.newArrayList();
+    final StateNode state =
+        processModelGraphCache.getState(subjectState.getCurrentState().getSId());
 
     for (final BusinessObjectFieldModel businessObjectFieldModel : businessObjectModel
         .getBusinessObjectFieldModels()) {
-      final BusinessObjectFieldPermission businessObjectFieldPermission =
-          businessObjectFieldPermissionRepository.getBusinessObjectFieldPermissionInState(
-              businessObjectFieldModel.getBofmId(), subjectState.getCurrentState().getSId());
-
-      if (businessObjectFieldPermission == null) {
-        throw new IllegalStateException(
-            "Could not find permission for business object field model ["
-                + businessObjectFieldModel.getBofmId() + "]");
-      }
+      final PermissionNode businessObjectFieldPermission = state
+          .getPermission(businessObjectFieldModel.getBofmId())
+          .orElseThrow(() -> new IllegalStateException(
+              "Could not find permission for business object field model ["
+                  + businessObjectFieldModel.getBofmId() + "]"));
 
       final FieldPermission permission = businessObjectFieldPermission.getPermission();
 
@@ -241,40 +239,34 @@ public class StateObjectRetrieveTask extends AbstractTask<StateObjectMessage.Req
 
   private Set<StateDTO> getNextStates(final SubjectState subjectState) {
     Set<StateDTO> nextStates = Sets.newHashSet();
-    final State currentState = subjectState.getCurrentState();
-
-    if (filteringNeeded(subjectState)) {
-      LOG.debug("Special check is necessary to return next states for [{}] ", currentState);
-      final Set<BusinessObjectModel> retrievedBoms =
-          Sets.newHashSet(subjectState.getCurrentMessageFlow().getBusinessObjectModels());
-      final List<Set<BusinessObjectModel>> possibleRetrievedBoms =
-          subjectState.getCurrentState().getMessageFlow().stream().map(mf -> {
-            final Set<BusinessObjectModel> boms = Sets.newHashSet(mf.getBusinessObjectModels());
-            return boms;
-          }).collect(Collectors.toList());
-
-      nextStates = subjectState.getCurrentState().getToStates().stream()
+    final StateNode currentState =
+        processModelGraphCache.getState(subjectState.getCurrentState().getSId());
+
+    if (filteringNeeded(currentState)) {
+      LOG.debug("Special check is necessary to return next states for [{}] ",
+          subjectState.getCurrentState());
+      final MessageFlow currentMessageFlow = subjectState.getCurrentMessageFlow();
+      final Set<Long> retrievedBoms = Sets.newHashSet(currentState
+          .getMessageFlow(currentMessageFlow.getMfId()).map(MessageFlowNode::getBomIds)
+          .orElseGet(() -> currentMessageFlow.getBusinessObjectModels().stream()
+              .map(BusinessObjectModel::getBomId).collect(Collectors.toSet())));
+      final List<Set<Long>> possibleRetrievedBoms = currentState.getMessageFlows().stream()
+          .map(mf -> (Set<Long>) Sets.newHashSet(mf.getBomIds())).collect(Collectors.toList());
+
+      nextStates = currentState.getToStates().stream()
           .filter(transition -> checkIfIncludedForNextStates(possibleRetrievedBoms, retrievedBoms,
               transition))
-          .map(transition -> new StateDTO(transition.getToState().getSId(),
-              transition.getToState().getName(),
-              StateEventType.END.equals(transition.getToState().getEventType())))
-          .collect(Collectors.toSet());
+          .map(StateObjectRetrieveTask::toStateDTO).collect(Collectors.toSet());
 
       if (nextStates.isEmpty()) {
         LOG.warn("Could not find possible next states for [{}], add all states", subjectState);
         nextStates = currentState.getToStates().stream()
-            .map(transition -> new StateDTO(transition.getToState().getSId(),
-                transition.getToState().getName(),
-                StateEventType.END.equals(transition.getToState().getEventType())))
-            .collect(Collectors.toSet());
+            .map(StateObjectRetrieveTask::toStateDTO).collect(Collectors.toSet());
       }
     } else {
-      LOG.debug("No special check is necessary, so return all states for [{}]", currentState);
-      nextStates = currentState.getToStates().stream()
-          .map(transition -> new StateDTO(transition.getToState().getSId(),
-              transition.getToState().getName(),
-              StateEventType.END.equals(transition.getToState().getEventType())))
+      LOG.debug("No special check is necessary, so return all states for [{}]",
+          subjectState.getCurrentState());
+      nextStates = currentState.getToStates().stream().map(StateObjectRetrieveTask::toStateDTO)
           .collect(Collectors.toSet());
     }
 
@@ -282,9 +274,14 @@ public class StateObjectRetrieveTask extends AbstractTask<StateObjectMessage.Req
     return nextStates;
   }
 
-  private boolean filteringNeeded(final SubjectState subjectState) {
-    if (StateFunctionType.RECEIVE.equals(subjectState.getCurrentState().getFunctionType())
-        && subjectState.getCurrentState().getToStates().stream()
+  private static StateDTO toStateDTO(final TransitionNode transition) {
+    return new StateDTO(transition.getToStateId(), transition.getToStateName(),
+        transition.isEnd());
+  }
+
+  private boolean filteringNeeded(final StateNode currentState) {
+    if (StateFunctionType.RECEIVE.equals(currentState.getFunctionType())
+        && currentState.getToStates().stream()
             .filter(transition -> TransitionType.NORMAL.equals(transition.getTransitionType()))
             .count() >= 2) {
       return true;
@@ -292,15 +289,14 @@ public class StateObjectRetrieveTask extends AbstractTask<StateObjectMessage.Req
     return false;
   }
 
-  private boolean checkIfIncludedForNextStates(
-      final List<Set<BusinessObjectModel>> possibleRetrievedBoms,
-      final Set<BusinessObjectModel> retrievedBoms, final Transition transition) {
-    final Set<BusinessObjectModel> stateBusinessObjectModels =
-        Sets.newHashSet(transition.getToState().getBusinessObjectModels());
+  private boolean checkIfIncludedForNextStates(final List<Set<Long>> possibleRetrievedBoms,
+      final Set<Long> retrievedBoms, final TransitionNode transition) {
+    final Set<Long> stateBusinessObjectModels =
+        processModelGraphCache.getState(transition.getToStateId()).getBomIds();
     possibleRetrievedBoms.removeAll(retrievedBoms);
     if (Sets.difference(retrievedBoms, stateBusinessObjectModels).isEmpty()) {
       LOG.debug("Retrieved BOMs {} are part of {}, therefore, [{}] is part of next state",
-          retrievedBoms, stateBusinessObjectModels, transition.getToState());
+          retrievedBoms, stateBusinessObjectModels, transition.getToStateName());
       return true;
     } else if (canBeIncluded(possibleRetrievedBoms, stateBusinessObjectModels, transition)) {
       return true;
@@ -309,12 +305,12 @@ public class StateObjectRetrieveTask extends AbstractTask<StateObjectMessage.Req
     }
   }
 
-  private boolean canBeIncluded(final List<Set<BusinessObjectModel>> possibleRetrievedBoms,
-      final Set<BusinessObjectModel> stateBusinessObjectModels, final Transition transition) {
-    for (final Set<BusinessObjectModel> posBom : possibleRetrievedBoms) {
+  private boolean canBeIncluded(final List<Set<Long>> possibleRetrievedBoms,
+      final Set<Long> stateBusinessObjectModels, final TransitionNode transition) {
+    for (final Set<Long> posBom : possibleRetrievedBoms) {
       if (Sets.difference(posBom, stateBusinessObjectModels).isEmpty()) {
         LOG.debug("BOMs {} are POSSIBLE part of {}, therfore [{}] is NO part of next state", posBom,
-            stateBusinessObjectModels, transition.getToState());
+            stateBusinessObjectModels, transition.getToStateName());
         return false;
       }
     }
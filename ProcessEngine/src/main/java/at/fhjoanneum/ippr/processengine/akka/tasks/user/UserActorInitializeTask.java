@@ -19,6 +19,7 @@ import at.fhjoanneum.ippr.processengine.repositories.StateRepository;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectRepository;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectStateRepository;
 import at.fhjoanneum.ippr.processengine.services.EventLoggerSender;
+import at.fhjoanneum.ippr.processengine.services.UserInboxService;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,6 +47,8 @@ public class UserActorInitializeTask extends AbstractTask<UserActorInitializeMes
   private SubjectStateRepository subjectStateRepository;
   @Autowired
   private EventLoggerSender eventLoggerSender;
+  @Autowired
+  private UserInboxService userInboxService;
 
   public <T> UserActorInitializeTask(final TaskCallback<T> callback) {
     super(callback);
@@ -72,12 +75,14 @@ public class UserActorInitializeTask extends AbstractTask<UserActorInitializeMes
           .subject(subject).state(state).build();
 
       subjectStateRepository.save((SubjectStateImpl) subjectState);
+      userInboxService.update(subjectState);
       LOG.info("Subject is now in initial state: {}", subjectState);
       if (subjectState.getCurrentState().getFunctionType() == StateFunctionType.FUNCTION) {
         final long caseId = processInstance.getPiId();
         final long processModelId = processInstance.getProcessModel().getPmId();
         final String activity = subjectState.getCurrentState().getName();
-        final String timestamp = DateTime.now().toString("dd.MM.yyyy HH:mm");
+        final DateTime now = DateTime.now();
+        final String timestamp = now.toString("dd.MM.yyyy HH:mm");
         final String resource = subject.getSubjectModel().getName();
         final String stateType = StateFunctionType.FUNCTION.name();
         final String messageType = "";
@@ -86,6 +91,7 @@ public class UserActorInitializeTask extends AbstractTask<UserActorInitializeMes
 
         final EventLoggerDTO event = new EventLoggerDTO(caseId, processModelId, timestamp, activity,
             resource, stateType, messageType, recipient, sender);
+        event.setEpochMillis(now.getMillis());
         eventLoggerSender.send(event);
       }
     } else {
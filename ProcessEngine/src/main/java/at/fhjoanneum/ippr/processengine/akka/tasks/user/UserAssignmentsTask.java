@@ -15,6 +15,7 @@ import at.fhjoanneum.ippr.persistence.objects.engine.subject.Subject;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.workflow.AssignUsersMessage;
 import at.fhjoanneum.ippr.processengine.akka.tasks.AbstractTask;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectRepository;
+import at.fhjoanneum.ippr.processengine.services.UserInboxService;
 
 @Component("UserSupervisor.AssignUsersTask")
 @Scope("prototype")
@@ -25,6 +26,9 @@ public class UserAssignmentsTask extends AbstractTask<AssignUsersMessage.Request
   @Autowired
   private SubjectRepository subjectRepository;
 
+  @Autowired
+  private UserInboxService userInboxService;
+
   @Override
   public boolean canHandle(final Object obj) {
     return obj instanceof AssignUsersMessage.Request;
@@ -36,8 +40,12 @@ public class UserAssignmentsTask extends AbstractTask<AssignUsersMessage.Request
       final Subject subject = subjectRepository
           .getSubjectForSubjectModelInProcess(request.getPiId(), assignment.getSmId());
       if (subject != null) {
+        final Long previousUserId = subject.getUser();
         subject.setUser(assignment.getUserId());
         subjectRepository.save((SubjectImpl) subject);
+        if (subject.getSubjectState() != null) {
+          userInboxService.reassign(subject.getSubjectState(), previousUserId);
+        }
         LOG.info("New user for subject: {}", subject);
       }
     });
@@ -1,5 +1,7 @@
 package at.fhjoanneum.ippr.processengine.feign;
 
+import java.util.List;
+
 import org.springframework.cloud.netflix.feign.FeignClient;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -11,4 +13,7 @@ public interface EventLoggerFeignClient {
 
   @RequestMapping(method = RequestMethod.POST, value = "newevent")
   public String newEvent(EventLoggerDTO event);
+
+  @RequestMapping(method = RequestMethod.POST, value = "newevents")
+  public Integer newEvents(List<EventLoggerDTO> events);
 }
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
 import at.fhjoanneum.ippr.commons.dto.communicator.ExternalCommunicatorMessage;
+import at.fhjoanneum.ippr.processengine.services.ProcessModelGraphCache;
 
 @RestController
 public class ProcessEngineFeignController {
@@ -19,6 +20,9 @@ public class ProcessEngineFeignController {
   @Autowired
   private ProcessEngineFeignService processEngineFeignService;
 
+  @Autowired
+  private ProcessModelGraphCache processModelGraphCache;
+
   @RequestMapping(value = "markAsSent/{transferId}")
   public void markAsSent(@PathVariable("transferId") final String transferId) {
     processEngineFeignService.markAsSent(transferId);
@@ -29,4 +33,9 @@ public class ProcessEngineFeignController {
     LOG.debug("Received [{}]", msg);
     processEngineFeignService.storeExternalCommunicatorMessage(msg);
   }
+
+  @RequestMapping(value = "processmodel/{pmId}/evict", method = RequestMethod.POST)
+  public void evictProcessModel(@PathVariable("pmId") final Long pmId) {
+    processModelGraphCache.evict(pmId);
+  }
 }
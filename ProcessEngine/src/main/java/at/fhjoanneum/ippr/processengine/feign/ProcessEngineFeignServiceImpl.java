@@ -3,6 +3,7 @@ package at.fhjoanneum.ippr.processengine.feign;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -16,6 +17,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
@@ -41,6 +44,8 @@ import at.fhjoanneum.ippr.processengine.repositories.MessageFlowRepository;
 import at.fhjoanneum.ippr.processengine.repositories.ProcessInstanceRepository;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectRepository;
 import at.fhjoanneum.ippr.processengine.repositories.SubjectStateRepository;
+import at.fhjoanneum.ippr.processengine.services.ExternalSendAcknowledgements;
+import at.fhjoanneum.ippr.processengine.services.UserInboxService;
 
 @Service
 @Transactional(isolation = Isolation.READ_COMMITTED)
@@ -64,6 +69,10 @@ public class ProcessEngineFeignServiceImpl implements ProcessEngineFeignService
   private BusinessObjectInstanceRepository businessObjectInstanceRepository;
   @Autowired
   private BusinessObjectFieldInstanceRepository businessObjectFieldInstanceRepository;
+  @Autowired
+  private ExternalSendAcknowledgements externalSendAcknowledgements;
+  @Autowired
+  private UserInboxService userInboxService;
   @PersistenceContext
   private EntityManager entityManager;
 
@@ -77,6 +86,15 @@ public class ProcessEngineFeignServiceImpl implements ProcessEngineFeignService
     LOG.info("Marked as 'SENT' [{}]", subject.getSubjectState());
 
     subjectStateRepository.save((SubjectStateImpl) subject.getSubjectState());
+    userInboxService.update(subject.getSubjectState());
+
+    TransactionSynchronizationManager
+        .registerSynchronization(new TransactionSynchronizationAdapter() {
+          @Override
+          public void afterCommit() {
+            externalSendAcknowledgements.acknowledge(transferId);
+          }
+        });
   }
 
   @Override
@@ -103,6 +121,7 @@ public class ProcessEngineFeignServiceImpl implements ProcessEngineFeignService
     final Subject subject = subjectRepository.findOne(sId);
     subject.getSubjectState().setToReceived(messageFlow);
     subjectRepository.save((SubjectImpl) subject);
+    userInboxService.update(subject.getSubjectState());
   }
 
   private Set<BusinessObjectInstance> getBusinessObjectInstances(
@@ -163,7 +182,7 @@ public class ProcessEngineFeignServiceImpl implements ProcessEngineFeignService
   private void storeValue(final Map<String, BusinessObjectField> row,
       final BusinessObjectFieldInstance field) {
     final BusinessObjectField ecField = row.get(field.getBusinessObjectFieldModel().getFieldName());
-    if (ecField != null) {
+    if (ecField != null && !Objects.equals(ecField.getValue(), field.getValue())) {
       field.setValue(ecField.getValue());
       businessObjectFieldInstanceRepository.save((BusinessObjectFieldInstanceImpl) field);
     }
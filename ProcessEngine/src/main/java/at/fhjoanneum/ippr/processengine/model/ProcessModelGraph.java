@@ -0,0 +1,299 @@
+package at.fhjoanneum.ippr.processengine.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import at.fhjoanneum.ippr.persistence.objects.model.enums.FieldPermission;
+import at.fhjoanneum.ippr.persistence.objects.model.enums.FieldType;
+import at.fhjoanneum.ippr.persistence.objects.model.enums.StateFunctionType;
+import at.fhjoanneum.ippr.persistence.objects.model.enums.SubjectModelType;
+import at.fhjoanneum.ippr.persistence.objects.model.enums.TransitionType;
+
+/**
+ * Immutable, compiled view of a process model, which does not need a persistence context.
+ * <p>
+ * Process models cannot be changed after the import, therefore the graph can be cached as long
+ * as the process model is active.
+ */
+public final class ProcessModelGraph {
+
+  private final Long pmId;
+  private final Map<Long, StateNode> states;
+
+  public ProcessModelGraph(final Long pmId, final Map<Long, StateNode> states) {
+    this.pmId = pmId;
+    this.states = ImmutableMap.copyOf(states);
+  }
+
+  public Long getPmId() {
+    return pmId;
+  }
+
+  public Set<Long> getStateIds() {
+    return states.keySet();
+  }
+
+  public StateNode getState(final Long sId) {
+    final StateNode state = states.get(sId);
+    if (state == null) {
+      throw new IllegalArgumentException(
+          "State S_ID [" + sId + "] is not part of process model PM_ID [" + pmId + "]");
+    }
+    return state;
+  }
+
+  public static final class StateNode {
+
+    private final Long sId;
+    private final String name;
+    private final StateFunctionType functionType;
+    private final boolean end;
+    private final Set<Long> bomIds;
+    private final List<BusinessObjectNode> businessObjects;
+    private final List<FieldNode> fields;
+    private final Map<Long, PermissionNode> permissions;
+    private final List<MessageFlowNode> messageFlows;
+    private final List<TransitionNode> toStates;
+
+    public StateNode(final Long sId, final String name, final StateFunctionType functionType,
+        final boolean end, final Set<Long> bomIds, final List<BusinessObjectNode> businessObjects,
+        final Map<Long, PermissionNode> permissions, final List<MessageFlowNode> messageFlows,
+        final List<TransitionNode> toStates) {
+      this.sId = sId;
+      this.name = name;
+      this.functionType = functionType;
+      this.end = end;
+      this.bomIds = ImmutableSet.copyOf(bomIds);
+      this.businessObjects = ImmutableList.copyOf(businessObjects);
+      this.fields = ImmutableList.copyOf(businessObjects.stream()
+          .map(BusinessObjectNode::getFields).flatMap(List::stream).collect(Collectors.toList()));
+      this.permissions = ImmutableMap.copyOf(permissions);
+      this.messageFlows = ImmutableList.copyOf(messageFlows);
+      this.toStates = ImmutableList.copyOf(toStates);
+    }
+
+    public Long getSId() {
+      return sId;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public StateFunctionType getFunctionType() {
+      return functionType;
+    }
+
+    public boolean isEnd() {
+      return end;
+    }
+
+    /**
+     * @return ids of the business object models of the state, without children
+     */
+    public Set<Long> getBomIds() {
+      return bomIds;
+    }
+
+    /**
+     * @return business object models of the state, including children
+     */
+    public List<BusinessObjectNode> getBusinessObjects() {
+      return businessObjects;
+    }
+
+    /**
+     * @return fields of all business object models of the state, including children
+     */
+    public List<FieldNode> getFields() {
+      return fields;
+    }
+
+    public Optional<PermissionNode> getPermission(final Long bofmId) {
+      return Optional.ofNullable(permissions.get(bofmId));
+    }
+
+    public List<MessageFlowNode> getMessageFlows() {
+      return messageFlows;
+    }
+
+    public Optional<MessageFlowNode> getMessageFlow(final Long mfId) {
+      return messageFlows.stream().filter(mf -> mf.getMfId().equals(mfId)).findFirst();
+    }
+
+    public List<TransitionNode> getToStates() {
+      return toStates;
+    }
+
+    public boolean hasTimeoutTransition() {
+      return toStates.stream()
+          .anyMatch(transition -> TransitionType.AUTO_TIMEOUT.equals(transition.getTransitionType()));
+    }
+  }
+
+  public static final class BusinessObjectNode {
+
+    private final Long bomId;
+    private final String name;
+    private final List<FieldNode> fields;
+
+    public BusinessObjectNode(final Long bomId, final String name, final List<FieldNode> fields) {
+      this.bomId = bomId;
+      this.name = name;
+      this.fields = ImmutableList.copyOf(fields);
+    }
+
+    public Long getBomId() {
+      return bomId;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * @return fields of the business object model, without children
+     */
+    public List<FieldNode> getFields() {
+      return fields;
+    }
+  }
+
+  public static final class FieldNode {
+
+    private final Long bofmId;
+    private final String fieldName;
+    private final FieldType fieldType;
+
+    public FieldNode(final Long bofmId, final String fieldName, final FieldType fieldType) {
+      this.bofmId = bofmId;
+      this.fieldName = fieldName;
+      this.fieldType = fieldType;
+    }
+
+    public Long getBofmId() {
+      return bofmId;
+    }
+
+    public String getFieldName() {
+      return fieldName;
+    }
+
+    public FieldType getFieldType() {
+      return fieldType;
+    }
+  }
+
+  public static final class PermissionNode {
+
+    private final FieldPermission permission;
+    private final boolean mandatory;
+
+    public PermissionNode(final FieldPermission permission, final boolean mandatory) {
+      this.permission = permission;
+      this.mandatory = mandatory;
+    }
+
+    public FieldPermission getPermission() {
+      return permission;
+    }
+
+    public boolean isMandatory() {
+      return mandatory;
+    }
+  }
+
+  public static final class MessageFlowNode {
+
+    private final Long mfId;
+    private final Long receiverSmId;
+    private final String receiverName;
+    private final SubjectModelType receiverType;
+    private final SubjectModelType senderType;
+    private final List<BusinessObjectNode> businessObjects;
+    private final Set<Long> bomIds;
+
+    public MessageFlowNode(final Long mfId, final Long receiverSmId, final String receiverName,
+        final SubjectModelType receiverType, final SubjectModelType senderType,
+        final List<BusinessObjectNode> businessObjects) {
+      this.mfId = mfId;
+      this.receiverSmId = receiverSmId;
+      this.receiverName = receiverName;
+      this.receiverType = receiverType;
+      this.senderType = senderType;
+      this.businessObjects = ImmutableList.copyOf(businessObjects);
+      this.bomIds = ImmutableSet.copyOf(businessObjects.stream().map(BusinessObjectNode::getBomId)
+          .collect(Collectors.toList()));
+    }
+
+    public Long getMfId() {
+      return mfId;
+    }
+
+    public Long getReceiverSmId() {
+      return receiverSmId;
+    }
+
+    public String getReceiverName() {
+      return receiverName;
+    }
+
+    public SubjectModelType getReceiverType() {
+      return receiverType;
+    }
+
+    public SubjectModelType getSenderType() {
+      return senderType;
+    }
+
+    /**
+     * @return business object models of the message in the order of the model
+     */
+    public List<BusinessObjectNode> getBusinessObjects() {
+      return businessObjects;
+    }
+
+    public Set<Long> getBomIds() {
+      return bomIds;
+    }
+  }
+
+  public static final class TransitionNode {
+
+    private final Long toStateId;
+    private final String toStateName;
+    private final boolean end;
+    private final TransitionType transitionType;
+
+    public TransitionNode(final Long toStateId, final String toStateName, final boolean end,
+        final TransitionType transitionType) {
+      this.toStateId = toStateId;
+      this.toStateName = toStateName;
+      this.end = end;
+      this.transitionType = transitionType;
+    }
+
+    public Long getToStateId() {
+      return toStateId;
+    }
+
+    public String getToStateName() {
+      return toStateName;
+    }
+
+    public boolean isEnd() {
+      return end;
+    }
+
+    public TransitionType getTransitionType() {
+      return transitionType;
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package at.fhjoanneum.ippr.processengine.model;
+
+import java.time.LocalDateTime;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Timeout of a subject state which is due at the persisted TIMEOUT_DUE_AT
+ */
+public final class ScheduledTimeout {
+
+  private final Long ssId;
+  private final Long userId;
+  private final LocalDateTime dueAt;
+
+  public ScheduledTimeout(final Long ssId, final Long userId, final LocalDateTime dueAt) {
+    this.ssId = ssId;
+    this.userId = userId;
+    this.dueAt = dueAt;
+  }
+
+  public Long getSsId() {
+    return ssId;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public LocalDateTime getDueAt() {
+    return dueAt;
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("ssId", ssId)
+        .append("userId", userId).append("dueAt", dueAt).toString();
+  }
+}
@@ -1,5 +1,7 @@
 package at.fhjoanneum.ippr.processengine.repositories;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,4 +19,10 @@ public interface BusinessObjectFieldInstanceRepository
   BusinessObjectFieldInstanceImpl getBusinessObjectFieldInstanceForModelInProcess(
       @Param("piId") Long piId, @Param("bofmId") Long bofmId);
 
+  @Query(value = "SELECT bofi.* FROM BUSINESS_OBJECT_FIELD_INSTANCE bofi "
+      + "JOIN BUSINESS_OBJECT_INSTANCE boi ON boi.boi_id = bofi.boi_id "
+      + "WHERE boi.pi_id = :piId", nativeQuery = true)
+  List<BusinessObjectFieldInstanceImpl> getBusinessObjectFieldInstancesOfProcess(
+      @Param("piId") Long piId);
+
 }
@@ -1,5 +1,7 @@
 package at.fhjoanneum.ippr.processengine.repositories;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -16,4 +18,10 @@ public interface BusinessObjectFieldPermissionRepository
       nativeQuery = true)
   BusinessObjectFieldPermissionImpl getBusinessObjectFieldPermissionInState(
       @Param("bofmId") Long bofmId, @Param("sId") Long sId);
+
+  @Query(value = "SELECT bofp.* FROM BUSINESS_OBJECT_FIELD_PERMISSION bofp "
+      + "JOIN STATE s ON s.s_id = bofp.s_id JOIN SUBJECT_MODEL sm ON sm.sm_id = s.sm_id "
+      + "WHERE sm.pm_id = :pmId", nativeQuery = true)
+  List<BusinessObjectFieldPermissionImpl> getBusinessObjectFieldPermissionsOfProcessModel(
+      @Param("pmId") Long pmId);
 }
@@ -1,10 +1,40 @@
 package at.fhjoanneum.ippr.processengine.repositories;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import at.fhjoanneum.ippr.commons.dto.processengine.TaskDTO;
+import at.fhjoanneum.ippr.processengine.model.ScheduledTimeout;
 
 public interface CustomTypesQueriesRepository {
 
   List<TaskDTO> getTasksOfUser(Long userId);
+
+  /**
+   * Rebuilds the USER_TASK table from the current subject states
+   *
+   * @return amount of user tasks
+   */
+  int rebuildUserTasks();
+
+  /**
+   * @return the next page of IDs of active process instances, ordered by PI_ID
+   */
+  List<Long> getActiveProcessIds(Long afterPiId, int limit);
+
+  List<Long> getUsersOfProcesses(List<Long> piIds);
+
+  /**
+   * @param from inclusive lower bound of the due time, or null to include overdue timeouts
+   * @param until exclusive upper bound of the due time
+   */
+  List<ScheduledTimeout> getTimeoutsDue(LocalDateTime from, LocalDateTime until);
+
+  /**
+   * Sets TIMEOUT_DUE_AT of subject states whose timeout was started with a TIMEOUT_ACTOR, from
+   * their last change and the timeout of their current state, and clears TIMEOUT_ACTOR afterwards
+   *
+   * @return the migrated timeouts, empty if the column does not exist anymore
+   */
+  List<ScheduledTimeout> migrateTimeoutActors();
 }
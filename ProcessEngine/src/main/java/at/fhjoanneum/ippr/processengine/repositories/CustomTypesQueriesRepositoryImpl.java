@@ -1,17 +1,24 @@
 package at.fhjoanneum.ippr.processengine.repositories;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Repository;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import at.fhjoanneum.ippr.commons.dto.processengine.TaskDTO;
+import at.fhjoanneum.ippr.processengine.model.ScheduledTimeout;
+import at.fhjoanneum.ippr.processengine.repositories.mapper.ScheduledTimeoutMapper;
 import at.fhjoanneum.ippr.processengine.repositories.mapper.TaskDTOMapper;
 
 @Repository
@@ -34,6 +41,56 @@ public class CustomTypesQueriesRepositoryImpl implements CustomTypesQueriesRepos
             + "   OR (state.function_type = 'SEND' AND ss.sub_state = 'TO_SEND')                                             "
             + "   OR (state.function_type = 'RECEIVE' AND ss.sub_state = 'RECEIVED'))                                        "
             + "   ORDER BY ss.last_changed ASC                                                                               ";
+
+    public static String DELETE_USER_TASKS = "DELETE FROM USER_TASK";
+
+    public static String REBUILD_USER_TASKS =
+        " INSERT INTO USER_TASK (ss_id, user_id, pi_id, process_name, state_name, function_type, last_changed)      "
+            + " SELECT ss.ss_id, s.user_id, pi.pi_id, pm.name, state.name, state.function_type, ss.last_changed          "
+            + "   FROM SUBJECT_STATE ss                                                                                      "
+            + "   JOIN STATE state ON state.s_id = ss.current_state                                                          "
+            + "   JOIN PROCESS_SUBJECT_INSTANCE_MAP psim ON psim.s_id = ss.s_id                                              "
+            + "   JOIN PROCESS_INSTANCE pi ON pi.pi_id = psim.pi_id                                                          "
+            + "   JOIN SUBJECT s ON s.s_id = ss.s_id                                                                         "
+            + "   JOIN PROCESS_MODEL pm ON pm.pm_id = pi.pm_id                                                               "
+            + "   WHERE s.user_id IS NOT NULL                                                                                "
+            + "   AND pi.state = 'ACTIVE' AND IFNULL(state.EVENT_TYPE, '') NOT LIKE 'END'                                    "
+            + "   AND (state.function_type IN ('FUNCTION')                                                                   "
+            + "   OR (state.function_type = 'SEND' AND ss.sub_state = 'TO_SEND')                                             "
+            + "   OR (state.function_type = 'RECEIVE' AND ss.sub_state = 'RECEIVED'))                                        ";
+
+    public static String ACTIVE_PROCESS_IDS_QUERY =
+        " SELECT pi.pi_id FROM PROCESS_INSTANCE pi WHERE pi.state = 'ACTIVE' AND pi.pi_id > :afterPiId             "
+            + "   ORDER BY pi.pi_id ASC LIMIT :limit                                                                         ";
+
+    public static String USERS_OF_PROCESSES_QUERY =
+        " SELECT DISTINCT s.user_id FROM PROCESS_SUBJECT_INSTANCE_MAP psim                                           "
+            + "   JOIN SUBJECT s ON s.s_id = psim.s_id                                                                       "
+            + "   WHERE psim.pi_id IN (:piIds) AND s.user_id IS NOT NULL                                                     ";
+
+    public static String TIMEOUTS_DUE_QUERY =
+        " SELECT ss.ss_id, s.user_id, ss.timeout_due_at FROM SUBJECT_STATE ss                                        "
+            + "   JOIN SUBJECT s ON s.s_id = ss.s_id                                                                         "
+            + "   WHERE ss.timeout_due_at < :until AND (:from IS NULL OR ss.timeout_due_at >= :from)                         ";
+
+    public static String TIMEOUT_ACTOR_COLUMN_QUERY =
+        " SELECT COUNT(*) FROM information_schema.columns                                                            "
+            + "   WHERE table_schema = DATABASE() AND UPPER(table_name) = 'SUBJECT_STATE'                                    "
+            + "   AND UPPER(column_name) = 'TIMEOUT_ACTOR'                                                                   ";
+
+    public static String TIMEOUT_ACTOR_TIMEOUTS_QUERY =
+        " SELECT ss.ss_id, s.user_id, DATE_ADD(ss.last_changed, INTERVAL MIN(t.timeout) MINUTE) timeout_due_at       "
+            + "   FROM SUBJECT_STATE ss                                                                                      "
+            + "   JOIN SUBJECT s ON s.s_id = ss.s_id                                                                         "
+            + "   JOIN TRANSITION t ON t.from_state = ss.current_state AND t.transition_type = 'AUTO_TIMEOUT'                "
+            + "   WHERE ss.timeout_actor IS NOT NULL AND ss.timeout_due_at IS NULL                                           "
+            + "   GROUP BY ss.ss_id, s.user_id, ss.last_changed                                                              ";
+
+    public static String UPDATE_TIMEOUT_DUE_AT =
+        "UPDATE SUBJECT_STATE SET timeout_due_at = :dueAt, timeout_actor = NULL WHERE ss_id = :ssId";
+
+    public static String CLEAR_TIMEOUT_ACTORS =
+        "UPDATE SUBJECT_STATE SET timeout_actor = NULL WHERE timeout_actor IS NOT NULL";
   }
 
 
@@ -49,4 +106,59 @@ public class CustomTypesQueriesRepositoryImpl implements CustomTypesQueriesRepos
         entityManager.query(Queries.TASK_QUERY, params, new TaskDTOMapper());
     return tasks;
   }
+
+  @Override
+  public List<Long> getActiveProcessIds(final Long afterPiId, final int limit) {
+    final Map<String, Object> params = Maps.newHashMap();
+    params.put("afterPiId", afterPiId);
+    params.put("limit", limit);
+
+    return entityManager.queryForList(Queries.ACTIVE_PROCESS_IDS_QUERY, params, Long.class);
+  }
+
+  @Override
+  public List<Long> getUsersOfProcesses(final List<Long> piIds) {
+    final Map<String, Object> params = Maps.newHashMap();
+    params.put("piIds", piIds);
+
+    return entityManager.queryForList(Queries.USERS_OF_PROCESSES_QUERY, params, Long.class);
+  }
+
+  @Override
+  public List<ScheduledTimeout> getTimeoutsDue(final LocalDateTime from,
+      final LocalDateTime until) {
+    final Map<String, Object> params = Maps.newHashMap();
+    params.put("from", from != null ? Timestamp.valueOf(from) : null);
+    params.put("until", Timestamp.valueOf(until));
+
+    return entityManager.query(Queries.TIMEOUTS_DUE_QUERY, params, new ScheduledTimeoutMapper());
+  }
+
+  @Override
+  public List<ScheduledTimeout> migrateTimeoutActors() {
+    final Integer columns = entityManager.queryForObject(Queries.TIMEOUT_ACTOR_COLUMN_QUERY,
+        Maps.newHashMap(), Integer.class);
+    if (columns == null || columns.intValue() == 0) {
+      return Lists.newArrayList();
+    }
+
+    final List<ScheduledTimeout> timeouts = entityManager.query(
+        Queries.TIMEOUT_ACTOR_TIMEOUTS_QUERY, Maps.newHashMap(), new ScheduledTimeoutMapper());
+    final SqlParameterSource[] params = timeouts.stream()
+        .map(timeout -> new MapSqlParameterSource().addValue("ssId", timeout.getSsId())
+            .addValue("dueAt", Timestamp.valueOf(timeout.getDueAt())))
+        .toArray(SqlParameterSource[]::new);
+    entityManager.batchUpdate(Queries.UPDATE_TIMEOUT_DUE_AT, params);
+
+    // the column is dropped by Setup/migrations, a cleared actor is never migrated again
+    entityManager.update(Queries.CLEAR_TIMEOUT_ACTORS, Maps.newHashMap());
+    LOG.info("Migrated [{}] timeouts from TIMEOUT_ACTOR to TIMEOUT_DUE_AT", timeouts.size());
+    return timeouts;
+  }
+
+  @Override
+  public int rebuildUserTasks() {
+    entityManager.update(Queries.DELETE_USER_TASKS, Maps.newHashMap());
+    return entityManager.update(Queries.REBUILD_USER_TASKS, Maps.newHashMap());
+  }
 }
@@ -7,7 +7,6 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
 import at.fhjoanneum.ippr.persistence.entities.engine.state.SubjectStateImpl;
-import at.fhjoanneum.ippr.persistence.objects.engine.state.SubjectState;
 
 public interface SubjectStateRepository extends CrudRepository<SubjectStateImpl, Long> {
 
@@ -26,8 +25,4 @@ public interface SubjectStateRepository extends CrudRepository<SubjectStateImpl,
       nativeQuery = true)
   SubjectStateImpl getToReceiveSubjectStateOfUser(@Param("piId") Long piId,
       @Param("userId") Long userId);
-
-  @Query(value = "SELECT ss FROM SUBJECT_STATE ss WHERE ss.timeoutActor IS NOT NULL",
-      nativeQuery = false)
-  List<SubjectState> getSubjectStatesWithTimeout();
 }
@@ -0,0 +1,30 @@
+package at.fhjoanneum.ippr.processengine.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import at.fhjoanneum.ippr.persistence.entities.engine.task.UserTaskImpl;
+
+@Repository
+public interface UserTaskRepository extends CrudRepository<UserTaskImpl, Long> {
+
+  @Query(value = "SELECT * FROM USER_TASK WHERE user_id = :userId ORDER BY last_changed ASC",
+      nativeQuery = true)
+  List<UserTaskImpl> getUserTasksOfUser(@Param("userId") Long userId);
+
+  @Query(value = "SELECT * FROM USER_TASK WHERE pi_id = :piId", nativeQuery = true)
+  List<UserTaskImpl> getUserTasksOfProcess(@Param("piId") Long piId);
+
+  @Modifying
+  @Query(value = "DELETE FROM USER_TASK WHERE ss_id = :ssId", nativeQuery = true)
+  int deleteUserTask(@Param("ssId") Long ssId);
+
+  @Modifying
+  @Query(value = "DELETE FROM USER_TASK WHERE pi_id = :piId", nativeQuery = true)
+  int deleteUserTasksOfProcess(@Param("piId") Long piId);
+}
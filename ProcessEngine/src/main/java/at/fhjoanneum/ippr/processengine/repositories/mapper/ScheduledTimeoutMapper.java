@@ -0,0 +1,21 @@
+package at.fhjoanneum.ippr.processengine.repositories.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import at.fhjoanneum.ippr.processengine.model.ScheduledTimeout;
+
+public class ScheduledTimeoutMapper implements RowMapper<ScheduledTimeout> {
+
+  @Override
+  public ScheduledTimeout mapRow(final ResultSet rs, final int rowNum) throws SQLException {
+    final Long ssId = rs.getLong("ss_id");
+    final Long userId = rs.getLong("user_id");
+    final LocalDateTime dueAt = rs.getTimestamp("timeout_due_at").toLocalDateTime();
+    return new ScheduledTimeout(ssId, userId, dueAt);
+  }
+
+}
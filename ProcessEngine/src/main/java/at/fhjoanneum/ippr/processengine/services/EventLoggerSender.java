@@ -4,5 +4,8 @@ import at.fhjoanneum.ippr.commons.dto.eventlogger.EventLoggerDTO;
 
 public interface EventLoggerSender {
 
-  public String send(EventLoggerDTO event);
+  /**
+   * Queues the event, which is sent after the commit of the current transaction
+   */
+  public void send(EventLoggerDTO event);
 }
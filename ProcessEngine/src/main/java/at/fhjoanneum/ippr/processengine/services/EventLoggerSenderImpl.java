@@ -1,27 +1,287 @@
 package at.fhjoanneum.ippr.processengine.services;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
 
 import at.fhjoanneum.ippr.commons.dto.eventlogger.EventLoggerDTO;
 import at.fhjoanneum.ippr.processengine.feign.EventLoggerFeignClient;
 
+/**
+ * Sends the events asynchronously in batches to the event logger.
+ * <p>
+ * Events are queued after the commit of the current transaction and flushed by a single thread as
+ * soon as <code>event.logger.batch-size</code> events are queued or
+ * <code>event.logger.flush-interval</code> ms have passed. If the queue is full or the event logger
+ * is not available, events are appended to a local spill file, which is replayed as soon as the
+ * event logger accepts events again.
+ */
 @Service
-public class EventLoggerSenderImpl implements EventLoggerSender {
+public class EventLoggerSenderImpl implements EventLoggerSender, PublicMetrics {
+
+  private final static Logger LOG = LoggerFactory.getLogger(EventLoggerSenderImpl.class);
 
   @Value("${event.logger.send}")
   private boolean sendEventLog;
 
+  @Value("${event.logger.queue-size:10000}")
+  private int queueSize;
+
+  @Value("${event.logger.batch-size:100}")
+  private int batchSize;
+
+  @Value("${event.logger.flush-interval:1000}")
+  private long flushInterval;
+
+  @Value("${event.logger.spill-file:event_logger_spill.ndjson}")
+  private String spillFileName;
+
+  @Value("${event.logger.replay-interval:30000}")
+  private long replayInterval;
+
   @Autowired
   private EventLoggerFeignClient client;
 
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong spilled = new AtomicLong();
+  private final AtomicLong replayed = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+
+  private BlockingQueue<EventLoggerDTO> queue;
+  private Path spillFile;
+  private Path replayFile;
+  private Thread flusher;
+  private volatile boolean running;
+  private long nextReplay;
+
+  @PostConstruct
+  public void start() {
+    if (!sendEventLog) {
+      return;
+    }
+    queue = new ArrayBlockingQueue<>(queueSize);
+    spillFile = Paths.get(spillFileName);
+    replayFile = Paths.get(spillFileName + ".replay");
+
+    running = true;
+    flusher = new Thread(this::flushLoop, "event-logger-sender");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    if (flusher != null) {
+      running = false;
+      flusher.interrupt();
+      flusher.join();
+    }
+  }
+
   @Override
-  public String send(final EventLoggerDTO event) {
-    if (sendEventLog) {
-      return client.newEvent(event);
+  public void send(final EventLoggerDTO event) {
+    if (!sendEventLog) {
+      return;
+    }
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager
+          .registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+              enqueue(event);
+            }
+          });
+    } else {
+      enqueue(event);
+    }
+  }
+
+  private void enqueue(final EventLoggerDTO event) {
+    if (!queue.offer(event)) {
+      spill(Collections.singletonList(event));
+    }
+  }
+
+  private void flushLoop() {
+    final List<EventLoggerDTO> batch = Lists.newArrayListWithCapacity(batchSize);
+    while (running) {
+      try {
+        collect(batch);
+      } catch (final InterruptedException e) {
+        break;
+      }
+
+      if (batch.isEmpty()) {
+        if (System.currentTimeMillis() >= nextReplay) {
+          replay();
+        }
+      } else {
+        flush(batch);
+        batch.clear();
+      }
+    }
+
+    // shutdown, events which cannot be sent anymore are spilled
+    queue.drainTo(batch);
+    if (!batch.isEmpty()) {
+      flush(batch);
+    }
+  }
+
+  private void collect(final List<EventLoggerDTO> batch) throws InterruptedException {
+    final EventLoggerDTO first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+    if (first == null) {
+      return;
+    }
+    batch.add(first);
+
+    final long deadline = System.currentTimeMillis() + flushInterval;
+    while (batch.size() < batchSize) {
+      queue.drainTo(batch, batchSize - batch.size());
+      final long remaining = deadline - System.currentTimeMillis();
+      if (batch.size() >= batchSize || remaining <= 0) {
+        return;
+      }
+      final EventLoggerDTO next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+      if (next == null) {
+        return;
+      }
+      batch.add(next);
     }
-    return null;
   }
 
+  private void flush(final List<EventLoggerDTO> batch) {
+    if (post(batch)) {
+      sent.addAndGet(batch.size());
+      replay();
+    } else {
+      spill(batch);
+    }
+  }
+
+  private boolean post(final List<EventLoggerDTO> batch) {
+    try {
+      client.newEvents(batch);
+      return true;
+    } catch (final RuntimeException e) {
+      LOG.warn("Could not send [{}] events to event logger: {}", batch.size(), e.getMessage());
+      return false;
+    }
+  }
+
+  private synchronized void spill(final Collection<EventLoggerDTO> events) {
+    try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+      for (final EventLoggerDTO event : events) {
+        writer.write(objectMapper.writeValueAsString(event));
+        writer.newLine();
+      }
+      spilled.addAndGet(events.size());
+    } catch (final IOException e) {
+      dropped.addAndGet(events.size());
+      LOG.error("Could not spill [{}] events, therefore they are dropped: {}", events.size(),
+          e.getMessage());
+    }
+  }
+
+  /**
+   * Sends the spilled events, the part which cannot be sent is spilled again
+   */
+  private void replay() {
+    try {
+      synchronized (this) {
+        // a replay file is left over if the engine stopped during the last replay
+        if (!Files.exists(replayFile)) {
+          if (!Files.exists(spillFile)) {
+            return;
+          }
+          Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+        }
+      }
+
+      boolean available = true;
+      final List<EventLoggerDTO> batch = Lists.newArrayListWithCapacity(batchSize);
+      try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (line.isEmpty()) {
+            continue;
+          }
+          try {
+            batch.add(objectMapper.readValue(line, EventLoggerDTO.class));
+          } catch (final JsonProcessingException e) {
+            dropped.incrementAndGet();
+            LOG.warn("Dropped corrupt spilled event [{}]", line);
+          }
+          if (batch.size() == batchSize) {
+            available = replay(batch, available);
+          }
+        }
+        if (!batch.isEmpty()) {
+          available = replay(batch, available);
+        }
+      }
+      Files.delete(replayFile);
+      if (!available) {
+        nextReplay = System.currentTimeMillis() + replayInterval;
+      }
+    } catch (final IOException e) {
+      LOG.error("Could not replay spilled events: {}", e.getMessage());
+    }
+  }
+
+  private boolean replay(final List<EventLoggerDTO> batch, final boolean available) {
+    final boolean posted = available && post(batch);
+    if (posted) {
+      replayed.addAndGet(batch.size());
+    } else {
+      spill(batch);
+    }
+    batch.clear();
+    return posted;
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    return Lists.newArrayList(
+        new Metric<>("eventlogger.queue.depth", queue != null ? queue.size() : 0),
+        new Metric<>("eventlogger.sent", sent.get()),
+        new Metric<>("eventlogger.spilled", spilled.get()),
+        new Metric<>("eventlogger.replayed", replayed.get()),
+        new Metric<>("eventlogger.dropped", dropped.get()));
+  }
 }
@@ -0,0 +1,19 @@
+package at.fhjoanneum.ippr.processengine.services;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Correlates messages sent to the external communicator with their 'marked as sent'
+ * acknowledgement by transferId
+ */
+public interface ExternalSendAcknowledgements {
+
+  /**
+   * @return future which is completed as soon as the transferId is acknowledged
+   */
+  public CompletableFuture<Void> expect(String transferId);
+
+  public void acknowledge(String transferId);
+
+  public void discard(String transferId);
+}
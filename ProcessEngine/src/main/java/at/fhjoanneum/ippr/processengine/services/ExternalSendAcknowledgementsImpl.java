@@ -0,0 +1,44 @@
+package at.fhjoanneum.ippr.processengine.services;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Pending acknowledgements are only held in memory of this instance. An acknowledgement which is
+ * received by another instance or after a restart is lost, so the waiting task has to check the
+ * persisted sub state when its deadline is reached.
+ */
+@Service
+public class ExternalSendAcknowledgementsImpl implements ExternalSendAcknowledgements {
+
+  private final static Logger LOG = LoggerFactory.getLogger(ExternalSendAcknowledgementsImpl.class);
+
+  private final ConcurrentMap<String, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+
+  @Override
+  public CompletableFuture<Void> expect(final String transferId) {
+    return pending.computeIfAbsent(transferId, id -> new CompletableFuture<>());
+  }
+
+  @Override
+  public void acknowledge(final String transferId) {
+    final Optional<CompletableFuture<Void>> future = Optional.ofNullable(pending.remove(transferId));
+    if (future.isPresent()) {
+      future.get().complete(null);
+      LOG.debug("Acknowledged transferId [{}]", transferId);
+    } else {
+      LOG.warn("No pending send for transferId [{}]", transferId);
+    }
+  }
+
+  @Override
+  public void discard(final String transferId) {
+    pending.remove(transferId);
+  }
+}
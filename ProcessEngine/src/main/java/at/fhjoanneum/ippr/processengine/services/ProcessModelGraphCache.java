@@ -0,0 +1,12 @@
+package at.fhjoanneum.ippr.processengine.services;
+
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph;
+
+public interface ProcessModelGraphCache {
+
+  public ProcessModelGraph getProcessModelGraph(Long pmId);
+
+  public ProcessModelGraph.StateNode getState(Long sId);
+
+  public void evict(Long pmId);
+}
@@ -0,0 +1,57 @@
+package at.fhjoanneum.ippr.processengine.services;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.StateNode;
+
+@Service
+public class ProcessModelGraphCacheImpl implements ProcessModelGraphCache {
+
+  private final static Logger LOG = LoggerFactory.getLogger(ProcessModelGraphCacheImpl.class);
+
+  @Autowired
+  private ProcessModelGraphCompiler processModelGraphCompiler;
+
+  private final ConcurrentMap<Long, ProcessModelGraph> graphs = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, Long> processModelOfState = new ConcurrentHashMap<>();
+
+  @Override
+  public ProcessModelGraph getProcessModelGraph(final Long pmId) {
+    final ProcessModelGraph graph = graphs.get(pmId);
+    if (graph != null) {
+      return graph;
+    }
+
+    // compiled outside of the map, a concurrent compilation of the same model only wastes work
+    final ProcessModelGraph compiled = processModelGraphCompiler.compile(pmId);
+    final ProcessModelGraph existing = graphs.putIfAbsent(pmId, compiled);
+    return existing != null ? existing : compiled;
+  }
+
+  @Override
+  public StateNode getState(final Long sId) {
+    Long pmId = processModelOfState.get(sId);
+    if (pmId == null) {
+      pmId = processModelGraphCompiler.getProcessModelOfState(sId);
+      processModelOfState.putIfAbsent(sId, pmId);
+    }
+    return getProcessModelGraph(pmId).getState(sId);
+  }
+
+  @Override
+  public void evict(final Long pmId) {
+    final Optional<ProcessModelGraph> graph = Optional.ofNullable(graphs.remove(pmId));
+    if (graph.isPresent()) {
+      graph.get().getStateIds().forEach(processModelOfState::remove);
+      LOG.info("Evicted graph of process model PM_ID [{}]", pmId);
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package at.fhjoanneum.ippr.processengine.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.google.common.collect.Maps;
+
+import at.fhjoanneum.ippr.persistence.entities.model.businessobject.permission.BusinessObjectFieldPermissionImpl;
+import at.fhjoanneum.ippr.persistence.objects.model.businessobject.BusinessObjectModel;
+import at.fhjoanneum.ippr.persistence.objects.model.businessobject.permission.BusinessObjectFieldPermission;
+import at.fhjoanneum.ippr.persistence.objects.model.enums.StateEventType;
+import at.fhjoanneum.ippr.persistence.objects.model.messageflow.MessageFlow;
+import at.fhjoanneum.ippr.persistence.objects.model.process.ProcessModel;
+import at.fhjoanneum.ippr.persistence.objects.model.state.State;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.BusinessObjectNode;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.FieldNode;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.MessageFlowNode;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.PermissionNode;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.StateNode;
+import at.fhjoanneum.ippr.processengine.model.ProcessModelGraph.TransitionNode;
+import at.fhjoanneum.ippr.processengine.repositories.BusinessObjectFieldPermissionRepository;
+import at.fhjoanneum.ippr.processengine.repositories.ProcessModelRepository;
+import at.fhjoanneum.ippr.processengine.repositories.StateRepository;
+
+/**
+ * Reads a process model and compiles it to a {@link ProcessModelGraph}.
+ * <p>
+ * Separate bean of {@link ProcessModelGraphCacheImpl}, so that the lazy associations are loaded in
+ * a read-only transaction of the proxy.
+ */
+@Component
+@Transactional(readOnly = true)
+public class ProcessModelGraphCompiler {
+
+  private final static Logger LOG = LoggerFactory.getLogger(ProcessModelGraphCompiler.class);
+
+  @Autowired
+  private ProcessModelRepository processModelRepository;
+  @Autowired
+  private StateRepository stateRepository;
+  @Autowired
+  private BusinessObjectFieldPermissionRepository businessObjectFieldPermissionRepository;
+
+  public Long getProcessModelOfState(final Long sId) {
+    return Optional.ofNullable(stateRepository.findOne(sId))
+        .orElseThrow(() -> new IllegalArgumentException("Could not find state S_ID [" + sId + "]"))
+        .getSubjectModel().getProcessModel().getPmId();
+  }
+
+  public ProcessModelGraph compile(final Long pmId) {
+    final ProcessModel processModel = Optional.ofNullable(processModelRepository.findOne(pmId))
+        .orElseThrow(() -> new IllegalArgumentException(
+            "Could not find process model PM_ID [" + pmId + "]"));
+
+    final Map<Long, Map<Long, PermissionNode>> permissions = Maps.newHashMap();
+    for (final BusinessObjectFieldPermissionImpl permission : businessObjectFieldPermissionRepository
+        .getBusinessObjectFieldPermissionsOfProcessModel(pmId)) {
+      permissions.computeIfAbsent(permission.getState().getSId(), sId -> Maps.newHashMap())
+          .put(permission.getBusinessObjectFieldModel().getBofmId(), toPermissionNode(permission));
+    }
+
+    final Map<Long, StateNode> states = Maps.newHashMap();
+    processModel.getSubjectModels().stream().flatMap(sm -> sm.getStates().stream())
+        .forEach(state -> states.put(state.getSId(),
+            toStateNode(state, permissions.getOrDefault(state.getSId(), Maps.newHashMap()))));
+
+    LOG.info("Compiled graph of process model PM_ID [{}] with [{}] states", pmId, states.size());
+    return new ProcessModelGraph(pmId, states);
+  }
+
+  private static StateNode toStateNode(final State state,
+      final Map<Long, PermissionNode> permissions) {
+    final Set<Long> bomIds = state.getBusinessObjectModels().stream()
+        .map(BusinessObjectModel::getBomId).collect(Collectors.toSet());
+
+    final List<BusinessObjectNode> businessObjects = state.getBusinessObjectModels().stream()
+        .map(BusinessObjectModel::flattened).flatMap(List::stream)
+        .map(ProcessModelGraphCompiler::toBusinessObjectNode).collect(Collectors.toList());
+
+    final List<MessageFlowNode> messageFlows =
+        state.getMessageFlow().stream().map(ProcessModelGraphCompiler::toMessageFlowNode)
+            .collect(Collectors.toList());
+
+    final List<TransitionNode> toStates = state.getToStates().stream()
+        .map(transition -> new TransitionNode(transition.getToState().getSId(),
+            transition.getToState().getName(),
+            StateEventType.END.equals(transition.getToState().getEventType()),
+            transition.getTransitionType()))
+        .collect(Collectors.toList());
+
+    return new StateNode(state.getSId(), state.getName(), state.getFunctionType(),
+        StateEventType.END.equals(state.getEventType()), bomIds, businessObjects, permissions,
+        messageFlows, toStates);
+  }
+
+  private static BusinessObjectNode toBusinessObjectNode(final BusinessObjectModel model) {
+    return new BusinessObjectNode(model.getBomId(), model.getName(),
+        model.getBusinessObjectFieldModels().stream()
+            .map(field -> new FieldNode(field.getBofmId(), field.getFieldName(),
+                field.getFieldType()))
+            .collect(Collectors.toList()));
+  }
+
+  private static MessageFlowNode toMessageFlowNode(final MessageFlow messageFlow) {
+    return new MessageFlowNode(messageFlow.getMfId(), messageFlow.getReceiver().getSmId(),
+        messageFlow.getReceiver().getName(), messageFlow.getReceiver().getSubjectModelType(),
+        messageFlow.getSender().getSubjectModelType(),
+        messageFlow.getBusinessObjectModels().stream()
+            .map(ProcessModelGraphCompiler::toBusinessObjectNode).collect(Collectors.toList()));
+  }
+
+  private static PermissionNode toPermissionNode(final BusinessObjectFieldPermission permission) {
+    return new PermissionNode(permission.getPermission(), permission.isMandatory());
+  }
+}
@@ -0,0 +1,31 @@
+package at.fhjoanneum.ippr.processengine.services;
+
+import java.util.List;
+
+import at.fhjoanneum.ippr.commons.dto.processengine.TaskDTO;
+import at.fhjoanneum.ippr.persistence.objects.engine.state.SubjectState;
+
+/**
+ * Maintains the task inbox of each user in the USER_TASK table and notifies the user actors about
+ * changes after commit
+ */
+public interface UserInboxService {
+
+  /**
+   * Must be called after each transition of the subject state
+   */
+  public void update(SubjectState subjectState);
+
+  /**
+   * Must be called after the user of the subject was changed, moves the task from the inbox of the
+   * previous user
+   */
+  public void reassign(SubjectState subjectState, Long previousUserId);
+
+  /**
+   * Removes all tasks of the process instance, e.g. if it is finished or stopped
+   */
+  public void removeProcess(Long piId);
+
+  public List<TaskDTO> getTasksOfUser(Long userId);
+}
@@ -0,0 +1,132 @@
+package at.fhjoanneum.ippr.processengine.services;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import akka.actor.ActorRef;
+import at.fhjoanneum.ippr.commons.dto.processengine.TaskDTO;
+import at.fhjoanneum.ippr.persistence.entities.engine.enums.SubjectSubState;
+import at.fhjoanneum.ippr.persistence.entities.engine.task.UserTaskBuilder;
+import at.fhjoanneum.ippr.persistence.entities.engine.task.UserTaskImpl;
+import at.fhjoanneum.ippr.persistence.objects.engine.enums.ProcessInstanceState;
+import at.fhjoanneum.ippr.persistence.objects.engine.state.SubjectState;
+import at.fhjoanneum.ippr.persistence.objects.engine.task.UserTask;
+import at.fhjoanneum.ippr.persistence.objects.model.enums.StateEventType;
+import at.fhjoanneum.ippr.persistence.objects.model.state.State;
+import at.fhjoanneum.ippr.processengine.akka.messages.process.info.UserInboxMessage;
+import at.fhjoanneum.ippr.processengine.repositories.UserTaskRepository;
+
+@Service
+@Transactional
+public class UserInboxServiceImpl implements UserInboxService {
+
+  private final static Logger LOG = LoggerFactory.getLogger(UserInboxServiceImpl.class);
+
+  @Autowired
+  private UserTaskRepository userTaskRepository;
+
+  @Autowired
+  private ActorRef userSupervisorActor;
+
+  @Override
+  public void update(final SubjectState subjectState) {
+    // a transition does not change the user of the subject
+    update(subjectState, subjectState.getSubject().getUser());
+  }
+
+  @Override
+  public void reassign(final SubjectState subjectState, final Long previousUserId) {
+    update(subjectState, previousUserId);
+  }
+
+  private void update(final SubjectState subjectState, final Long previousUserId) {
+    final Long userId = subjectState.getSubject().getUser();
+    if (userId == null || subjectState.getSsId() == null) {
+      return;
+    }
+
+    if (isTask(subjectState)) {
+      final UserTask task = new UserTaskBuilder().subjectState(subjectState).build();
+      userTaskRepository.save((UserTaskImpl) task);
+      LOG.debug("Updated inbox of user [{}] with task: {}", userId, task);
+      if (previousUserId != null && !previousUserId.equals(userId)) {
+        LOG.debug("Removed SS_ID [{}] from inbox of user [{}]", subjectState.getSsId(),
+            previousUserId);
+        notifyAfterCommit(new UserInboxMessage.Remove(previousUserId, subjectState.getSsId()));
+      }
+      notifyAfterCommit(new UserInboxMessage.Upsert(userId, toTaskDTO(task)));
+    } else if (userTaskRepository.deleteUserTask(subjectState.getSsId()) > 0
+        && previousUserId != null) {
+      LOG.debug("Removed SS_ID [{}] from inbox of user [{}]", subjectState.getSsId(),
+          previousUserId);
+      notifyAfterCommit(new UserInboxMessage.Remove(previousUserId, subjectState.getSsId()));
+    }
+  }
+
+  @Override
+  public void removeProcess(final Long piId) {
+    final List<UserTaskImpl> tasks = userTaskRepository.getUserTasksOfProcess(piId);
+    if (tasks.isEmpty()) {
+      return;
+    }
+
+    userTaskRepository.deleteUserTasksOfProcess(piId);
+    LOG.debug("Removed [{}] tasks of PI_ID [{}] from inboxes", tasks.size(), piId);
+    tasks.forEach(
+        task -> notifyAfterCommit(new UserInboxMessage.Remove(task.getUserId(), task.getSsId())));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<TaskDTO> getTasksOfUser(final Long userId) {
+    return userTaskRepository.getUserTasksOfUser(userId).stream().map(this::toTaskDTO)
+        .collect(Collectors.toList());
+  }
+
+  private boolean isTask(final SubjectState subjectState) {
+    final State state = subjectState.getCurrentState();
+    if (!ProcessInstanceState.ACTIVE.equals(subjectState.getProcessInstance().getState())
+        || StateEventType.END.equals(state.getEventType())) {
+      return false;
+    }
+
+    switch (state.getFunctionType()) {
+      case FUNCTION:
+        return true;
+      case SEND:
+        return SubjectSubState.TO_SEND.equals(subjectState.getSubState());
+      case RECEIVE:
+        return SubjectSubState.RECEIVED.equals(subjectState.getSubState());
+      default:
+        return false;
+    }
+  }
+
+  private TaskDTO toTaskDTO(final UserTask task) {
+    return new TaskDTO(task.getPiId(), task.getProcessName(), task.getSsId(), task.getStateName(),
+        task.getFunctionType(), task.getLastChanged());
+  }
+
+  private void notifyAfterCommit(final UserInboxMessage.Change change) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      userSupervisorActor.tell(change, ActorRef.noSender());
+      return;
+    }
+
+    TransactionSynchronizationManager
+        .registerSynchronization(new TransactionSynchronizationAdapter() {
+          @Override
+          public void afterCommit() {
+            userSupervisorActor.tell(change, ActorRef.noSender());
+          }
+        });
+  }
+}
@@ -0,0 +1,54 @@
+package at.fhjoanneum.ippr.processengine.startup;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Progress of the start up recovery, e.g. <code>startup.recovery.processes.recovered</code>
+ */
+@Component
+public class StartUpProgress implements PublicMetrics {
+
+  private final AtomicLong processesTotal = new AtomicLong();
+  private final AtomicLong processesRecovered = new AtomicLong();
+  private final AtomicLong usersRecovered = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicBoolean finished = new AtomicBoolean();
+
+  void start(final long processes) {
+    processesTotal.set(processes);
+  }
+
+  void processRecovered() {
+    processesRecovered.incrementAndGet();
+  }
+
+  void userRecovered() {
+    usersRecovered.incrementAndGet();
+  }
+
+  void failed() {
+    failed.incrementAndGet();
+  }
+
+  void finish() {
+    finished.set(true);
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    return Lists.newArrayList(
+        new Metric<>("startup.recovery.processes.total", processesTotal.get()),
+        new Metric<>("startup.recovery.processes.recovered", processesRecovered.get()),
+        new Metric<>("startup.recovery.users.recovered", usersRecovered.get()),
+        new Metric<>("startup.recovery.failed", failed.get()),
+        new Metric<>("startup.recovery.finished", finished.get() ? 1 : 0));
+  }
+}
@@ -1,35 +1,30 @@
 package at.fhjoanneum.ippr.processengine.startup;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
-
-import javax.transaction.Transactional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
 
 import akka.actor.ActorRef;
 import akka.pattern.PatternsCS;
 import at.fhjoanneum.ippr.persistence.objects.engine.enums.ProcessInstanceState;
-import at.fhjoanneum.ippr.persistence.objects.engine.process.ProcessInstance;
-import at.fhjoanneum.ippr.persistence.objects.engine.state.SubjectState;
-import at.fhjoanneum.ippr.persistence.objects.engine.subject.Subject;
 import at.fhjoanneum.ippr.processengine.akka.config.Global;
-import at.fhjoanneum.ippr.processengine.akka.messages.process.timeout.TimeoutScheduleStartMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.wakeup.ProcessWakeUpMessage;
 import at.fhjoanneum.ippr.processengine.akka.messages.process.wakeup.UserActorWakeUpMessage;
+import at.fhjoanneum.ippr.processengine.repositories.CustomTypesQueriesRepository;
 import at.fhjoanneum.ippr.processengine.repositories.ProcessInstanceRepository;
-import at.fhjoanneum.ippr.processengine.repositories.SubjectStateRepository;
 
 @Service
 public class StartUpRunner implements ApplicationRunner {
@@ -40,7 +35,7 @@ public class StartUpRunner implements ApplicationRunner {
   private ProcessInstanceRepository processInstanceRepository;
 
   @Autowired
-  private SubjectStateRepository subjectStateRepository;
+  private CustomTypesQueriesRepository customTypesQueriesRepository;
 
   @Autowired
   private ActorRef processSupervisorActor;
@@ -48,74 +43,98 @@ public class StartUpRunner implements ApplicationRunner {
   @Autowired
   private ActorRef userSupervisorActor;
 
-  final List<CompletableFuture<Object>> futures = Lists.newArrayList();
+  @Autowired
+  private ActorRef timeoutWheelActor;
+
+  @Autowired
+  private StartUpProgress progress;
+
+  @Value("${startup.wakeup.eager:true}")
+  private boolean eagerWakeUp;
+
+  @Value("${startup.recovery.page-size:500}")
+  private int pageSize;
+
+  @Value("${startup.recovery.parallelism:16}")
+  private int parallelism;
 
   @Async
-  @Transactional
   @Override
   public void run(final ApplicationArguments args) throws Exception {
     LOG.info(
         "##################################################################################################################");
     LOG.info("Start up of already running processes and users");
 
-    final List<ProcessInstance> processes = Lists.newArrayList(
-        processInstanceRepository.getProcessesWithState(ProcessInstanceState.ACTIVE.name()));
-
-    processes.stream()
-        .map(process -> PatternsCS.ask(processSupervisorActor,
-            new ProcessWakeUpMessage.Request(process.getPiId()), Global.TIMEOUT)
-            .toCompletableFuture())
-        .forEachOrdered(response -> {
-          futures.add(response);
-          handleProcessResponse(response);
-        });
-
-    final Set<Subject> subjects =
-        processes.stream().map(ProcessInstance::getSubjects).flatMap(List::stream)
-            .filter(subject -> subject.getUser() != null).collect(Collectors.toSet());
-
-    subjects.stream()
-        .map(subject -> PatternsCS.ask(userSupervisorActor,
-            new UserActorWakeUpMessage.Request(subject.getUser()), Global.TIMEOUT)
-            .toCompletableFuture())
-        .forEachOrdered(response -> {
-          futures.add(response);
-          handleUserResponse(response);
-        });
-
-    CompletableFuture.allOf(Iterables.toArray(futures, CompletableFuture.class)).thenRun(() -> {
-      final List<SubjectState> subjectStatesWithTimeout =
-          subjectStateRepository.getSubjectStatesWithTimeout();
-      subjectStatesWithTimeout.stream().forEach(this::notifyTimeoutScheduler);
-    });
-  }
+    // timeouts started before TIMEOUT_DUE_AT existed, the wheel has already loaded its window
+    customTypesQueriesRepository.migrateTimeoutActors()
+        .forEach(timeout -> timeoutWheelActor.tell(timeout, ActorRef.noSender()));
+
+    // the user inboxes are already rebuilt by UserInboxRebuild, before any actor was created
+
+    if (!eagerWakeUp) {
+      LOG.info("Eager wake up is disabled, actors are activated by their first message");
+      progress.finish();
+      return;
+    }
+
+    progress.start(
+        processInstanceRepository.getAmountOfProcessesInState(ProcessInstanceState.ACTIVE.name()));
+
+    // bounds the amount of outstanding wake up asks
+    final Semaphore inFlight = new Semaphore(parallelism);
+    final Set<Long> users = new HashSet<>();
+
+    Long afterPiId = 0L;
+    List<Long> piIds;
+    while (!(piIds = customTypesQueriesRepository.getActiveProcessIds(afterPiId, pageSize))
+        .isEmpty()) {
+      for (final Long piId : piIds) {
+        inFlight.acquire();
+        handleProcessResponse(PatternsCS.ask(processSupervisorActor,
+            new ProcessWakeUpMessage.Request(piId), Global.TIMEOUT), inFlight);
+      }
 
+      for (final Long userId : customTypesQueriesRepository.getUsersOfProcesses(piIds)) {
+        if (users.add(userId)) {
+          inFlight.acquire();
+          handleUserResponse(PatternsCS.ask(userSupervisorActor,
+              new UserActorWakeUpMessage.Request(userId), Global.TIMEOUT), inFlight);
+        }
+      }
+      afterPiId = Iterables.getLast(piIds);
+    }
 
+    inFlight.acquire(parallelism);
+    progress.finish();
+    LOG.info("Start up recovery finished for [{}] users", users.size());
+  }
 
-  private void handleProcessResponse(final CompletableFuture<Object> future) {
+  private void handleProcessResponse(final CompletionStage<Object> future,
+      final Semaphore inFlight) {
     future.whenComplete((resp, exc) -> {
+      inFlight.release();
       if (exc != null) {
-        LOG.error("Could not wake up process due to: {}", exc.getCause().getMessage());
+        progress.failed();
+        LOG.error("Could not wake up process due to: {}", exc.getMessage());
       } else {
-        LOG.info("Process PI_ID [{}] is waked up",
+        progress.processRecovered();
+        LOG.debug("Process PI_ID [{}] is waked up",
             ((ProcessWakeUpMessage.Response) resp).getPiId());
       }
     });
   }
 
-  private void handleUserResponse(final CompletableFuture<Object> future) {
+  private void handleUserResponse(final CompletionStage<Object> future,
+      final Semaphore inFlight) {
     future.whenComplete((resp, exc) -> {
+      inFlight.release();
       if (exc != null) {
-        LOG.error("Could not wake up user due to: {}", exc.getCause().getMessage());
+        progress.failed();
+        LOG.error("Could not wake up user due to: {}", exc.getMessage());
       } else {
-        LOG.info("User [{}] is waked up", ((UserActorWakeUpMessage.Request) resp).getUserId());
+        progress.userRecovered();
+        LOG.debug("User [{}] is waked up", ((UserActorWakeUpMessage.Request) resp).getUserId());
       }
     });
   }
-
-  private void notifyTimeoutScheduler(final SubjectState subjectState) {
-    LOG.debug("Notify timeout scheduler for [{}]", subjectState);
-    userSupervisorActor.tell(new TimeoutScheduleStartMessage(subjectState.getSubject().getUser(),
-        subjectState.getSsId(), subjectState.getTimeoutActor()), ActorRef.noSender());
-  }
 }
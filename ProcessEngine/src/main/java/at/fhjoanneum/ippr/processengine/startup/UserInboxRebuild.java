@@ -0,0 +1,37 @@
+package at.fhjoanneum.ippr.processengine.startup;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import at.fhjoanneum.ippr.processengine.repositories.CustomTypesQueriesRepository;
+
+/**
+ * Rebuilds the user inboxes before the actor system is created, so that no transition can change
+ * USER_TASK while it is rebuilt and the user actors load a consistent inbox.
+ */
+@Component(UserInboxRebuild.NAME)
+public class UserInboxRebuild {
+
+  public final static String NAME = "userInboxRebuild";
+
+  private final static Logger LOG = LoggerFactory.getLogger(UserInboxRebuild.class);
+
+  @Autowired
+  private CustomTypesQueriesRepository customTypesQueriesRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @PostConstruct
+  private void rebuild() {
+    final Integer userTasks = new TransactionTemplate(transactionManager)
+        .execute(status -> customTypesQueriesRepository.rebuildUserTasks());
+    LOG.info("Rebuilt user inboxes with [{}] tasks", userTasks);
+  }
+}
@@ -0,0 +1,98 @@
+package at.fhjoanneum.ippr.processengine.akka.actors.timeout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TimingWheelTest {
+
+  private static final long STARTED_AT = 1000;
+  private static final long TICK = 1000;
+  private static final int SIZE = 8;
+
+  private TimingWheel<String> wheel;
+
+  @Before
+  public void setUp() {
+    wheel = new TimingWheel<>(STARTED_AT, TICK, SIZE);
+  }
+
+  @Test
+  public void expiresWhenTheRoundedUpDeadlineTickIsReached() {
+    wheel.add(1L, "a", at(2.5));
+
+    assertThat(wheel.advance(at(2.9))).isEmpty();
+    assertThat(wheel.advance(at(3))).containsExactly("a");
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  public void overdueValueExpiresWithTheNextTick() {
+    wheel.advance(at(4));
+    wheel.add(1L, "a", at(-10));
+
+    assertThat(wheel.advance(at(4.9))).isEmpty();
+    assertThat(wheel.advance(at(5))).containsExactly("a");
+  }
+
+  @Test
+  public void valueOfALaterRevolutionStaysInItsSlot() {
+    // tick 10 shares slot 2 with tick 2
+    wheel.add(1L, "a", at(10));
+
+    assertThat(wheel.advance(at(2))).isEmpty();
+    assertThat(wheel.advance(at(9))).isEmpty();
+    assertThat(wheel.advance(at(10))).containsExactly("a");
+  }
+
+  @Test
+  public void delayedTicksExpireAllSlotsOnce() {
+    for (long tick = 1; tick <= SIZE; tick++) {
+      wheel.add(tick, "t" + tick, at(tick));
+    }
+
+    assertThat(wheel.advance(at(3 * SIZE))).hasSize(SIZE);
+    assertThat(wheel.size()).isZero();
+    assertThat(wheel.getCurrentTick()).isEqualTo(3 * SIZE);
+  }
+
+  @Test
+  public void cancelledValueDoesNotExpire() {
+    wheel.add(1L, "a", at(2));
+
+    assertThat(wheel.cancel(1L)).isTrue();
+    assertThat(wheel.cancel(1L)).isFalse();
+    assertThat(wheel.advance(at(SIZE))).isEmpty();
+  }
+
+  @Test
+  public void addReplacesTheValueWithTheSameId() {
+    wheel.add(1L, "a", at(2));
+    wheel.add(1L, "b", at(5));
+
+    assertThat(wheel.advance(at(2))).isEmpty();
+    assertThat(wheel.advance(at(5))).containsExactly("b");
+  }
+
+  @Test
+  public void advanceToAnEarlierTimeDoesNotMoveTheWheel() {
+    wheel.add(1L, "a", at(3));
+    wheel.advance(at(2));
+
+    assertThat(wheel.advance(at(1))).isEmpty();
+    assertThat(wheel.getCurrentTick()).isEqualTo(2);
+  }
+
+  @Test
+  public void revolutionEndFollowsTheCurrentTick() {
+    assertThat(wheel.getRevolutionEnd()).isEqualTo(at(SIZE));
+
+    wheel.advance(at(3));
+    assertThat(wheel.getRevolutionEnd()).isEqualTo(at(3 + SIZE));
+  }
+
+  private static long at(final double tick) {
+    return STARTED_AT + (long) (tick * TICK);
+  }
+}
@@ -0,0 +1,13 @@
+package at.fhjoanneum.ippr.pmstorage.feign;
+
+import org.springframework.cloud.netflix.feign.FeignClient;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+@FeignClient("process-engine")
+public interface ProcessEngineClient {
+
+  @RequestMapping(value = "processmodel/{pmId}/evict", method = RequestMethod.POST)
+  void evictProcessModel(@PathVariable("pmId") final Long pmId);
+}
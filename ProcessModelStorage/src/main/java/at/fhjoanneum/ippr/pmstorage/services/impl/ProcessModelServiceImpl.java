@@ -11,6 +11,7 @@ import at.fhjoanneum.ippr.persistence.objects.model.enums.FieldType;
 import at.fhjoanneum.ippr.persistence.objects.model.enums.ProcessModelState;
 import at.fhjoanneum.ippr.persistence.objects.model.process.ProcessModel;
 import at.fhjoanneum.ippr.persistence.objects.model.subject.SubjectModel;
+import at.fhjoanneum.ippr.pmstorage.feign.ProcessEngineClient;
 import at.fhjoanneum.ippr.pmstorage.repositories.ProcessModelRepository;
 import at.fhjoanneum.ippr.pmstorage.services.ProcessModelService;
 import com.google.common.collect.Lists;
@@ -40,6 +41,9 @@ public class ProcessModelServiceImpl implements ProcessModelService {
   @Autowired
   private ProcessModelRepository processModelRepository;
 
+  @Autowired
+  private ProcessEngineClient processEngineClient;
+
   @Override
   @Async
   public Future<List<ProcessModelDTO>> findActiveProcessModels(final Pageable pageable) {
@@ -105,6 +109,12 @@ public class ProcessModelServiceImpl implements ProcessModelService {
     if (processModel.isPresent()) {
       processModel.get().setState(ProcessModelState.INACTIVE);
       LOG.info("Disabled [{}]", processModel.get());
+
+      try {
+        processEngineClient.evictProcessModel(pmId);
+      } catch (final Exception e) {
+        LOG.warn("Could not evict PM_ID [{}] in process engine: {}", pmId, e.getMessage());
+      }
     }
   }
 
@@ -0,0 +1,4 @@
+-- Timeouts are scheduled by TIMEOUT_DUE_AT instead of a TIMEOUT_ACTOR per subject state.
+-- Execute after the ProcessEngine was started once with TIMEOUT_DUE_AT, which migrates
+-- the started timeouts and clears TIMEOUT_ACTOR.
+ALTER TABLE ippr.SUBJECT_STATE DROP COLUMN timeout_actor;
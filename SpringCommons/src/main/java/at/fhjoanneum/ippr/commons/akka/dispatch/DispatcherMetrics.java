@@ -0,0 +1,52 @@
+package at.fhjoanneum.ippr.commons.akka.dispatch;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import com.google.common.collect.Lists;
+
+import scala.concurrent.forkjoin.ForkJoinPool;
+
+/**
+ * Exposes queue depth and active threads of the instrumented akka dispatchers, e.g.
+ * <code>akka.dispatcher.ippr.blocking-dispatcher.queued</code>
+ * <p>
+ * The fork-join-executor of akka runs on the scala {@link ForkJoinPool}, not on the one of the JDK.
+ */
+public class DispatcherMetrics implements PublicMetrics {
+
+  private final static Map<String, ExecutorService> EXECUTORS = new ConcurrentHashMap<>();
+
+  static ExecutorService register(final String dispatcherId, final ExecutorService executor) {
+    EXECUTORS.put(dispatcherId, executor);
+    return executor;
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    final List<Metric<?>> metrics = Lists.newArrayList();
+    EXECUTORS.forEach((id, executor) -> {
+      final String prefix = "akka.dispatcher." + id;
+      if (executor instanceof ThreadPoolExecutor) {
+        final ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+        metrics.add(new Metric<>(prefix + ".queued", pool.getQueue().size()));
+        metrics.add(new Metric<>(prefix + ".active", pool.getActiveCount()));
+        metrics.add(new Metric<>(prefix + ".threads", pool.getPoolSize()));
+      } else if (executor instanceof ForkJoinPool) {
+        final ForkJoinPool pool = (ForkJoinPool) executor;
+        metrics.add(new Metric<>(prefix + ".queued",
+            pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount()));
+        metrics.add(new Metric<>(prefix + ".active", pool.getActiveThreadCount()));
+        metrics.add(new Metric<>(prefix + ".threads", pool.getPoolSize()));
+      }
+    });
+    return metrics;
+  }
+}
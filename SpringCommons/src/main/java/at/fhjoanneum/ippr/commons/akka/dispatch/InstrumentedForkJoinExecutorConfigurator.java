@@ -0,0 +1,32 @@
+package at.fhjoanneum.ippr.commons.akka.dispatch;
+
+import java.util.concurrent.ThreadFactory;
+
+import com.typesafe.config.Config;
+
+import akka.dispatch.DispatcherPrerequisites;
+import akka.dispatch.ExecutorServiceConfigurator;
+import akka.dispatch.ExecutorServiceFactory;
+import akka.dispatch.ForkJoinExecutorConfigurator;
+
+/**
+ * fork-join-executor which registers its executor at {@link DispatcherMetrics}
+ */
+public class InstrumentedForkJoinExecutorConfigurator extends ExecutorServiceConfigurator {
+
+  private final ForkJoinExecutorConfigurator delegate;
+
+  public InstrumentedForkJoinExecutorConfigurator(final Config config,
+      final DispatcherPrerequisites prerequisites) {
+    super(config, prerequisites);
+    this.delegate =
+        new ForkJoinExecutorConfigurator(config.getConfig("fork-join-executor"), prerequisites);
+  }
+
+  @Override
+  public ExecutorServiceFactory createExecutorServiceFactory(final String id,
+      final ThreadFactory threadFactory) {
+    final ExecutorServiceFactory factory = delegate.createExecutorServiceFactory(id, threadFactory);
+    return () -> DispatcherMetrics.register(id, factory.createExecutorService());
+  }
+}
@@ -0,0 +1,27 @@
+package at.fhjoanneum.ippr.commons.akka.dispatch;
+
+import java.util.concurrent.ThreadFactory;
+
+import com.typesafe.config.Config;
+
+import akka.dispatch.DispatcherPrerequisites;
+import akka.dispatch.ExecutorServiceFactory;
+import akka.dispatch.ThreadPoolExecutorConfigurator;
+
+/**
+ * thread-pool-executor which registers its executor at {@link DispatcherMetrics}
+ */
+public class InstrumentedThreadPoolExecutorConfigurator extends ThreadPoolExecutorConfigurator {
+
+  public InstrumentedThreadPoolExecutorConfigurator(final Config config,
+      final DispatcherPrerequisites prerequisites) {
+    super(config.getConfig("thread-pool-executor"), prerequisites);
+  }
+
+  @Override
+  public ExecutorServiceFactory createExecutorServiceFactory(final String id,
+      final ThreadFactory threadFactory) {
+    final ExecutorServiceFactory factory = super.createExecutorServiceFactory(id, threadFactory);
+    return () -> DispatcherMetrics.register(id, factory.createExecutorService());
+  }
+}
@@ -10,6 +10,7 @@ public class EventLoggerDTO implements Serializable {
   private Long caseId;
   private Long processModelId;
   private String timestamp;
+  private Long epochMillis;
   private String activity;
   private String resource;
   private String state;
@@ -76,6 +77,14 @@ public class EventLoggerDTO implements Serializable {
     this.timestamp = timestamp;
   }
 
+  public Long getEpochMillis() {
+    return epochMillis;
+  }
+
+  public void setEpochMillis(final Long epochMillis) {
+    this.epochMillis = epochMillis;
+  }
+
   public String getActivity() {
     return activity;
   }
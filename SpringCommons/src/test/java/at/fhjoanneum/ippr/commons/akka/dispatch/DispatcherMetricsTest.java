@@ -0,0 +1,91 @@
+package at.fhjoanneum.ippr.commons.akka.dispatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import com.typesafe.config.ConfigFactory;
+
+import akka.actor.ActorSystem;
+import akka.dispatch.MessageDispatcher;
+
+public class DispatcherMetricsTest {
+
+  private static final String CONFIG = "fork-join-dispatcher {\n" //
+      + "  type = Dispatcher\n" //
+      + "  executor = \"" + InstrumentedForkJoinExecutorConfigurator.class.getName() + "\"\n"
+      + "  fork-join-executor { parallelism-min = 2, parallelism-max = 2 }\n" //
+      + "}\n" //
+      + "thread-pool-dispatcher {\n" //
+      + "  type = Dispatcher\n" //
+      + "  executor = \"" + InstrumentedThreadPoolExecutorConfigurator.class.getName() + "\"\n"
+      + "  thread-pool-executor { fixed-pool-size = 2 }\n" //
+      + "}";
+
+  private ActorSystem actorSystem;
+
+  private final CountDownLatch started = new CountDownLatch(2);
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @Before
+  public void setUp() {
+    actorSystem = ActorSystem.create("DispatcherMetricsTest", ConfigFactory.parseString(CONFIG));
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    actorSystem.terminate();
+  }
+
+  @Test
+  public void forkJoinDispatcherReportsBusyAndQueuedTasks() throws Exception {
+    occupy("fork-join-dispatcher");
+
+    final Map<String, Number> metrics = metrics();
+    assertThat(metrics).containsEntry("akka.dispatcher.fork-join-dispatcher.active", 2)
+        .containsEntry("akka.dispatcher.fork-join-dispatcher.threads", 2)
+        .containsEntry("akka.dispatcher.fork-join-dispatcher.queued", 1L);
+  }
+
+  @Test
+  public void threadPoolDispatcherReportsBusyAndQueuedTasks() throws Exception {
+    occupy("thread-pool-dispatcher");
+
+    final Map<String, Number> metrics = metrics();
+    assertThat(metrics).containsEntry("akka.dispatcher.thread-pool-dispatcher.active", 2)
+        .containsEntry("akka.dispatcher.thread-pool-dispatcher.threads", 2)
+        .containsEntry("akka.dispatcher.thread-pool-dispatcher.queued", 1);
+  }
+
+  /**
+   * Blocks both threads of the dispatcher and queues a third task behind them
+   */
+  private void occupy(final String dispatcherId) throws InterruptedException {
+    final MessageDispatcher dispatcher = actorSystem.dispatchers().lookup(dispatcherId);
+    for (int i = 0; i < 3; i++) {
+      dispatcher.execute(() -> {
+        started.countDown();
+        try {
+          release.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+    }
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  private static Map<String, Number> metrics() {
+    return new DispatcherMetrics().metrics().stream()
+        .collect(Collectors.toMap(Metric::getName, Metric::getValue));
+  }
+}